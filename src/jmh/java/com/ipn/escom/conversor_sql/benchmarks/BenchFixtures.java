@@ -0,0 +1,95 @@
+package com.ipn.escom.conversor_sql.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.ipn.escom.conversor_sql.models.Column;
+import com.ipn.escom.conversor_sql.models.ForeignKeyInfo;
+import com.ipn.escom.conversor_sql.models.RelationalTable;
+
+/**
+ * Esquemas y consultas sintéticos para los benchmarks.
+ * <p>
+ * Esquema: tablas {@code t0..tN-1}, cada una con {@code id} (PK),
+ * {@code parent_id} (FK a la tabla anterior) y {@code c2..c19}; las columnas
+ * pares son {@code decimal(12,2)} y las impares {@code varchar(40)}. Las
+ * consultas solo usan {@code t0..t7}, así que sirven para cualquier tamaño.
+ */
+public final class BenchFixtures {
+	private BenchFixtures() {
+	}
+
+	static final int COLUMNS_PER_TABLE = 20;
+
+	/** Formas de consulta que cubren las ramas principales del pipeline. */
+	public enum Shape {
+		/** 8 tablas encadenadas con JOIN ... ON y un WHERE simple. */
+		JOINS,
+		/** UNION / INTERSECT / EXCEPT sobre cuatro SELECT. */
+		SET_OPS,
+		/** IN (subconsulta) y EXISTS correlacionado. */
+		IN_EXISTS,
+		/** WHERE con 128 comparaciones en un árbol AND/OR balanceado (profundidad 7). */
+		DEEP_BOOLEAN,
+		/** 16 SELECT encadenados con UNION/EXCEPT (árbol relacional de profundidad 15). */
+		DEEP_SET_OPS
+	}
+
+	static List<RelationalTable> schema(int tables) {
+		List<RelationalTable> out = new ArrayList<>(tables);
+		for (int t = 0; t < tables; t++) {
+			List<Column> cols = new ArrayList<>(COLUMNS_PER_TABLE);
+			cols.add(new Column("id", "int", true, null));
+			cols.add(new Column("parent_id", "int", null,
+					(t > 0) ? new ForeignKeyInfo("t" + (t - 1), "id") : null));
+			for (int c = 2; c < COLUMNS_PER_TABLE; c++)
+				cols.add(new Column("c" + c, (c % 2 == 0) ? "decimal(12,2)" : "varchar(40)", null, null));
+			out.add(new RelationalTable("t" + t, cols));
+		}
+		return out;
+	}
+
+	static String query(Shape shape) {
+		return switch (shape) {
+		case JOINS -> {
+			StringBuilder sb = new StringBuilder("SELECT t0.c2, t3.c5, t7.c9 FROM t0");
+			for (int i = 1; i < 8; i++)
+				sb.append(" JOIN t").append(i).append(" ON t").append(i).append(".parent_id = t").append(i - 1)
+						.append(".id");
+			yield sb.append(" WHERE t3.c4 > 10 AND t5.c3 = 'x'").toString();
+		}
+		case SET_OPS -> "SELECT t0.id FROM t0 WHERE t0.c2 > 1"
+				+ " UNION SELECT t1.id FROM t1 WHERE t1.c3 = 'a'"
+				+ " INTERSECT SELECT t2.id FROM t2"
+				+ " EXCEPT SELECT t3.id FROM t3 WHERE t3.c4 < 100";
+		case IN_EXISTS -> "SELECT t0.c3 FROM t0"
+				+ " WHERE t0.id IN (SELECT t1.parent_id FROM t1 WHERE t1.c2 > 3)"
+				+ " AND EXISTS (SELECT t2.id FROM t2 WHERE t2.parent_id = t0.id AND t2.c5 = 'z')";
+		case DEEP_BOOLEAN -> "SELECT t0.id FROM t0 WHERE " + predicate(7, 0);
+		case DEEP_SET_OPS -> setOpChain(16);
+		};
+	}
+
+	private static String setOpChain(int selects) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < selects; i++) {
+			if (i > 0)
+				sb.append((i % 2 == 1) ? " UNION " : " EXCEPT ");
+			int t = i % 8;
+			sb.append("SELECT t").append(t).append(".id FROM t").append(t).append(" WHERE t").append(t)
+					.append(".c2 > ").append(i);
+		}
+		return sb.toString();
+	}
+
+	/** Árbol balanceado: AND en niveles pares, OR en impares; hojas sobre c2..c19. */
+	private static String predicate(int depth, int leaf) {
+		if (depth == 0) {
+			int c = 2 + (leaf % (COLUMNS_PER_TABLE - 2));
+			return (c % 2 == 0) ? "t0.c" + c + " > " + leaf : "t0.c" + c + " = 'v" + leaf + "'";
+		}
+		String op = (depth % 2 == 0) ? " AND " : " OR ";
+		int half = 1 << (depth - 1);
+		return "(" + predicate(depth - 1, leaf) + op + predicate(depth - 1, leaf + half) + ")";
+	}
+}
@@ -0,0 +1,111 @@
+package com.ipn.escom.conversor_sql.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ipn.escom.conversor_sql.ar.ArPrinter;
+import com.ipn.escom.conversor_sql.ar.relacionales.ArRel;
+import com.ipn.escom.conversor_sql.conversion.CoreToAr;
+import com.ipn.escom.conversor_sql.conversion.SqlToCoreBuilder;
+import com.ipn.escom.conversor_sql.conversion.SqlToCoreNormalizer;
+import com.ipn.escom.conversor_sql.core.CoreInvariants;
+import com.ipn.escom.conversor_sql.core.SchemaGuards;
+import com.ipn.escom.conversor_sql.core.relacionales.CoreRel;
+import com.ipn.escom.conversor_sql.validation.ValidationResult;
+import com.ipn.escom.conversor_sql.validation.schema.SchemaBuilder;
+import com.ipn.escom.conversor_sql.validation.schema.SchemaIndex;
+
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.statement.Statement;
+
+/**
+ * Cada etapa del pipeline por separado, con la entrada de la etapa ya
+ * calculada en el setup: así una regresión se ve en la etapa que la causó.
+ * Las etapas se llaman directamente (sin las cachés de
+ * {@link com.ipn.escom.conversor_sql.conversion.ConversionPipeline}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PipelineBenchmark {
+
+	@Param({ "JOINS", "SET_OPS", "IN_EXISTS", "DEEP_BOOLEAN", "DEEP_SET_OPS" })
+	public BenchFixtures.Shape shape;
+
+	/** Tablas del esquema (de 20 columnas cada una). */
+	@Param({ "8", "300" })
+	public int tables;
+
+	private String sql;
+	private SchemaIndex schema;
+	private Statement statement;
+	private CoreRel raw;
+	private CoreRel core;
+	private ArRel ar;
+
+	@Setup(Level.Trial)
+	public void setup() throws JSQLParserException {
+		schema = SchemaBuilder.build(BenchFixtures.schema(tables));
+		sql = BenchFixtures.query(shape);
+		statement = CCJSqlParserUtil.parse(sql);
+		raw = new SqlToCoreBuilder().build(statement);
+		core = new SqlToCoreNormalizer(schema).normalize(raw);
+		ValidationResult vr = new CoreInvariants(new SchemaGuards(schema)).validate(core);
+		if (!vr.isValido())
+			throw new IllegalStateException("Consulta inválida para el benchmark: " + vr.getMensajes());
+		ar = new CoreToAr().convert(core);
+	}
+
+	@Benchmark
+	public Statement parse() throws JSQLParserException {
+		return CCJSqlParserUtil.parse(sql);
+	}
+
+	@Benchmark
+	public CoreRel build() {
+		return new SqlToCoreBuilder().build(statement);
+	}
+
+	@Benchmark
+	public CoreRel normalize() {
+		return new SqlToCoreNormalizer(schema).normalize(raw);
+	}
+
+	@Benchmark
+	public ValidationResult validate() {
+		return new CoreInvariants(new SchemaGuards(schema)).validate(core);
+	}
+
+	@Benchmark
+	public ArRel toAr() {
+		return new CoreToAr().convert(core);
+	}
+
+	@Benchmark
+	public CoreToAr.Trace toArWithTrace() {
+		CoreToAr.Trace trace = new CoreToAr.Trace();
+		new CoreToAr().convert(core, trace);
+		return trace;
+	}
+
+	@Benchmark
+	public String print() {
+		return new ArPrinter().print(ar);
+	}
+}
@@ -0,0 +1,166 @@
+package com.ipn.escom.conversor_sql.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Prueba de carga con clientes lentos contra un servidor ya levantado: para
+ * comparar el modo de hilos de plataforma con {@code VIRTUAL_THREADS=true}.
+ * <p>
+ * {@code slow} clientes mandan el cuerpo de {@code POST /api/convert} gota a
+ * gota durante {@code drip} (cada uno ocupa un hilo de Tomcat mientras se lee
+ * el cuerpo); a la vez, {@code fast} peticiones normales, de
+ * {@code concurrency} en {@code concurrency}, miden la latencia que ve un
+ * cliente rápido. Se imprimen los percentiles de ambos grupos y los códigos
+ * de respuesta.
+ * <p>
+ * No es un benchmark JMH (mide al servidor, no a este proceso), pero vive
+ * aquí para reutilizar {@link BenchFixtures} y el perfil:
+ *
+ * <pre>
+ *   mvn -Pjmh compile exec:exec -Djmh.main=com.ipn.escom.conversor_sql.benchmarks.SlowClientLoad \
+ *       -Djmh.args="url=http://localhost:8080 slow=600 drip=PT10S fast=200 concurrency=8"
+ * </pre>
+ *
+ * Cliente y servidor en la misma máquina compiten por los mismos núcleos: el
+ * resultado solo sirve si el servidor tiene CPU propia.
+ */
+public final class SlowClientLoad {
+	private SlowClientLoad() {
+	}
+
+	/** Partes en que se divide el cuerpo de un cliente lento. */
+	private static final int CHUNKS = 20;
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> opts = new TreeMap<>(Map.of("url", "http://localhost:8080", "slow", "600",
+				"drip", "PT10S", "fast", "200", "concurrency", "8", "tables", "8"));
+		for (String arg : args) {
+			int eq = arg.indexOf('=');
+			if (eq <= 0 || !opts.containsKey(arg.substring(0, eq)))
+				throw new IllegalArgumentException("Argumento no reconocido: " + arg + " (opciones: " + opts.keySet() + ")");
+			opts.put(arg.substring(0, eq), arg.substring(eq + 1));
+		}
+		URI uri = URI.create(opts.get("url") + "/api/convert");
+		int slow = Integer.parseInt(opts.get("slow"));
+		Duration drip = Duration.parse(opts.get("drip"));
+		int fast = Integer.parseInt(opts.get("fast"));
+		int concurrency = Integer.parseInt(opts.get("concurrency"));
+		byte[] body = new ObjectMapper().writeValueAsBytes(Map.of("tables",
+				BenchFixtures.schema(Integer.parseInt(opts.get("tables"))), "sqlQuery",
+				BenchFixtures.query(BenchFixtures.Shape.JOINS)));
+
+		HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofSeconds(30)).build();
+		Map<Integer, AtomicInteger> codes = new ConcurrentHashMap<>();
+
+		try (ExecutorService slowPool = Executors.newVirtualThreadPerTaskExecutor();
+				ExecutorService fastPool = Executors.newFixedThreadPool(concurrency)) {
+			List<Future<Long>> slowCalls = new ArrayList<>(slow);
+			for (int i = 0; i < slow; i++) {
+				slowCalls.add(slowPool.submit(() -> send(client, HttpRequest.BodyPublishers
+						.ofInputStream(() -> new DripInputStream(body, drip)), uri, codes)));
+			}
+			// Que los lentos ya tengan su conexión abierta antes de medir
+			Thread.sleep(Math.min(1000, drip.toMillis() / 4));
+
+			List<Future<Long>> fastCalls = new ArrayList<>(fast);
+			for (int i = 0; i < fast; i++)
+				fastCalls.add(fastPool.submit(() -> send(client, HttpRequest.BodyPublishers.ofByteArray(body), uri, codes)));
+
+			print("rápidos", fastCalls);
+			print("lentos", slowCalls);
+		}
+		System.out.println("códigos: " + codes);
+	}
+
+	/** Manda la petición y devuelve la latencia en ms (-1 si falló la conexión). */
+	private static long send(HttpClient client, HttpRequest.BodyPublisher publisher, URI uri,
+			Map<Integer, AtomicInteger> codes) {
+		HttpRequest request = HttpRequest.newBuilder(uri).header("Content-Type", "application/json")
+				.timeout(Duration.ofMinutes(5)).POST(publisher).build();
+		long start = System.nanoTime();
+		try {
+			HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+			codes.computeIfAbsent(response.statusCode(), k -> new AtomicInteger()).incrementAndGet();
+			return (System.nanoTime() - start) / 1_000_000;
+		} catch (IOException e) {
+			codes.computeIfAbsent(-1, k -> new AtomicInteger()).incrementAndGet();
+			return -1;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return -1;
+		}
+	}
+
+	private static void print(String name, List<Future<Long>> calls) throws Exception {
+		long[] ms = new long[calls.size()];
+		int n = 0;
+		for (Future<Long> f : calls) {
+			long v = f.get();
+			if (v >= 0)
+				ms[n++] = v;
+		}
+		if (n == 0) {
+			System.out.printf("%-8s sin respuestas (%d fallidas)%n", name, calls.size());
+			return;
+		}
+		long[] ok = Arrays.copyOf(ms, n);
+		Arrays.sort(ok);
+		System.out.printf("%-8s n=%d fallidas=%d p50=%d ms p90=%d ms p99=%d ms max=%d ms%n", name, n,
+				calls.size() - n, ok[n / 2], ok[(int) (n * 0.9)], ok[Math.min(n - 1, (int) (n * 0.99))], ok[n - 1]);
+	}
+
+	/** El cuerpo en {@link #CHUNKS} partes, con una pausa antes de cada una. */
+	private static final class DripInputStream extends InputStream {
+		private final byte[] body;
+		private final long pauseMillis;
+		private final int chunk;
+		private int pos;
+
+		DripInputStream(byte[] body, Duration drip) {
+			this.body = body;
+			this.pauseMillis = drip.toMillis() / CHUNKS;
+			this.chunk = Math.max(1, (body.length + CHUNKS - 1) / CHUNKS);
+		}
+
+		@Override
+		public int read() throws IOException {
+			byte[] one = new byte[1];
+			return (read(one, 0, 1) == -1) ? -1 : one[0] & 0xff;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (pos >= body.length)
+				return -1;
+			try {
+				Thread.sleep(pauseMillis);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("interrumpido", e);
+			}
+			int n = Math.min(Math.min(len, chunk), body.length - pos);
+			System.arraycopy(body, pos, b, off, n);
+			pos += n;
+			return n;
+		}
+	}
+}
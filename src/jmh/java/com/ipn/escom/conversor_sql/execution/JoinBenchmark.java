@@ -0,0 +1,156 @@
+package com.ipn.escom.conversor_sql.execution;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ipn.escom.conversor_sql.ar.expresiones.ArCol;
+import com.ipn.escom.conversor_sql.ar.expresiones.ArConst;
+import com.ipn.escom.conversor_sql.ar.predicados.ArAnd;
+import com.ipn.escom.conversor_sql.ar.predicados.ArCmp;
+import com.ipn.escom.conversor_sql.ar.predicados.ArCmpOp;
+import com.ipn.escom.conversor_sql.ar.predicados.ArPredInterface;
+import com.ipn.escom.conversor_sql.validation.sql.TypeSystem.TypeCategory;
+
+/**
+ * Ciclos anidados, hash y ordenamiento con mezcla para
+ * {@code pedido ⋈[pedido.id_cliente = cliente.id AND pedido.total > 500] cliente}
+ * con {@code rows} pedidos y {@code rows / 10} clientes. Está en el paquete del
+ * ejecutor para construir los operadores directamente. Los ciclos anidados
+ * solo se miden hasta 10 000 pedidos (con 100 000 serían 10^9 pares por
+ * operación). {@code sortMergeLarge} usa un presupuesto de 1 MB, así que
+ * escribe corridas a disco.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JoinBenchmark {
+
+	private static final ExecutionLimits UNLIMITED = new ExecutionLimits(Integer.MAX_VALUE, Long.MAX_VALUE,
+			Duration.ofHours(1), Long.MAX_VALUE);
+	/** Presupuesto chico para forzar el ordenamiento en disco. */
+	private static final ExecutionLimits SPILL = new ExecutionLimits(Integer.MAX_VALUE, Long.MAX_VALUE,
+			Duration.ofHours(1), 1 << 20);
+	private static final Path TMP = Path.of(System.getProperty("java.io.tmpdir"));
+
+	private static final Header PEDIDO = new Header(new String[] { "pedido", "pedido", "pedido" },
+			new String[] { "id", "id_cliente", "total" });
+	private static final Header CLIENTE = new Header(new String[] { "cliente", "cliente", "cliente" },
+			new String[] { "id", "nombre", "ciudad" });
+
+	private static final ArPredInterface ON = new ArAnd(
+			new ArCmp(new ArCol("pedido", "id_cliente"), ArCmpOp.EQ, new ArCol("cliente", "id")),
+			new ArCmp(new ArCol("pedido", "total"), ArCmpOp.GT, new ArConst(new BigDecimal(500))));
+
+	public abstract static class Tables {
+		ColumnarTable pedidos;
+		ColumnarTable clientes;
+
+		void fill(int rows) {
+			Random rnd = new Random(7);
+			int n = Math.max(1, rows / 10);
+			List<Object[]> c = new ArrayList<>(n);
+			for (int i = 0; i < n; i++)
+				c.add(new Object[] { BigDecimal.valueOf(i), "cliente" + i, "ciudad" + (i % 50) });
+			List<Object[]> p = new ArrayList<>(rows);
+			for (int i = 0; i < rows; i++)
+				p.add(new Object[] { BigDecimal.valueOf(i), BigDecimal.valueOf(rnd.nextInt(n)),
+						Values.canonical(BigDecimal.valueOf(rnd.nextInt(100_000), 2)) });
+			clientes = ColumnarTable.of(c,
+					new TypeCategory[] { TypeCategory.NUMERIC, TypeCategory.TEXT, TypeCategory.TEXT });
+			pedidos = ColumnarTable.of(p,
+					new TypeCategory[] { TypeCategory.NUMERIC, TypeCategory.NUMERIC, TypeCategory.NUMERIC });
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class Small extends Tables {
+		@Param({ "1000", "10000" })
+		public int rows;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			fill(rows);
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class Large extends Tables {
+		@Param({ "100000" })
+		public int rows;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			fill(rows);
+		}
+	}
+
+	@Benchmark
+	public int nestedLoop(Small t) {
+		ExecutionContext ctx = new ExecutionContext(UNLIMITED, TMP);
+		RowPredicate on = ExprCompiler.compile(ON, PEDIDO.concat(CLIENTE));
+		return drain(new NestedLoopJoinOperator(new ColumnarScanOperator(PEDIDO, t.pedidos, ctx),
+				new ColumnarScanOperator(CLIENTE, t.clientes, ctx), on, ctx));
+	}
+
+	@Benchmark
+	public int hash(Small t) {
+		return hashJoin(t);
+	}
+
+	@Benchmark
+	public int hashLarge(Large t) {
+		return hashJoin(t);
+	}
+
+	@Benchmark
+	public int sortMergeLarge(Large t) {
+		ExecutionContext ctx = new ExecutionContext(SPILL, TMP);
+		JoinKeys keys = JoinKeys.of(ON, PEDIDO, CLIENTE);
+		try {
+			return drain(new SortMergeJoinOperator(new ColumnarScanOperator(PEDIDO, t.pedidos, ctx),
+					new ColumnarScanOperator(CLIENTE, t.clientes, ctx), keys.left(), keys.right(), keys.residualOrNull(),
+					ctx));
+		} finally {
+			ctx.closeSpills();
+		}
+	}
+
+	private static int hashJoin(Tables t) {
+		ExecutionContext ctx = new ExecutionContext(UNLIMITED, TMP);
+		JoinKeys keys = JoinKeys.of(ON, PEDIDO, CLIENTE);
+		return drain(new HashJoinOperator(new ColumnarScanOperator(PEDIDO, t.pedidos, ctx),
+				new ColumnarScanOperator(CLIENTE, t.clientes, ctx), keys.left(), keys.right(), keys.residualOrNull(), ctx));
+	}
+
+	private static int drain(Operator op) {
+		int n = 0;
+		op.open();
+		try {
+			while (op.next() != null)
+				n++;
+		} finally {
+			op.close();
+		}
+		return n;
+	}
+}
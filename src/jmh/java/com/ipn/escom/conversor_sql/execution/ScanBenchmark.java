@@ -0,0 +1,99 @@
+package com.ipn.escom.conversor_sql.execution;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ipn.escom.conversor_sql.ar.expresiones.ArCol;
+import com.ipn.escom.conversor_sql.ar.expresiones.ArConst;
+import com.ipn.escom.conversor_sql.ar.predicados.ArAnd;
+import com.ipn.escom.conversor_sql.ar.predicados.ArCmp;
+import com.ipn.escom.conversor_sql.ar.predicados.ArCmpOp;
+import com.ipn.escom.conversor_sql.ar.predicados.ArOr;
+import com.ipn.escom.conversor_sql.ar.predicados.ArPredInterface;
+import com.ipn.escom.conversor_sql.validation.sql.TypeSystem.TypeCategory;
+
+/**
+ * σ tupla por tupla contra σ por lotes sobre una {@link ColumnarTable} de
+ * pedidos, con
+ * {@code total > 900 AND (estado = 'pagado' OR estado IS NULL)} (pasa ~10 %).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScanBenchmark {
+
+	private static final ExecutionLimits UNLIMITED = new ExecutionLimits(Integer.MAX_VALUE, Long.MAX_VALUE,
+			Duration.ofHours(1), Long.MAX_VALUE);
+	private static final Path TMP = Path.of(System.getProperty("java.io.tmpdir"));
+
+	private static final Header PEDIDO = new Header(new String[] { "pedido", "pedido", "pedido" },
+			new String[] { "id", "total", "estado" });
+
+	private static final ArPredInterface WHERE = new ArAnd(
+			new ArCmp(new ArCol("pedido", "total"), ArCmpOp.GT, new ArConst(new BigDecimal(900))),
+			new ArOr(new ArCmp(new ArCol("pedido", "estado"), ArCmpOp.EQ, new ArConst("pagado")),
+					new ArCmp(new ArCol("pedido", "estado"), ArCmpOp.EQ, new ArConst(null))));
+
+	@Param({ "100000" })
+	public int rows;
+
+	private ColumnarTable pedidos;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Random rnd = new Random(7);
+		String[] estados = { "pagado", "pendiente", "cancelado", null };
+		List<Object[]> p = new ArrayList<>(rows);
+		for (int i = 0; i < rows; i++)
+			p.add(new Object[] { BigDecimal.valueOf(i), Values.canonical(BigDecimal.valueOf(rnd.nextInt(100_000), 2)),
+					estados[rnd.nextInt(estados.length)] });
+		pedidos = ColumnarTable.of(p,
+				new TypeCategory[] { TypeCategory.NUMERIC, TypeCategory.NUMERIC, TypeCategory.TEXT });
+	}
+
+	@Benchmark
+	public int tupleAtATime() {
+		ExecutionContext ctx = new ExecutionContext(UNLIMITED, TMP);
+		return drain(new SelectOperator(new ColumnarScanOperator(PEDIDO, pedidos, ctx),
+				ExprCompiler.compile(WHERE, PEDIDO)));
+	}
+
+	@Benchmark
+	public int vectorized() {
+		ExecutionContext ctx = new ExecutionContext(UNLIMITED, TMP);
+		return drain(new ColumnarScanOperator(PEDIDO, pedidos, ctx).filtered(WHERE));
+	}
+
+	private static int drain(Operator op) {
+		int n = 0;
+		op.open();
+		try {
+			while (op.next() != null)
+				n++;
+		} finally {
+			op.close();
+		}
+		return n;
+	}
+}
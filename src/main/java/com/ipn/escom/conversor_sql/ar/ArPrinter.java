@@ -1,5 +1,8 @@
 package com.ipn.escom.conversor_sql.ar;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
+
 import com.ipn.escom.conversor_sql.ar.expresiones.ArArith;
 import com.ipn.escom.conversor_sql.ar.expresiones.ArCol;
 import com.ipn.escom.conversor_sql.ar.expresiones.ArConst;
@@ -26,8 +29,51 @@ import com.ipn.escom.conversor_sql.ar.relacionales.ArUnion;
 
 public final class ArPrinter {
 
+	/*
+	 * Renderizado por "appender": todo se escribe en un único StringBuilder, sin
+	 * cadenas intermedias por subárbol. La salida es idéntica carácter a
+	 * carácter a la del printer por concatenación (incluidos los paréntesis
+	 * dobles que se generan cuando printChild y el propio nodo parentetizan).
+	 */
+
+	/** Texto ya generado por nodo (por identidad); null si no se memoriza. */
+	private final Map<ArRel, String> memo;
+
+	public ArPrinter() {
+		this.memo = null;
+	}
+
+	private ArPrinter(Map<ArRel, String> memo) {
+		this.memo = memo;
+	}
+
+	/**
+	 * Printer que recuerda el texto de cada nodo ya impreso (por identidad, no por
+	 * equals) y lo reutiliza cuando el nodo reaparece como hijo. Pensado para
+	 * imprimir un árbol que crece de abajo hacia arriba, como en los pasos de
+	 * {@code CoreToAr.Trace}: cada impresión cuesta lo que mide su salida. Los
+	 * nodos no deben cambiar mientras se use la misma instancia.
+	 */
+	public static ArPrinter memoizing() {
+		return new ArPrinter(new IdentityHashMap<>());
+	}
+
 	public String print(ArRel n) {
-		return print(n, 0, 0); // parentPrec = 0 (raíz)
+		StringBuilder sb = new StringBuilder(64);
+		print(n, sb);
+		return sb.toString();
+	}
+
+	/** Escribe la AR de {@code n} al final de {@code out}. */
+	public void print(ArRel n, StringBuilder out) {
+		rel(out, n, 0); // parentPrec = 0 (raíz)
+	}
+
+	/** Texto de una expresión suelta, como aparece dentro de π o σ. */
+	public String print(ArExprInterface e) {
+		StringBuilder sb = new StringBuilder(16);
+		expr(sb, e);
+		return sb.toString();
 	}
 
 	// --------- Precedencias ----------
@@ -35,56 +81,85 @@ public final class ArPrinter {
 	private static final int PREC_JOIN = 20; // ⋈, ×
 	private static final int PREC_UNARY = 30; // σ, π, ρ y hojas
 
-	private String print(ArRel n, int ind, int parentPrec) {
-		// String I = " ".repeat(ind);
+	/**
+	 * Nodo en el contexto del padre: abre paréntesis propios si su precedencia es
+	 * menor y después escribe el nodo.
+	 */
+	private void rel(StringBuilder sb, ArRel n, int parentPrec) {
+		boolean par = needPar(precedence(n), parentPrec);
+		if (par)
+			sb.append('(');
+		body(sb, n);
+		if (par)
+			sb.append(')');
+	}
 
-		if (n instanceof ArBase b) {
-			return b.name();
-		}
-		if (n instanceof ArRename r) {
-			String s = "ρ[" + r.alias() + "](" + print(r.input(), ind + 1, Integer.MIN_VALUE) + ")";
-			return needPar(PREC_UNARY, parentPrec) ? "(" + s + ")" : s;
-		}
-		if (n instanceof ArProject p) {
-			String s = "π[" + proj(p.items()) + "](" + print(p.input(), ind + 1, Integer.MIN_VALUE) + ")";
-			return needPar(PREC_UNARY, parentPrec) ? "(" + s + ")" : s;
-		}
-		if (n instanceof ArSelect s) {
-			String out = "σ[" + pred(s.predicate(), 0) + "](" + print(s.input(), ind + 1, Integer.MIN_VALUE) + ")";
-			return needPar(PREC_UNARY, parentPrec) ? "(" + out + ")" : out;
-		}
-		if (n instanceof ArProduct x) {
-			String s = printChild(x.left(), ind, PREC_JOIN, null) + " × " + printChild(x.right(), ind, PREC_JOIN, null);
-			return needPar(PREC_JOIN, parentPrec) ? "(" + s + ")" : s;
-		}
-		if (n instanceof ArJoin j) {
-			String s = printChild(j.left(), ind, PREC_JOIN, null) + " ⋈[" + pred(j.on(), 0) + "] "
-					+ printChild(j.right(), ind, PREC_JOIN, null);
-			return needPar(PREC_JOIN, parentPrec) ? "(" + s + ")" : s;
-		}
-		if (n instanceof ArNaturalJoin j) {
-			String s = print(j.left(), ind, PREC_JOIN) + " ⋈ " + print(j.right(), ind, PREC_JOIN);
-			return needPar(PREC_JOIN, parentPrec) ? "(" + s + ")" : s;
-		}
-		if (n instanceof ArUnion u) {
-			String s = printChild(u.left(), ind, PREC_SET, "UNION") + " ∪ "
-					+ printChild(u.right(), ind, PREC_SET, "UNION");
-			return needPar(PREC_SET, parentPrec) ? "(" + s + ")" : s;
-		}
-		if (n instanceof ArIntersect i) {
-			String s = printChild(i.left(), ind, PREC_SET, "INTERSECT") + " ∩ "
-					+ printChild(i.right(), ind, PREC_SET, "INTERSECT");
-			return needPar(PREC_SET, parentPrec) ? "(" + s + ")" : s;
+	/**
+	 * Nodo sin sus paréntesis propios: no depende del contexto, así que es lo que
+	 * se memoriza.
+	 */
+	private void body(StringBuilder sb, ArRel n) {
+		if (memo != null) {
+			String cached = memo.get(n);
+			if (cached != null) {
+				sb.append(cached);
+				return;
+			}
 		}
-		if (n instanceof ArExcept e) {
+		int start = sb.length();
+
+		if (n instanceof ArBase b) {
+			sb.append(b.name());
+		} else if (n instanceof ArRename r) {
+			sb.append("ρ[").append(r.alias()).append("](");
+			body(sb, r.input()); // contexto Integer.MIN_VALUE: nunca lleva paréntesis
+			sb.append(')');
+		} else if (n instanceof ArProject p) {
+			sb.append("π[");
+			proj(sb, p.items());
+			sb.append("](");
+			body(sb, p.input());
+			sb.append(')');
+		} else if (n instanceof ArSelect s) {
+			sb.append("σ[");
+			pred(sb, s.predicate(), 0);
+			sb.append("](");
+			body(sb, s.input());
+			sb.append(')');
+		} else if (n instanceof ArProduct x) {
+			printChild(sb, x.left(), PREC_JOIN, null);
+			sb.append(" × ");
+			printChild(sb, x.right(), PREC_JOIN, null);
+		} else if (n instanceof ArJoin j) {
+			printChild(sb, j.left(), PREC_JOIN, null);
+			sb.append(" ⋈[");
+			pred(sb, j.on(), 0);
+			sb.append("] ");
+			printChild(sb, j.right(), PREC_JOIN, null);
+		} else if (n instanceof ArNaturalJoin j) {
+			rel(sb, j.left(), PREC_JOIN);
+			sb.append(" ⋈ ");
+			rel(sb, j.right(), PREC_JOIN);
+		} else if (n instanceof ArUnion u) {
+			printChild(sb, u.left(), PREC_SET, "UNION");
+			sb.append(" ∪ ");
+			printChild(sb, u.right(), PREC_SET, "UNION");
+		} else if (n instanceof ArIntersect i) {
+			printChild(sb, i.left(), PREC_SET, "INTERSECT");
+			sb.append(" ∩ ");
+			printChild(sb, i.right(), PREC_SET, "INTERSECT");
+		} else if (n instanceof ArExcept e) {
 			// Izquierdo: no fuerzar paréntesis; basta precedencia
-			String left = print(e.left(), ind, PREC_SET);
+			rel(sb, e.left(), PREC_SET);
+			sb.append(" − ");
 			// Derecho: sí usa printChild para parentetizar si es necesario
-			String right = printChild(e.right(), ind, PREC_SET, "EXCEPT");
-			String s = left + " − " + right;
-			return needPar(PREC_SET, parentPrec) ? "(" + s + ")" : s;
+			printChild(sb, e.right(), PREC_SET, "EXCEPT");
+		} else {
+			throw new IllegalArgumentException("AR no soportado: " + n.getClass().getSimpleName());
 		}
-		throw new IllegalArgumentException("AR no soportado: " + n.getClass().getSimpleName());
+
+		if (memo != null)
+			memo.put(n, sb.substring(start));
 	}
 
 	// ¿El hijo necesita paréntesis vs el padre?
@@ -93,20 +168,21 @@ public final class ArPrinter {
 	}
 
 	// Imprime hijo con paréntesis mínimos, considerando tipo de set-op
-	private String printChild(ArRel child, int ind, int parentPrec, String parentSetOp) {
-		int childPrec = precedence(child);
-		String s = print(child, ind, parentPrec);
-
-		if (childPrec < parentPrec)
-			return "(" + s + ")";
-
-		// Si ambos son set-ops y el operador es distinto, pon paréntesis
-		if (parentSetOp != null && isSetOp(child)) {
-			String childOp = setOpName(child);
-			if (!parentSetOp.equals(childOp))
-				return "(" + s + ")";
-		}
-		return s;
+	// (el hijo mismo vuelve a parentetizar si su precedencia es menor: de ahí los "((...))")
+	private void printChild(StringBuilder sb, ArRel child, int parentPrec, String parentSetOp) {
+		boolean inner = needPar(precedence(child), parentPrec);
+		boolean outer = inner
+				// Si ambos son set-ops y el operador es distinto, pon paréntesis
+				|| (parentSetOp != null && isSetOp(child) && !parentSetOp.equals(setOpName(child)));
+		if (outer)
+			sb.append('(');
+		if (inner)
+			sb.append('(');
+		body(sb, child);
+		if (inner)
+			sb.append(')');
+		if (outer)
+			sb.append(')');
 	}
 
 	private int precedence(ArRel n) {
@@ -132,31 +208,58 @@ public final class ArPrinter {
 	}
 
 	// Predicados con precedencia: NOT(2) > AND(1) > OR(0)
-	private String pred(ArPredInterface p, int prec) {
-		if (p == null)
-			return "TRUE";
-		if (p instanceof ArAnd a)
-			return wrap(pred(a.a(), 1) + " AND " + pred(a.b(), 1), prec > 1);
-		if (p instanceof ArOr o)
-			return wrap(pred(o.a(), 0) + " OR " + pred(o.b(), 0), prec > 0);
-		if (p instanceof ArNot n)
-			return "NOT " + wrap(pred(n.a(), 2), true);
+	private void pred(StringBuilder sb, ArPredInterface p, int prec) {
+		if (p == null) {
+			sb.append("TRUE");
+			return;
+		}
+		if (p instanceof ArAnd a) {
+			boolean par = prec > 1;
+			if (par)
+				sb.append('(');
+			pred(sb, a.a(), 1);
+			sb.append(" AND ");
+			pred(sb, a.b(), 1);
+			if (par)
+				sb.append(')');
+			return;
+		}
+		if (p instanceof ArOr o) {
+			boolean par = prec > 0;
+			if (par)
+				sb.append('(');
+			pred(sb, o.a(), 0);
+			sb.append(" OR ");
+			pred(sb, o.b(), 0);
+			if (par)
+				sb.append(')');
+			return;
+		}
+		if (p instanceof ArNot n) {
+			sb.append("NOT (");
+			pred(sb, n.a(), 2);
+			sb.append(')');
+			return;
+		}
 		if (p instanceof ArCmp c) {
 			boolean leftNull = isNullConst(c.l());
 			boolean rightNull = isNullConst(c.r());
 
 			// Solo un lado es NULL -> imprime con IS / IS NOT
 			if (leftNull ^ rightNull) {
-				ArExprInterface col = leftNull ? c.r() : c.l();
-				String colStr = expr(col);
+				expr(sb, leftNull ? c.r() : c.l());
 				// EQ con NULL => IS NULL ; NEQ con NULL => IS NOT NULL
-				return colStr + (c.op() == ArCmpOp.NEQ ? " IS NOT NULL" : " IS NULL");
+				sb.append(c.op() == ArCmpOp.NEQ ? " IS NOT NULL" : " IS NULL");
+				return;
 			}
 
 			// Caso general
-			return expr(c.l()) + " " + cmp(c.op()) + " " + expr(c.r());
+			expr(sb, c.l());
+			sb.append(' ').append(cmp(c.op())).append(' ');
+			expr(sb, c.r());
+			return;
 		}
-		return p.toString();
+		sb.append(p);
 	}
 
 	private boolean isNullConst(ArExprInterface e) {
@@ -174,49 +277,84 @@ public final class ArPrinter {
 		};
 	}
 
-	private String proj(java.util.List<ArProjItem> items) {
-		return items.stream().map(it -> {
+	private void proj(StringBuilder sb, java.util.List<ArProjItem> items) {
+		for (int i = 0; i < items.size(); i++) {
+			if (i > 0)
+				sb.append(", ");
+			ArProjItem it = items.get(i);
 			if (it instanceof ArProjExpr pe) {
-				String e = expr(pe.expr());
+				int start = sb.length();
+				expr(sb, pe.expr());
 				String a = pe.aliasOrNull();
 				// no alias redundante; usa flecha para renombrar atributos
-				return (a == null || a.isBlank() || a.equals(e)) ? e : (a + " \u2190 " + e);
+				if (a != null && !a.isBlank() && !regionEquals(sb, start, a))
+					sb.insert(start, a + " \u2190 ");
+			} else {
+				sb.append(it);
 			}
-			return it.toString();
-		}).collect(java.util.stream.Collectors.joining(", "));
+		}
 	}
 
-	private String expr(ArExprInterface e) {
+	/** ¿{@code sb[start..]} es exactamente {@code s}? */
+	private static boolean regionEquals(StringBuilder sb, int start, String s) {
+		if (sb.length() - start != s.length())
+			return false;
+		for (int i = 0; i < s.length(); i++) {
+			if (sb.charAt(start + i) != s.charAt(i))
+				return false;
+		}
+		return true;
+	}
+
+	private void expr(StringBuilder sb, ArExprInterface e) {
 		if (e instanceof ArCol c) {
-			return c.name(); // <- SIN prefijo
+			sb.append(c.name()); // <- SIN prefijo
+			return;
 		}
 		if (e instanceof ArConst k) {
 			Object v = k.value();
-			if (v == null)
-				return "NULL";
-			if (v instanceof String s)
-				return "'" + s.replace("'", "''") + "'";
-			return String.valueOf(v); // números salen sin comillas
+			if (v == null) {
+				sb.append("NULL");
+			} else if (v instanceof String s) {
+				sb.append('\'');
+				for (int i = 0; i < s.length(); i++) {
+					char ch = s.charAt(i);
+					if (ch == '\'')
+						sb.append('\'');
+					sb.append(ch);
+				}
+				sb.append('\'');
+			} else {
+				sb.append(v); // números salen sin comillas
+			}
+			return;
 		}
 		if (e instanceof ArArith a) {
-			return arith(a);
+			arith(sb, a);
+			return;
 		}
-		return e.toString();
+		sb.append(e);
 	}
 
-	private String arith(ArArith a) {
+	private void arith(StringBuilder sb, ArArith a) {
 		String op = switch (a.op()) {
 		case ADD -> "+";
 		case SUB -> "-";
 		case MUL -> "*";
 		case DIV -> "/";
 		};
-		String L = (a.left() instanceof ArArith) ? "(" + expr(a.left()) + ")" : expr(a.left());
-		String R = (a.right() instanceof ArArith) ? "(" + expr(a.right()) + ")" : expr(a.right());
-		return L + " " + op + " " + R;
+		operand(sb, a.left());
+		sb.append(' ').append(op).append(' ');
+		operand(sb, a.right());
 	}
 
-	private String wrap(String s, boolean paren) {
-		return paren ? "(" + s + ")" : s;
+	private void operand(StringBuilder sb, ArExprInterface e) {
+		if (e instanceof ArArith) {
+			sb.append('(');
+			expr(sb, e);
+			sb.append(')');
+		} else {
+			expr(sb, e);
+		}
 	}
 }
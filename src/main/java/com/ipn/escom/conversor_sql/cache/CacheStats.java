@@ -0,0 +1,11 @@
+package com.ipn.escom.conversor_sql.cache;
+
+/** Foto de los contadores de una {@link LruCache}. */
+public record CacheStats(long hits, long misses, long evictions, int entries, int maxEntries, double hitRatio) {
+
+	public static CacheStats of(long hits, long misses, long evictions, int entries, int maxEntries) {
+		long total = hits + misses;
+		double ratio = (total == 0) ? 0.0 : (double) hits / total;
+		return new CacheStats(hits, misses, evictions, entries, maxEntries, ratio);
+	}
+}
@@ -0,0 +1,123 @@
+package com.ipn.escom.conversor_sql.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Caché LRU acotada por número de entradas y por antigüedad (TTL), con
+ * contadores de aciertos/fallos. Segura para hilos; el cálculo de valores
+ * ausentes se hace fuera del candado, así que dos hilos pueden calcular la
+ * misma clave a la vez (gana el último en escribir).
+ *
+ * Los valores se comparten entre peticiones: solo deben guardarse objetos
+ * inmutables o que los consumidores traten como solo lectura.
+ */
+public final class LruCache<K, V> {
+
+	private record Entry<V>(V value, long createdNanos) {
+	}
+
+	private final int maxEntries;
+	private final long ttlNanos;
+	private final LinkedHashMap<K, Entry<V>> entries;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	public LruCache(int maxEntries, Duration ttl) {
+		if (maxEntries <= 0)
+			throw new IllegalArgumentException("maxEntries debe ser > 0");
+		this.maxEntries = maxEntries;
+		this.ttlNanos = Objects.requireNonNull(ttl, "ttl").toNanos();
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+				if (size() > LruCache.this.maxEntries) {
+					evictions.increment();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/** Valor vigente para la clave, o null (cuenta como acierto/fallo). */
+	public V get(K key) {
+		if (key == null) {
+			misses.increment();
+			return null;
+		}
+		synchronized (this) {
+			Entry<V> e = entries.get(key);
+			if (e != null && !expired(e, System.nanoTime())) {
+				hits.increment();
+				return e.value();
+			}
+			if (e != null) {
+				entries.remove(key);
+				evictions.increment();
+			}
+		}
+		misses.increment();
+		return null;
+	}
+
+	public void put(K key, V value) {
+		if (key == null || value == null)
+			return;
+		synchronized (this) {
+			entries.put(key, new Entry<>(value, System.nanoTime()));
+		}
+	}
+
+	/** Devuelve el valor en caché o lo calcula con {@code loader} y lo guarda. */
+	public V computeIfAbsent(K key, Function<? super K, ? extends V> loader) {
+		V cached = get(key);
+		if (cached != null)
+			return cached;
+		V value = loader.apply(key);
+		put(key, value);
+		return value;
+	}
+
+	public synchronized void remove(K key) {
+		entries.remove(key);
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+	}
+
+	/** Número de entradas vigentes (purga las expiradas). */
+	public synchronized int size() {
+		purgeExpired();
+		return entries.size();
+	}
+
+	public CacheStats stats() {
+		return CacheStats.of(hits.sum(), misses.sum(), evictions.sum(), size(), maxEntries);
+	}
+
+	private void purgeExpired() {
+		long now = System.nanoTime();
+		Iterator<Entry<V>> it = entries.values().iterator();
+		while (it.hasNext()) {
+			if (expired(it.next(), now)) {
+				it.remove();
+				evictions.increment();
+			}
+		}
+	}
+
+	private boolean expired(Entry<V> e, long now) {
+		return now - e.createdNanos() > ttlNanos;
+	}
+}
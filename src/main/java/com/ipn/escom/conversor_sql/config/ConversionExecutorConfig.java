@@ -0,0 +1,43 @@
+package com.ipn.escom.conversor_sql.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Ejecutor de las conversiones en lote / streaming.
+ * <p>
+ * Pool acotado de hilos de plataforma. La cola también es acotada: si se
+ * llena, el hilo que envía ejecuta la tarea (CallerRuns), lo que frena al
+ * productor en lugar de acumular trabajo en memoria.
+ * <p>
+ * Se usa también con {@code spring.threads.virtual.enabled=true}: convertir es
+ * trabajo de CPU, así que un hilo virtual por tarea no da más paralelismo que
+ * los núcleos y sí pierde la cola acotada. Los hilos virtuales quedan para
+ * Tomcat y el ejecutor asíncrono de MVC, que es donde se bloquea por E/S.
+ */
+@Configuration
+public class ConversionExecutorConfig {
+
+	@Bean(name = "conversionExecutor", destroyMethod = "shutdown")
+	public ExecutorService conversionExecutor(
+			@Value("${conversor.batch.threads:0}") int threads,
+			@Value("${conversor.batch.queue-capacity:1024}") int queueCapacity) {
+		int size = (threads > 0) ? threads : Runtime.getRuntime().availableProcessors();
+		AtomicInteger seq = new AtomicInteger();
+		return new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(queueCapacity),
+				r -> {
+					Thread t = new Thread(r, "conversion-" + seq.incrementAndGet());
+					t.setDaemon(true);
+					return t;
+				},
+				new ThreadPoolExecutor.CallerRunsPolicy());
+	}
+}
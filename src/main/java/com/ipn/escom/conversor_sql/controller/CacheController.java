@@ -0,0 +1,34 @@
+package com.ipn.escom.conversor_sql.controller;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.ipn.escom.conversor_sql.cache.CacheStats;
+import com.ipn.escom.conversor_sql.conversion.ConversionPipeline;
+import com.ipn.escom.conversor_sql.service.SchemaRegistryService;
+import com.ipn.escom.conversor_sql.validation.schema.SchemaBuilder;
+
+/** Métricas de las cachés internas (aciertos, fallos, entradas). */
+@RestController
+@RequestMapping("/api/cache")
+public class CacheController {
+
+	@Autowired
+	private SchemaRegistryService schemaRegistryService;
+
+	@GetMapping(value = "/stats", produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<Map<String, CacheStats>> stats() {
+		Map<String, CacheStats> out = new LinkedHashMap<>();
+		out.put("coreCrudo", ConversionPipeline.cacheStats());
+		out.put("esquemas", SchemaBuilder.cacheStats());
+		out.put("esquemasRegistrados", schemaRegistryService.cacheStats());
+		return ResponseEntity.ok(out);
+	}
+}
@@ -0,0 +1,44 @@
+package com.ipn.escom.conversor_sql.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.ipn.escom.conversor_sql.models.ExecuteRequest;
+import com.ipn.escom.conversor_sql.models.ExecuteResponse;
+import com.ipn.escom.conversor_sql.service.ExecutionService;
+import com.ipn.escom.conversor_sql.service.SchemaRegistryService;
+
+import jakarta.validation.Valid;
+
+/**
+ * Ejecución de la AR sobre datos de ejemplo enviados en la petición, para ver
+ * la relación resultado de una consulta. Los topes de filas y de tiempo se
+ * configuran con {@code conversor.execution.*}.
+ */
+@RestController
+@RequestMapping("/api/execute")
+public class ExecutionController {
+
+	private static final Logger logger = LoggerFactory.getLogger(ExecutionController.class);
+
+	@Autowired
+	private ExecutionService executionService;
+
+	@Autowired
+	private SchemaRegistryService schemaRegistryService;
+
+	@PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<ExecuteResponse> ejecutar(@Valid @RequestBody ExecuteRequest request) {
+		ExecuteResponse out = executionService.ejecutar(request, schemaRegistryService.resolver(request));
+		logger.info("Consulta ejecutada: {} filas{}, {} examinadas", out.getFilas().size(),
+				out.isTruncado() ? " (truncado)" : "", out.getFilasExaminadas());
+		return ResponseEntity.ok(out); // { algebraRelacional, columnas, filas, truncado, filasExaminadas }
+	}
+}
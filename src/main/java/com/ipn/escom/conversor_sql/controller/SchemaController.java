@@ -0,0 +1,79 @@
+package com.ipn.escom.conversor_sql.controller;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.ipn.escom.conversor_sql.models.RelationalTable;
+import com.ipn.escom.conversor_sql.models.SchemaRegistrationResponse;
+import com.ipn.escom.conversor_sql.service.SchemaRegistryService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Registro de esquemas (las reglas del esquema las valida {@link com.ipn.escom.conversor_sql.validation.schema.SchemaBuilder}). El id devuelto (también como ETag) es la huella del
+ * contenido: se usa como {@code schemaId} en {@link com.ipn.escom.conversor_sql.models.SqlRequest}
+ * en lugar de reenviar {@code tables} en cada consulta.
+ */
+@RestController
+@RequestMapping("/api/schemas")
+public class SchemaController {
+
+	@Autowired
+	private SchemaRegistryService schemaRegistryService;
+
+	/**
+	 * Cada tabla se valida como las de {@code SqlRequest.tables} (nombre,
+	 * columnas); los errores los responde {@link com.ipn.escom.conversor_sql.exceptions.GlobalExceptionHandler} con 400.
+	 */
+	@PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<SchemaRegistrationResponse> registrar(
+			@RequestBody List<@Valid @NotNull(message = "La tabla no puede ser null.") RelationalTable> tables) {
+		SchemaRegistrationResponse out = schemaRegistryService.registrar(tables);
+		if (!out.isValido()) {
+			return ResponseEntity.badRequest().body(out);
+		}
+		return ResponseEntity.created(URI.create("/api/schemas/" + out.getSchemaId()))
+				.eTag(out.getSchemaId())
+				.body(out);
+	}
+
+	/**
+	 * Registro a partir de un script DDL ({@code CREATE TABLE} con PK/FK, o un
+	 * volcado completo de MySQL/PostgreSQL): el cuerpo se lee como stream,
+	 * sentencia por sentencia, sin cargarlo completo en memoria.
+	 */
+	@PostMapping(value = "/ddl", consumes = { MediaType.TEXT_PLAIN_VALUE, "application/sql" },
+			produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<SchemaRegistrationResponse> registrarDdl(HttpServletRequest request) throws IOException {
+		SchemaRegistrationResponse out = schemaRegistryService.registrarDdl(request.getReader());
+		if (!out.isValido()) {
+			return ResponseEntity.badRequest().body(out);
+		}
+		return ResponseEntity.created(URI.create("/api/schemas/" + out.getSchemaId()))
+				.eTag(out.getSchemaId())
+				.body(out);
+	}
+
+	@GetMapping(value = "/{schemaId}", produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<List<RelationalTable>> obtener(@PathVariable String schemaId) {
+		return schemaRegistryService.buscar(schemaId)
+				.map(s -> ResponseEntity.ok().eTag(s.id()).body(s.tables()))
+				.orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+						"El esquema '" + schemaId + "' no está registrado o expiró."));
+	}
+}
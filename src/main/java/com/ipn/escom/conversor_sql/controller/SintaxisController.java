@@ -1,24 +1,41 @@
 package com.ipn.escom.conversor_sql.controller;
 
+import java.time.Duration;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.server.ResponseStatusException;
 
+import com.ipn.escom.conversor_sql.models.AnalyzeResponse;
 import com.ipn.escom.conversor_sql.models.ArConvertResponse;
+import com.ipn.escom.conversor_sql.models.BatchConvertRequest;
+import com.ipn.escom.conversor_sql.models.BatchConvertResponse;
 import com.ipn.escom.conversor_sql.models.SqlRequest;
 import com.ipn.escom.conversor_sql.models.TipoDetallado;
 import com.ipn.escom.conversor_sql.service.ArConverterService;
+import com.ipn.escom.conversor_sql.service.BatchConverterService;
+import com.ipn.escom.conversor_sql.service.SchemaRegistryService;
 import com.ipn.escom.conversor_sql.utils.ValidationProcessor;
 import com.ipn.escom.conversor_sql.validation.SqlValidator;
 import com.ipn.escom.conversor_sql.validation.ValidationResult;
+import com.ipn.escom.conversor_sql.validation.schema.SchemaBuilder;
+import com.ipn.escom.conversor_sql.validation.schema.SchemaIndex;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 @RestController
@@ -30,11 +47,24 @@ public class SintaxisController {
 	@Autowired
 	private ArConverterService arConverterService;
 
+	@Autowired
+	private SchemaRegistryService schemaRegistryService;
+
+	@Autowired
+	private BatchConverterService batchConverterService;
+
+	@Value("${conversor.batch.max-items:10000}")
+	private int maxBatchItems;
+
+	/** Plazo del streaming NDJSON; las demás peticiones asíncronas usan el de Spring MVC. */
+	@Value("${conversor.batch.stream-timeout:PT4H}")
+	private Duration streamTimeout;
+
 	@PostMapping("/sintaxis")
 	public ResponseEntity<?> sintaxisSQL(@Valid @RequestBody SqlRequest request) {
 		logger.info("Validando SQL: {}", request.getSqlQuery());
 
-		ValidationResult validacion = SqlValidator.validar(request);
+		ValidationResult validacion = SqlValidator.validar(request, schemaRegistryService.resolver(request));
 		ValidationProcessor.procesarMensajes(validacion);
 
 		if (!validacion.isValido()) {
@@ -48,11 +78,18 @@ public class SintaxisController {
 		return ResponseEntity.ok(ok);
 	}
 
+	/**
+	 * Con {@code pasos=false} no se construye la traza: la respuesta trae solo la
+	 * AR y un {@code conversionId} para pedir los pasos después.
+	 */
 	@PostMapping(value = "/convert", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
-	public ResponseEntity<Object> convert(@Valid @RequestBody SqlRequest request) {	
+	public ResponseEntity<Object> convert(@Valid @RequestBody SqlRequest request,
+			@RequestParam(name = "pasos", defaultValue = "true") boolean pasos) {	
+		SchemaIndex esquema = schemaRegistryService.resolver(request); // 404 si el schemaId no existe
 		try {
-			ArConvertResponse out = arConverterService.toAlgebraRelacionalConPasos(request);
-			return ResponseEntity.ok(out); // { algebraRelacional, pasos }
+			ArConvertResponse out = pasos ? arConverterService.toAlgebraRelacionalConPasos(request, esquema)
+					: arConverterService.toAlgebraRelacional(request, esquema);
+			return ResponseEntity.ok(out); // { algebraRelacional, pasos } o { algebraRelacional, conversionId }
 		} catch (IllegalArgumentException | UnsupportedOperationException e) {
 			logger.warn("Entrada fuera de reglas. sqlQuery='{}'", safeSql(request, 200), e);
 			return ResponseEntity.badRequest().body(error("ERROR_LOGICO", e.getMessage()));
@@ -63,6 +100,79 @@ public class SintaxisController {
 		}
 	}
 
+	/** Pasos de una conversión hecha con {@code pasos=false} (mientras siga en caché). */
+	@GetMapping(value = "/convert/{conversionId}/pasos", produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<ArConvertResponse> pasos(@PathVariable String conversionId) {
+		return arConverterService.pasos(conversionId)
+				.map(ResponseEntity::ok)
+				.orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+						"La conversión '" + conversionId + "' no existe o expiró; vuelva a convertir la consulta."));
+	}
+
+	/** Validación + conversión en una sola llamada (un solo parseo del SQL). */
+	@PostMapping(value = "/analyze", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<AnalyzeResponse> analyze(@Valid @RequestBody SqlRequest request) {
+		logger.info("Analizando SQL: {}", request.getSqlQuery());
+
+		AnalyzeResponse out = arConverterService.analizar(request, schemaRegistryService.resolver(request));
+		if (!out.isValido()) {
+			logger.warn("Análisis fallido. sqlQuery='{}' mensajes={}", safeSql(request, 200), out.getMensajes());
+			return ResponseEntity.badRequest().body(out);
+		}
+		return ResponseEntity.ok(out); // { valido, mensajes, algebraRelacional, pasos }
+	}
+
+	/**
+	 * Conversión de N consultas contra un mismo esquema: el esquema se indexa una
+	 * vez y las consultas se convierten en paralelo. Cada consulta reporta su
+	 * propio resultado o error.
+	 */
+	@PostMapping(value = "/convert/batch", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<Object> convertBatch(@Valid @RequestBody BatchConvertRequest request) {
+		int n = request.getSqlQueries().size();
+		if (n > maxBatchItems) {
+			return ResponseEntity.badRequest()
+					.body(error("ERROR_LOGICO", "El lote tiene " + n + " consultas; el máximo es " + maxBatchItems + "."));
+		}
+
+		SchemaIndex esquema = schemaRegistryService.resolver(request.getSchemaId()); // 404 si no existe
+		if (esquema == null) {
+			ValidationResult vr = new ValidationResult();
+			esquema = SchemaBuilder.buildSchemaIndex(request.getTables(), vr);
+			if (!vr.isValido()) {
+				logger.warn("Lote con esquema inválido: {}", vr.getMensajes());
+				return ResponseEntity.badRequest().body(vr);
+			}
+		}
+
+		BatchConvertResponse out = batchConverterService.convertir(request.getSqlQueries(), esquema);
+		logger.info("Lote convertido: {} consultas, {} con error", out.getTotal(), out.getFallidos());
+		return ResponseEntity.ok(out);
+	}
+
+	/**
+	 * Lote en streaming: entrada NDJSON (un {@link SqlRequest} por línea) y salida
+	 * NDJSON con un {@link BatchConvertResponse.Item} por consulta conforme
+	 * terminan. Memoria constante sin importar el tamaño de la entrada. Corre
+	 * como tarea asíncrona con su propio plazo ({@code conversor.batch.stream-timeout}),
+	 * mucho más largo que el de las demás peticiones.
+	 */
+	@PostMapping(value = "/convert/stream", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public WebAsyncTask<Void> convertStream(HttpServletRequest request, HttpServletResponse response) {
+		response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+		WebAsyncTask<Void> task = new WebAsyncTask<>(streamTimeout.toMillis(), () -> {
+			long n = batchConverterService.convertirStream(request.getInputStream(), response.getOutputStream());
+			logger.info("Streaming terminado: {} consultas", n);
+			return null;
+		});
+		// La respuesta ya es NDJSON (quizá con líneas enviadas): se corta sin cuerpo de error
+		task.onTimeout(() -> {
+			logger.warn("Streaming cortado: se superó el plazo de {}", streamTimeout);
+			return null;
+		});
+		return task;
+	}
+
 	private static String safeSql(SqlRequest r, int maxLen) {
 		try {
 			String s = r.getSqlQuery();
@@ -1,10 +1,15 @@
 package com.ipn.escom.conversor_sql.conversion;
 
+import java.time.Duration;
+
 import com.ipn.escom.conversor_sql.ar.ArPrinter;
 import com.ipn.escom.conversor_sql.ar.relacionales.ArRel;
+import com.ipn.escom.conversor_sql.cache.CacheStats;
+import com.ipn.escom.conversor_sql.cache.LruCache;
 import com.ipn.escom.conversor_sql.core.CoreInvariants;
 import com.ipn.escom.conversor_sql.core.SchemaGuards;
 import com.ipn.escom.conversor_sql.core.relacionales.CoreRel;
+import com.ipn.escom.conversor_sql.utils.Texts;
 import com.ipn.escom.conversor_sql.validation.ValidationResult;
 import com.ipn.escom.conversor_sql.validation.schema.SchemaIndex;
 
@@ -13,6 +18,13 @@ import net.sf.jsqlparser.statement.Statement;
 
 public final class ConversionPipeline {
 
+	/*
+	 * Core "crudo" (salida de SqlToCoreBuilder, aún sin esquema) por SQL
+	 * normalizado. Se guarda el CoreRel y no el Statement porque el Core es
+	 * inmutable y puede compartirse entre peticiones sin riesgo.
+	 */
+	private static final LruCache<String, CoreRel> RAW_CORE = new LruCache<>(2_000, Duration.ofMinutes(15));
+
 	public Statement parse(String sql) {
 		try {
 			return CCJSqlParserUtil.parse(sql);
@@ -21,8 +33,22 @@ public final class ConversionPipeline {
 		}
 	}
 
+	/** parse + SqlToCoreBuilder, con caché por texto normalizado. */
+	public CoreRel buildCore(String sql) {
+		return RAW_CORE.computeIfAbsent(Texts.normalizeSql(sql), k -> new SqlToCoreBuilder().build(parse(sql)));
+	}
+
+	/** Igual que {@link #buildCore(String)} pero reutilizando un Statement ya parseado. */
+	public CoreRel buildCore(String sql, Statement stmt) {
+		return RAW_CORE.computeIfAbsent(Texts.normalizeSql(sql), k -> new SqlToCoreBuilder().build(stmt));
+	}
+
 	public CoreRel normalizeToCore(Statement stmt, SchemaIndex schema) {
 		CoreRel raw = new SqlToCoreBuilder().build(stmt);
+		return normalizeToCore(raw, schema);
+	}
+
+	public CoreRel normalizeToCore(CoreRel raw, SchemaIndex schema) {
 		return new SqlToCoreNormalizer(schema).normalize(raw);
 	}
 
@@ -39,4 +65,8 @@ public final class ConversionPipeline {
 	public String render(ArRel ar) {
 		return new ArPrinter().print(ar);
 	}
+
+	public static CacheStats cacheStats() {
+		return RAW_CORE.stats();
+	}
 }
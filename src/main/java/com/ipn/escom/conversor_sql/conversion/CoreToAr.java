@@ -216,19 +216,23 @@ public final class CoreToAr {
 
     public static final class Trace {
         private final java.util.List<String> steps = new java.util.ArrayList<>();
-        private final ArPrinter printer = new ArPrinter();
+        // Memoiza el texto de cada nodo: un paso solo escribe su operador y copia el de sus hijos
+        private final ArPrinter printer = ArPrinter.memoizing();
 
         public void add(String s) { steps.add(s); }
 
         // Formato: "<leftLabel> -> <header>: <currentAR>"
         public void addWith(String leftLabel, String header, ArRel current) {
-            String currentAr = printer.print(current);
+            String currentAr = render(current);
             if (current instanceof ArBase b) {        // <-- fuerza paréntesis sólo para hoja base
                 currentAr = "(" + b.name() + ")";
             }
             steps.add(leftLabel + " -> " + header + ": " + currentAr);
         }
 
+        /** AR de {@code n} reutilizando lo ya impreso en los pasos (misma salida que {@link ArPrinter#print}). */
+        public String render(ArRel n) { return printer.print(n); }
+
         public java.util.List<String> steps() { return java.util.Collections.unmodifiableList(steps); }
         public java.util.List<String> getSteps() { return steps(); }
     }
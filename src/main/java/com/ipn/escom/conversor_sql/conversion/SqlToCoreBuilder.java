@@ -3,7 +3,6 @@ package com.ipn.escom.conversor_sql.conversion;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import com.ipn.escom.conversor_sql.core.expresiones.ArithOp;
 import com.ipn.escom.conversor_sql.core.expresiones.CoreBinArith;
@@ -89,7 +88,11 @@ import net.sf.jsqlparser.statement.select.SetOperationList;
 import net.sf.jsqlparser.statement.select.SubSelect;
 import net.sf.jsqlparser.statement.select.UnionOp;
 
-/** Construye el AST de SQL a partir de un Statement de JSQLParser. */
+/**
+ * Construye el AST de SQL a partir de un Statement de JSQLParser. El árbol
+ * resultante es inmutable (records + listas inmodificables), así que puede
+ * cachearse y compartirse entre peticiones.
+ */
 public final class SqlToCoreBuilder {
 	// ---------- Entry ----------
 
@@ -261,7 +264,7 @@ public final class SqlToCoreBuilder {
 				throw new UnsupportedOperationException("SelectItem no soportado: " + it.getClass().getSimpleName());
 			}
 		}
-		return out;
+		return List.copyOf(out);
 	}
 
 	// ---------- WHERE / ON ----------
@@ -362,7 +365,7 @@ public final class SqlToCoreBuilder {
 			Expression left = in.getLeftExpression();
 			ItemsList list = in.getRightItemsList();
 			if (list instanceof ExpressionList el) {
-				List<CoreExpr> values = el.getExpressions().stream().map(this::mapExpr).collect(Collectors.toList());
+				List<CoreExpr> values = el.getExpressions().stream().map(this::mapExpr).toList();
 				return new CoreInList(mapExpr(left), values);
 			}
 		}
@@ -1,8 +1,11 @@
 package com.ipn.escom.conversor_sql.conversion;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
@@ -328,53 +331,113 @@ public final class SqlToCoreNormalizer {
 	}
 
 	/**
-	 * Conjunto de nombres de columna (lowercase, sin calificador) presentes en un
-	 * subárbol.
+	 * Columnas de un subárbol, ya calificadas (alias o tabla + nombre): todas en
+	 * orden (para *), por nombre en minúsculas (para calificar) y por alias o
+	 * tabla en minúsculas (para t.*).
 	 */
+	private record ColumnCatalog(List<CoreColumnRef> all, Map<String, List<CoreColumnRef>> byName,
+			Map<String, List<CoreColumnRef>> byAlias) {
+
+		static final ColumnCatalog EMPTY = new ColumnCatalog(List.of(), Map.of(), Map.of());
+
+		static ColumnCatalog of(List<CoreColumnRef> all, Map<String, List<CoreColumnRef>> byAlias) {
+			Map<String, List<CoreColumnRef>> byName = new HashMap<>();
+			for (CoreColumnRef c : all)
+				byName.computeIfAbsent(c.name().toLowerCase(Locale.ROOT), k -> new ArrayList<>(1)).add(c);
+			return new ColumnCatalog(all, byName, byAlias);
+		}
+	}
 
 	/**
-	 * Lista de columnas totalmente calificadas (alias o tabla + nombre) para todo
-	 * el árbol.
+	 * Catálogo por subárbol (por identidad), construido una sola vez por
+	 * normalización: la expansión de * / t.* y cada IN/EXISTS levantado lo
+	 * reutilizan en lugar de recorrer el árbol de nuevo.
 	 */
-	private List<CoreColumnRef> columnsQualifiedFromTree(CoreRel tree) {
-		List<CoreColumnRef> out = new ArrayList<>();
+	private final Map<CoreRel, ColumnCatalog> catalogs = new IdentityHashMap<>();
+
+	private ColumnCatalog catalog(CoreRel tree) {
+		ColumnCatalog cached = catalogs.get(tree);
+		if (cached != null)
+			return cached;
+
+		ColumnCatalog out;
 		if (tree instanceof CoreTable t) {
 			String tname = norm(t.name());
-			if (tname != null) {
+			if (tname == null) {
+				out = ColumnCatalog.EMPTY;
+			} else {
 				Set<String> cols = schema.columnsByTable().getOrDefault(tname, Set.of());
+				List<CoreColumnRef> all = new ArrayList<>(cols.size());
 				for (String c : cols)
-					out.add(new CoreColumnRef(t.name(), c)); // calificador = nombre tabla
+					all.add(new CoreColumnRef(t.name(), c)); // calificador = nombre tabla
+				out = ColumnCatalog.of(all, Map.of(tname, all));
 			}
 		} else if (tree instanceof CoreAlias a) {
-			// Califica con el alias
-			for (CoreColumnRef c : columnsQualifiedFromTree(a.input())) {
-				out.add(new CoreColumnRef(a.alias(), c.name()));
-			}
+			// Califica con el alias; t.* con este alias no baja más
+			ColumnCatalog inner = catalog(a.input());
+			List<CoreColumnRef> all = new ArrayList<>(inner.all().size());
+			for (CoreColumnRef c : inner.all())
+				all.add(new CoreColumnRef(a.alias(), c.name()));
+			Map<String, List<CoreColumnRef>> byAlias = new HashMap<>(inner.byAlias());
+			String alias = norm(a.alias());
+			if (alias != null)
+				byAlias.put(alias, all);
+			out = ColumnCatalog.of(all, byAlias);
 		} else if (tree instanceof CoreProject p) {
 			// Si * ya fue expandido, podrías derivar de items; aquí tomamos el input para
 			// mantener simple
-			out.addAll(columnsQualifiedFromTree(p.input()));
+			out = catalog(p.input());
 		} else if (tree instanceof CoreSelect s) {
-			out.addAll(columnsQualifiedFromTree(s.input()));
+			out = catalog(s.input());
 		} else if (tree instanceof CoreProduct pr) {
-			out.addAll(columnsQualifiedFromTree(pr.left()));
-			out.addAll(columnsQualifiedFromTree(pr.right()));
+			out = merge(catalog(pr.left()), catalog(pr.right()));
 		} else if (tree instanceof CoreJoin j) {
-			out.addAll(columnsQualifiedFromTree(j.left()));
-			out.addAll(columnsQualifiedFromTree(j.right()));
+			out = merge(catalog(j.left()), catalog(j.right()));
 		} else if (tree instanceof CoreUnion u) {
-			out.addAll(columnsQualifiedFromTree(u.left()));
-			out.addAll(columnsQualifiedFromTree(u.right()));
+			out = merge(catalog(u.left()), catalog(u.right()));
 		} else if (tree instanceof CoreIntersect i) {
-			out.addAll(columnsQualifiedFromTree(i.left()));
-			out.addAll(columnsQualifiedFromTree(i.right()));
+			out = merge(catalog(i.left()), catalog(i.right()));
 		} else if (tree instanceof CoreExcept e) {
-			out.addAll(columnsQualifiedFromTree(e.left()));
-			out.addAll(columnsQualifiedFromTree(e.right()));
+			out = merge(catalog(e.left()), catalog(e.right()));
+		} else {
+			out = ColumnCatalog.EMPTY;
 		}
+		catalogs.put(tree, out);
+		return out;
+	}
+
+	/** Izquierda y luego derecha, también dentro de cada nombre/alias. */
+	private static ColumnCatalog merge(ColumnCatalog left, ColumnCatalog right) {
+		if (right.all().isEmpty() && right.byAlias().isEmpty())
+			return left;
+		if (left.all().isEmpty() && left.byAlias().isEmpty())
+			return right;
+		List<CoreColumnRef> all = new ArrayList<>(left.all().size() + right.all().size());
+		all.addAll(left.all());
+		all.addAll(right.all());
+		return new ColumnCatalog(all, concat(left.byName(), right.byName()), concat(left.byAlias(), right.byAlias()));
+	}
+
+	private static Map<String, List<CoreColumnRef>> concat(Map<String, List<CoreColumnRef>> a,
+			Map<String, List<CoreColumnRef>> b) {
+		Map<String, List<CoreColumnRef>> out = new HashMap<>(a);
+		b.forEach((k, v) -> out.merge(k, v, (x, y) -> {
+			List<CoreColumnRef> both = new ArrayList<>(x.size() + y.size());
+			both.addAll(x);
+			both.addAll(y);
+			return both;
+		}));
 		return out;
 	}
 
+	/**
+	 * Lista de columnas totalmente calificadas (alias o tabla + nombre) para todo
+	 * el árbol.
+	 */
+	private List<CoreColumnRef> columnsQualifiedFromTree(CoreRel tree) {
+		return catalog(tree).all();
+	}
+
 	/**
 	 * Columnas calificadas solo de la relación cuyo alias o nombre coincide
 	 * (case-insensitive).
@@ -383,44 +446,7 @@ public final class SqlToCoreNormalizer {
 		String target = norm(relOrAlias);
 		if (target == null)
 			return List.of();
-
-		List<CoreColumnRef> out = new ArrayList<>();
-		if (tree instanceof CoreTable t) {
-			String tname = norm(t.name());
-			if (target.equals(tname)) {
-				Set<String> cols = schema.columnsByTable().getOrDefault(tname, Set.of());
-				for (String c : cols)
-					out.add(new CoreColumnRef(t.name(), c));
-			}
-		} else if (tree instanceof CoreAlias a) {
-			if (target.equals(norm(a.alias()))) {
-				for (CoreColumnRef c : columnsQualifiedFromTree(a.input())) {
-					out.add(new CoreColumnRef(a.alias(), c.name()));
-				}
-			} else {
-				out.addAll(columnsFromAliasOrTable(a.input(), relOrAlias));
-			}
-		} else if (tree instanceof CoreProject p) {
-			out.addAll(columnsFromAliasOrTable(p.input(), relOrAlias));
-		} else if (tree instanceof CoreSelect s) {
-			out.addAll(columnsFromAliasOrTable(s.input(), relOrAlias));
-		} else if (tree instanceof CoreProduct pr) {
-			out.addAll(columnsFromAliasOrTable(pr.left(), relOrAlias));
-			out.addAll(columnsFromAliasOrTable(pr.right(), relOrAlias));
-		} else if (tree instanceof CoreJoin j) {
-			out.addAll(columnsFromAliasOrTable(j.left(), relOrAlias));
-			out.addAll(columnsFromAliasOrTable(j.right(), relOrAlias));
-		} else if (tree instanceof CoreUnion u) {
-			out.addAll(columnsFromAliasOrTable(u.left(), relOrAlias));
-			out.addAll(columnsFromAliasOrTable(u.right(), relOrAlias));
-		} else if (tree instanceof CoreIntersect i) {
-			out.addAll(columnsFromAliasOrTable(i.left(), relOrAlias));
-			out.addAll(columnsFromAliasOrTable(i.right(), relOrAlias));
-		} else if (tree instanceof CoreExcept e) {
-			out.addAll(columnsFromAliasOrTable(e.left(), relOrAlias));
-			out.addAll(columnsFromAliasOrTable(e.right(), relOrAlias));
-		}
-		return out;
+		return catalog(tree).byAlias().getOrDefault(target, List.of());
 	}
 	
 	// Devuelve null si el predicado de entrada es null; en otro caso normaliza
@@ -451,11 +477,11 @@ public final class SqlToCoreNormalizer {
 	    if (!(e instanceof CoreColumnRef c) || c.relOrNull() != null) return e;
 
 	    String target = c.name();
+	    if (target == null) return e;
 
 	    // Busca candidatos con ese nombre dentro del árbol 'scope'
-	    java.util.List<CoreColumnRef> candidates = columnsQualifiedFromTree(scope).stream()
-	        .filter(cc -> cc.name().equalsIgnoreCase(target))
-	        .toList();
+	    java.util.List<CoreColumnRef> candidates = catalog(scope).byName()
+	        .getOrDefault(target.toLowerCase(Locale.ROOT), java.util.List.of());
 
 	    if (candidates.isEmpty()) {
 	        return e; // no encontrado aquí; deja que otra etapa lo maneje
@@ -0,0 +1,321 @@
+package com.ipn.escom.conversor_sql.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import com.ipn.escom.conversor_sql.core.TypeResolver.ValueType;
+import com.ipn.escom.conversor_sql.core.expresiones.CoreBinArith;
+import com.ipn.escom.conversor_sql.core.expresiones.CoreColumnRef;
+import com.ipn.escom.conversor_sql.core.expresiones.CoreExpr;
+import com.ipn.escom.conversor_sql.core.expresiones.CoreNull;
+import com.ipn.escom.conversor_sql.core.expresiones.CoreNumber;
+import com.ipn.escom.conversor_sql.core.expresiones.CoreParen;
+import com.ipn.escom.conversor_sql.core.expresiones.CoreString;
+import com.ipn.escom.conversor_sql.core.expresiones.CoreUnaryArith;
+import com.ipn.escom.conversor_sql.core.predicados.CoreAnd;
+import com.ipn.escom.conversor_sql.core.predicados.CoreBetween;
+import com.ipn.escom.conversor_sql.core.predicados.CoreCmp;
+import com.ipn.escom.conversor_sql.core.predicados.CoreExists;
+import com.ipn.escom.conversor_sql.core.predicados.CoreInList;
+import com.ipn.escom.conversor_sql.core.predicados.CoreInSubselect;
+import com.ipn.escom.conversor_sql.core.predicados.CoreNot;
+import com.ipn.escom.conversor_sql.core.predicados.CoreNotExists;
+import com.ipn.escom.conversor_sql.core.predicados.CoreOr;
+import com.ipn.escom.conversor_sql.core.predicados.CorePred;
+import com.ipn.escom.conversor_sql.core.proyeccion.CoreProjAll;
+import com.ipn.escom.conversor_sql.core.proyeccion.CoreProjAllFrom;
+import com.ipn.escom.conversor_sql.core.proyeccion.CoreProjExpr;
+import com.ipn.escom.conversor_sql.core.proyeccion.CoreProjItem;
+import com.ipn.escom.conversor_sql.core.relacionales.CoreAlias;
+import com.ipn.escom.conversor_sql.core.relacionales.CoreExcept;
+import com.ipn.escom.conversor_sql.core.relacionales.CoreIntersect;
+import com.ipn.escom.conversor_sql.core.relacionales.CoreJoin;
+import com.ipn.escom.conversor_sql.core.relacionales.CoreNaturalJoin;
+import com.ipn.escom.conversor_sql.core.relacionales.CoreProduct;
+import com.ipn.escom.conversor_sql.core.relacionales.CoreProject;
+import com.ipn.escom.conversor_sql.core.relacionales.CoreRel;
+import com.ipn.escom.conversor_sql.core.relacionales.CoreSelect;
+import com.ipn.escom.conversor_sql.core.relacionales.CoreTable;
+import com.ipn.escom.conversor_sql.core.relacionales.CoreUnion;
+import com.ipn.escom.conversor_sql.core.subselect.CoreSubselect;
+import com.ipn.escom.conversor_sql.models.TipoDetallado;
+import com.ipn.escom.conversor_sql.models.ValidationMessage;
+import com.ipn.escom.conversor_sql.validation.ValidationResult;
+
+/**
+ * Todas las invariantes de {@link CoreInvariants} en un solo recorrido del
+ * árbol: estructura, tablas y columnas (contra {@link SchemaGuards}) y tipos
+ * en predicados ({@link TypeResolver}).
+ * <p>
+ * Cada familia de chequeos escribe en su propia cubeta y al final se
+ * concatenan en ese orden. Columnas y tipos se reportan en preorden; como el
+ * Scope de un nodo se conoce al volver de sus hijos, sus mensajes se mueven
+ * delante de los de los hijos.
+ * <p>
+ * Los subselects son otro árbol, con su propio contexto: se recorren con una
+ * instancia sin esquema que solo aporta los chequeos estructurales.
+ * <p>
+ * Una instancia por validación (no es thread-safe).
+ */
+final class FusedInvariants {
+
+  /** null: solo chequeos estructurales (subselects). */
+  private final SchemaGuards guards;
+
+  private final Bucket nodes = new Bucket();
+  private final Bucket tables = new Bucket();
+  private final Bucket columns = new Bucket();
+  private final Bucket types = new Bucket();
+
+  /**
+   * Los chequeos de tipos nunca bajaron por CoreAlias (el recorrido de
+   * predicados no lo visitaba); se conserva para no cambiar los mensajes.
+   */
+  private int bajoAlias;
+
+  FusedInvariants(SchemaGuards guards) {
+    this.guards = guards;
+  }
+
+  ValidationResult validate(CoreRel root) {
+    rel(root);
+    List<ValidationMessage> all = new ArrayList<>(
+        nodes.size() + tables.size() + columns.size() + types.size());
+    all.addAll(nodes.msgs);
+    all.addAll(tables.msgs);
+    all.addAll(columns.msgs);
+    all.addAll(types.msgs);
+
+    ValidationResult vr = ValidationResult.builder().build();
+    vr.setMensajes(all);
+    return vr;
+  }
+
+  /* ============================ Relaciones ============================ */
+
+  private SchemaGuards.Scope rel(CoreRel r) {
+    Objects.requireNonNull(r);
+    int c0 = columns.size();
+    int t0 = types.size();
+    SchemaGuards.Scope out;
+
+    if (r instanceof CoreProject p) {
+      if (p.items() == null || p.items().isEmpty()) nodes.logico("La proyección no puede estar vacía");
+      out = rel(p.input());
+      int c1 = columns.size();
+      for (CoreProjItem it : p.items()) proj(it, out);
+      columns.moveTail(c0, c1);
+    } else if (r instanceof CoreSelect s) {
+      out = rel(s.input());
+      int c1 = columns.size(), t1 = types.size();
+      pred(s.predicate(), out);
+      columns.moveTail(c0, c1);
+      types.moveTail(t0, t1);
+    } else if (r instanceof CoreProduct x) {
+      out = SchemaGuards.merge(rel(x.left()), rel(x.right()));
+    } else if (r instanceof CoreJoin j) {
+      out = SchemaGuards.merge(rel(j.left()), rel(j.right()));
+      int c1 = columns.size(), t1 = types.size();
+      if (containsSubquery(j.on())) {
+        nodes.logico("Subconsultas solo se permiten en WHERE externo, no en ON.");
+      }
+      pred(j.on(), out);
+      columns.moveTail(c0, c1);
+      types.moveTail(t0, t1);
+    } else if (r instanceof CoreNaturalJoin nj) {
+      out = SchemaGuards.merge(rel(nj.left()), rel(nj.right()));
+    } else if (r instanceof CoreUnion u) {
+      out = rel(u.left());
+      rel(u.right());
+    } else if (r instanceof CoreIntersect i) {
+      out = rel(i.left());
+      rel(i.right());
+    } else if (r instanceof CoreExcept e) {
+      out = rel(e.left());
+      rel(e.right());
+    } else if (r instanceof CoreAlias a) {
+      if (a.alias() == null || a.alias().isBlank()) {
+        nodes.sintaxis("Alias vacío en CoreAlias.");
+      }
+      bajoAlias++;
+      SchemaGuards.Scope inner = rel(a.input());
+      bajoAlias--;
+      out = SchemaGuards.aliasScope(a.alias(), inner);
+    } else if (r instanceof CoreTable t) {
+      if (t.name() == null || t.name().isBlank()) {
+        nodes.sintaxis("Nombre de tabla vacío.");
+      }
+      if (guards == null) {
+        out = SchemaGuards.Scope.EMPTY;
+      } else {
+        if (!guards.tableExists(t.name())) {
+          tables.logico("Tabla no encontrada en esquema: " + t.name());
+        }
+        out = guards.tableScope(t.name());
+      }
+    } else {
+      String msg = "Nodo relacional no soportado: " + r.getClass().getSimpleName();
+      nodes.logico(msg);
+      columns.logico(msg);
+      out = SchemaGuards.Scope.EMPTY;
+    }
+    return out;
+  }
+
+  private void proj(CoreProjItem it, SchemaGuards.Scope vis) {
+    if (it instanceof CoreProjAll) return;
+    if (it instanceof CoreProjAllFrom p) {
+      if (p.relOrAlias() == null || p.relOrAlias().isBlank()) {
+        nodes.sintaxis("t.* con calificador vacío.");
+      }
+      return;
+    }
+    if (it instanceof CoreProjExpr pe) {
+      expr(pe.expr(), vis);
+      return;
+    }
+    nodes.logico("Item de proyección no soportado: " + it.getClass().getSimpleName());
+  }
+
+  /* ============================ Predicados ============================ */
+
+  private void pred(CorePred p, SchemaGuards.Scope vis) {
+    if (p == null) {
+      nodes.advertencia("Predicado nulo (se interpretará como TRUE).");
+      return;
+    }
+    if (p instanceof CoreAnd a) {
+      pred(a.a(), vis); pred(a.b(), vis);
+    } else if (p instanceof CoreOr o) {
+      pred(o.a(), vis); pred(o.b(), vis);
+    } else if (p instanceof CoreNot n) {
+      pred(n.a(), vis);
+    } else if (p instanceof CoreCmp c) {
+      ValueType lt = expr(c.left(), vis);
+      ValueType rt = expr(c.right(), vis);
+      if (!TypeResolver.comparable(lt, rt)) {
+        tipo("Comparación incompatible: " + lt + " " + c.op() + " " + rt);
+      }
+    } else if (p instanceof CoreBetween bt) {
+      ValueType vt = expr(bt.value(), vis);
+      ValueType lo = expr(bt.low(), vis);
+      ValueType hi = expr(bt.high(), vis);
+      if (!(TypeResolver.comparable(vt, lo) && TypeResolver.comparable(vt, hi))) {
+        tipo("BETWEEN con tipos incompatibles: " + vt + " entre " + lo + " y " + hi);
+      }
+    } else if (p instanceof CoreInList in) {
+      if (in.rightList() == null || in.rightList().isEmpty()) {
+        nodes.logico("IN (...) no puede estar vacío.");
+      }
+      ValueType base = expr(in.left(), vis);
+      boolean reportado = false;
+      for (CoreExpr e : in.rightList()) {
+        ValueType t = expr(e, vis);
+        if (!reportado && !TypeResolver.comparable(base, t)) {
+          tipo("IN lista con tipos incompatibles: " + base + " vs " + t);
+          reportado = true;
+        }
+      }
+    } else if (p instanceof CoreInSubselect inSub) {
+      subselect(inSub.sub());
+      expr(inSub.left(), vis);
+    } else if (p instanceof CoreExists ex) {
+      subselect(ex.sub());
+    } else if (p instanceof CoreNotExists nex) {
+      subselect(nex.sub());
+      nodes.advertencia("NOT EXISTS será rechazado en normalización (anti-join no implementado).");
+    } else {
+      nodes.logico("Predicado no soportado: " + p.getClass().getSimpleName());
+    }
+  }
+
+  private void tipo(String msg) {
+    if (bajoAlias == 0) types.logico(msg);
+  }
+
+  /** El subselect solo lleva chequeos estructurales (es otro árbol, con su propio contexto). */
+  private void subselect(CoreSubselect s) {
+    if (s == null) { nodes.sintaxis("Subselect nulo."); return; }
+    if (!(s.oneProjected() instanceof CoreProjExpr)) {
+      nodes.logico("El subselect debe proyectar exactamente una columna/expresión.");
+    }
+    FusedInvariants sub = new FusedInvariants(null);
+    sub.rel(s.fromTree());
+    nodes.msgs.addAll(sub.nodes.msgs);
+    if (s.whereOrNull() != null && containsSubquery(s.whereOrNull())) {
+      nodes.logico("El WHERE interno del subselect no puede contener subconsultas.");
+    }
+  }
+
+  private static boolean containsSubquery(CorePred p) {
+    if (p == null) return false;
+    if (p instanceof CoreInSubselect || p instanceof CoreExists || p instanceof CoreNotExists) return true;
+    if (p instanceof CoreAnd a) return containsSubquery(a.a()) || containsSubquery(a.b());
+    if (p instanceof CoreOr  o) return containsSubquery(o.a()) || containsSubquery(o.b());
+    if (p instanceof CoreNot n) return containsSubquery(n.a());
+    return false;
+  }
+
+  /* ============================ Expresiones ============================ */
+
+  /** Chequeos estructurales y de columnas; devuelve el tipo para los chequeos de predicados. */
+  private ValueType expr(CoreExpr e, SchemaGuards.Scope vis) {
+    if (e == null) { nodes.sintaxis("Expresión nula."); return ValueType.UNKNOWN; }
+    if (e instanceof CoreColumnRef c) {
+      if (c.name() == null || c.name().isBlank()) {
+        nodes.sintaxis("Referencia a columna sin nombre.");
+      }
+      String error = (guards == null) ? null : guards.columnRefError(c, vis);
+      if (error != null) columns.logico(error);
+      return ValueType.UNKNOWN;
+    }
+    if (e instanceof CoreNumber n) {
+      if (n.lexeme() == null || n.lexeme().isBlank()) {
+        nodes.sintaxis("Número vacío.");
+      }
+      return ValueType.NUMBER;
+    }
+    if (e instanceof CoreString) return ValueType.STRING;
+    if (e instanceof CoreNull)   return ValueType.NULL;
+    if (e instanceof CoreParen p) return expr(p.inner(), vis);
+    if (e instanceof CoreUnaryArith ua) {
+      return (expr(ua.a(), vis) == ValueType.NUMBER) ? ValueType.NUMBER : ValueType.UNKNOWN;
+    }
+    if (e instanceof CoreBinArith ba) {
+      ValueType L = expr(ba.left(), vis);
+      ValueType R = expr(ba.right(), vis);
+      if (L == ValueType.NUMBER && R == ValueType.NUMBER) return ValueType.NUMBER;
+      return ValueType.UNKNOWN;
+    }
+    nodes.logico("Expresión no soportada: " + e.getClass().getSimpleName());
+    return ValueType.UNKNOWN;
+  }
+
+  /* ============================ Cubetas ============================ */
+
+  private static final class Bucket {
+    final ArrayList<ValidationMessage> msgs = new ArrayList<>();
+
+    int size() { return msgs.size(); }
+
+    void logico(String contenido) { add("error", TipoDetallado.ERROR_LOGICO, contenido); }
+
+    void sintaxis(String contenido) { add("error", TipoDetallado.ERROR_SINTAXIS, contenido); }
+
+    void advertencia(String contenido) { add("advertencia", TipoDetallado.ADVERTENCIA, contenido); }
+
+    private void add(String tipo, TipoDetallado detalle, String contenido) {
+      msgs.add(new ValidationMessage(tipo, detalle, contenido));
+    }
+
+    /** Mueve los mensajes agregados desde {@code desde} a la posición {@code a} (preorden). */
+    void moveTail(int a, int desde) {
+      int fin = msgs.size();
+      if (desde > a && fin > desde) {
+        Collections.rotate(msgs.subList(a, fin), fin - desde);
+      }
+    }
+  }
+}
@@ -3,9 +3,12 @@ package com.ipn.escom.conversor_sql.exceptions;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.validation.method.ParameterErrors;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
+import org.springframework.web.server.ResponseStatusException;
 
 import com.ipn.escom.conversor_sql.models.TipoDetallado;
 import com.ipn.escom.conversor_sql.validation.ValidationResult;
@@ -30,6 +33,37 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(vr);
     }
 
+    /**
+     * Restricciones sobre los parámetros del método, p. ej. los elementos de
+     * {@code @RequestBody List<@Valid @NotNull ...>}: mismos mensajes que
+     * {@link #handleValidation}, con el índice del elemento en el campo.
+     */
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    public ResponseEntity<ValidationResult> handleMethodValidation(HandlerMethodValidationException ex) {
+        ValidationResult vr = new ValidationResult();
+        ex.getParameterValidationResults().forEach(result -> {
+            String campo = result.getMethodParameter().getParameterName()
+                    + (result.getContainerIndex() != null ? "[" + result.getContainerIndex() + "]" : "");
+            if (result instanceof ParameterErrors errors) {
+                errors.getFieldErrors().forEach(err ->
+                        vr.agregarMensaje("error", TipoDetallado.ERROR_LOGICO,
+                                "Campo inválido '" + campo + "." + err.getField() + "': " + err.getDefaultMessage()));
+            } else {
+                result.getResolvableErrors().forEach(err ->
+                        vr.agregarMensaje("error", TipoDetallado.ERROR_LOGICO,
+                                "Campo inválido '" + campo + "': " + err.getDefaultMessage()));
+            }
+        });
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(vr);
+    }
+
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ValidationResult> handleStatus(ResponseStatusException ex) {
+        ValidationResult vr = new ValidationResult();
+        vr.agregarMensaje("error", TipoDetallado.ERROR_LOGICO, ex.getReason());
+        return ResponseEntity.status(ex.getStatusCode()).body(vr);
+    }
+
     // Fallback
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ValidationResult> handleGeneric(Exception ex) {
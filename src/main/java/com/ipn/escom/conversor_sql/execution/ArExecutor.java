@@ -0,0 +1,215 @@
+package com.ipn.escom.conversor_sql.execution;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.ipn.escom.conversor_sql.ar.ArPrinter;
+import com.ipn.escom.conversor_sql.ar.expresiones.ArCol;
+import com.ipn.escom.conversor_sql.ar.predicados.ArPredInterface;
+import com.ipn.escom.conversor_sql.ar.proyeccion.ArProjExpr;
+import com.ipn.escom.conversor_sql.ar.proyeccion.ArProjItem;
+import com.ipn.escom.conversor_sql.ar.relacionales.ArBase;
+import com.ipn.escom.conversor_sql.ar.relacionales.ArExcept;
+import com.ipn.escom.conversor_sql.ar.relacionales.ArIntersect;
+import com.ipn.escom.conversor_sql.ar.relacionales.ArJoin;
+import com.ipn.escom.conversor_sql.ar.relacionales.ArNaturalJoin;
+import com.ipn.escom.conversor_sql.ar.relacionales.ArProduct;
+import com.ipn.escom.conversor_sql.ar.relacionales.ArProject;
+import com.ipn.escom.conversor_sql.ar.relacionales.ArRel;
+import com.ipn.escom.conversor_sql.ar.relacionales.ArRename;
+import com.ipn.escom.conversor_sql.ar.relacionales.ArSelect;
+import com.ipn.escom.conversor_sql.ar.relacionales.ArUnion;
+import com.ipn.escom.conversor_sql.validation.schema.SchemaIndex;
+
+/**
+ * Evalúa un árbol {@link ArRel} sobre {@link TableData}. Cada nodo se traduce a
+ * un {@link Operator} (modelo iterador) y el resultado se obtiene pidiendo
+ * tuplas a la raíz hasta {@link ExecutionLimits#maxResultRows()}: al llegar al
+ * tope se deja de pedir, así que el resto del plan no se evalúa.
+ * <p>
+ * Semántica de AR: toda relación es un conjunto (π, ∪, ∩ y − eliminan
+ * duplicados) y los predicados usan lógica de tres valores con NULL.
+ * <p>
+ * Las tuplas que guardan los operadores se descuentan de
+ * {@link ExecutionLimits#memoryBudgetBytes()}; lo que no cabe va a archivos
+ * temporales en {@code spillDir}, que se borran al terminar la ejecución.
+ */
+public final class ArExecutor {
+
+	private final TableData data;
+	private final ExecutionLimits limits;
+	private final Path spillDir;
+
+	/** Archivos temporales en {@code java.io.tmpdir}. */
+	public ArExecutor(TableData data, ExecutionLimits limits) {
+		this(data, limits, Path.of(System.getProperty("java.io.tmpdir")));
+	}
+
+	public ArExecutor(TableData data, ExecutionLimits limits, Path spillDir) {
+		this.data = data;
+		this.limits = limits;
+		this.spillDir = spillDir;
+	}
+
+	/**
+	 * Lanza {@link ExecutionLimitException} si se rebasa el tope de filas
+	 * examinadas o el tiempo, e IllegalArgumentException si el plan no se puede
+	 * evaluar con estos datos (columna inexistente, tipos incomparables...).
+	 */
+	public ExecutionResult execute(ArRel plan) {
+		ExecutionContext ctx = new ExecutionContext(limits, spillDir);
+		Operator root = compile(plan, ctx);
+
+		List<Object[]> rows = new ArrayList<>();
+		boolean truncated = false;
+		try {
+			root.open();
+			Object[] row;
+			while ((row = root.next()) != null) {
+				if (rows.size() >= limits.maxResultRows()) {
+					truncated = true;
+					break;
+				}
+				rows.add(row);
+			}
+		} finally {
+			try {
+				root.close();
+			} finally {
+				ctx.closeSpills();
+			}
+		}
+		return new ExecutionResult(root.header().names(), rows, truncated, ctx.examined(), ctx.spilledBytes());
+	}
+
+	private Operator compile(ArRel n, ExecutionContext ctx) {
+		if (n instanceof ArBase b) {
+			String table = SchemaIndex.normalize(b.name());
+			return new ColumnarScanOperator(data.header(table, b.name()), data.table(table), ctx);
+		}
+		if (n instanceof ArRename r) {
+			Operator in = compile(r.input(), ctx);
+			if (in instanceof ColumnarScanOperator scan)
+				return scan.renamed(r.alias());
+			return new RenameOperator(in, r.alias());
+		}
+		if (n instanceof ArSelect s) {
+			// σθ(L × R) es L ⋈θ R: así un WHERE con igualdades entre tablas también usa hash
+			if (s.input() instanceof ArProduct x)
+				return join(compile(x.left(), ctx), compile(x.right(), ctx), s.predicate(), ctx);
+			Operator in = compile(s.input(), ctx);
+			// σ sobre una tabla se evalúa por lotes sobre sus columnas
+			if (in instanceof ColumnarScanOperator scan && scan.unfiltered())
+				return scan.filtered(s.predicate());
+			return new SelectOperator(in, ExprCompiler.compile(s.predicate(), in.header()));
+		}
+		if (n instanceof ArProject p) {
+			return project(compile(p.input(), ctx), p.items(), ctx);
+		}
+		if (n instanceof ArProduct x) {
+			return new NestedLoopJoinOperator(compile(x.left(), ctx), compile(x.right(), ctx), null, ctx);
+		}
+		if (n instanceof ArJoin j) {
+			return join(compile(j.left(), ctx), compile(j.right(), ctx), j.on(), ctx);
+		}
+		if (n instanceof ArNaturalJoin j) {
+			return naturalJoin(compile(j.left(), ctx), compile(j.right(), ctx), ctx);
+		}
+		if (n instanceof ArUnion u) {
+			return new SetOperator(SetOperator.Kind.UNION, compile(u.left(), ctx), compile(u.right(), ctx), ctx);
+		}
+		if (n instanceof ArIntersect i) {
+			return new SetOperator(SetOperator.Kind.INTERSECT, compile(i.left(), ctx), compile(i.right(), ctx), ctx);
+		}
+		if (n instanceof ArExcept e) {
+			return new SetOperator(SetOperator.Kind.EXCEPT, compile(e.left(), ctx), compile(e.right(), ctx), ctx);
+		}
+		throw new IllegalArgumentException("AR no soportado en la ejecución: " + n.getClass().getSimpleName());
+	}
+
+	/**
+	 * ⋈θ: por hash si θ tiene igualdades entre los dos lados (el resto de θ se
+	 * evalúa sobre los pares que coinciden; si las entradas no caben en memoria
+	 * el hash pasa a ordenamiento y mezcla), por ciclos anidados si no.
+	 */
+	private Operator join(Operator left, Operator right, ArPredInterface on, ExecutionContext ctx) {
+		// Se liga completo primero: columnas inexistentes o ambiguas fallan igual en ambos casos
+		RowPredicate full = ExprCompiler.compile(on, left.header().concat(right.header()));
+		JoinKeys keys = JoinKeys.of(on, left.header(), right.header());
+		if (keys == null)
+			return new NestedLoopJoinOperator(left, right, full, ctx);
+		return new HashJoinOperator(left, right, keys.left(), keys.right(), keys.residualOrNull(), ctx);
+	}
+
+	private Operator project(Operator in, List<ArProjItem> items, ExecutionContext ctx) {
+		Header h = in.header();
+		ArPrinter printer = new ArPrinter();
+		RowExpr[] exprs = new RowExpr[items.size()];
+		String[] rels = new String[items.size()];
+		String[] names = new String[items.size()];
+		for (int i = 0; i < items.size(); i++) {
+			if (!(items.get(i) instanceof ArProjExpr pe))
+				throw new IllegalArgumentException("Item de proyección no soportado: " + items.get(i));
+			exprs[i] = ExprCompiler.compile(pe.expr(), h);
+			String alias = pe.aliasOrNull();
+			if (alias != null && !alias.isBlank()) {
+				names[i] = alias;
+			} else if (pe.expr() instanceof ArCol c) {
+				// Una columna conserva su nombre y su calificador
+				int idx = h.indexOf(c.relOrNull(), c.name());
+				names[i] = h.name(idx);
+				rels[i] = h.relation(idx);
+			} else {
+				names[i] = printer.print(pe.expr());
+			}
+		}
+		return new ProjectOperator(in, exprs, new Header(rels, names), true, ctx);
+	}
+
+	/**
+	 * ⋈ natural: join por hash sobre las columnas de mismo nombre y después una
+	 * proyección (sin eliminar duplicados, no hace falta) que deja una sola copia
+	 * de cada columna común. Sin columnas comunes es un producto.
+	 */
+	private Operator naturalJoin(Operator left, Operator right, ExecutionContext ctx) {
+		Header lh = left.header();
+		Header rh = right.header();
+		int leftWidth = lh.size();
+
+		boolean[] common = new boolean[rh.size()];
+		int[] leftIndex = new int[rh.size()];
+		List<RowExpr> leftKeys = new ArrayList<>();
+		List<RowExpr> rightKeys = new ArrayList<>();
+		for (int j = 0; j < rh.size(); j++) {
+			int i = lh.indexOfName(rh.name(j));
+			leftIndex[j] = i;
+			if (i >= 0) {
+				common[j] = true;
+				int r = j;
+				leftKeys.add(row -> row[i]);
+				rightKeys.add(row -> row[r]);
+			}
+		}
+		if (leftKeys.isEmpty())
+			return new NestedLoopJoinOperator(left, right, null, ctx);
+
+		Operator join = new HashJoinOperator(left, right, leftKeys.toArray(RowExpr[]::new),
+				rightKeys.toArray(RowExpr[]::new), null, ctx);
+
+		Header out = lh.naturalJoin(rh, common, leftIndex);
+		RowExpr[] exprs = new RowExpr[out.size()];
+		int k = 0;
+		for (int i = 0; i < leftWidth; i++) {
+			int idx = i;
+			exprs[k++] = row -> row[idx];
+		}
+		for (int j = 0; j < rh.size(); j++) {
+			if (!common[j]) {
+				int idx = leftWidth + j;
+				exprs[k++] = row -> row[idx];
+			}
+		}
+		return new ProjectOperator(join, exprs, out, false, ctx);
+	}
+}
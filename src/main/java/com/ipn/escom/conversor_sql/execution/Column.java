@@ -0,0 +1,160 @@
+package com.ipn.escom.conversor_sql.execution;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.ipn.escom.conversor_sql.validation.sql.TypeSystem.TypeCategory;
+
+/**
+ * Columna de una {@link ColumnarTable}: los valores de todas las filas en un
+ * arreglo de primitivos cuando el tipo lo permite, más un mapa de bits con las
+ * filas NULL (bit {@code i} de la palabra {@code i / 64}; {@code null} si la
+ * columna no tiene NULL).
+ */
+abstract sealed class Column permits Column.Decimal, Column.Dictionary, Column.Objects {
+
+	private final long[] nulls;
+
+	private Column(long[] nulls) {
+		this.nulls = nulls;
+	}
+
+	/**
+	 * Columna para los valores (ya convertidos por {@link TableData}) de una
+	 * columna de esa categoría: numérica en {@code long[]} si todos caben con
+	 * una misma escala, texto y fecha con diccionario, lo demás como objetos.
+	 */
+	static Column of(Object[] values, TypeCategory category) {
+		Column c = switch (category) {
+		case NUMERIC -> Decimal.tryOf(values);
+		case TEXT, DATE -> Dictionary.tryOf(values);
+		default -> null;
+		};
+		return (c != null) ? c : new Objects(values);
+	}
+
+	final boolean isNull(int row) {
+		return nulls != null && (nulls[row >>> 6] & (1L << row)) != 0;
+	}
+
+	/** Mapa de bits de NULL, o null si no hay ninguno. No se modifica. */
+	final long[] nulls() {
+		return nulls;
+	}
+
+	/** Valor de la fila en la forma de {@link Values}. */
+	abstract Object get(int row);
+
+	private static long[] nullMask(Object[] values) {
+		long[] mask = null;
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] == null) {
+				if (mask == null)
+					mask = new long[(values.length + 63) >>> 6];
+				mask[i >>> 6] |= 1L << i;
+			}
+		}
+		return mask;
+	}
+
+	/**
+	 * Números como enteros escalados: el valor de la fila {@code i} es
+	 * {@code unscaled[i] × 10^-scale}, con la misma escala para toda la columna.
+	 * Es exacto (un {@code double[]} no lo sería para {@code DECIMAL}).
+	 */
+	static final class Decimal extends Column {
+		/** Escala máxima que se guarda en long (más allá casi nada cabe). */
+		private static final int MAX_SCALE = 18;
+
+		final long[] unscaled;
+		final int scale;
+
+		private Decimal(long[] unscaled, int scale, long[] nulls) {
+			super(nulls);
+			this.unscaled = unscaled;
+			this.scale = scale;
+		}
+
+		/** null si algún valor no es número o no cabe en un long con la escala común. */
+		static Decimal tryOf(Object[] values) {
+			int scale = 0;
+			for (Object v : values) {
+				if (v == null)
+					continue;
+				if (!(v instanceof BigDecimal d))
+					return null;
+				scale = Math.max(scale, d.scale());
+			}
+			if (scale > MAX_SCALE)
+				return null;
+			long[] unscaled = new long[values.length];
+			for (int i = 0; i < values.length; i++) {
+				if (values[i] == null)
+					continue;
+				BigDecimal d = ((BigDecimal) values[i]).setScale(scale);
+				if (d.unscaledValue().bitLength() >= 64)
+					return null;
+				unscaled[i] = d.unscaledValue().longValue();
+			}
+			return new Decimal(unscaled, scale, nullMask(values));
+		}
+
+		@Override
+		Object get(int row) {
+			if (isNull(row))
+				return null;
+			if (scale == 0)
+				return BigDecimal.valueOf(unscaled[row]);
+			return Values.canonical(BigDecimal.valueOf(unscaled[row], scale));
+		}
+	}
+
+	/** Texto con diccionario: cada fila guarda el código de su valor. */
+	static final class Dictionary extends Column {
+		final int[] codes;
+		final String[] dictionary;
+
+		private Dictionary(int[] codes, String[] dictionary, long[] nulls) {
+			super(nulls);
+			this.codes = codes;
+			this.dictionary = dictionary;
+		}
+
+		/** null si algún valor no es texto. */
+		static Dictionary tryOf(Object[] values) {
+			Map<String, Integer> index = new HashMap<>();
+			int[] codes = new int[values.length];
+			for (int i = 0; i < values.length; i++) {
+				if (values[i] == null)
+					continue;
+				if (!(values[i] instanceof String s))
+					return null;
+				codes[i] = index.computeIfAbsent(s, k -> index.size());
+			}
+			String[] dictionary = new String[index.size()];
+			index.forEach((s, code) -> dictionary[code] = s);
+			return new Dictionary(codes, dictionary, nullMask(values));
+		}
+
+		@Override
+		Object get(int row) {
+			return isNull(row) ? null : dictionary[codes[row]];
+		}
+	}
+
+	/** Valores tal cual (booleanos, columnas de tipo desconocido y números que no caben en long). */
+	static final class Objects extends Column {
+		private final Object[] values;
+
+		private Objects(Object[] values) {
+			super(nullMask(values));
+			this.values = values;
+		}
+
+		@Override
+		Object get(int row) {
+			return values[row];
+		}
+	}
+}
@@ -0,0 +1,147 @@
+package com.ipn.escom.conversor_sql.execution;
+
+import com.ipn.escom.conversor_sql.ar.predicados.ArAnd;
+import com.ipn.escom.conversor_sql.ar.predicados.ArPredInterface;
+
+/**
+ * Lectura de una {@link ColumnarTable}, opcionalmente con σ (y ρ) integrados.
+ * Las filas se procesan por lotes de {@link VectorPredicate#BATCH}: la parte
+ * vectorizable del predicado marca las filas TRUE del lote y solo esas se
+ * convierten en tupla; la parte que no se puede vectorizar (si la hay) se
+ * evalúa después sobre cada una de esas tuplas.
+ */
+final class ColumnarScanOperator implements Operator {
+
+	private final Header header;
+	private final ColumnarTable table;
+	private final ExecutionContext ctx;
+	private final VectorPredicate filterOrNull;
+	private final RowPredicate residualOrNull;
+
+	private long[] isTrue;
+	private long[] isUnknown;
+	/** Filas del lote actual que pasan el filtro vectorizado. */
+	private int[] selected;
+	private int selectedCount;
+	private int selectedPos;
+	private int batchStart;
+
+	ColumnarScanOperator(Header header, ColumnarTable table, ExecutionContext ctx) {
+		this(header, table, ctx, null, null);
+	}
+
+	private ColumnarScanOperator(Header header, ColumnarTable table, ExecutionContext ctx,
+			VectorPredicate filterOrNull, RowPredicate residualOrNull) {
+		this.header = header;
+		this.table = table;
+		this.ctx = ctx;
+		this.filterOrNull = filterOrNull;
+		this.residualOrNull = residualOrNull;
+	}
+
+	/** true si todavía no tiene predicado (se le puede integrar un σ). */
+	boolean unfiltered() {
+		return filterOrNull == null && residualOrNull == null;
+	}
+
+	/** ρ: la misma lectura con las columnas calificadas con {@code alias}. */
+	ColumnarScanOperator renamed(String alias) {
+		return new ColumnarScanOperator(header.renamed(alias), table, ctx, filterOrNull, residualOrNull);
+	}
+
+	/**
+	 * σ: la misma lectura filtrada por {@code p}. Los conjuntos de un AND que
+	 * se pueden vectorizar van al filtro por lotes; los demás quedan como
+	 * predicado por tupla. Una fila pasa si todos son TRUE.
+	 */
+	ColumnarScanOperator filtered(ArPredInterface p) {
+		// Se liga completo primero: columnas inexistentes o ambiguas fallan igual que en σ
+		RowPredicate full = ExprCompiler.compile(p, header);
+		VectorPredicate vector = VectorCompiler.compile(p, header, table);
+		if (vector != null)
+			return new ColumnarScanOperator(header, table, ctx, vector, null);
+		if (!(p instanceof ArAnd a))
+			return new ColumnarScanOperator(header, table, ctx, null, full);
+
+		ArPredInterface vectorPart = null;
+		ArPredInterface rowPart = null;
+		for (ArPredInterface conjunct : JoinKeys.conjuncts(a)) {
+			if (VectorCompiler.compile(conjunct, header, table) != null)
+				vectorPart = (vectorPart == null) ? conjunct : new ArAnd(vectorPart, conjunct);
+			else
+				rowPart = (rowPart == null) ? conjunct : new ArAnd(rowPart, conjunct);
+		}
+		return new ColumnarScanOperator(header, table, ctx,
+				(vectorPart == null) ? null : VectorCompiler.compile(vectorPart, header, table),
+				(rowPart == null) ? null : ExprCompiler.compile(rowPart, header));
+	}
+
+	@Override
+	public Header header() {
+		return header;
+	}
+
+	@Override
+	public void open() {
+		batchStart = 0;
+		selectedCount = 0;
+		selectedPos = 0;
+		if (filterOrNull != null) {
+			isTrue = new long[VectorPredicate.BATCH / 64];
+			isUnknown = new long[VectorPredicate.BATCH / 64];
+			selected = new int[VectorPredicate.BATCH];
+		}
+	}
+
+	@Override
+	public Object[] next() {
+		if (filterOrNull == null) {
+			while (batchStart < table.rows()) {
+				ctx.tick();
+				Object[] row = table.row(batchStart++);
+				if (residualOrNull == null || Boolean.TRUE.equals(residualOrNull.test(row)))
+					return row;
+			}
+			return null;
+		}
+		while (true) {
+			while (selectedPos < selectedCount) {
+				Object[] row = table.row(selected[selectedPos++]);
+				if (residualOrNull == null || Boolean.TRUE.equals(residualOrNull.test(row)))
+					return row;
+			}
+			if (batchStart >= table.rows())
+				return null;
+			nextBatch();
+		}
+	}
+
+	/** Evalúa el filtro sobre el lote siguiente y junta las filas TRUE. */
+	private void nextBatch() {
+		int from = batchStart;
+		int to = Math.min(from + VectorPredicate.BATCH, table.rows());
+		batchStart = to;
+		ctx.tick(to - from);
+		filterOrNull.eval(from, to, isTrue, isUnknown);
+		int n = 0;
+		for (int w = 0, words = (to - from + 63) >>> 6; w < words; w++) {
+			long bits = isTrue[w];
+			while (bits != 0) {
+				int j = (w << 6) + Long.numberOfTrailingZeros(bits);
+				if (j >= to - from)
+					break;
+				selected[n++] = from + j;
+				bits &= bits - 1;
+			}
+		}
+		selectedCount = n;
+		selectedPos = 0;
+	}
+
+	@Override
+	public void close() {
+		isTrue = null;
+		isUnknown = null;
+		selected = null;
+	}
+}
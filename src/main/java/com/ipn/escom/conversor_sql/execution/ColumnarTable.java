@@ -0,0 +1,62 @@
+package com.ipn.escom.conversor_sql.execution;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.ipn.escom.conversor_sql.validation.sql.TypeSystem.TypeCategory;
+
+/**
+ * Tabla guardada por columnas ({@link Column}) en lugar de una lista de
+ * tuplas: los números no se guardan como {@code BigDecimal} por fila y los
+ * predicados sobre la tabla se pueden evaluar por lotes
+ * ({@link VectorPredicate}). Las tuplas se arman solo al entregarlas.
+ */
+final class ColumnarTable {
+
+	private final int rows;
+	private final Column[] columns;
+
+	private ColumnarTable(int rows, Column[] columns) {
+		this.rows = rows;
+		this.columns = columns;
+	}
+
+	/** A partir de tuplas con los valores de {@link Values}; {@code categories[c]} es la de la columna c. */
+	static ColumnarTable of(List<Object[]> tuples, TypeCategory[] categories) {
+		Column[] columns = new Column[categories.length];
+		for (int c = 0; c < columns.length; c++) {
+			Object[] values = new Object[tuples.size()];
+			for (int r = 0; r < values.length; r++)
+				values[r] = tuples.get(r)[c];
+			columns[c] = Column.of(values, categories[c]);
+		}
+		return new ColumnarTable(tuples.size(), columns);
+	}
+
+	/** Tabla sin filas con {@code width} columnas. */
+	static ColumnarTable empty(int width) {
+		TypeCategory[] categories = new TypeCategory[width];
+		Arrays.fill(categories, TypeCategory.UNKNOWN);
+		return of(List.of(), categories);
+	}
+
+	int rows() {
+		return rows;
+	}
+
+	int width() {
+		return columns.length;
+	}
+
+	Column column(int c) {
+		return columns[c];
+	}
+
+	/** Tupla de la fila {@code r}. */
+	Object[] row(int r) {
+		Object[] out = new Object[columns.length];
+		for (int c = 0; c < columns.length; c++)
+			out[c] = columns[c].get(r);
+		return out;
+	}
+}
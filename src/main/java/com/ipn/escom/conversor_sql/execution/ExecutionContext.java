@@ -0,0 +1,104 @@
+package com.ipn.escom.conversor_sql.execution;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Estado compartido por los operadores de una ejecución: el contador de filas
+ * examinadas, el plazo, la memoria reservada contra el presupuesto y los
+ * archivos temporales abiertos. El reloj se consulta cada
+ * {@link #CLOCK_EVERY} filas para no pagar un {@code nanoTime} por tupla.
+ */
+final class ExecutionContext {
+
+	private static final int CLOCK_EVERY = 1024;
+
+	private final ExecutionLimits limits;
+	private final long deadlineNanos;
+	private final Path spillDir;
+	private final List<SpillFile> spills = new ArrayList<>();
+	private long examined;
+	private long reserved;
+	private long spilledBytes;
+
+	ExecutionContext(ExecutionLimits limits, Path spillDir) {
+		this.limits = limits;
+		this.deadlineNanos = System.nanoTime() + limits.timeout().toNanos();
+		this.spillDir = spillDir;
+	}
+
+	/** Una fila leída o un par comparado. */
+	void tick() {
+		examined++;
+		check((examined % CLOCK_EVERY) == 0);
+	}
+
+	/** {@code rows} filas leídas de una vez (un lote). */
+	void tick(int rows) {
+		long before = examined;
+		examined += rows;
+		check(before / CLOCK_EVERY != examined / CLOCK_EVERY);
+	}
+
+	private void check(boolean clock) {
+		if (examined > limits.maxRowsExamined())
+			throw new ExecutionLimitException("La ejecución superó el máximo de " + limits.maxRowsExamined()
+					+ " filas examinadas; agregue condiciones de join o reduzca los datos.");
+		if (clock && System.nanoTime() > deadlineNanos)
+			throw new ExecutionLimitException(
+					"La ejecución superó el tiempo máximo de " + limits.timeout().toMillis() + " ms.");
+	}
+
+	long examined() {
+		return examined;
+	}
+
+	// --- Presupuesto de memoria ---
+
+	/** Reserva {@code bytes} si caben en el presupuesto; false si no (el operador debe ir a disco). */
+	boolean tryReserve(long bytes) {
+		if (reserved + bytes > limits.memoryBudgetBytes())
+			return false;
+		reserved += bytes;
+		return true;
+	}
+
+	/** Reserva aunque se rebase el presupuesto (una tupla siempre tiene que caber en algún lado). */
+	void reserve(long bytes) {
+		reserved += bytes;
+	}
+
+	void release(long bytes) {
+		reserved -= bytes;
+	}
+
+	// --- Archivos temporales ---
+
+	/** Archivo temporal nuevo; se borra al cerrarlo o, a más tardar, en {@link #closeSpills()}. */
+	SpillFile newSpillFile() {
+		try {
+			SpillFile f = SpillFile.create(spillDir, this);
+			spills.add(f);
+			return f;
+		} catch (IOException e) {
+			throw new UncheckedIOException("No se pudo crear un archivo temporal en " + spillDir, e);
+		}
+	}
+
+	void addSpilledBytes(long bytes) {
+		spilledBytes += bytes;
+	}
+
+	long spilledBytes() {
+		return spilledBytes;
+	}
+
+	void closeSpills() {
+		for (SpillFile f : spills)
+			f.close();
+		spills.clear();
+	}
+}
@@ -0,0 +1,11 @@
+package com.ipn.escom.conversor_sql.execution;
+
+/** La ejecución rebasó uno de los {@link ExecutionLimits} y se abortó. */
+public class ExecutionLimitException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public ExecutionLimitException(String message) {
+		super(message);
+	}
+}
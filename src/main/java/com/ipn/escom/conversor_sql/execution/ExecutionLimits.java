@@ -0,0 +1,34 @@
+package com.ipn.escom.conversor_sql.execution;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Topes de una ejecución.
+ * <p>
+ * {@code maxResultRows} corta el resultado (la respuesta se marca como
+ * truncada). {@code maxRowsExamined} cuenta cada tupla leída de una tabla y
+ * cada par que un join compara; rebasarlo, o rebasar {@code timeout}, aborta la
+ * ejecución con {@link ExecutionLimitException}. {@code memoryBudgetBytes} es
+ * la memoria (estimada) que pueden ocupar juntas las tuplas guardadas por los
+ * operadores de la consulta; lo que no cabe se escribe en disco en lugar de
+ * abortar.
+ */
+public record ExecutionLimits(int maxResultRows, long maxRowsExamined, Duration timeout, long memoryBudgetBytes) {
+
+	public ExecutionLimits {
+		if (maxResultRows < 0)
+			throw new IllegalArgumentException("maxResultRows debe ser >= 0");
+		if (maxRowsExamined <= 0)
+			throw new IllegalArgumentException("maxRowsExamined debe ser > 0");
+		Objects.requireNonNull(timeout, "timeout");
+		if (memoryBudgetBytes <= 0)
+			throw new IllegalArgumentException("memoryBudgetBytes debe ser > 0");
+	}
+
+	/** Los mismos topes con otro máximo de filas de resultado (nunca mayor que el actual). */
+	public ExecutionLimits withMaxResultRows(int rows) {
+		return new ExecutionLimits(Math.min(Math.max(rows, 0), maxResultRows), maxRowsExamined, timeout,
+				memoryBudgetBytes);
+	}
+}
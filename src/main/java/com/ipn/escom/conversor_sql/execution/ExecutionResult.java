@@ -0,0 +1,13 @@
+package com.ipn.escom.conversor_sql.execution;
+
+import java.util.List;
+
+/**
+ * Relación resultado: nombres de columna, tuplas (a lo más
+ * {@link ExecutionLimits#maxResultRows()}), si se cortó por ese tope, cuántas
+ * filas se examinaron para obtenerla y cuántos bytes se escribieron a disco
+ * por no caber en el presupuesto de memoria.
+ */
+public record ExecutionResult(List<String> columns, List<Object[]> rows, boolean truncated, long rowsExamined,
+		long spilledBytes) {
+}
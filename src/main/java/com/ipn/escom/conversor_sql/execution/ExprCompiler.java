@@ -0,0 +1,126 @@
+package com.ipn.escom.conversor_sql.execution;
+
+import java.math.BigDecimal;
+
+import com.ipn.escom.conversor_sql.ar.expresiones.ArArith;
+import com.ipn.escom.conversor_sql.ar.expresiones.ArCol;
+import com.ipn.escom.conversor_sql.ar.expresiones.ArConst;
+import com.ipn.escom.conversor_sql.ar.expresiones.ArExprInterface;
+import com.ipn.escom.conversor_sql.ar.predicados.ArAnd;
+import com.ipn.escom.conversor_sql.ar.predicados.ArCmp;
+import com.ipn.escom.conversor_sql.ar.predicados.ArCmpOp;
+import com.ipn.escom.conversor_sql.ar.predicados.ArNot;
+import com.ipn.escom.conversor_sql.ar.predicados.ArOr;
+import com.ipn.escom.conversor_sql.ar.predicados.ArPredInterface;
+
+/**
+ * Liga expresiones y predicados de AR a las posiciones de un {@link Header}:
+ * los nombres de columna se resuelven una vez por operador, no por tupla.
+ */
+final class ExprCompiler {
+	private ExprCompiler() {
+	}
+
+	static RowExpr compile(ArExprInterface e, Header h) {
+		if (e instanceof ArCol c) {
+			int i = h.indexOf(c.relOrNull(), c.name());
+			return row -> row[i];
+		}
+		if (e instanceof ArConst k) {
+			Object v = (k.value() instanceof BigDecimal n) ? Values.canonical(n) : k.value();
+			return row -> v;
+		}
+		if (e instanceof ArArith a) {
+			RowExpr l = compile(a.left(), h);
+			RowExpr r = compile(a.right(), h);
+			return row -> Values.arith(a.op(), l.eval(row), r.eval(row));
+		}
+		throw new IllegalArgumentException("Expresión AR no soportada: " + e.getClass().getSimpleName());
+	}
+
+	static RowPredicate compile(ArPredInterface p, Header h) {
+		if (p == null)
+			return row -> Boolean.TRUE;
+		if (p instanceof ArAnd a) {
+			RowPredicate l = compile(a.a(), h);
+			RowPredicate r = compile(a.b(), h);
+			return row -> {
+				Boolean x = l.test(row);
+				if (Boolean.FALSE.equals(x))
+					return Boolean.FALSE;
+				Boolean y = r.test(row);
+				if (Boolean.FALSE.equals(y))
+					return Boolean.FALSE;
+				return (x == null || y == null) ? null : Boolean.TRUE;
+			};
+		}
+		if (p instanceof ArOr o) {
+			RowPredicate l = compile(o.a(), h);
+			RowPredicate r = compile(o.b(), h);
+			return row -> {
+				Boolean x = l.test(row);
+				if (Boolean.TRUE.equals(x))
+					return Boolean.TRUE;
+				Boolean y = r.test(row);
+				if (Boolean.TRUE.equals(y))
+					return Boolean.TRUE;
+				return (x == null || y == null) ? null : Boolean.FALSE;
+			};
+		}
+		if (p instanceof ArNot n) {
+			RowPredicate inner = compile(n.a(), h);
+			return row -> {
+				Boolean x = inner.test(row);
+				return (x == null) ? null : !x;
+			};
+		}
+		if (p instanceof ArCmp c)
+			return compare(c, h);
+		throw new IllegalArgumentException("Predicado AR no soportado: " + p.getClass().getSimpleName());
+	}
+
+	/**
+	 * Comparación. Contra la constante NULL, {@code =} y {@code !=} son
+	 * {@code IS NULL} / {@code IS NOT NULL} (así los imprime {@code ArPrinter});
+	 * en cualquier otro caso un operando NULL da UNKNOWN.
+	 */
+	private static RowPredicate compare(ArCmp c, Header h) {
+		boolean leftNull = isNullConst(c.l());
+		boolean rightNull = isNullConst(c.r());
+		if (leftNull && rightNull) {
+			Boolean v = (c.op() == ArCmpOp.EQ);
+			return row -> v;
+		}
+		if (leftNull || rightNull) {
+			RowExpr other = compile(leftNull ? c.r() : c.l(), h);
+			return switch (c.op()) {
+			case EQ -> row -> other.eval(row) == null;
+			case NEQ -> row -> other.eval(row) != null;
+			default -> row -> null;
+			};
+		}
+
+		RowExpr l = compile(c.l(), h);
+		RowExpr r = compile(c.r(), h);
+		ArCmpOp op = c.op();
+		return row -> {
+			Object a = l.eval(row);
+			Object b = r.eval(row);
+			if (a == null || b == null)
+				return null;
+			int cmp = Values.compare(a, b);
+			return switch (op) {
+			case EQ -> cmp == 0;
+			case NEQ -> cmp != 0;
+			case LT -> cmp < 0;
+			case LTE -> cmp <= 0;
+			case GT -> cmp > 0;
+			case GTE -> cmp >= 0;
+			};
+		};
+	}
+
+	private static boolean isNullConst(ArExprInterface e) {
+		return (e instanceof ArConst k) && k.value() == null;
+	}
+}
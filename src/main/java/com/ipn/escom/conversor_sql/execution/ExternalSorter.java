@@ -0,0 +1,128 @@
+package com.ipn.escom.conversor_sql.execution;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Ordenamiento externo: las tuplas se juntan en memoria mientras quepan en el
+ * presupuesto; cuando no, lo juntado se ordena y se escribe como una corrida en
+ * un {@link SpillFile}. Al final se mezclan las corridas (y lo que quedó en
+ * memoria) con un heap de k elementos, así que nunca hay en memoria más que una
+ * tupla por corrida.
+ */
+final class ExternalSorter implements AutoCloseable {
+
+	/**
+	 * Tamaño mínimo de una corrida: si el presupuesto ya lo ocupa otro operador
+	 * se rebasa por estas tuplas en lugar de escribir corridas de una en una.
+	 */
+	private static final int MIN_RUN = 1024;
+
+	private final Comparator<Object[]> order;
+	private final ExecutionContext ctx;
+	private final List<SpillFile> runs = new ArrayList<>();
+	private List<Object[]> memory = new ArrayList<>();
+	private long reserved;
+
+	ExternalSorter(Comparator<Object[]> order, ExecutionContext ctx) {
+		this.order = order;
+		this.ctx = ctx;
+	}
+
+	void add(Object[] row) {
+		long bytes = Values.sizeOf(row);
+		if (!ctx.tryReserve(bytes)) {
+			if (memory.size() >= MIN_RUN)
+				spillRun();
+			if (!ctx.tryReserve(bytes))
+				ctx.reserve(bytes);
+		}
+		reserved += bytes;
+		memory.add(row);
+	}
+
+	private void spillRun() {
+		memory.sort(order);
+		SpillFile run = ctx.newSpillFile();
+		for (Object[] row : memory)
+			run.write(row);
+		run.flush();
+		runs.add(run);
+		memory = new ArrayList<>();
+		ctx.release(reserved);
+		reserved = 0;
+	}
+
+	/**
+	 * Fin de la entrada. Si ya se escribieron corridas, lo que queda en memoria
+	 * también se escribe, para dejar el presupuesto a los demás operadores.
+	 */
+	void finish() {
+		if (!runs.isEmpty() && !memory.isEmpty())
+			spillRun();
+	}
+
+	/** Las tuplas agregadas, en orden. Se llama una sola vez, después de agregarlas todas. */
+	RowCursor sorted() {
+		memory.sort(order);
+		if (runs.isEmpty())
+			return cursor(memory);
+		return new Merge();
+	}
+
+	@Override
+	public void close() {
+		memory = new ArrayList<>();
+		ctx.release(reserved);
+		reserved = 0;
+		for (SpillFile run : runs)
+			run.close();
+		runs.clear();
+	}
+
+	private static RowCursor cursor(List<Object[]> rows) {
+		return new RowCursor() {
+			private int pos;
+
+			@Override
+			public Object[] next() {
+				return pos < rows.size() ? rows.get(pos++) : null;
+			}
+		};
+	}
+
+	/** Mezcla de k vías: cada entrada del heap es la tupla actual de una fuente. */
+	private final class Merge implements RowCursor {
+		private final List<RowCursor> sources = new ArrayList<>();
+		private final PriorityQueue<Head> heap;
+
+		private record Head(Object[] row, int source) {
+		}
+
+		Merge() {
+			heap = new PriorityQueue<>(runs.size() + 1, (a, b) -> order.compare(a.row(), b.row()));
+			for (SpillFile run : runs)
+				sources.add(run.reader());
+			sources.add(cursor(memory));
+			for (int i = 0; i < sources.size(); i++)
+				advance(i);
+		}
+
+		private void advance(int source) {
+			Object[] row = sources.get(source).next();
+			if (row != null)
+				heap.add(new Head(row, source));
+		}
+
+		@Override
+		public Object[] next() {
+			Head h = heap.poll();
+			if (h == null)
+				return null;
+			advance(h.source());
+			return h.row();
+		}
+	}
+}
@@ -0,0 +1,234 @@
+package com.ipn.escom.conversor_sql.execution;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ⋈ por hash para joins con igualdades entre los dos lados. Al abrir lee ambos
+ * lados alternadamente hasta que uno se agota: ese es el menor y con él se
+ * construye la tabla hash (nunca se guarda más del doble del lado menor, sin
+ * necesitar estimaciones). El otro lado se usa para sondear, primero con lo que
+ * ya se leyó y después en streaming.
+ * <p>
+ * Las llaves son los valores canónicos de {@link Values}, así que coinciden
+ * con {@code =} entre valores del mismo tipo; una llave con NULL no coincide con
+ * nada (la igualdad sería UNKNOWN). Una llave de sondeo de otro tipo que las de
+ * la tabla es error, igual que la comparación tupla por tupla
+ * ({@link Values#compare}). El resto del predicado (lo que no es una igualdad
+ * entre lados) se evalúa sobre cada par que coincide en la llave.
+ * <p>
+ * Cada tupla guardada se descuenta del presupuesto de memoria de la ejecución.
+ * Si las tuplas leídas dejan de caber antes de que un lado se agote, el join
+ * se entrega a {@link SortMergeJoinOperator} (con lo ya leído al frente de
+ * cada entrada), que ordena en disco lo que no cabe.
+ */
+final class HashJoinOperator implements Operator {
+
+	/** Memoria aproximada de la tabla hash por tupla guardada (entrada, llave y lista). */
+	private static final long HASH_OVERHEAD = 64;
+
+	private final Operator left;
+	private final Operator right;
+	private final RowExpr[] leftKeys;
+	private final RowExpr[] rightKeys;
+	private final RowPredicate residualOrNull;
+	private final ExecutionContext ctx;
+	private final Header header;
+	private final int leftWidth;
+
+	private long reserved;
+	private Operator sortMerge;
+	private Map<List<Object>, List<Object[]>> table;
+	/** Una llave de la tabla, para revisar el tipo de las de sondeo; null si está vacía. */
+	private List<Object> buildSample;
+	private boolean buildLeft;
+	private Operator probe;
+	private List<Object[]> probeBuffer;
+	private int probeBufferPos;
+	private boolean probeOpen;
+
+	private Object[] current;
+	private List<Object[]> matches;
+	private int matchPos;
+
+	/**
+	 * {@code leftKeys[i] = rightKeys[i]} son las igualdades (cada una ligada al
+	 * encabezado de su lado); {@code residualOrNull}, ligado al encabezado
+	 * concatenado, el resto del predicado.
+	 */
+	HashJoinOperator(Operator left, Operator right, RowExpr[] leftKeys, RowExpr[] rightKeys,
+			RowPredicate residualOrNull, ExecutionContext ctx) {
+		this.left = left;
+		this.right = right;
+		this.leftKeys = leftKeys;
+		this.rightKeys = rightKeys;
+		this.residualOrNull = residualOrNull;
+		this.ctx = ctx;
+		this.header = left.header().concat(right.header());
+		this.leftWidth = left.header().size();
+	}
+
+	@Override
+	public Header header() {
+		return header;
+	}
+
+	@Override
+	public void open() {
+		List<Object[]> leftRows = new ArrayList<>();
+		List<Object[]> rightRows = new ArrayList<>();
+		left.open();
+		right.open();
+		boolean leftDone = false;
+		boolean rightDone = false;
+		boolean fits = true;
+		while (fits && !leftDone && !rightDone) {
+			Object[] l = left.next();
+			if (l == null)
+				leftDone = true;
+			else
+				fits = hold(leftRows, l);
+			Object[] r = right.next();
+			if (r == null)
+				rightDone = true;
+			else
+				fits &= hold(rightRows, r);
+		}
+		if (!fits) {
+			toSortMerge(leftRows, leftDone, rightRows, rightDone);
+			return;
+		}
+
+		// Se construye con el lado que se agotó (a la par: el izquierdo)
+		buildLeft = leftDone;
+		(buildLeft ? left : right).close();
+		probe = buildLeft ? right : left;
+		probeOpen = !(leftDone && rightDone);
+		if (!probeOpen)
+			right.close();
+		probeBuffer = buildLeft ? rightRows : leftRows;
+		probeBufferPos = 0;
+
+		List<Object[]> buildRows = buildLeft ? leftRows : rightRows;
+		RowExpr[] buildKeys = buildLeft ? leftKeys : rightKeys;
+		table = new HashMap<>(Math.max(16, buildRows.size() * 4 / 3 + 1));
+		buildSample = null;
+		for (Object[] row : buildRows) {
+			List<Object> key = key(row, buildKeys);
+			if (key != null) {
+				table.computeIfAbsent(key, k -> new ArrayList<>(1)).add(row);
+				if (buildSample == null)
+					buildSample = key;
+			}
+		}
+		current = null;
+		matches = null;
+	}
+
+	/** Guarda una tupla leída; false si ya no cabe en el presupuesto. */
+	private boolean hold(List<Object[]> rows, Object[] row) {
+		rows.add(row);
+		long bytes = Values.sizeOf(row) + HASH_OVERHEAD;
+		if (!ctx.tryReserve(bytes))
+			return false;
+		reserved += bytes;
+		return true;
+	}
+
+	private void toSortMerge(List<Object[]> leftRows, boolean leftDone, List<Object[]> rightRows,
+			boolean rightDone) {
+		ctx.release(reserved);
+		reserved = 0;
+		if (leftDone)
+			left.close();
+		if (rightDone)
+			right.close();
+		sortMerge = new SortMergeJoinOperator(
+				new PrefixedOperator(left.header(), leftRows, leftDone ? null : left),
+				new PrefixedOperator(right.header(), rightRows, rightDone ? null : right), leftKeys, rightKeys,
+				residualOrNull, ctx);
+		sortMerge.open();
+	}
+
+	@Override
+	public Object[] next() {
+		if (sortMerge != null)
+			return sortMerge.next();
+		RowExpr[] probeKeys = buildLeft ? rightKeys : leftKeys;
+		while (true) {
+			while (matches != null && matchPos < matches.size()) {
+				Object[] other = matches.get(matchPos++);
+				ctx.tick();
+				Object[] pair = buildLeft ? concat(other, current) : concat(current, other);
+				if (residualOrNull == null || Boolean.TRUE.equals(residualOrNull.test(pair)))
+					return pair;
+			}
+			current = nextProbe();
+			if (current == null)
+				return null;
+			List<Object> key = key(current, probeKeys);
+			if (key != null && buildSample != null)
+				requireComparable(key);
+			matches = (key == null) ? null : table.get(key);
+			matchPos = 0;
+		}
+	}
+
+	private Object[] nextProbe() {
+		if (probeBufferPos < probeBuffer.size())
+			return probeBuffer.get(probeBufferPos++);
+		if (!probeOpen)
+			return null;
+		return probe.next();
+	}
+
+	/** Llave de la tupla, o null si algún componente es NULL. */
+	private static List<Object> key(Object[] row, RowExpr[] keys) {
+		Object[] k = new Object[keys.length];
+		for (int i = 0; i < keys.length; i++) {
+			Object v = keys[i].eval(row);
+			if (v == null)
+				return null;
+			k[i] = v;
+		}
+		return Arrays.asList(k);
+	}
+
+	/** Cada componente de la llave de sondeo debe ser del tipo del de la tabla. */
+	private void requireComparable(List<Object> probeKey) {
+		for (int i = 0; i < probeKey.size(); i++) {
+			if (buildLeft)
+				Values.requireComparable(buildSample.get(i), probeKey.get(i));
+			else
+				Values.requireComparable(probeKey.get(i), buildSample.get(i));
+		}
+	}
+
+	private Object[] concat(Object[] l, Object[] r) {
+		Object[] out = Arrays.copyOf(l, leftWidth + r.length);
+		System.arraycopy(r, 0, out, leftWidth, r.length);
+		return out;
+	}
+
+	@Override
+	public void close() {
+		if (sortMerge != null) {
+			sortMerge.close();
+			sortMerge = null;
+			return;
+		}
+		ctx.release(reserved);
+		reserved = 0;
+		table = null;
+		buildSample = null;
+		probeBuffer = null;
+		matches = null;
+		if (probeOpen) {
+			probe.close();
+			probeOpen = false;
+		}
+	}
+}
@@ -0,0 +1,133 @@
+package com.ipn.escom.conversor_sql.execution;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Encabezado de una relación intermedia: nombre de cada columna y la relación
+ * (tabla o alias) que la califica. Las columnas se buscan sin distinguir
+ * mayúsculas, con o sin calificador, igual que en el SQL de origen.
+ */
+final class Header {
+
+	/** Marca en {@link #byName}: el nombre aparece en más de una columna. */
+	private static final int AMBIGUOUS = -2;
+
+	private final String[] relations;
+	private final String[] names;
+	private final Map<String, Integer> byQualified;
+	private final Map<String, Integer> byName;
+
+	Header(String[] relations, String[] names) {
+		this(relations, names, Map.of());
+	}
+
+	/**
+	 * {@code extra}: calificaciones adicionales ("rel.col" en minúsculas → índice)
+	 * para columnas que se fusionaron, como las comunes de un NATURAL JOIN.
+	 */
+	private Header(String[] relations, String[] names, Map<String, Integer> extra) {
+		this.relations = relations;
+		this.names = names;
+		this.byQualified = new HashMap<>(extra);
+		this.byName = new HashMap<>();
+		for (int i = 0; i < names.length; i++) {
+			String n = lower(names[i]);
+			byName.merge(n, i, (a, b) -> AMBIGUOUS);
+			if (relations[i] != null)
+				byQualified.merge(lower(relations[i]) + "." + n, i, (a, b) -> AMBIGUOUS);
+		}
+	}
+
+	int size() {
+		return names.length;
+	}
+
+	String name(int i) {
+		return names[i];
+	}
+
+	String relation(int i) {
+		return relations[i];
+	}
+
+	List<String> names() {
+		return Collections.unmodifiableList(Arrays.asList(names));
+	}
+
+	/** Índice de la columna; error si no existe o si es ambigua. */
+	int indexOf(String relOrNull, String name) {
+		Integer i = lookup(relOrNull, name);
+		String shown = (relOrNull == null || relOrNull.isBlank()) ? name : relOrNull + "." + name;
+		if (i == null)
+			throw new IllegalArgumentException("Columna desconocida en la ejecución: " + shown);
+		if (i == AMBIGUOUS)
+			throw new IllegalArgumentException("Columna ambigua en la ejecución: " + shown);
+		return i;
+	}
+
+	/** ¿La referencia resuelve a exactamente una columna de este encabezado? */
+	boolean resolves(String relOrNull, String name) {
+		Integer i = lookup(relOrNull, name);
+		return i != null && i != AMBIGUOUS;
+	}
+
+	private Integer lookup(String relOrNull, String name) {
+		String n = lower(name);
+		return (relOrNull == null || relOrNull.isBlank()) ? byName.get(n) : byQualified.get(lower(relOrNull) + "." + n);
+	}
+
+	/** Índice de la columna sin calificar, o -1 si no existe o es ambigua. */
+	int indexOfName(String name) {
+		Integer i = byName.get(lower(name));
+		return (i == null || i == AMBIGUOUS) ? -1 : i;
+	}
+
+	/** Todas las columnas calificadas con {@code alias} (ρ). */
+	Header renamed(String alias) {
+		String[] rels = new String[names.length];
+		Arrays.fill(rels, alias);
+		return new Header(rels, names);
+	}
+
+	/** Columnas de este encabezado seguidas de las de {@code right} (×, ⋈θ). */
+	Header concat(Header right) {
+		return new Header(join(relations, right.relations), join(names, right.names));
+	}
+
+	/**
+	 * Encabezado de un NATURAL JOIN: las de este lado y luego las de
+	 * {@code right} que no están en {@code rightCommon}. Las comunes del lado
+	 * derecho siguen siendo accesibles con su calificador.
+	 */
+	Header naturalJoin(Header right, boolean[] rightCommon, int[] leftIndexOfRight) {
+		List<String> rels = new ArrayList<>(Arrays.asList(relations));
+		List<String> cols = new ArrayList<>(Arrays.asList(names));
+		Map<String, Integer> extra = new HashMap<>();
+		for (int j = 0; j < right.names.length; j++) {
+			if (rightCommon[j]) {
+				if (right.relations[j] != null)
+					extra.put(lower(right.relations[j]) + "." + lower(right.names[j]), leftIndexOfRight[j]);
+			} else {
+				rels.add(right.relations[j]);
+				cols.add(right.names[j]);
+			}
+		}
+		return new Header(rels.toArray(String[]::new), cols.toArray(String[]::new), extra);
+	}
+
+	private static String[] join(String[] a, String[] b) {
+		String[] out = Arrays.copyOf(a, a.length + b.length);
+		System.arraycopy(b, 0, out, a.length, b.length);
+		return out;
+	}
+
+	private static String lower(String s) {
+		return s.toLowerCase(Locale.ROOT);
+	}
+}
@@ -0,0 +1,98 @@
+package com.ipn.escom.conversor_sql.execution;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.ipn.escom.conversor_sql.ar.expresiones.ArArith;
+import com.ipn.escom.conversor_sql.ar.expresiones.ArCol;
+import com.ipn.escom.conversor_sql.ar.expresiones.ArConst;
+import com.ipn.escom.conversor_sql.ar.expresiones.ArExprInterface;
+import com.ipn.escom.conversor_sql.ar.predicados.ArAnd;
+import com.ipn.escom.conversor_sql.ar.predicados.ArCmp;
+import com.ipn.escom.conversor_sql.ar.predicados.ArCmpOp;
+import com.ipn.escom.conversor_sql.ar.predicados.ArPredInterface;
+
+/**
+ * Igualdades entre los dos lados de un join, separadas del resto del
+ * predicado: de {@code a.x = b.y AND b.z > 3 AND a.w + 1 = b.v} salen las llaves
+ * {@code (a.x, a.w + 1)} / {@code (b.y, b.v)} y el residuo {@code b.z > 3}.
+ * Solo se separan conjunciones del nivel superior (un OR queda completo en el
+ * residuo).
+ *
+ * @param residualOrNull ligado al encabezado concatenado; null si no hay
+ */
+record JoinKeys(RowExpr[] left, RowExpr[] right, RowPredicate residualOrNull) {
+
+	/** Llaves del predicado, o null si no tiene ninguna igualdad entre lados. */
+	static JoinKeys of(ArPredInterface on, Header left, Header right) {
+		List<ArPredInterface> conjuncts = conjuncts(on);
+
+		List<RowExpr> lk = new ArrayList<>();
+		List<RowExpr> rk = new ArrayList<>();
+		ArPredInterface residual = null;
+		for (ArPredInterface c : conjuncts) {
+			if (c instanceof ArCmp cmp && cmp.op() == ArCmpOp.EQ) {
+				Side l = side(cmp.l(), left, right);
+				Side r = side(cmp.r(), left, right);
+				if (l == Side.LEFT && r == Side.RIGHT) {
+					lk.add(ExprCompiler.compile(cmp.l(), left));
+					rk.add(ExprCompiler.compile(cmp.r(), right));
+					continue;
+				}
+				if (l == Side.RIGHT && r == Side.LEFT) {
+					lk.add(ExprCompiler.compile(cmp.r(), left));
+					rk.add(ExprCompiler.compile(cmp.l(), right));
+					continue;
+				}
+			}
+			residual = (residual == null) ? c : new ArAnd(residual, c);
+		}
+		if (lk.isEmpty())
+			return null;
+		RowPredicate res = (residual == null) ? null : ExprCompiler.compile(residual, left.concat(right));
+		return new JoinKeys(lk.toArray(RowExpr[]::new), rk.toArray(RowExpr[]::new), res);
+	}
+
+	private enum Side {
+		NONE, LEFT, RIGHT, BOTH
+	}
+
+	/** Los términos de un AND (anidado o no); el predicado mismo si no es AND. */
+	static List<ArPredInterface> conjuncts(ArPredInterface p) {
+		List<ArPredInterface> out = new ArrayList<>();
+		flatten(p, out);
+		return out;
+	}
+
+	private static void flatten(ArPredInterface p, List<ArPredInterface> out) {
+		if (p instanceof ArAnd a) {
+			flatten(a.a(), out);
+			flatten(a.b(), out);
+		} else if (p != null) {
+			out.add(p);
+		}
+	}
+
+	/** Lado al que pertenecen todas las columnas de la expresión (NONE si no tiene columnas). */
+	private static Side side(ArExprInterface e, Header left, Header right) {
+		if (e instanceof ArCol c) {
+			boolean inLeft = left.resolves(c.relOrNull(), c.name());
+			boolean inRight = right.resolves(c.relOrNull(), c.name());
+			if (inLeft == inRight)
+				return Side.BOTH; // ambigua o inexistente: no sirve como llave
+			return inLeft ? Side.LEFT : Side.RIGHT;
+		}
+		if (e instanceof ArConst)
+			return Side.NONE;
+		if (e instanceof ArArith a) {
+			Side l = side(a.left(), left, right);
+			Side r = side(a.right(), left, right);
+			if (l == Side.NONE)
+				return r;
+			if (r == Side.NONE || l == r)
+				return l;
+			return Side.BOTH;
+		}
+		return Side.BOTH;
+	}
+}
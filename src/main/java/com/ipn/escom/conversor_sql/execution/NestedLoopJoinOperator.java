@@ -0,0 +1,88 @@
+package com.ipn.escom.conversor_sql.execution;
+
+/**
+ * × y ⋈θ por ciclos anidados: el lado derecho se guarda al abrir (en un
+ * {@link RowBuffer}, en disco si no cabe en el presupuesto) y el izquierdo se
+ * recorre en streaming. Cada par comparado cuenta como fila
+ * examinada, así que un producto demasiado grande se detiene por el tope en
+ * lugar de agotar la memoria o el tiempo.
+ */
+final class NestedLoopJoinOperator implements Operator {
+
+	private final Operator left;
+	private final Operator right;
+	private final RowPredicate onOrNull;
+	private final ExecutionContext ctx;
+	private final Header header;
+	private final int leftWidth;
+
+	private RowBuffer inner;
+	private RowCursor innerPos;
+	private Object[] outer;
+	/** Par en curso (izquierda + derecha), reutilizado para evaluar el predicado. */
+	private Object[] pair;
+
+	/** {@code onOrNull}: ligado al encabezado concatenado; null para el producto. */
+	NestedLoopJoinOperator(Operator left, Operator right, RowPredicate onOrNull, ExecutionContext ctx) {
+		this.left = left;
+		this.right = right;
+		this.onOrNull = onOrNull;
+		this.ctx = ctx;
+		this.header = left.header().concat(right.header());
+		this.leftWidth = left.header().size();
+	}
+
+	@Override
+	public Header header() {
+		return header;
+	}
+
+	@Override
+	public void open() {
+		inner = new RowBuffer(ctx);
+		right.open();
+		try {
+			Object[] row;
+			while ((row = right.next()) != null)
+				inner.add(row);
+		} finally {
+			right.close();
+		}
+		left.open();
+		outer = null;
+		innerPos = null;
+		pair = new Object[header.size()];
+	}
+
+	@Override
+	public Object[] next() {
+		while (true) {
+			if (innerPos == null) {
+				outer = left.next();
+				if (outer == null)
+					return null;
+				innerPos = inner.cursor();
+				System.arraycopy(outer, 0, pair, 0, leftWidth);
+			}
+			Object[] r;
+			while ((r = innerPos.next()) != null) {
+				ctx.tick();
+				System.arraycopy(r, 0, pair, leftWidth, r.length);
+				if (onOrNull == null || Boolean.TRUE.equals(onOrNull.test(pair)))
+					return pair.clone();
+			}
+			innerPos = null;
+		}
+	}
+
+	@Override
+	public void close() {
+		if (inner != null) {
+			inner.close();
+			inner = null;
+		}
+		innerPos = null;
+		pair = null;
+		left.close();
+	}
+}
@@ -0,0 +1,19 @@
+package com.ipn.escom.conversor_sql.execution;
+
+/**
+ * Operador del plan físico, modelo iterador (Volcano): el padre pide tuplas con
+ * {@link #next()} una a una, así que una cadena σ/π/ρ/× no materializa nada.
+ * Solo guardan tuplas los operadores que lo necesitan (el lado interno de un
+ * join, los conjuntos de ∪/∩/− y la eliminación de duplicados de π).
+ */
+interface Operator {
+
+	Header header();
+
+	void open();
+
+	/** Siguiente tupla, o null al agotarse. La tupla devuelta no se modifica después. */
+	Object[] next();
+
+	void close();
+}
@@ -0,0 +1,210 @@
+package com.ipn.escom.conversor_sql.execution;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Conjunto de tuplas por hash para la eliminación de duplicados y para ∪, ∩ y
+ * −, en tiempo lineal. La llave de una tupla es la lista de sus valores: los
+ * números ya vienen en forma canónica ({@link Values}), así que {@code 1.0} y
+ * {@code 1} son la misma llave, y dos NULL en la misma posición son iguales
+ * (como en SQL, los conjuntos no distinguen NULL de NULL).
+ * <p>
+ * Opcionalmente se carga primero un lado de construcción ({@link #build}) y
+ * después se recorre la entrada de sondeo, entregando las tuplas que quedan:
+ * <ul>
+ * <li>{@code DISTINCT}: las tuplas de la entrada, sin repetir (la unión es el
+ * DISTINCT de las dos entradas una tras otra).</li>
+ * <li>{@code EXCEPT}: las que no están en el lado de construcción.</li>
+ * <li>{@code INTERSECT}: las que sí están (cada llave se entrega una vez).</li>
+ * </ul>
+ * Cada llave guardada se descuenta del presupuesto de memoria. Cuando ya no
+ * cabe, el conjunto deja de crecer y las tuplas cuyo resultado no se puede
+ * decidir con lo que hay en memoria se reparten por hash en
+ * {@value #PARTITIONS} particiones en disco (de los dos lados). Al terminar la
+ * entrada se libera la memoria y cada pareja de particiones se resuelve con
+ * otro {@code PartitionedSet}, que puede volver a partir con otros bits del
+ * hash. Una llave cae siempre en la misma partición, así que los resultados de
+ * las particiones no se repiten entre sí ni con lo ya entregado.
+ */
+final class PartitionedSet implements RowCursor, AutoCloseable {
+
+	enum Mode {
+		DISTINCT, EXCEPT, INTERSECT
+	}
+
+	private static final int PARTITIONS = 16;
+	/** Profundidad a partir de la cual ya no se parte (se rebasa el presupuesto). */
+	private static final int MAX_LEVEL = 4;
+	/**
+	 * Una partición con menos tuplas que esto se resuelve en memoria aunque no
+	 * quepa: volver a partirla costaría más archivos que memoria.
+	 */
+	private static final long MIN_SPLIT = 1024;
+	/** Memoria aproximada del HashSet por llave guardada (entrada y lista). */
+	private static final long HASH_OVERHEAD = 64;
+
+	private final Mode mode;
+	private final ExecutionContext ctx;
+	private final int level;
+
+	private RowCursor probe;
+	private Set<List<Object>> set = new HashSet<>();
+	private long reserved;
+	/** Ya no cupo alguna llave: el conjunto no crece más y lo indeciso va a disco. */
+	private boolean spilling;
+	private SpillFile[] buildParts;
+	private SpillFile[] probeParts;
+	private int nextPartition;
+	private PartitionedSet child;
+
+	PartitionedSet(Mode mode, RowCursor probe, ExecutionContext ctx) {
+		this(mode, probe, ctx, 0);
+	}
+
+	private PartitionedSet(Mode mode, RowCursor probe, ExecutionContext ctx, int level) {
+		this.mode = mode;
+		this.probe = probe;
+		this.ctx = ctx;
+		this.level = level;
+	}
+
+	/** Carga el lado de construcción de EXCEPT e INTERSECT; antes del primer {@link #next()}. */
+	void build(RowCursor rows) {
+		Object[] row;
+		while ((row = rows.next()) != null) {
+			List<Object> key = Arrays.asList(row);
+			// Lo que ya está en memoria no se repite en disco: una llave vive en un solo lugar
+			if (!set.contains(key) && !hold(key, row))
+				buildParts = spill(buildParts, key, row);
+		}
+	}
+
+	@Override
+	public Object[] next() {
+		while (true) {
+			if (child != null) {
+				Object[] row = child.next();
+				if (row != null)
+					return row;
+				child.close();
+				child = null;
+				closePartition(nextPartition - 1);
+			}
+			if (probe != null) {
+				Object[] row;
+				while ((row = probe.next()) != null) {
+					if (accept(row))
+						return row;
+				}
+				probe = null;
+				releaseSet();
+			}
+			if (probeParts == null || nextPartition >= PARTITIONS)
+				return null;
+			int p = nextPartition++;
+			if (probeParts[p] == null) {
+				closePartition(p);
+				continue;
+			}
+			SpillFile buildPart = (buildParts != null) ? buildParts[p] : null;
+			long rows = probeParts[p].rows() + ((buildPart != null) ? buildPart.rows() : 0);
+			child = new PartitionedSet(mode, probeParts[p].reader(), ctx, (rows < MIN_SPLIT) ? MAX_LEVEL : level + 1);
+			if (buildPart != null)
+				child.build(buildPart.reader());
+		}
+	}
+
+	/** true si la tupla de sondeo va en el resultado (ahora, no desde una partición). */
+	private boolean accept(Object[] row) {
+		List<Object> key = Arrays.asList(row);
+		if (mode == Mode.INTERSECT) {
+			if (set.remove(key)) {
+				long bytes = cost(row);
+				ctx.release(bytes);
+				reserved -= bytes;
+				return true;
+			}
+			// Sin particiones de construcción, lo que no está en memoria no está
+			if (buildParts != null)
+				probeParts = spill(probeParts, key, row);
+			return false;
+		}
+		if (set.contains(key))
+			return false;
+		// Con construcción en disco no se sabe si la llave está allá: se decide en la partición
+		if (buildParts == null && hold(key, row))
+			return true;
+		probeParts = spill(probeParts, key, row);
+		return false;
+	}
+
+	/** Guarda la llave si cabe en el presupuesto; false si ya se está escribiendo a disco. */
+	private boolean hold(List<Object> key, Object[] row) {
+		if (spilling)
+			return false;
+		long bytes = cost(row);
+		if (!ctx.tryReserve(bytes)) {
+			if (level < MAX_LEVEL) {
+				spilling = true;
+				return false;
+			}
+			ctx.reserve(bytes);
+		}
+		reserved += bytes;
+		set.add(key);
+		return true;
+	}
+
+	private SpillFile[] spill(SpillFile[] parts, List<Object> key, Object[] row) {
+		if (parts == null)
+			parts = new SpillFile[PARTITIONS];
+		int p = partition(key);
+		if (parts[p] == null)
+			parts[p] = ctx.newSpillFile();
+		parts[p].write(row);
+		return parts;
+	}
+
+	/** Cuatro bits del hash distintos en cada nivel, para que una partición se vuelva a repartir. */
+	private int partition(List<Object> key) {
+		int h = key.hashCode() * 0x9E3779B9;
+		return Integer.rotateLeft(h, 4 * level) >>> 28;
+	}
+
+	private static long cost(Object[] row) {
+		return Values.sizeOf(row) + HASH_OVERHEAD;
+	}
+
+	private void releaseSet() {
+		set = null;
+		ctx.release(reserved);
+		reserved = 0;
+	}
+
+	private void closePartition(int p) {
+		if (buildParts != null && buildParts[p] != null) {
+			buildParts[p].close();
+			buildParts[p] = null;
+		}
+		if (probeParts != null && probeParts[p] != null) {
+			probeParts[p].close();
+			probeParts[p] = null;
+		}
+	}
+
+	@Override
+	public void close() {
+		if (child != null) {
+			child.close();
+			child = null;
+		}
+		probe = null;
+		if (set != null)
+			releaseSet();
+		for (int p = 0; p < PARTITIONS; p++)
+			closePartition(p);
+	}
+}
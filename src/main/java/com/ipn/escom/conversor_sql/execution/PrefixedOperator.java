@@ -0,0 +1,51 @@
+package com.ipn.escom.conversor_sql.execution;
+
+import java.util.List;
+
+/**
+ * Tuplas ya leídas seguidas de lo que falta de un operador que sigue abierto.
+ * Lo usa {@link HashJoinOperator} para pasarle sus entradas a
+ * {@link SortMergeJoinOperator} sin volver a leerlas desde el principio.
+ */
+final class PrefixedOperator implements Operator {
+
+	private final Header header;
+	private final List<Object[]> head;
+	private Operator restOrNull;
+	private int pos;
+
+	/** {@code restOrNull}: ya abierto, o null si la entrada se agotó. */
+	PrefixedOperator(Header header, List<Object[]> head, Operator restOrNull) {
+		this.header = header;
+		this.head = head;
+		this.restOrNull = restOrNull;
+	}
+
+	@Override
+	public Header header() {
+		return header;
+	}
+
+	@Override
+	public void open() {
+		// la entrada ya está abierta
+	}
+
+	@Override
+	public Object[] next() {
+		if (pos < head.size()) {
+			Object[] row = head.get(pos);
+			head.set(pos++, null); // que la lista no retenga lo que ya se entregó
+			return row;
+		}
+		return (restOrNull == null) ? null : restOrNull.next();
+	}
+
+	@Override
+	public void close() {
+		if (restOrNull != null) {
+			restOrNull.close();
+			restOrNull = null;
+		}
+	}
+}
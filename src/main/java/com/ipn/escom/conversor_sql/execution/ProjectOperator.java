@@ -0,0 +1,60 @@
+package com.ipn.escom.conversor_sql.execution;
+
+/**
+ * π: calcula las columnas de salida. Con {@code distinct} descarta las tuplas
+ * ya emitidas (en AR una relación es un conjunto) con un {@link PartitionedSet}:
+ * las recuerda a medida que salen, sin esperar a leer toda la entrada, mientras
+ * quepan en el presupuesto de memoria.
+ */
+final class ProjectOperator implements Operator {
+
+	private final Operator input;
+	private final RowExpr[] exprs;
+	private final Header header;
+	private final boolean distinct;
+	private final ExecutionContext ctx;
+	private PartitionedSet seen;
+
+	ProjectOperator(Operator input, RowExpr[] exprs, Header header, boolean distinct, ExecutionContext ctx) {
+		this.input = input;
+		this.exprs = exprs;
+		this.header = header;
+		this.distinct = distinct;
+		this.ctx = ctx;
+	}
+
+	@Override
+	public Header header() {
+		return header;
+	}
+
+	@Override
+	public void open() {
+		seen = distinct ? new PartitionedSet(PartitionedSet.Mode.DISTINCT, this::project, ctx) : null;
+		input.open();
+	}
+
+	@Override
+	public Object[] next() {
+		return (seen != null) ? seen.next() : project();
+	}
+
+	private Object[] project() {
+		Object[] row = input.next();
+		if (row == null)
+			return null;
+		Object[] out = new Object[exprs.length];
+		for (int i = 0; i < exprs.length; i++)
+			out[i] = exprs[i].eval(row);
+		return out;
+	}
+
+	@Override
+	public void close() {
+		if (seen != null) {
+			seen.close();
+			seen = null;
+		}
+		input.close();
+	}
+}
@@ -0,0 +1,33 @@
+package com.ipn.escom.conversor_sql.execution;
+
+/** ρ: mismas tuplas, columnas calificadas con el alias. */
+final class RenameOperator implements Operator {
+
+	private final Operator input;
+	private final Header header;
+
+	RenameOperator(Operator input, String alias) {
+		this.input = input;
+		this.header = input.header().renamed(alias);
+	}
+
+	@Override
+	public Header header() {
+		return header;
+	}
+
+	@Override
+	public void open() {
+		input.open();
+	}
+
+	@Override
+	public Object[] next() {
+		return input.next();
+	}
+
+	@Override
+	public void close() {
+		input.close();
+	}
+}
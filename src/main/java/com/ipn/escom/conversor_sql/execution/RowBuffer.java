@@ -0,0 +1,79 @@
+package com.ipn.escom.conversor_sql.execution;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lista de tuplas que se queda en memoria mientras quepa en el presupuesto de
+ * la ejecución y, a partir de ahí, sigue en un {@link SpillFile}. Se llena una
+ * vez y se recorre las veces que haga falta (en el orden en que se agregó).
+ */
+final class RowBuffer implements AutoCloseable {
+
+	private final ExecutionContext ctx;
+	private List<Object[]> memory = new ArrayList<>();
+	private long reserved;
+	private SpillFile spill;
+
+	RowBuffer(ExecutionContext ctx) {
+		this.ctx = ctx;
+	}
+
+	void add(Object[] row) {
+		if (spill == null) {
+			long bytes = Values.sizeOf(row);
+			if (ctx.tryReserve(bytes)) {
+				reserved += bytes;
+				memory.add(row);
+				return;
+			}
+			spill = ctx.newSpillFile();
+		}
+		spill.write(row);
+	}
+
+	long size() {
+		return memory.size() + (spill == null ? 0 : spill.rows());
+	}
+
+	boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/** Recorrido nuevo desde la primera tupla. */
+	RowCursor cursor() {
+		return new Cursor();
+	}
+
+	/** Vacía el buffer (y libera su memoria) para volver a llenarlo. */
+	void clear() {
+		memory = new ArrayList<>();
+		ctx.release(reserved);
+		reserved = 0;
+		if (spill != null) {
+			spill.close();
+			spill = null;
+		}
+	}
+
+	@Override
+	public void close() {
+		clear();
+	}
+
+	private final class Cursor implements RowCursor {
+		private int pos;
+		private SpillFile.Reader reader;
+
+		@Override
+		public Object[] next() {
+			if (pos < memory.size())
+				return memory.get(pos++);
+			if (spill == null)
+				return null;
+			if (reader == null)
+				reader = spill.reader();
+			return reader.next();
+		}
+	}
+}
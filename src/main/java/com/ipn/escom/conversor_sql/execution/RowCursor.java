@@ -0,0 +1,11 @@
+package com.ipn.escom.conversor_sql.execution;
+
+/**
+ * Recorrido de tuplas guardadas por un operador (en memoria o en un
+ * {@link SpillFile}); a diferencia de {@link Operator} no se abre ni se cierra.
+ */
+interface RowCursor {
+
+	/** Siguiente tupla, o null al final. */
+	Object[] next();
+}
@@ -0,0 +1,8 @@
+package com.ipn.escom.conversor_sql.execution;
+
+/** Expresión ya ligada a las posiciones de un {@link Header}. */
+@FunctionalInterface
+interface RowExpr {
+
+	Object eval(Object[] row);
+}
@@ -0,0 +1,11 @@
+package com.ipn.escom.conversor_sql.execution;
+
+/**
+ * Predicado ya ligado a un {@link Header}, con lógica de tres valores:
+ * {@code TRUE}, {@code FALSE} o null (UNKNOWN). σ y ⋈ solo conservan TRUE.
+ */
+@FunctionalInterface
+interface RowPredicate {
+
+	Boolean test(Object[] row);
+}
@@ -0,0 +1,38 @@
+package com.ipn.escom.conversor_sql.execution;
+
+/** σ: deja pasar las tuplas cuyo predicado es TRUE. */
+final class SelectOperator implements Operator {
+
+	private final Operator input;
+	private final RowPredicate predicate;
+
+	SelectOperator(Operator input, RowPredicate predicate) {
+		this.input = input;
+		this.predicate = predicate;
+	}
+
+	@Override
+	public Header header() {
+		return input.header();
+	}
+
+	@Override
+	public void open() {
+		input.open();
+	}
+
+	@Override
+	public Object[] next() {
+		Object[] row;
+		while ((row = input.next()) != null) {
+			if (Boolean.TRUE.equals(predicate.test(row)))
+				return row;
+		}
+		return null;
+	}
+
+	@Override
+	public void close() {
+		input.close();
+	}
+}
@@ -0,0 +1,88 @@
+package com.ipn.escom.conversor_sql.execution;
+
+/**
+ * ∪, ∩ y − con semántica de conjuntos (sin duplicados; dos NULL en la misma
+ * posición se consideran iguales, como en SQL), con un {@link PartitionedSet}:
+ * la unión es el DISTINCT de ambos lados recorridos en streaming; la
+ * intersección y la diferencia cargan primero el lado derecho y sondean con el
+ * izquierdo. Si no cabe en el presupuesto de memoria, el conjunto se parte en
+ * disco. El encabezado es el del lado izquierdo.
+ */
+final class SetOperator implements Operator {
+
+	enum Kind {
+		UNION, INTERSECT, EXCEPT
+	}
+
+	private final Kind kind;
+	private final Operator left;
+	private final Operator right;
+	private final ExecutionContext ctx;
+
+	private PartitionedSet set;
+	private boolean onRight;
+
+	SetOperator(Kind kind, Operator left, Operator right, ExecutionContext ctx) {
+		if (left.header().size() != right.header().size())
+			throw new IllegalArgumentException("Los operandos de " + kind + " tienen distinto número de columnas ("
+					+ left.header().size() + " y " + right.header().size() + ").");
+		this.kind = kind;
+		this.left = left;
+		this.right = right;
+		this.ctx = ctx;
+	}
+
+	@Override
+	public Header header() {
+		return left.header();
+	}
+
+	@Override
+	public void open() {
+		onRight = false;
+		if (kind == Kind.UNION) {
+			set = new PartitionedSet(PartitionedSet.Mode.DISTINCT, this::pull, ctx);
+		} else {
+			set = new PartitionedSet(
+					(kind == Kind.INTERSECT) ? PartitionedSet.Mode.INTERSECT : PartitionedSet.Mode.EXCEPT, left::next,
+					ctx);
+			right.open();
+			try {
+				set.build(right::next);
+			} finally {
+				right.close();
+			}
+		}
+		left.open();
+	}
+
+	@Override
+	public Object[] next() {
+		return set.next();
+	}
+
+	/** Unión: al agotarse la izquierda se sigue con la derecha. */
+	private Object[] pull() {
+		if (!onRight) {
+			Object[] row = left.next();
+			if (row != null)
+				return row;
+			left.close();
+			onRight = true;
+			right.open();
+		}
+		return right.next();
+	}
+
+	@Override
+	public void close() {
+		if (set != null) {
+			set.close();
+			set = null;
+		}
+		if (onRight)
+			right.close();
+		else
+			left.close();
+	}
+}
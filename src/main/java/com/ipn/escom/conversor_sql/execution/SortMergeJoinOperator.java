@@ -0,0 +1,189 @@
+package com.ipn.escom.conversor_sql.execution;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * ⋈ por ordenamiento y mezcla para joins con igualdades entre los dos lados,
+ * pensado para entradas que no caben en el presupuesto de memoria. Cada lado
+ * se ordena por su llave con {@link ExternalSorter} (que escribe corridas a
+ * disco si hace falta) y después se recorren los dos a la par: para cada
+ * grupo de tuplas derechas con la misma llave se guarda solo ese grupo (en un
+ * {@link RowBuffer}, que también puede ir a disco) y se combina con las tuplas
+ * izquierdas de esa llave.
+ * <p>
+ * Mismas reglas que {@link HashJoinOperator}: las llaves se comparan con el
+ * orden de {@link Values#compareTotal}, congruente con {@code equals}; una
+ * llave izquierda de otro tipo que la derecha es error; una llave con NULL no
+ * coincide con nada; el resto del predicado se evalúa sobre
+ * cada par que coincide. La salida es izquierda + derecha, ordenada por llave.
+ */
+final class SortMergeJoinOperator implements Operator {
+
+	private final Operator left;
+	private final Operator right;
+	private final RowExpr[] leftKeys;
+	private final RowExpr[] rightKeys;
+	private final RowPredicate residualOrNull;
+	private final ExecutionContext ctx;
+	private final Header header;
+	private final int keyCount;
+	private final Comparator<Object[]> byKey;
+
+	private ExternalSorter leftSorter;
+	private ExternalSorter rightSorter;
+	private RowCursor leftRows;
+	private RowCursor rightRows;
+	/** Siguiente tupla derecha que todavía no entra a ningún grupo. */
+	private Object[] nextRight;
+	/** Tuplas derechas con la llave de {@link #groupKey}. */
+	private RowBuffer group;
+	private Object[] groupKey;
+	private RowCursor groupPos;
+	private Object[] current;
+
+	/** Mismos argumentos que {@link HashJoinOperator}. */
+	SortMergeJoinOperator(Operator left, Operator right, RowExpr[] leftKeys, RowExpr[] rightKeys,
+			RowPredicate residualOrNull, ExecutionContext ctx) {
+		this.left = left;
+		this.right = right;
+		this.leftKeys = leftKeys;
+		this.rightKeys = rightKeys;
+		this.residualOrNull = residualOrNull;
+		this.ctx = ctx;
+		this.header = left.header().concat(right.header());
+		this.keyCount = leftKeys.length;
+		this.byKey = this::compareKeys;
+	}
+
+	@Override
+	public Header header() {
+		return header;
+	}
+
+	@Override
+	public void open() {
+		leftSorter = sort(left, leftKeys);
+		leftSorter.finish();
+		rightSorter = sort(right, rightKeys);
+		leftRows = leftSorter.sorted();
+		rightRows = rightSorter.sorted();
+		nextRight = rightRows.next();
+		group = new RowBuffer(ctx);
+		groupKey = null;
+		groupPos = null;
+		current = null;
+	}
+
+	/**
+	 * Lee y ordena un lado. Cada tupla se guarda con los valores de su llave al
+	 * principio, para no evaluar las expresiones de llave en cada comparación.
+	 */
+	private ExternalSorter sort(Operator in, RowExpr[] keys) {
+		ExternalSorter sorter = new ExternalSorter(byKey, ctx);
+		in.open();
+		try {
+			Object[] row;
+			next: while ((row = in.next()) != null) {
+				Object[] keyed = new Object[keyCount + row.length];
+				for (int i = 0; i < keyCount; i++) {
+					Object v = keys[i].eval(row);
+					if (v == null)
+						continue next;
+					keyed[i] = v;
+				}
+				System.arraycopy(row, 0, keyed, keyCount, row.length);
+				sorter.add(keyed);
+			}
+		} finally {
+			in.close();
+		}
+		return sorter;
+	}
+
+	@Override
+	public Object[] next() {
+		while (true) {
+			if (groupPos != null) {
+				Object[] r;
+				while ((r = groupPos.next()) != null) {
+					ctx.tick();
+					Object[] pair = concat(current, r);
+					if (residualOrNull == null || Boolean.TRUE.equals(residualOrNull.test(pair)))
+						return pair;
+				}
+				groupPos = null;
+			}
+			current = leftRows.next();
+			if (current == null)
+				return null;
+			if (groupKey == null || compareKeys(current, groupKey) != 0) {
+				if (!loadGroup(current))
+					continue;
+			}
+			groupPos = group.cursor();
+		}
+	}
+
+	/** Junta las tuplas derechas con la llave de {@code l}; false si no hay ninguna. */
+	private boolean loadGroup(Object[] l) {
+		while (nextRight != null && compareSides(l, nextRight) > 0)
+			nextRight = rightRows.next();
+		group.clear();
+		groupKey = null;
+		if (nextRight == null || compareSides(l, nextRight) != 0)
+			return false;
+		groupKey = nextRight;
+		while (nextRight != null && compareKeys(nextRight, groupKey) == 0) {
+			group.add(nextRight);
+			nextRight = rightRows.next();
+		}
+		return true;
+	}
+
+	private int compareKeys(Object[] a, Object[] b) {
+		for (int i = 0; i < keyCount; i++) {
+			int c = Values.compareTotal(a[i], b[i]);
+			if (c != 0)
+				return c;
+		}
+		return 0;
+	}
+
+	/** Llave izquierda contra derecha; error si algún componente es de otro tipo. */
+	private int compareSides(Object[] l, Object[] r) {
+		for (int i = 0; i < keyCount; i++)
+			Values.requireComparable(l[i], r[i]);
+		return compareKeys(l, r);
+	}
+
+	/** Par sin los valores de llave que se antepusieron al ordenar. */
+	private Object[] concat(Object[] l, Object[] r) {
+		int lw = l.length - keyCount;
+		int rw = r.length - keyCount;
+		Object[] out = Arrays.copyOfRange(l, keyCount, l.length + rw);
+		System.arraycopy(r, keyCount, out, lw, rw);
+		return out;
+	}
+
+	@Override
+	public void close() {
+		leftRows = null;
+		rightRows = null;
+		nextRight = null;
+		groupPos = null;
+		current = null;
+		if (group != null) {
+			group.close();
+			group = null;
+		}
+		if (leftSorter != null) {
+			leftSorter.close();
+			leftSorter = null;
+		}
+		if (rightSorter != null) {
+			rightSorter.close();
+			rightSorter = null;
+		}
+	}
+}
@@ -0,0 +1,221 @@
+package com.ipn.escom.conversor_sql.execution;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Tuplas escritas en un archivo temporal con un {@link FileChannel}: primero se
+ * agregan todas y después se leen (las veces que haga falta, cada lector con su
+ * propia posición). El archivo se abre con {@code DELETE_ON_CLOSE}, así que
+ * desaparece al cerrarlo aunque la ejecución termine con error.
+ * <p>
+ * Formato por tupla: longitud en bytes, número de valores y cada valor con una
+ * etiqueta ({@code NULL}, booleano, número que cabe en un long, número grande o
+ * texto UTF-8).
+ */
+final class SpillFile implements AutoCloseable {
+
+	private static final int BUFFER = 64 * 1024;
+
+	private static final byte NULL = 0;
+	private static final byte TRUE = 1;
+	private static final byte FALSE = 2;
+	private static final byte LONG_DECIMAL = 3;
+	private static final byte BIG_DECIMAL = 4;
+	private static final byte STRING = 5;
+
+	private final FileChannel channel;
+	private final ExecutionContext ctx;
+	private ByteBuffer out = ByteBuffer.allocate(BUFFER);
+	private long size;
+	private long rows;
+	private boolean closed;
+
+	private SpillFile(FileChannel channel, ExecutionContext ctx) {
+		this.channel = channel;
+		this.ctx = ctx;
+	}
+
+	static SpillFile create(Path dir, ExecutionContext ctx) throws IOException {
+		Path p = Files.createTempFile(dir, "ar-spill-", ".bin");
+		FileChannel ch = FileChannel.open(p, StandardOpenOption.READ, StandardOpenOption.WRITE,
+				StandardOpenOption.DELETE_ON_CLOSE);
+		return new SpillFile(ch, ctx);
+	}
+
+	long rows() {
+		return rows;
+	}
+
+	void write(Object[] row) {
+		int start = out.position();
+		try {
+			encode(row);
+		} catch (BufferOverflowException e) {
+			out.position(start);
+			flush();
+			if (!fits(row)) // tupla más grande que el buffer
+				out = ByteBuffer.allocate(encodedSize(row));
+			encode(row);
+		}
+		rows++;
+	}
+
+	/** Escribe al archivo lo que sigue en el buffer. */
+	void flush() {
+		out.flip();
+		try {
+			while (out.hasRemaining())
+				size += channel.write(out, size);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		ctx.addSpilledBytes(out.limit());
+		if (out.capacity() > BUFFER)
+			out = ByteBuffer.allocate(BUFFER);
+		else
+			out.clear();
+	}
+
+	/** Lector desde el inicio del archivo (lo pendiente se escribe antes). */
+	Reader reader() {
+		if (out.position() > 0)
+			flush();
+		return new Reader();
+	}
+
+	@Override
+	public void close() {
+		if (closed)
+			return;
+		closed = true;
+		out = null; // el contexto guarda la referencia hasta el final de la ejecución
+		try {
+			channel.close();
+		} catch (IOException e) {
+			// el archivo se borra al cerrar; no hay nada más que hacer
+		}
+	}
+
+	/** Lectura secuencial con lecturas posicionales (varios lectores no se estorban). */
+	final class Reader implements RowCursor {
+		private ByteBuffer in = ByteBuffer.allocate(BUFFER).flip();
+		private long pos;
+
+		@Override
+		public Object[] next() {
+			if (!ensure(4))
+				return null;
+			int len = in.getInt();
+			if (!ensure(len))
+				throw new IllegalStateException("Archivo temporal truncado");
+			return decode(in);
+		}
+
+		private boolean ensure(int n) {
+			if (in.remaining() >= n)
+				return true;
+			if (n > in.capacity()) {
+				ByteBuffer bigger = ByteBuffer.allocate(n);
+				bigger.put(in);
+				in = bigger;
+			} else {
+				in.compact();
+			}
+			try {
+				while (in.position() < n && pos < size) {
+					int r = channel.read(in, pos);
+					if (r < 0)
+						break;
+					pos += r;
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			in.flip();
+			return in.remaining() >= n;
+		}
+	}
+
+	// --- Codificación ---
+
+	private boolean fits(Object[] row) {
+		return encodedSize(row) <= out.capacity();
+	}
+
+	private void encode(Object[] row) {
+		int lenPos = out.position();
+		out.putInt(0);
+		out.putInt(row.length);
+		for (Object v : row) {
+			if (v == null) {
+				out.put(NULL);
+			} else if (v instanceof Boolean b) {
+				out.put(b ? TRUE : FALSE);
+			} else if (v instanceof BigDecimal d) {
+				BigInteger unscaled = d.unscaledValue();
+				if (unscaled.bitLength() < 64) {
+					out.put(LONG_DECIMAL).putInt(d.scale()).putLong(unscaled.longValue());
+				} else {
+					byte[] bytes = unscaled.toByteArray();
+					out.put(BIG_DECIMAL).putInt(d.scale()).putInt(bytes.length).put(bytes);
+				}
+			} else {
+				byte[] bytes = v.toString().getBytes(StandardCharsets.UTF_8);
+				out.put(STRING).putInt(bytes.length).put(bytes);
+			}
+		}
+		out.putInt(lenPos, out.position() - lenPos - 4);
+	}
+
+	private static int encodedSize(Object[] row) {
+		int n = 8;
+		for (Object v : row) {
+			if (v == null || v instanceof Boolean)
+				n += 1;
+			else if (v instanceof BigDecimal d)
+				n += 13 + d.unscaledValue().bitLength() / 8 + 1;
+			else
+				n += 5 + v.toString().getBytes(StandardCharsets.UTF_8).length;
+		}
+		return n;
+	}
+
+	private static Object[] decode(ByteBuffer in) {
+		Object[] row = new Object[in.getInt()];
+		for (int i = 0; i < row.length; i++) {
+			byte tag = in.get();
+			row[i] = switch (tag) {
+			case NULL -> null;
+			case TRUE -> Boolean.TRUE;
+			case FALSE -> Boolean.FALSE;
+			case LONG_DECIMAL -> {
+				int scale = in.getInt();
+				yield BigDecimal.valueOf(in.getLong(), scale);
+			}
+			case BIG_DECIMAL -> {
+				int scale = in.getInt();
+				byte[] bytes = new byte[in.getInt()];
+				in.get(bytes);
+				yield new BigDecimal(new BigInteger(bytes), scale);
+			}
+			case STRING -> {
+				byte[] bytes = new byte[in.getInt()];
+				in.get(bytes);
+				yield new String(bytes, StandardCharsets.UTF_8);
+			}
+			default -> throw new IllegalStateException("Etiqueta desconocida en archivo temporal: " + tag);
+			};
+		}
+		return row;
+	}
+}
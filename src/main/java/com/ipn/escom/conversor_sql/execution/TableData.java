@@ -0,0 +1,129 @@
+package com.ipn.escom.conversor_sql.execution;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.ipn.escom.conversor_sql.validation.schema.SchemaIndex;
+import com.ipn.escom.conversor_sql.validation.schema.SqlType;
+import com.ipn.escom.conversor_sql.validation.sql.TypeSystem.TypeCategory;
+
+/**
+ * Tuplas de ejemplo por tabla, ya validadas contra el esquema y convertidas a
+ * los valores de {@link Values} según la categoría de cada columna. Cada fila
+ * trae los valores en el orden en que se declararon las columnas. Una tabla
+ * sin datos es una relación vacía. Cada tabla se guarda por columnas
+ * ({@link ColumnarTable}), con la representación que permite su categoría.
+ */
+public final class TableData {
+
+	private final SchemaIndex schema;
+	private final Map<String, ColumnarTable> tables;
+
+	private TableData(SchemaIndex schema, Map<String, ColumnarTable> tables) {
+		this.schema = schema;
+		this.tables = tables;
+	}
+
+	/**
+	 * Valida y convierte {@code datos} (tabla → filas). Lanza
+	 * IllegalArgumentException si una tabla no existe en el esquema, si una fila
+	 * no tiene tantos valores como columnas, si un valor no corresponde al tipo
+	 * de su columna o si en total hay más de {@code maxRows} filas.
+	 */
+	public static TableData of(SchemaIndex schema, Map<String, List<List<Object>>> datos, long maxRows) {
+		Map<String, ColumnarTable> out = new HashMap<>();
+		if (datos == null)
+			return new TableData(schema, out);
+
+		long total = 0;
+		for (Map.Entry<String, List<List<Object>>> e : datos.entrySet()) {
+			String table = SchemaIndex.normalize(e.getKey());
+			if (table == null || !schema.definedTablesLower().contains(table))
+				throw new IllegalArgumentException("La tabla '" + e.getKey() + "' de 'datos' no existe en el esquema.");
+			if (out.containsKey(table))
+				throw new IllegalArgumentException("La tabla '" + e.getKey() + "' aparece más de una vez en 'datos'.");
+
+			List<List<Object>> filas = (e.getValue() == null) ? List.of() : e.getValue();
+			total += filas.size();
+			if (total > maxRows)
+				throw new IllegalArgumentException("Los datos tienen más de " + maxRows + " filas en total.");
+
+			String[] cols = schema.columnsByTable().get(table).toArray(String[]::new);
+			TypeCategory[] categories = new TypeCategory[cols.length];
+			for (int c = 0; c < cols.length; c++) {
+				SqlType t = schema.sqlType(table, cols[c]);
+				categories[c] = (t == null) ? TypeCategory.UNKNOWN : t.category();
+			}
+
+			List<Object[]> rows = new ArrayList<>(filas.size());
+			for (int r = 0; r < filas.size(); r++) {
+				List<Object> fila = filas.get(r);
+				if (fila == null || fila.size() != cols.length)
+					throw new IllegalArgumentException("Fila " + (r + 1) + " de '" + e.getKey() + "': se esperaban "
+							+ cols.length + " valores y hay " + ((fila == null) ? 0 : fila.size()) + ".");
+				Object[] row = new Object[cols.length];
+				for (int c = 0; c < cols.length; c++)
+					row[c] = coerce(fila.get(c), categories[c], e.getKey(), r, cols[c]);
+				rows.add(row);
+			}
+			out.put(table, ColumnarTable.of(rows, categories));
+		}
+		return new TableData(schema, out);
+	}
+
+	/** Encabezado de la tabla (columnas en orden de declaración, calificadas con {@code relation}). */
+	Header header(String tableLower, String relation) {
+		Set<String> cols = schema.columnsByTable().get(tableLower);
+		if (cols == null)
+			throw new IllegalArgumentException("Tabla desconocida en la ejecución: " + relation);
+		String[] names = cols.toArray(String[]::new);
+		String[] rels = new String[names.length];
+		Arrays.fill(rels, relation);
+		return new Header(rels, names);
+	}
+
+	ColumnarTable table(String tableLower) {
+		ColumnarTable t = tables.get(tableLower);
+		return (t != null) ? t : ColumnarTable.empty(schema.columnsByTable().get(tableLower).size());
+	}
+
+	private static Object coerce(Object v, TypeCategory category, String table, int row, String column) {
+		if (v == null)
+			return null;
+		if (v instanceof List || v instanceof Map)
+			throw invalid(v, "no es un valor escalar", table, row, column);
+		return switch (category) {
+		case NUMERIC -> {
+			if (v instanceof Number n)
+				yield Values.number(n);
+			if (v instanceof String s) {
+				try {
+					yield Values.canonical(new BigDecimal(s.trim()));
+				} catch (NumberFormatException ex) {
+					throw invalid(v, "no es numérico", table, row, column);
+				}
+			}
+			throw invalid(v, "no es numérico", table, row, column);
+		}
+		case BOOLEAN -> {
+			if (v instanceof Boolean)
+				yield v;
+			if (v instanceof String s && (s.equalsIgnoreCase("true") || s.equalsIgnoreCase("false")))
+				yield Boolean.valueOf(s);
+			throw invalid(v, "no es booleano", table, row, column);
+		}
+		case TEXT, DATE -> (v instanceof Number n) ? Values.number(n).toPlainString() : String.valueOf(v);
+		case UNKNOWN -> (v instanceof Number n) ? Values.number(n) : v;
+		};
+	}
+
+	private static IllegalArgumentException invalid(Object v, String why, String table, int row, String column) {
+		return new IllegalArgumentException("Fila " + (row + 1) + " de '" + table + "', columna '" + column + "': "
+				+ Values.describe(v) + " " + why + ".");
+	}
+}
@@ -0,0 +1,141 @@
+package com.ipn.escom.conversor_sql.execution;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+
+import com.ipn.escom.conversor_sql.ar.expresiones.ArArithOp;
+
+/**
+ * Valores de las tuplas: {@link BigDecimal} (números), {@link String} (texto y
+ * fechas), {@link Boolean} y null. Los números se guardan en forma canónica
+ * (sin ceros a la derecha y sin exponente), así que dos tuplas con los mismos
+ * valores son {@code equals} y se pueden usar como llave de un HashSet.
+ */
+final class Values {
+	private Values() {
+	}
+
+	/** Contexto de la división (la única operación que puede no ser exacta). */
+	private static final MathContext DIVISION = MathContext.DECIMAL64;
+
+	/** Forma canónica: {@code 12.50} → {@code 12.5}, {@code 1E+2} → {@code 100}. */
+	static BigDecimal canonical(BigDecimal n) {
+		BigDecimal s = n.stripTrailingZeros();
+		return (s.scale() < 0) ? s.setScale(0) : s;
+	}
+
+	/** Número JSON (Integer, Long, Double, BigInteger, BigDecimal...) en forma canónica. */
+	static BigDecimal number(Number n) {
+		if (n instanceof BigDecimal b)
+			return canonical(b);
+		if (n instanceof BigInteger i)
+			return new BigDecimal(i);
+		if (n instanceof Double || n instanceof Float) {
+			double d = n.doubleValue();
+			if (Double.isNaN(d) || Double.isInfinite(d))
+				throw new IllegalArgumentException("Número no finito: " + n);
+			return canonical(new BigDecimal(Double.toString(d)));
+		}
+		return BigDecimal.valueOf(n.longValue());
+	}
+
+	/**
+	 * Orden entre dos valores no nulos del mismo tipo. Valores de tipos distintos
+	 * (un texto contra un número, aunque el texto sea un número) son error, como
+	 * en {@code TypeSystem.areComparable} de la fase 1; así {@code =} coincide
+	 * con {@code equals} sobre valores canónicos, que es lo que usan los joins
+	 * por hash y por mezcla.
+	 */
+	static int compare(Object a, Object b) {
+		if (a instanceof BigDecimal x && b instanceof BigDecimal y)
+			return x.compareTo(y);
+		if (a instanceof String x && b instanceof String y)
+			return x.compareTo(y);
+		if (a instanceof Boolean x && b instanceof Boolean y)
+			return x.compareTo(y);
+		throw incomparable(a, b);
+	}
+
+	/**
+	 * Error si dos valores no nulos no se pueden comparar con {@link #compare}.
+	 * Los joins que emparejan llaves sin llamar a {@code compare} lo usan para
+	 * fallar igual que la evaluación tupla por tupla.
+	 */
+	static void requireComparable(Object a, Object b) {
+		if (rank(a) != rank(b))
+			throw incomparable(a, b);
+	}
+
+	/**
+	 * Orden total entre valores no nulos, congruente con {@code equals} sobre
+	 * valores canónicos (el que usan las llaves de hash): primero por tipo
+	 * (booleano, número, texto) y después por el orden natural del tipo. Sirve
+	 * para ordenar llaves, no para evaluar comparaciones de SQL.
+	 */
+	static int compareTotal(Object a, Object b) {
+		int ra = rank(a);
+		int rb = rank(b);
+		if (ra != rb)
+			return Integer.compare(ra, rb);
+		if (a instanceof BigDecimal x)
+			return x.compareTo((BigDecimal) b);
+		if (a instanceof Boolean x)
+			return x.compareTo((Boolean) b);
+		return a.toString().compareTo(b.toString());
+	}
+
+	private static int rank(Object v) {
+		if (v instanceof Boolean)
+			return 0;
+		if (v instanceof BigDecimal)
+			return 1;
+		return 2;
+	}
+
+	/**
+	 * Memoria aproximada que ocupa una tupla guardada (arreglo, números y
+	 * textos); es la unidad con la que se descuenta el presupuesto de memoria.
+	 */
+	static long sizeOf(Object[] row) {
+		long n = 16 + 8L * row.length;
+		for (Object v : row) {
+			if (v instanceof BigDecimal)
+				n += 40;
+			else if (v instanceof String s)
+				n += 40 + 2L * s.length();
+		}
+		return n;
+	}
+
+	/** Aritmética con NULL que se propaga; división entre cero es error. */
+	static BigDecimal arith(ArArithOp op, Object a, Object b) {
+		if (a == null || b == null)
+			return null;
+		if (!(a instanceof BigDecimal x) || !(b instanceof BigDecimal y))
+			throw new IllegalArgumentException(
+					"Operación aritmética sobre valores no numéricos: " + describe(a) + " y " + describe(b));
+		return canonical(switch (op) {
+		case ADD -> x.add(y);
+		case SUB -> x.subtract(y);
+		case MUL -> x.multiply(y);
+		case DIV -> {
+			if (y.signum() == 0)
+				throw new IllegalArgumentException("División entre cero.");
+			yield x.divide(y, DIVISION);
+		}
+		});
+	}
+
+	static String describe(Object v) {
+		if (v == null)
+			return "NULL";
+		if (v instanceof String s)
+			return "'" + s + "'";
+		return String.valueOf(v);
+	}
+
+	private static IllegalArgumentException incomparable(Object a, Object b) {
+		return new IllegalArgumentException("No se pueden comparar " + describe(a) + " y " + describe(b) + ".");
+	}
+}
@@ -0,0 +1,298 @@
+package com.ipn.escom.conversor_sql.execution;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+import com.ipn.escom.conversor_sql.ar.expresiones.ArCol;
+import com.ipn.escom.conversor_sql.ar.expresiones.ArConst;
+import com.ipn.escom.conversor_sql.ar.expresiones.ArExprInterface;
+import com.ipn.escom.conversor_sql.ar.predicados.ArAnd;
+import com.ipn.escom.conversor_sql.ar.predicados.ArCmp;
+import com.ipn.escom.conversor_sql.ar.predicados.ArCmpOp;
+import com.ipn.escom.conversor_sql.ar.predicados.ArNot;
+import com.ipn.escom.conversor_sql.ar.predicados.ArOr;
+import com.ipn.escom.conversor_sql.ar.predicados.ArPredInterface;
+
+/**
+ * Liga predicados de AR a las columnas de una {@link ColumnarTable} como
+ * {@link VectorPredicate}, con la misma semántica que {@link ExprCompiler}.
+ * AND, OR y NOT combinan máscaras palabra por palabra; las comparaciones
+ * recorren los {@code long[]} o los códigos de diccionario sin crear objetos.
+ * <p>
+ * Solo se vectorizan comparaciones que no pueden fallar: columna numérica
+ * contra número, texto contra texto, IS [NOT] NULL y columna contra columna
+ * del mismo tipo. Para lo demás (aritmética, tipos mezclados, booleanos...)
+ * {@link #compile} devuelve null y el predicado se evalúa tupla por tupla.
+ */
+final class VectorCompiler {
+	private VectorCompiler() {
+	}
+
+	private static final int WORDS = VectorPredicate.BATCH / 64;
+	private static final BigDecimal LONG_MAX = BigDecimal.valueOf(Long.MAX_VALUE);
+	private static final BigDecimal LONG_MIN = BigDecimal.valueOf(Long.MIN_VALUE);
+	private static final long[] POW10 = new long[19];
+	static {
+		POW10[0] = 1;
+		for (int i = 1; i < POW10.length; i++)
+			POW10[i] = POW10[i - 1] * 10;
+	}
+
+	/** null si alguna parte de {@code p} no se puede evaluar por lotes. */
+	static VectorPredicate compile(ArPredInterface p, Header h, ColumnarTable t) {
+		if (p instanceof ArAnd a) {
+			VectorPredicate l = compile(a.a(), h, t);
+			VectorPredicate r = compile(a.b(), h, t);
+			return (l == null || r == null) ? null : and(l, r);
+		}
+		if (p instanceof ArOr o) {
+			VectorPredicate l = compile(o.a(), h, t);
+			VectorPredicate r = compile(o.b(), h, t);
+			return (l == null || r == null) ? null : or(l, r);
+		}
+		if (p instanceof ArNot n) {
+			VectorPredicate inner = compile(n.a(), h, t);
+			return (inner == null) ? null : not(inner);
+		}
+		if (p instanceof ArCmp c)
+			return compare(c, h, t);
+		return null;
+	}
+
+	// --- Lógica de tres valores sobre máscaras ---
+
+	private static VectorPredicate and(VectorPredicate l, VectorPredicate r) {
+		long[] rTrue = new long[WORDS];
+		long[] rUnknown = new long[WORDS];
+		return (from, to, isTrue, isUnknown) -> {
+			l.eval(from, to, isTrue, isUnknown);
+			r.eval(from, to, rTrue, rUnknown);
+			for (int w = 0, n = words(from, to); w < n; w++) {
+				// FALSE si cualquiera es FALSE; TRUE si ambos; si no, UNKNOWN
+				long both = isTrue[w] & rTrue[w];
+				isUnknown[w] = (isTrue[w] | isUnknown[w]) & (rTrue[w] | rUnknown[w]) & ~both;
+				isTrue[w] = both;
+			}
+		};
+	}
+
+	private static VectorPredicate or(VectorPredicate l, VectorPredicate r) {
+		long[] rTrue = new long[WORDS];
+		long[] rUnknown = new long[WORDS];
+		return (from, to, isTrue, isUnknown) -> {
+			l.eval(from, to, isTrue, isUnknown);
+			r.eval(from, to, rTrue, rUnknown);
+			for (int w = 0, n = words(from, to); w < n; w++) {
+				long any = isTrue[w] | rTrue[w];
+				isUnknown[w] = (isUnknown[w] | rUnknown[w]) & ~any;
+				isTrue[w] = any;
+			}
+		};
+	}
+
+	private static VectorPredicate not(VectorPredicate inner) {
+		return (from, to, isTrue, isUnknown) -> {
+			inner.eval(from, to, isTrue, isUnknown);
+			for (int w = 0, n = words(from, to); w < n; w++)
+				isTrue[w] = ~(isTrue[w] | isUnknown[w]);
+		};
+	}
+
+	private static VectorPredicate constant(Boolean v) {
+		long t = Boolean.TRUE.equals(v) ? -1L : 0L;
+		long u = (v == null) ? -1L : 0L;
+		return (from, to, isTrue, isUnknown) -> {
+			int n = words(from, to);
+			Arrays.fill(isTrue, 0, n, t);
+			Arrays.fill(isUnknown, 0, n, u);
+		};
+	}
+
+	// --- Comparaciones ---
+
+	private static VectorPredicate compare(ArCmp c, Header h, ColumnarTable t) {
+		ArCmpOp op = c.op();
+		boolean leftNull = isNullConst(c.l());
+		boolean rightNull = isNullConst(c.r());
+		if (leftNull && rightNull)
+			return constant(op == ArCmpOp.EQ);
+		if (leftNull || rightNull) {
+			// = NULL / != NULL son IS NULL / IS NOT NULL; cualquier otro operador, UNKNOWN
+			ArExprInterface other = leftNull ? c.r() : c.l();
+			if (op != ArCmpOp.EQ && op != ArCmpOp.NEQ)
+				return constant(null);
+			if (other instanceof ArConst)
+				return constant(op == ArCmpOp.NEQ);
+			if (other instanceof ArCol col)
+				return isNull(column(col, h, t), op == ArCmpOp.EQ);
+			return null;
+		}
+		if (c.l() instanceof ArCol a && c.r() instanceof ArCol b)
+			return columns(column(a, h, t), op, column(b, h, t));
+		if (c.l() instanceof ArCol a && c.r() instanceof ArConst k)
+			return columnConst(column(a, h, t), op, k.value());
+		if (c.l() instanceof ArConst k && c.r() instanceof ArCol b)
+			return columnConst(column(b, h, t), flip(op), k.value());
+		return null;
+	}
+
+	private static VectorPredicate isNull(Column col, boolean wantNull) {
+		long[] nulls = col.nulls();
+		return (from, to, isTrue, isUnknown) -> {
+			int base = from >>> 6;
+			for (int w = 0, n = words(from, to); w < n; w++) {
+				long m = (nulls == null) ? 0L : nulls[base + w];
+				isTrue[w] = wantNull ? m : ~m;
+				isUnknown[w] = 0L;
+			}
+		};
+	}
+
+	private static VectorPredicate columnConst(Column col, ArCmpOp op, Object value) {
+		if (col instanceof Column.Decimal d && value instanceof BigDecimal n)
+			return decimalConst(d, op, n);
+		if (col instanceof Column.Dictionary d && value instanceof String s) {
+			// Se compara una vez por valor del diccionario, no por fila
+			boolean[] match = new boolean[d.dictionary.length];
+			for (int i = 0; i < match.length; i++)
+				match[i] = holds(op, d.dictionary[i].compareTo(s));
+			int[] codes = d.codes;
+			return (from, to, isTrue, isUnknown) -> {
+				clear(from, to, isTrue, isUnknown);
+				for (int i = from; i < to; i++) {
+					int j = i - from;
+					if (d.isNull(i))
+						isUnknown[j >>> 6] |= 1L << j;
+					else if (match[codes[i]])
+						isTrue[j >>> 6] |= 1L << j;
+				}
+			};
+		}
+		return null;
+	}
+
+	/**
+	 * Columna escalada contra una constante: la constante se lleva a la escala
+	 * de la columna ({@code c × 10^scale}). Si no queda entera, {@code floor}
+	 * separa los valores menores de los mayores (ninguno es igual); si no cabe
+	 * en un long, todas las filas quedan del mismo lado.
+	 */
+	private static VectorPredicate decimalConst(Column.Decimal d, ArCmpOp op, BigDecimal c) {
+		BigDecimal target = c.movePointRight(d.scale);
+		int fixed;
+		long floor = 0;
+		boolean exact = false;
+		if (target.compareTo(LONG_MAX) > 0) {
+			fixed = -1;
+		} else if (target.compareTo(LONG_MIN) < 0) {
+			fixed = 1;
+		} else {
+			fixed = 0;
+			BigDecimal f = target.setScale(0, RoundingMode.FLOOR);
+			floor = f.longValueExact();
+			exact = f.compareTo(target) == 0;
+		}
+		long[] values = d.unscaled;
+		long k = floor;
+		boolean isExact = exact;
+		return (from, to, isTrue, isUnknown) -> {
+			clear(from, to, isTrue, isUnknown);
+			for (int i = from; i < to; i++) {
+				int j = i - from;
+				if (d.isNull(i)) {
+					isUnknown[j >>> 6] |= 1L << j;
+					continue;
+				}
+				int cmp = (fixed != 0) ? fixed : isExact ? Long.compare(values[i], k) : (values[i] <= k ? -1 : 1);
+				if (holds(op, cmp))
+					isTrue[j >>> 6] |= 1L << j;
+			}
+		};
+	}
+
+	private static VectorPredicate columns(Column a, ArCmpOp op, Column b) {
+		if (a instanceof Column.Decimal x && b instanceof Column.Decimal y) {
+			return (from, to, isTrue, isUnknown) -> {
+				clear(from, to, isTrue, isUnknown);
+				for (int i = from; i < to; i++) {
+					int j = i - from;
+					if (x.isNull(i) || y.isNull(i))
+						isUnknown[j >>> 6] |= 1L << j;
+					else if (holds(op, compareScaled(x.unscaled[i], x.scale, y.unscaled[i], y.scale)))
+						isTrue[j >>> 6] |= 1L << j;
+				}
+			};
+		}
+		if (a instanceof Column.Dictionary x && b instanceof Column.Dictionary y) {
+			return (from, to, isTrue, isUnknown) -> {
+				clear(from, to, isTrue, isUnknown);
+				for (int i = from; i < to; i++) {
+					int j = i - from;
+					if (x.isNull(i) || y.isNull(i))
+						isUnknown[j >>> 6] |= 1L << j;
+					else if (holds(op, x.dictionary[x.codes[i]].compareTo(y.dictionary[y.codes[i]])))
+						isTrue[j >>> 6] |= 1L << j;
+				}
+			};
+		}
+		return null;
+	}
+
+	/** Compara {@code x × 10^-sx} con {@code y × 10^-sy} sin BigDecimal. */
+	private static int compareScaled(long x, int sx, long y, int sy) {
+		if (sx == sy)
+			return Long.compare(x, y);
+		if (sx > sy)
+			return -compareScaled(y, sy, x, sx);
+		long f = POW10[sy - sx];
+		long hi = Math.multiplyHigh(x, f);
+		long lo = x * f;
+		if ((hi == 0 && lo >= 0) || (hi == -1 && lo < 0))
+			return Long.compare(lo, y);
+		// x × f no cabe en un long, así que su magnitud es mayor que la de y
+		return Long.signum(x);
+	}
+
+	// --- Auxiliares ---
+
+	private static Column column(ArCol c, Header h, ColumnarTable t) {
+		return t.column(h.indexOf(c.relOrNull(), c.name()));
+	}
+
+	private static boolean holds(ArCmpOp op, int cmp) {
+		return switch (op) {
+		case EQ -> cmp == 0;
+		case NEQ -> cmp != 0;
+		case LT -> cmp < 0;
+		case LTE -> cmp <= 0;
+		case GT -> cmp > 0;
+		case GTE -> cmp >= 0;
+		};
+	}
+
+	/** {@code k op col} como {@code col flip(op) k}. */
+	private static ArCmpOp flip(ArCmpOp op) {
+		return switch (op) {
+		case LT -> ArCmpOp.GT;
+		case LTE -> ArCmpOp.GTE;
+		case GT -> ArCmpOp.LT;
+		case GTE -> ArCmpOp.LTE;
+		default -> op;
+		};
+	}
+
+	private static boolean isNullConst(ArExprInterface e) {
+		return (e instanceof ArConst k) && k.value() == null;
+	}
+
+	private static int words(int from, int to) {
+		return (to - from + 63) >>> 6;
+	}
+
+	private static void clear(int from, int to, long[] isTrue, long[] isUnknown) {
+		int n = words(from, to);
+		Arrays.fill(isTrue, 0, n, 0L);
+		Arrays.fill(isUnknown, 0, n, 0L);
+	}
+}
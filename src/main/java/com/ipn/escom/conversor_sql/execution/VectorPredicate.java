@@ -0,0 +1,20 @@
+package com.ipn.escom.conversor_sql.execution;
+
+/**
+ * Predicado evaluado por lotes de filas de una {@link ColumnarTable}, con
+ * lógica de tres valores en dos máscaras de bits: el bit {@code j} de
+ * {@code isTrue} / {@code isUnknown} corresponde a la fila {@code from + j}
+ * (ninguno de los dos encendido es FALSE). Los lotes empiezan en múltiplos de
+ * 64, así que las máscaras de NULL de las columnas se leen por palabras.
+ */
+interface VectorPredicate {
+
+	/** Tamaño máximo de un lote (filas). */
+	int BATCH = 1024;
+
+	/**
+	 * Evalúa las filas {@code [from, to)} y escribe todas las palabras que
+	 * cubren el lote; los bits posteriores a {@code to} quedan indefinidos.
+	 */
+	void eval(int from, int to, long[] isTrue, long[] isUnknown);
+}
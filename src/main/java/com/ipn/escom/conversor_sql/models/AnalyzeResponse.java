@@ -0,0 +1,20 @@
+package com.ipn.escom.conversor_sql.models;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Data;
+
+/**
+ * Respuesta de /api/analyze: mensajes de validación (como /api/sintaxis) y, si
+ * la consulta es válida, la AR con sus pasos (como /api/convert).
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AnalyzeResponse {
+    private boolean valido;
+    private List<ValidationMessage> mensajes;
+    private String algebraRelacional;
+    private List<String> pasos;
+}
@@ -2,10 +2,14 @@ package com.ipn.escom.conversor_sql.models;
 
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.Data;
 
 @Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class ArConvertResponse {
     private String algebraRelacional;
-    private List<String> pasos;
+    private List<String> pasos;           // null si se pidió sin pasos
+    private String conversionId;          // para pedir los pasos después (GET /api/convert/{id}/pasos)
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.ipn.escom.conversor_sql.models;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Payload de {@code POST /api/convert/batch}: un solo esquema ({@code tables} o
+ * {@code schemaId}, igual que en {@link SqlRequest}) y N consultas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchConvertRequest {
+
+    @Valid
+    private List<RelationalTable> tables;
+
+    private String schemaId;
+
+    @NotEmpty(message = "Debe proporcionar al menos una consulta en 'sqlQueries'.")
+    private List<String> sqlQueries;
+
+    @JsonIgnore
+    @AssertTrue(message = "Debe proporcionar al menos una tabla en 'tables' o un 'schemaId'.")
+    public boolean isEsquemaPresente() {
+        return (schemaId != null && !schemaId.isBlank()) || (tables != null && !tables.isEmpty());
+    }
+}
@@ -0,0 +1,33 @@
+package com.ipn.escom.conversor_sql.models;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Respuesta de {@code POST /api/convert/batch}; {@code resultados} va en el orden de {@code sqlQueries}. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchConvertResponse {
+    private int total;
+    private int exitosos;
+    private int fallidos;
+    private List<Item> resultados;
+
+    /** Resultado de una consulta: AR + pasos, o el error que produjo. */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Item {
+        private int indice;
+        private boolean valido;
+        private String algebraRelacional;
+        private List<String> pasos;
+        private String error;
+    }
+}
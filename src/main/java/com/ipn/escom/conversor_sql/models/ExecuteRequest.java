@@ -0,0 +1,30 @@
+package com.ipn.escom.conversor_sql.models;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Payload de {@code POST /api/execute}: lo mismo que {@link SqlRequest} más las
+ * tuplas de ejemplo con las que se evalúa la AR.
+ */
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class ExecuteRequest extends SqlRequest {
+
+    /**
+     * Tabla → filas; cada fila trae un valor por columna en el orden en que se
+     * declararon (números, cadenas, booleanos o null). Las tablas que no aparecen
+     * se tratan como vacías.
+     */
+    private Map<String, List<List<Object>>> datos;
+
+    /** Máximo de filas a devolver; el servidor aplica su propio tope si es menor. */
+    private Integer maxFilas;
+}
@@ -0,0 +1,16 @@
+package com.ipn.escom.conversor_sql.models;
+
+import java.util.List;
+
+import lombok.Data;
+
+/** Respuesta de {@code /api/execute}: la AR evaluada y la relación resultado. */
+@Data
+public class ExecuteResponse {
+    private String algebraRelacional;
+    private List<String> columnas;
+    private List<Object[]> filas;
+    private boolean truncado;             // true si había más filas que el máximo
+    private long filasExaminadas;
+    private long bytesEnDisco;            // escritos a archivos temporales (0 si todo cupo en memoria)
+}
@@ -0,0 +1,20 @@
+package com.ipn.escom.conversor_sql.models;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Respuesta de {@code POST /api/schemas}: id del esquema registrado o los errores de validación. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SchemaRegistrationResponse {
+    private boolean valido;
+    private String schemaId;               // null si el esquema es inválido
+    private List<ValidationMessage> mensajes;
+}
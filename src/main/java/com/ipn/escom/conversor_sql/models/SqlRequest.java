@@ -2,9 +2,11 @@ package com.ipn.escom.conversor_sql.models;
 
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.NotEmpty;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -12,7 +14,8 @@ import lombok.NoArgsConstructor;
 /**
  * Payload de entrada para validar una sentencia SQL contra el esquema relacional enviado.
  * <p>
- * - Debe incluir al menos una tabla (máximo 7).
+ * - Debe incluir al menos una tabla, o bien el {@code schemaId} de un
+ *   esquema registrado previamente en {@code POST /api/schemas}.
  * - La sentencia SQL no puede ser vacía.
  * <p>
  * Validaciones avanzadas (PK, FK, tipos, sintaxis soportada) se realizan en {@link com.ipn.escom.conversor_sql.validation.SqlValidator}.
@@ -26,13 +29,24 @@ public class SqlRequest {
      * Lista de tablas que definen el esquema.
      * Se valida en cascada: cada tabla debe cumplir sus propias reglas.
      */
-    @NotEmpty(message = "Debe proporcionar al menos una tabla en 'tables'.")
     @Valid
     private List<RelationalTable> tables;
 
+    /**
+     * Id de un esquema registrado (alternativa a {@code tables}). Si viene, tiene
+     * prioridad y {@code tables} se ignora.
+     */
+    private String schemaId;
+
     /**
      * Sentencia SQL a validar.
      */
     @NotBlank(message = "El campo 'sqlQuery' no puede estar vacío.")
     private String sqlQuery;
+
+    @JsonIgnore
+    @AssertTrue(message = "Debe proporcionar al menos una tabla en 'tables' o un 'schemaId'.")
+    public boolean isEsquemaPresente() {
+        return (schemaId != null && !schemaId.isBlank()) || (tables != null && !tables.isEmpty());
+    }
 }
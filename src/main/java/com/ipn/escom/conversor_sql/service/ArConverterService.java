@@ -1,8 +1,33 @@
 package com.ipn.escom.conversor_sql.service;
 
+import java.util.Optional;
+
+import com.ipn.escom.conversor_sql.models.AnalyzeResponse;
 import com.ipn.escom.conversor_sql.models.ArConvertResponse;
 import com.ipn.escom.conversor_sql.models.SqlRequest;
+import com.ipn.escom.conversor_sql.validation.schema.SchemaIndex;
 
 public interface ArConverterService {
-    ArConvertResponse toAlgebraRelacionalConPasos(SqlRequest req);
-}
\ No newline at end of file
+    default ArConvertResponse toAlgebraRelacionalConPasos(SqlRequest req) {
+        return toAlgebraRelacionalConPasos(req, null);
+    }
+
+    /** {@code esquema}: índice de un esquema registrado; si es null se construye con {@code req.tables}. */
+    ArConvertResponse toAlgebraRelacionalConPasos(SqlRequest req, SchemaIndex esquema);
+
+    /**
+     * Solo la AR, sin construir los pasos. La respuesta trae un {@code conversionId}
+     * con el que se pueden pedir los pasos después (caché de vida corta).
+     */
+    ArConvertResponse toAlgebraRelacional(SqlRequest req, SchemaIndex esquema);
+
+    /** AR + pasos de una conversión previa hecha sin pasos; empty si el id expiró. */
+    Optional<ArConvertResponse> pasos(String conversionId);
+
+    default AnalyzeResponse analizar(SqlRequest req) {
+        return analizar(req, null);
+    }
+
+    /** Valida y convierte con un solo parseo y un solo índice de esquema. */
+    AnalyzeResponse analizar(SqlRequest req, SchemaIndex esquema);
+}
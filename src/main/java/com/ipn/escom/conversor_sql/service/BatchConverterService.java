@@ -0,0 +1,31 @@
+package com.ipn.escom.conversor_sql.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+import com.ipn.escom.conversor_sql.models.BatchConvertResponse;
+import com.ipn.escom.conversor_sql.validation.schema.SchemaIndex;
+
+/** Conversión SQL → AR de muchas consultas contra un mismo esquema. */
+public interface BatchConverterService {
+
+    /**
+     * Convierte cada consulta en paralelo reutilizando {@code esquema}. Los
+     * errores se reportan por consulta; nunca abortan el lote.
+     */
+    BatchConvertResponse convertir(List<String> sqlQueries, SchemaIndex esquema);
+
+    /**
+     * Modo streaming: lee {@code SqlRequest} en NDJSON (uno por línea, cada uno con
+     * su {@code tables} o {@code schemaId}) y escribe un resultado NDJSON por
+     * consulta en cuanto termina, en orden de terminación ({@code indice} indica
+     * la línea de origen, contando solo las no vacías). La lectura se detiene
+     * mientras haya demasiados resultados sin escribir, así que la memoria no
+     * depende del tamaño de la entrada.
+     *
+     * @return número de consultas procesadas
+     */
+    long convertirStream(InputStream entrada, OutputStream salida) throws IOException;
+}
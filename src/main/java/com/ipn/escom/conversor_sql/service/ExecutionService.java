@@ -0,0 +1,17 @@
+package com.ipn.escom.conversor_sql.service;
+
+import com.ipn.escom.conversor_sql.models.ExecuteRequest;
+import com.ipn.escom.conversor_sql.models.ExecuteResponse;
+import com.ipn.escom.conversor_sql.validation.schema.SchemaIndex;
+
+/** Ejecución de la AR de una consulta sobre datos de ejemplo. */
+public interface ExecutionService {
+
+    /**
+     * Convierte la consulta a AR (igual que {@code /api/convert}) y la evalúa
+     * sobre {@code req.datos} con los topes de filas y tiempo del servidor.
+     * {@code esquema}: índice de un esquema registrado; si es null se construye
+     * con {@code req.tables}.
+     */
+    ExecuteResponse ejecutar(ExecuteRequest req, SchemaIndex esquema);
+}
@@ -0,0 +1,60 @@
+package com.ipn.escom.conversor_sql.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.ipn.escom.conversor_sql.cache.CacheStats;
+import com.ipn.escom.conversor_sql.models.RelationalTable;
+import com.ipn.escom.conversor_sql.models.SchemaRegistrationResponse;
+import com.ipn.escom.conversor_sql.models.SqlRequest;
+import com.ipn.escom.conversor_sql.validation.schema.SchemaIndex;
+
+/**
+ * Registro de esquemas: el cliente sube {@code tables} una vez y después manda
+ * solo el {@code schemaId}. El id es la huella del contenido, así que registrar
+ * dos veces el mismo esquema devuelve el mismo id.
+ */
+public interface SchemaRegistryService {
+
+    /** Valida y registra el esquema; si es inválido no se guarda. */
+    SchemaRegistrationResponse registrar(List<RelationalTable> tables);
+
+    /**
+     * Importa el esquema de un script DDL ({@code CREATE TABLE}, PK y FK) leyéndolo
+     * sentencia por sentencia y lo registra igual que {@link #registrar(List)}. Las
+     * sentencias que no se pudieron interpretar se reportan como advertencias.
+     */
+    SchemaRegistrationResponse registrarDdl(Reader ddl) throws IOException;
+
+    /** Esquema registrado (o persistido en disco); empty si no existe o expiró. */
+    Optional<RegisteredSchema> buscar(String schemaId);
+
+    /** Aciertos/fallos y entradas del registro en memoria. */
+    CacheStats cacheStats();
+
+    /**
+     * Índice del esquema registrado al que apunta {@code req.schemaId}, o null si
+     * el request trae {@code tables}. Lanza 404 si el id no existe o expiró.
+     */
+    default SchemaIndex resolver(SqlRequest req) {
+        return resolver(req.getSchemaId());
+    }
+
+    /** Igual que {@link #resolver(SqlRequest)} a partir del id; null si el id viene vacío. */
+    default SchemaIndex resolver(String id) {
+        if (id == null || id.isBlank())
+            return null;
+        return buscar(id.trim()).map(RegisteredSchema::index)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "El esquema '" + id + "' no está registrado o expiró; regístrelo de nuevo en /api/schemas."));
+    }
+
+    /** Esquema ya validado e indexado, listo para usarse sin {@link com.ipn.escom.conversor_sql.validation.schema.SchemaBuilder}. */
+    record RegisteredSchema(String id, List<RelationalTable> tables, SchemaIndex index) {
+    }
+}
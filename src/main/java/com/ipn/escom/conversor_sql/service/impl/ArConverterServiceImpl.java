@@ -1,64 +1,68 @@
 package com.ipn.escom.conversor_sql.service.impl;
 
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
 import com.ipn.escom.conversor_sql.ar.ArPrinter;
+import com.ipn.escom.conversor_sql.cache.LruCache;
 import com.ipn.escom.conversor_sql.conversion.ConversionPipeline;
 import com.ipn.escom.conversor_sql.conversion.CoreToAr;
 import com.ipn.escom.conversor_sql.core.CoreInvariants;
 import com.ipn.escom.conversor_sql.core.SchemaGuards;
+import com.ipn.escom.conversor_sql.core.relacionales.CoreRel;
+import com.ipn.escom.conversor_sql.models.AnalyzeResponse;
 import com.ipn.escom.conversor_sql.models.ArConvertResponse;
 import com.ipn.escom.conversor_sql.models.SqlRequest;
 import com.ipn.escom.conversor_sql.service.ArConverterService;
+import com.ipn.escom.conversor_sql.validation.SqlValidator;
+import com.ipn.escom.conversor_sql.validation.ValidationResult;
 import com.ipn.escom.conversor_sql.validation.schema.SchemaBuilder;
+import com.ipn.escom.conversor_sql.validation.schema.SchemaIndex;
 
 @Service
 public class ArConverterServiceImpl implements ArConverterService {
 
     private final ConversionPipeline pipeline = new ConversionPipeline();
 
+    /**
+     * Core ya normalizado y validado de las conversiones hechas sin pasos, por
+     * conversionId. Los pasos se generan solo si alguien los pide.
+     */
+    private final LruCache<String, CoreRel> sinPasos = new LruCache<>(10_000, Duration.ofMinutes(10));
+
     /** Devuelve AR + pasos. **/
-    public ArConvertResponse toAlgebraRelacionalConPasos(SqlRequest req) {
-        try {
-            // 1) Schema
-            var schema = SchemaBuilder.build(req.getTables()); // valida null/empty adentro
-
-            // 2) Parse SQL
-            var stmt  = pipeline.parse(req.getSqlQuery().trim());
-
-            // 3) Normalizar a Core con tu pipeline
-            var core  = pipeline.normalizeToCore(stmt, schema);
-
-            // 4) Validaciones (único punto de verdad)
-            var guards = new SchemaGuards(schema);
-            var ci     = new CoreInvariants(guards);
-            var vr     = ci.validate(core);
-
-            if (!vr.isValido()) {
-                String detalle = vr.getMensajes().stream()
-                        .map(Object::toString)
-                        .collect(java.util.stream.Collectors.joining("; "));
-                throw new org.springframework.web.server.ResponseStatusException(
-                        org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY,
-                        "Validación falló: " + detalle
-                );
-            }
+    public ArConvertResponse toAlgebraRelacionalConPasos(SqlRequest req, SchemaIndex esquema) {
+        return convertirMapeando(req, esquema, true);
+    }
 
-            // 5) Core -> AR con trazas (usamos CoreToAr directamente para poder inyectar Trace)
-            var coreToAr = new CoreToAr();
-            var trace    = new CoreToAr.Trace();
-            var arTree   = coreToAr.convert(core, trace);
+    public ArConvertResponse toAlgebraRelacional(SqlRequest req, SchemaIndex esquema) {
+        return convertirMapeando(req, esquema, false);
+    }
 
-            // 6) Render AR final (usa tu printer/pipeline)
-            String arStr = new ArPrinter().print(arTree);
+    public Optional<ArConvertResponse> pasos(String conversionId) {
+        CoreRel core = (conversionId == null) ? null : sinPasos.get(conversionId);
+        if (core == null)
+            return Optional.empty();
+        ArConvertResponse out = conPasos(core);
+        out.setConversionId(conversionId);
+        return Optional.of(out);
+    }
 
-            // 7) Regresar DTO con pasos
-            ArConvertResponse out = new ArConvertResponse();
-            out.setAlgebraRelacional(arStr);
-            out.setPasos(trace.steps());
-            return out;
+    private ArConvertResponse convertirMapeando(SqlRequest req, SchemaIndex esquema, boolean incluirPasos) {
+        try {
+            // 1) Schema (registrado, o construido a partir de tables)
+            var schema = (esquema != null) ? esquema : SchemaBuilder.build(req.getTables()); // valida null/empty adentro
+
+            // 2) Parse SQL -> Core crudo (cacheado por texto normalizado)
+            var raw   = pipeline.buildCore(req.getSqlQuery().trim());
+
+            // 3..7) Core -> validaciones -> AR (-> pasos)
+            return convertir(raw, schema, incluirPasos);
 
         } catch (ResponseStatusException e) {
             throw e; // ya mapeado a HTTP correcto
@@ -73,4 +77,79 @@ public class ArConverterServiceImpl implements ArConverterService {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error al convertir SQL a AR", e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Validación (fase 1) + conversión a AR reutilizando el mismo Statement y el
+     * mismo SchemaIndex: el SQL se parsea una sola vez.
+     */
+    public AnalyzeResponse analizar(SqlRequest req, SchemaIndex esquema) {
+        SqlValidator.Analisis analisis = SqlValidator.analizar(req, esquema);
+        ValidationResult vr = analisis.resultado();
+
+        AnalyzeResponse out = new AnalyzeResponse();
+        if (vr.isValido()) {
+            try {
+                var raw = pipeline.buildCore(req.getSqlQuery(), analisis.sentencia());
+                ArConvertResponse ar = convertir(raw, analisis.esquema(), true);
+                out.setAlgebraRelacional(ar.getAlgebraRelacional());
+                out.setPasos(ar.getPasos());
+                vr.addExito("Consulta válida.");
+            } catch (ResponseStatusException e) {
+                vr.addErrorLogico(e.getReason());
+            } catch (IllegalArgumentException | UnsupportedOperationException | IllegalStateException e) {
+                vr.addErrorLogico(e.getMessage());
+            }
+        }
+
+        out.setValido(vr.isValido());
+        out.setMensajes(vr.getMensajes());
+        return out;
+    }
+
+    private ArConvertResponse convertir(CoreRel raw, SchemaIndex schema, boolean incluirPasos) {
+        // 3) Normalizar a Core con tu pipeline
+        var core  = pipeline.normalizeToCore(raw, schema);
+
+        // 4) Validaciones (único punto de verdad)
+        var guards = new SchemaGuards(schema);
+        var ci     = new CoreInvariants(guards);
+        var vr     = ci.validate(core);
+
+        if (!vr.isValido()) {
+            String detalle = vr.getMensajes().stream()
+                    .map(Object::toString)
+                    .collect(java.util.stream.Collectors.joining("; "));
+            throw new org.springframework.web.server.ResponseStatusException(
+                    org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Validación falló: " + detalle
+            );
+        }
+
+        if (!incluirPasos) {
+            // 5') Core -> AR sin Trace; el Core queda guardado por si se piden los pasos
+            String id = UUID.randomUUID().toString();
+            sinPasos.put(id, core);
+            ArConvertResponse out = new ArConvertResponse();
+            out.setAlgebraRelacional(new ArPrinter().print(new CoreToAr().convert(core)));
+            out.setConversionId(id);
+            return out;
+        }
+        return conPasos(core);
+    }
+
+    private ArConvertResponse conPasos(CoreRel core) {
+        // 5) Core -> AR con trazas (usamos CoreToAr directamente para poder inyectar Trace)
+        var coreToAr = new CoreToAr();
+        var trace    = new CoreToAr.Trace();
+        var arTree   = coreToAr.convert(core, trace);
+
+        // 6) Render AR final (la raíz ya se imprimió en el último paso)
+        String arStr = trace.render(arTree);
+
+        // 7) Regresar DTO con pasos
+        ArConvertResponse out = new ArConvertResponse();
+        out.setAlgebraRelacional(arStr);
+        out.setPasos(trace.steps());
+        return out;
+    }
+}
@@ -0,0 +1,226 @@
+package com.ipn.escom.conversor_sql.service.impl;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ipn.escom.conversor_sql.models.ArConvertResponse;
+import com.ipn.escom.conversor_sql.models.BatchConvertResponse;
+import com.ipn.escom.conversor_sql.models.SqlRequest;
+import com.ipn.escom.conversor_sql.models.ValidationMessage;
+import com.ipn.escom.conversor_sql.service.ArConverterService;
+import com.ipn.escom.conversor_sql.service.BatchConverterService;
+import com.ipn.escom.conversor_sql.service.SchemaRegistryService;
+import com.ipn.escom.conversor_sql.validation.ValidationResult;
+import com.ipn.escom.conversor_sql.validation.schema.SchemaBuilder;
+import com.ipn.escom.conversor_sql.validation.schema.SchemaIndex;
+
+@Service
+public class BatchConverterServiceImpl implements BatchConverterService {
+
+    private final ArConverterService arConverterService;
+    private final SchemaRegistryService schemaRegistryService;
+    private final ExecutorService executor;
+    private final ObjectMapper objectMapper;
+    private final int streamWindow;
+
+    public BatchConverterServiceImpl(ArConverterService arConverterService,
+            SchemaRegistryService schemaRegistryService,
+            @Qualifier("conversionExecutor") ExecutorService executor,
+            ObjectMapper objectMapper,
+            @Value("${conversor.batch.stream-window:256}") int streamWindow) {
+        this.arConverterService = arConverterService;
+        this.schemaRegistryService = schemaRegistryService;
+        this.executor = executor;
+        this.objectMapper = objectMapper;
+        this.streamWindow = Math.max(1, streamWindow);
+    }
+
+    @Override
+    public BatchConvertResponse convertir(List<String> sqlQueries, SchemaIndex esquema) {
+        // 1) Encolar todas (con la cola llena, el hilo actual ejecuta la tarea)
+        List<CompletableFuture<BatchConvertResponse.Item>> futures = new ArrayList<>(sqlQueries.size());
+        for (int i = 0; i < sqlQueries.size(); i++) {
+            final int indice = i;
+            final String sql = sqlQueries.get(i);
+            futures.add(CompletableFuture.supplyAsync(() -> convertirUna(indice, sql, esquema), executor));
+        }
+
+        // 2) Recolectar en el orden de entrada
+        List<BatchConvertResponse.Item> resultados = new ArrayList<>(futures.size());
+        int exitosos = 0;
+        for (CompletableFuture<BatchConvertResponse.Item> f : futures) {
+            BatchConvertResponse.Item item = f.join();
+            if (item.isValido())
+                exitosos++;
+            resultados.add(item);
+        }
+        return new BatchConvertResponse(resultados.size(), exitosos, resultados.size() - exitosos, resultados);
+    }
+
+    @Override
+    public long convertirStream(InputStream entrada, OutputStream salida) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+
+        // Consultas leídas y todavía no escritas (en vuelo o esperando turno) acotadas por
+        // la ventana: con la ventana llena se espera un resultado antes de leer más, así
+        // que si el cliente lee lento también dejamos de leer la entrada.
+        BlockingQueue<BatchConvertResponse.Item> listos = new LinkedBlockingQueue<>();
+        int enviados = 0;
+        int escritos = 0;
+
+        try {
+            String linea;
+            while ((linea = reader.readLine()) != null) {
+                if (linea.isBlank())
+                    continue;
+                while (enviados - escritos >= streamWindow) {
+                    escribir(listos.take(), writer);
+                    escritos++;
+                    escritos += escribirListos(listos, writer);
+                    writer.flush();
+                }
+                final int indice = enviados++;
+                final String l = linea;
+                executor.execute(() -> {
+                    BatchConvertResponse.Item item = null;
+                    try {
+                        item = convertirLinea(indice, l);
+                    } finally {
+                        listos.add((item != null) ? item
+                                : new BatchConvertResponse.Item(indice, false, null, null, "Error al convertir SQL a AR"));
+                    }
+                });
+                int n = escribirListos(listos, writer);
+                if (n > 0) {
+                    escritos += n;
+                    writer.flush();
+                }
+            }
+            while (escritos < enviados) {
+                escribir(listos.take(), writer);
+                escritos++;
+                escritos += escribirListos(listos, writer);
+                writer.flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Conversión en streaming interrumpida");
+        }
+        writer.flush();
+        return enviados;
+    }
+
+    /** Escribe los resultados ya terminados sin bloquear; devuelve cuántos escribió. */
+    private int escribirListos(BlockingQueue<BatchConvertResponse.Item> listos, Writer writer) throws IOException {
+        int n = 0;
+        BatchConvertResponse.Item item;
+        while ((item = listos.poll()) != null) {
+            escribir(item, writer);
+            n++;
+        }
+        return n;
+    }
+
+    private void escribir(BatchConvertResponse.Item item, Writer writer) throws IOException {
+        writer.write(objectMapper.writeValueAsString(item));
+        writer.write('\n');
+    }
+
+    /**
+     * Una línea NDJSON: SqlRequest con su propio esquema (tables o schemaId).
+     * Cualquier falla queda en {@code error} del item: una excepción aquí se
+     * lanzaría en el hilo que lee la entrada (CallerRunsPolicy) y cortaría el flujo.
+     */
+    private BatchConvertResponse.Item convertirLinea(int indice, String linea) {
+        try {
+            return interpretarLinea(indice, linea);
+        } catch (RuntimeException e) {
+            String detalle = describir(e);
+            return new BatchConvertResponse.Item(indice, false, null, null,
+                    "Error al convertir SQL a AR" + ((detalle != null) ? ": " + detalle : ""));
+        }
+    }
+
+    private BatchConvertResponse.Item interpretarLinea(int indice, String linea) {
+        SqlRequest req;
+        try {
+            req = objectMapper.readValue(linea, SqlRequest.class);
+        } catch (JsonProcessingException e) {
+            return new BatchConvertResponse.Item(indice, false, null, null,
+                    "La línea no es un SqlRequest JSON válido: " + e.getOriginalMessage());
+        }
+        if (!req.isEsquemaPresente()) {
+            return new BatchConvertResponse.Item(indice, false, null, null,
+                    "Debe proporcionar al menos una tabla en 'tables' o un 'schemaId'.");
+        }
+
+        SchemaIndex esquema;
+        try {
+            esquema = schemaRegistryService.resolver(req);
+        } catch (ResponseStatusException e) {
+            return new BatchConvertResponse.Item(indice, false, null, null, e.getReason());
+        }
+        if (esquema == null) {
+            // Se repite por línea, pero SchemaBuilder cachea por huella del esquema.
+            ValidationResult vr = new ValidationResult();
+            esquema = SchemaBuilder.buildSchemaIndex(req.getTables(), vr);
+            if (!vr.isValido()) {
+                String detalle = vr.getMensajes().stream().map(ValidationMessage::getContenido)
+                        .collect(Collectors.joining("; "));
+                return new BatchConvertResponse.Item(indice, false, null, null, "Esquema inválido: " + detalle);
+            }
+        }
+        return convertirUna(indice, req.getSqlQuery(), esquema);
+    }
+
+    /** Conversión de una sola consulta; cualquier falla queda en {@code error}. */
+    BatchConvertResponse.Item convertirUna(int indice, String sql, SchemaIndex esquema) {
+        if (sql == null || sql.isBlank()) {
+            return new BatchConvertResponse.Item(indice, false, null, null, "La consulta no puede estar vacía.");
+        }
+        try {
+            SqlRequest req = new SqlRequest();
+            req.setSqlQuery(sql);
+            ArConvertResponse ar = arConverterService.toAlgebraRelacionalConPasos(req, esquema);
+            return new BatchConvertResponse.Item(indice, true, ar.getAlgebraRelacional(), ar.getPasos(), null);
+        } catch (RuntimeException e) {
+            return new BatchConvertResponse.Item(indice, false, null, null, describir(e));
+        }
+    }
+
+    /** Mensaje legible: la razón HTTP y, si es un 5xx genérico, la causa original. */
+    private static String describir(RuntimeException e) {
+        if (e instanceof ResponseStatusException rse) {
+            String reason = rse.getReason();
+            if (rse.getStatusCode().is5xxServerError() && rse.getCause() != null
+                    && rse.getCause().getMessage() != null && !rse.getCause().getMessage().equals(reason)) {
+                return reason + ": " + rse.getCause().getMessage();
+            }
+            return reason;
+        }
+        return e.getMessage();
+    }
+}
@@ -0,0 +1,93 @@
+package com.ipn.escom.conversor_sql.service.impl;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.ipn.escom.conversor_sql.ar.ArPrinter;
+import com.ipn.escom.conversor_sql.ar.relacionales.ArRel;
+import com.ipn.escom.conversor_sql.conversion.ConversionPipeline;
+import com.ipn.escom.conversor_sql.execution.ArExecutor;
+import com.ipn.escom.conversor_sql.execution.ExecutionLimitException;
+import com.ipn.escom.conversor_sql.execution.ExecutionLimits;
+import com.ipn.escom.conversor_sql.execution.ExecutionResult;
+import com.ipn.escom.conversor_sql.execution.TableData;
+import com.ipn.escom.conversor_sql.models.ExecuteRequest;
+import com.ipn.escom.conversor_sql.models.ExecuteResponse;
+import com.ipn.escom.conversor_sql.service.ExecutionService;
+import com.ipn.escom.conversor_sql.validation.ValidationResult;
+import com.ipn.escom.conversor_sql.validation.schema.SchemaBuilder;
+import com.ipn.escom.conversor_sql.validation.schema.SchemaIndex;
+
+@Service
+public class ExecutionServiceImpl implements ExecutionService {
+
+    private final ConversionPipeline pipeline = new ConversionPipeline();
+    private final ExecutionLimits limites;
+    private final long maxFilasEntrada;
+    private final Path dirTemporal;
+
+    public ExecutionServiceImpl(
+            @Value("${conversor.execution.max-result-rows:1000}") int maxResultRows,
+            @Value("${conversor.execution.max-rows-examined:5000000}") long maxRowsExamined,
+            @Value("${conversor.execution.timeout:PT5S}") Duration timeout,
+            @Value("${conversor.execution.max-input-rows:100000}") long maxInputRows,
+            @Value("${conversor.execution.memory-budget:64MB}") DataSize memoryBudget,
+            @Value("${conversor.execution.spill-dir:}") String spillDir) {
+        this.limites = new ExecutionLimits(maxResultRows, maxRowsExamined, timeout, memoryBudget.toBytes());
+        this.maxFilasEntrada = maxInputRows;
+        this.dirTemporal = Path.of(spillDir.isBlank() ? System.getProperty("java.io.tmpdir") : spillDir);
+    }
+
+    @Override
+    public ExecuteResponse ejecutar(ExecuteRequest req, SchemaIndex esquema) {
+        try {
+            // 1) Schema (registrado, o construido a partir de tables) y datos
+            var schema = (esquema != null) ? esquema : SchemaBuilder.build(req.getTables());
+            var datos  = TableData.of(schema, req.getDatos(), maxFilasEntrada);
+
+            // 2) SQL -> Core normalizado y validado -> AR
+            var core = pipeline.normalizeToCore(pipeline.buildCore(req.getSqlQuery().trim()), schema);
+            ValidationResult vr = pipeline.validate(core, schema);
+            if (!vr.isValido()) {
+                String detalle = vr.getMensajes().stream()
+                        .map(Object::toString)
+                        .collect(Collectors.joining("; "));
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "Validación falló: " + detalle);
+            }
+            ArRel ar = pipeline.toAlgebra(core);
+
+            // 3) Evaluar con los topes del servidor (o menos filas si se pidieron)
+            ExecutionLimits topes = (req.getMaxFilas() != null) ? limites.withMaxResultRows(req.getMaxFilas()) : limites;
+            ExecutionResult res = new ArExecutor(datos, topes, dirTemporal).execute(ar);
+
+            ExecuteResponse out = new ExecuteResponse();
+            out.setAlgebraRelacional(new ArPrinter().print(ar));
+            out.setColumnas(res.columns());
+            out.setFilas(res.rows());
+            out.setTruncado(res.truncated());
+            out.setFilasExaminadas(res.rowsExamined());
+            out.setBytesEnDisco(res.spilledBytes());
+            return out;
+
+        } catch (ResponseStatusException e) {
+            throw e;
+        } catch (ExecutionLimitException e) {
+            // El plan es válido pero demasiado caro para estos datos -> 422
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, e.getMessage(), e);
+        } catch (IllegalArgumentException | UnsupportedOperationException e) {
+            // Errores de entrada (SQL, datos, tipos) -> 400
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage(), e);
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error al ejecutar la consulta", e);
+        }
+    }
+}
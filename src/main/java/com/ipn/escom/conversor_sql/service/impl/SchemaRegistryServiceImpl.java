@@ -0,0 +1,165 @@
+package com.ipn.escom.conversor_sql.service.impl;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ipn.escom.conversor_sql.cache.CacheStats;
+import com.ipn.escom.conversor_sql.cache.LruCache;
+import com.ipn.escom.conversor_sql.models.RelationalTable;
+import com.ipn.escom.conversor_sql.models.SchemaRegistrationResponse;
+import com.ipn.escom.conversor_sql.service.SchemaRegistryService;
+import com.ipn.escom.conversor_sql.validation.ValidationResult;
+import com.ipn.escom.conversor_sql.validation.schema.DdlImporter;
+import com.ipn.escom.conversor_sql.validation.schema.SchemaBuilder;
+import com.ipn.escom.conversor_sql.validation.schema.SchemaFingerprint;
+import com.ipn.escom.conversor_sql.validation.schema.SchemaIndex;
+
+/**
+ * Registro en memoria (LRU + TTL) con persistencia opcional en disco: si
+ * {@code conversor.schemas.dir} está definido, cada esquema se guarda como
+ * {@code <id>.json} y se recarga al buscarlo cuando ya fue desalojado de memoria.
+ */
+@Service
+public class SchemaRegistryServiceImpl implements SchemaRegistryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaRegistryServiceImpl.class);
+
+    /** Los ids son huellas SHA-256 en hex; cualquier otra cosa no se busca (ni en disco). */
+    private static final Pattern ID = Pattern.compile("[0-9a-f]{64}");
+
+    private static final TypeReference<List<RelationalTable>> TABLES = new TypeReference<>() {
+    };
+
+    private final LruCache<String, RegisteredSchema> schemas;
+    private final Path directory; // null = sin persistencia
+    private final ObjectMapper objectMapper;
+
+    public SchemaRegistryServiceImpl(
+            @Value("${conversor.schemas.max-entries:1000}") int maxEntries,
+            @Value("${conversor.schemas.ttl:PT12H}") Duration ttl,
+            @Value("${conversor.schemas.dir:}") String directory,
+            ObjectMapper objectMapper) {
+        this.schemas = new LruCache<>(maxEntries, ttl);
+        this.directory = (directory == null || directory.isBlank()) ? null : Path.of(directory);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public SchemaRegistrationResponse registrar(List<RelationalTable> tables) {
+        ValidationResult vr = new ValidationResult();
+        if (tables == null || tables.isEmpty()) {
+            vr.addErrorLogico("Debe haber al menos una tabla definida.");
+            return new SchemaRegistrationResponse(false, null, vr.getMensajes());
+        }
+        // El controlador ya las rechaza; aquí por si el servicio se llama sin validación
+        if (tables.stream().anyMatch(Objects::isNull)) {
+            vr.addErrorLogico("Hay una tabla null en la lista de tablas.");
+            return new SchemaRegistrationResponse(false, null, vr.getMensajes());
+        }
+        return registrar(tables, vr);
+    }
+
+    @Override
+    public SchemaRegistrationResponse registrarDdl(Reader ddl) throws IOException {
+        DdlImporter.Importacion importacion = DdlImporter.importar(ddl);
+        ValidationResult vr = importacion.avisos();
+        if (importacion.tables().isEmpty()) {
+            vr.addErrorLogico("El script no contiene sentencias CREATE TABLE.");
+            return new SchemaRegistrationResponse(false, null, vr.getMensajes());
+        }
+        return registrar(importacion.tables(), vr);
+    }
+
+    /** Valida, indexa y guarda; los mensajes se agregan a {@code vr}. */
+    private SchemaRegistrationResponse registrar(List<RelationalTable> tables, ValidationResult vr) {
+        SchemaIndex index = SchemaBuilder.buildSchemaIndex(tables, vr);
+        if (!vr.isValido()) {
+            return new SchemaRegistrationResponse(false, null, vr.getMensajes());
+        }
+
+        String id = SchemaFingerprint.of(tables);
+        schemas.put(id, new RegisteredSchema(id, List.copyOf(tables), index));
+        persist(id, tables);
+
+        vr.addExito("Esquema registrado.");
+        return new SchemaRegistrationResponse(true, id, vr.getMensajes());
+    }
+
+    @Override
+    public Optional<RegisteredSchema> buscar(String schemaId) {
+        if (schemaId == null || !ID.matcher(schemaId).matches())
+            return Optional.empty();
+
+        RegisteredSchema cached = schemas.get(schemaId);
+        if (cached != null)
+            return Optional.of(cached);
+
+        return load(schemaId);
+    }
+
+    @Override
+    public CacheStats cacheStats() {
+        return schemas.stats();
+    }
+
+    /* ============================ Persistencia ============================ */
+
+    private void persist(String id, List<RelationalTable> tables) {
+        if (directory == null)
+            return;
+        Path target = directory.resolve(id + ".json");
+        if (Files.exists(target))
+            return; // mismo id = mismo contenido
+        try {
+            Files.createDirectories(directory);
+            Path tmp = Files.createTempFile(directory, id, ".tmp");
+            objectMapper.writeValue(tmp.toFile(), tables);
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // El registro en memoria sigue siendo válido; solo se pierde la persistencia.
+            logger.warn("No se pudo persistir el esquema {} en {}", id, directory, e);
+        }
+    }
+
+    private Optional<RegisteredSchema> load(String id) {
+        if (directory == null)
+            return Optional.empty();
+        Path file = directory.resolve(id + ".json");
+        if (!Files.isRegularFile(file))
+            return Optional.empty();
+        try {
+            List<RelationalTable> tables = objectMapper.readValue(file.toFile(), TABLES);
+            if (!id.equals(SchemaFingerprint.of(tables))) {
+                logger.warn("El archivo {} no corresponde a su huella; se ignora.", file);
+                return Optional.empty();
+            }
+            ValidationResult vr = new ValidationResult();
+            SchemaIndex index = SchemaBuilder.buildSchemaIndex(tables, vr);
+            if (!vr.isValido()) {
+                logger.warn("El esquema persistido {} ya no es válido: {}", id, vr.getMensajes());
+                return Optional.empty();
+            }
+            RegisteredSchema loaded = new RegisteredSchema(id, List.copyOf(tables), index);
+            schemas.put(id, loaded);
+            return Optional.of(loaded);
+        } catch (IOException e) {
+            logger.warn("No se pudo leer el esquema persistido {}", file, e);
+            return Optional.empty();
+        }
+    }
+}
@@ -10,4 +10,77 @@ public class Texts {
 	public static String toLowerTrimmed(String text) {
 		return (text == null) ? null : text.toLowerCase(Locale.ROOT).trim();
 	}
+
+	/**
+	 * Forma canónica de una sentencia SQL para usarla como llave de caché: colapsa
+	 * los espacios en blanco a uno solo y recorta los extremos, sin tocar el
+	 * contenido de literales ('...'), identificadores entre comillas ("...", `...`)
+	 * ni comentarios de línea (-- ...) o de bloque. No cambia mayúsculas/minúsculas porque
+	 * los nombres se reflejan tal cual en la AR generada.
+	 * <p>
+	 * Si el texto tiene algo cuyo alcance depende del dialecto (diagonal inversa,
+	 * que en algunos es escape dentro de un literal; {@code $...$} o
+	 * {@code [...]}), no se colapsa nada y la llave es el texto recortado: dos
+	 * sentencias distintas nunca deben dar la misma llave.
+	 */
+	public static String normalizeSql(String sql) {
+		if (sql == null)
+			return null;
+		String trimmed = sql.trim();
+		for (int i = 0; i < trimmed.length(); i++) {
+			char c = trimmed.charAt(i);
+			if (c == '\\' || c == '$' || c == '[')
+				return trimmed;
+		}
+		StringBuilder sb = new StringBuilder(trimmed.length());
+		char quote = 0;
+		boolean lineComment = false;
+		boolean blockComment = false;
+		boolean pendingSpace = false;
+		for (int i = 0; i < trimmed.length(); i++) {
+			char c = trimmed.charAt(i);
+			if (lineComment) {
+				sb.append(c);
+				if (c == '\n')
+					lineComment = false;
+				continue;
+			}
+			if (blockComment) {
+				sb.append(c);
+				if (c == '*' && i + 1 < trimmed.length() && trimmed.charAt(i + 1) == '/') {
+					sb.append('/');
+					i++;
+					blockComment = false;
+				}
+				continue;
+			}
+			if (quote != 0) {
+				sb.append(c);
+				if (c == quote)
+					quote = 0; // '' se trata como cierre + apertura
+				continue;
+			}
+			if (Character.isWhitespace(c)) {
+				pendingSpace = true;
+				continue;
+			}
+			if (pendingSpace && sb.length() > 0)
+				sb.append(' ');
+			pendingSpace = false;
+			char next = (i + 1 < trimmed.length()) ? trimmed.charAt(i + 1) : 0;
+			if (c == '\'' || c == '"' || c == '`') {
+				quote = c;
+			} else if (c == '-' && next == '-') {
+				lineComment = true;
+			} else if (c == '/' && next == '*') {
+				// El '*' de la apertura no puede ser parte del cierre ("/*/" no cierra)
+				sb.append(c).append(next);
+				i++;
+				blockComment = true;
+				continue;
+			}
+			sb.append(c);
+		}
+		return sb.toString();
+	}
 }
@@ -7,6 +7,7 @@ import com.ipn.escom.conversor_sql.models.SqlRequest;
 import com.ipn.escom.conversor_sql.models.TipoDetallado;
 import com.ipn.escom.conversor_sql.validation.schema.SchemaBuilder;
 import com.ipn.escom.conversor_sql.validation.schema.SchemaIndex;
+import com.ipn.escom.conversor_sql.validation.sql.ColumnResolver;
 import com.ipn.escom.conversor_sql.validation.sql.JoinValidator;
 import com.ipn.escom.conversor_sql.validation.sql.ProjectionValidator;
 import com.ipn.escom.conversor_sql.validation.sql.SetOpsValidator;
@@ -36,25 +37,54 @@ public class SqlValidator {
 	 */
 
 	public static ValidationResult validar(SqlRequest sqlRequest) {
+		return analizar(sqlRequest).resultado();
+	}
+
+	/** Igual que {@link #validar(SqlRequest)} con un esquema ya registrado (ver {@link #analizar(SqlRequest, SchemaIndex)}). */
+	public static ValidationResult validar(SqlRequest sqlRequest, SchemaIndex esquemaRegistrado) {
+		return analizar(sqlRequest, esquemaRegistrado).resultado();
+	}
+
+	/**
+	 * Igual que {@link #validar(SqlRequest)}, pero conserva el esquema indexado y la
+	 * sentencia parseada para que la conversión a AR los reutilice sin volver a
+	 * parsear. {@code esquema} y {@code sentencia} son null si la fase
+	 * correspondiente falló.
+	 */
+	public static Analisis analizar(SqlRequest sqlRequest) {
+		return analizar(sqlRequest, null);
+	}
+
+	/**
+	 * Si {@code esquemaRegistrado} no es null (esquema tomado del registro por
+	 * {@code schemaId}, ya validado al registrarse) se usa tal cual y se omiten
+	 * {@code tables} y {@link SchemaBuilder}.
+	 */
+	public static Analisis analizar(SqlRequest sqlRequest, SchemaIndex esquemaRegistrado) {
 		ValidationResult validationResult = new ValidationResult();
 
 		// 1) Validación básica del request
-		if (!validateRequestBasics(sqlRequest, validationResult))
-			return validationResult;
+		if (!validateRequestBasics(sqlRequest, esquemaRegistrado != null, validationResult))
+			return new Analisis(validationResult, null, null);
 
-		// 2) Índice del esquema enviado por el usuario
-		SchemaIndex schemaIndex = SchemaBuilder.buildSchemaIndex(sqlRequest.getTables(), validationResult);
+		// 2) Índice del esquema enviado por el usuario (o el registrado)
+		SchemaIndex schemaIndex = (esquemaRegistrado != null) ? esquemaRegistrado
+				: SchemaBuilder.buildSchemaIndex(sqlRequest.getTables(), validationResult);
 		if (!validationResult.isValido())
-			return validationResult;
+			return new Analisis(validationResult, null, null);
 
 		// 3) Parseo de la sentencia SQL
 		Statement parsedStatement = SqlParser.parseSql(sqlRequest.getSqlQuery(), validationResult);
 		if (!validationResult.isValido())
-			return validationResult;
+			return new Analisis(validationResult, schemaIndex, null);
 
 		// 4) Validación semántica limitada a SELECT
 		validateSelectStatement(parsedStatement, schemaIndex, validationResult);
-		return validationResult;
+		return new Analisis(validationResult, schemaIndex, parsedStatement);
+	}
+
+	/** Resultado de la fase 1 junto con los artefactos ya construidos. */
+	public record Analisis(ValidationResult resultado, SchemaIndex esquema, Statement sentencia) {
 	}
 
 	/*
@@ -97,9 +127,11 @@ public class SqlValidator {
 		if (!validationResult.isValido())
 			return;
 
+		// Índice de resolución de columnas, compartido por SELECT, WHERE y ON
+		ColumnResolver columnResolver = ColumnResolver.of(availableSources, schemaIndex);
+
 		// 3) Validar la lista de SELECT (permitimos * y tabla.*)
-		ProjectionValidator.validateSelectList(plainSelect.getSelectItems(), availableSources, schemaIndex,
-				validationResult);
+		ProjectionValidator.validateSelectList(plainSelect.getSelectItems(), columnResolver, validationResult);
 		if (!validationResult.isValido())
 			return;
 
@@ -129,13 +161,13 @@ public class SqlValidator {
 			return;
 
 		// 7) WHERE: validar tipos de las expresiones 
-		WhereValidator.validateWhereTypes(plainSelect.getWhere(), availableSources, schemaIndex, validationResult,
+		WhereValidator.validateWhereTypes(plainSelect.getWhere(), columnResolver, validationResult,
 				selectColumnAliases);
 		if (!validationResult.isValido())
 			return;
 
 		// 8) JOIN ... ON: validar tipos en condiciones ON (y prohibir alias de columna)
-		JoinValidator.validateJoinOnTypes(plainSelect.getJoins(), availableSources, schemaIndex, validationResult,
+		JoinValidator.validateJoinOnTypes(plainSelect.getJoins(), columnResolver, validationResult,
 				selectColumnAliases);
 	}
 
@@ -162,12 +194,13 @@ public class SqlValidator {
 	 * ============================ Utilidades ============================
 	 */
 
-	private static boolean validateRequestBasics(SqlRequest sqlRequest, ValidationResult validationResult) {
+	private static boolean validateRequestBasics(SqlRequest sqlRequest, boolean esquemaRegistrado,
+			ValidationResult validationResult) {
 		if (sqlRequest.getSqlQuery() == null || sqlRequest.getSqlQuery().trim().isEmpty()) {
 			validationResult.agregarMensaje("error", TipoDetallado.ERROR_LOGICO,
 					"El campo 'sqlQuery' no puede estar vacío.");
 		}
-		if (sqlRequest.getTables() == null || sqlRequest.getTables().isEmpty()) {
+		if (!esquemaRegistrado && (sqlRequest.getTables() == null || sqlRequest.getTables().isEmpty())) {
 			validationResult.agregarMensaje("error", TipoDetallado.ERROR_LOGICO,
 					"Debe haber al menos una tabla definida.");
 		}
@@ -0,0 +1,358 @@
+package com.ipn.escom.conversor_sql.validation.schema;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Representación compacta del esquema detrás de {@link SchemaIndex}: tablas y
+ * columnas con ids densos, nombres internados y los tipos en arreglos.
+ * <ul>
+ * <li>tabla {@code t} → columnas {@code colStart[t] .. colStart[t+1]-1}, en
+ * orden de declaración</li>
+ * <li>búsqueda por nombre con tablas hash de direccionamiento abierto
+ * ({@code int[]}), una para las tablas y una por tabla para sus columnas</li>
+ * </ul>
+ * Las vistas ({@link #tableSet()}, {@link #byTable}) son de solo lectura y no
+ * copian nada.
+ */
+final class CompactSchema {
+
+	private final String[] tables;
+	private final int[] tableSlots;
+
+	private final int[] colStart;
+	private final String[] colNames;
+	private final SqlType[] colTypes;
+
+	/** Slots de columnas de la tabla {@code t}: {@code slotStart[t] .. slotStart[t+1]-1}. */
+	private final int[] slotStart;
+	private final int[] colSlots;
+
+	private CompactSchema(String[] tables, int[] colStart, String[] colNames, SqlType[] colTypes) {
+		this.tables = tables;
+		this.tableSlots = slots(tables, 0, tables.length);
+		this.colStart = colStart;
+		this.colNames = colNames;
+		this.colTypes = colTypes;
+
+		this.slotStart = new int[tables.length + 1];
+		int total = 0;
+		for (int t = 0; t < tables.length; t++) {
+			slotStart[t] = total;
+			total += slotCount(colStart[t + 1] - colStart[t]);
+		}
+		slotStart[tables.length] = total;
+		this.colSlots = new int[total];
+		for (int t = 0; t < tables.length; t++)
+			fill(colSlots, slotStart[t], slotStart[t + 1] - slotStart[t], colNames, colStart[t], colStart[t + 1]);
+	}
+
+	/* ============================ Búsquedas ============================ */
+
+	int tableCount() {
+		return tables.length;
+	}
+
+	/** Id de la tabla (nombre ya normalizado); -1 si no existe. */
+	int tableId(String tableLower) {
+		if (tableLower == null)
+			return -1;
+		return find(tableSlots, 0, tableSlots.length, tables, tableLower);
+	}
+
+	/** Id global de la columna dentro de la tabla; -1 si no existe. */
+	int columnId(int tableId, String columnLower) {
+		if (tableId < 0 || columnLower == null)
+			return -1;
+		return find(colSlots, slotStart[tableId], slotStart[tableId + 1] - slotStart[tableId], colNames, columnLower);
+	}
+
+	SqlType type(int columnId) {
+		return colTypes[columnId];
+	}
+
+	/* ============================== Vistas ============================== */
+
+	Set<String> tableSet() {
+		return new SliceSet(-1);
+	}
+
+	Set<String> columnSet(int tableId) {
+		return new SliceSet(tableId);
+	}
+
+	Map<String, String> typeTextMap(int tableId) {
+		return new ColumnMap<>(tableId, id -> (colTypes[id] == null) ? null : colTypes[id].text());
+	}
+
+	Map<String, SqlType> sqlTypeMap(int tableId) {
+		return new ColumnMap<>(tableId, id -> colTypes[id]);
+	}
+
+	/** Vista tabla → valor, con un valor ya armado por id de tabla. */
+	<V> Map<String, V> byTable(List<V> perTable) {
+		return new ByTable<>(perTable);
+	}
+
+	/** Conjunto de nombres de tablas ({@code tableId < 0}) o de columnas de una tabla. */
+	private final class SliceSet extends AbstractSet<String> {
+		private final int tableId;
+
+		SliceSet(int tableId) {
+			this.tableId = tableId;
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			if (!(o instanceof String s))
+				return false;
+			return (tableId < 0) ? tableId(s) >= 0 : columnId(tableId, s) >= 0;
+		}
+
+		@Override
+		public int size() {
+			return (tableId < 0) ? tables.length : colStart[tableId + 1] - colStart[tableId];
+		}
+
+		@Override
+		public Iterator<String> iterator() {
+			List<String> all = (tableId < 0) ? Arrays.asList(tables)
+					: Arrays.asList(colNames).subList(colStart[tableId], colStart[tableId + 1]);
+			return all.iterator();
+		}
+	}
+
+	private interface ColumnValue<V> {
+		V get(int columnId);
+	}
+
+	/** Columna → valor de una tabla; las columnas con valor null no aparecen. */
+	private final class ColumnMap<V> extends AbstractMap<String, V> {
+		private final int tableId;
+		private final ColumnValue<V> value;
+		private final int size;
+
+		ColumnMap(int tableId, ColumnValue<V> value) {
+			this.tableId = tableId;
+			this.value = value;
+			int n = 0;
+			for (int id = colStart[tableId]; id < colStart[tableId + 1]; id++)
+				if (value.get(id) != null)
+					n++;
+			this.size = n;
+		}
+
+		@Override
+		public V get(Object key) {
+			int id = (key instanceof String s) ? columnId(tableId, s) : -1;
+			return (id < 0) ? null : value.get(id);
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return get(key) != null;
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public Set<Entry<String, V>> entrySet() {
+			return new AbstractSet<>() {
+				@Override
+				public int size() {
+					return size;
+				}
+
+				@Override
+				public Iterator<Entry<String, V>> iterator() {
+					return new Iterator<>() {
+						private int next = advance(colStart[tableId]);
+
+						private int advance(int id) {
+							while (id < colStart[tableId + 1] && value.get(id) == null)
+								id++;
+							return id;
+						}
+
+						@Override
+						public boolean hasNext() {
+							return next < colStart[tableId + 1];
+						}
+
+						@Override
+						public Entry<String, V> next() {
+							if (!hasNext())
+								throw new NoSuchElementException();
+							int id = next;
+							next = advance(id + 1);
+							return new SimpleImmutableEntry<>(colNames[id], value.get(id));
+						}
+					};
+				}
+			};
+		}
+	}
+
+	/** Tabla → valor armado de antemano (una vista por tabla). */
+	private final class ByTable<V> extends AbstractMap<String, V> {
+		private final List<V> perTable;
+
+		ByTable(List<V> perTable) {
+			this.perTable = perTable;
+		}
+
+		@Override
+		public V get(Object key) {
+			int id = (key instanceof String s) ? tableId(s) : -1;
+			return (id < 0) ? null : perTable.get(id);
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return key instanceof String s && tableId(s) >= 0;
+		}
+
+		@Override
+		public int size() {
+			return tables.length;
+		}
+
+		@Override
+		public Set<Entry<String, V>> entrySet() {
+			return new AbstractSet<>() {
+				@Override
+				public int size() {
+					return tables.length;
+				}
+
+				@Override
+				public Iterator<Entry<String, V>> iterator() {
+					return new Iterator<>() {
+						private int next;
+
+						@Override
+						public boolean hasNext() {
+							return next < tables.length;
+						}
+
+						@Override
+						public Entry<String, V> next() {
+							if (!hasNext())
+								throw new NoSuchElementException();
+							int id = next++;
+							return new SimpleImmutableEntry<>(tables[id], perTable.get(id));
+						}
+					};
+				}
+			};
+		}
+	}
+
+	/* ====================== Direccionamiento abierto ====================== */
+
+	/** Potencia de dos con carga ≤ 1/2; 0 si no hay nombres. */
+	private static int slotCount(int n) {
+		return (n == 0) ? 0 : Integer.highestOneBit(n * 2 - 1) << 1;
+	}
+
+	private static int[] slots(String[] names, int from, int to) {
+		int[] out = new int[slotCount(to - from)];
+		fill(out, 0, out.length, names, from, to);
+		return out;
+	}
+
+	/** Guarda {@code id + 1} de cada nombre; 0 = slot vacío. El primero gana. */
+	private static void fill(int[] slots, int base, int size, String[] names, int from, int to) {
+		for (int id = from; id < to; id++) {
+			if (find(slots, base, size, names, names[id]) >= 0)
+				continue;
+			int i = mix(names[id].hashCode()) & (size - 1);
+			while (slots[base + i] != 0)
+				i = (i + 1) & (size - 1);
+			slots[base + i] = id + 1;
+		}
+	}
+
+	private static int find(int[] slots, int base, int size, String[] names, String key) {
+		if (size == 0)
+			return -1;
+		int i = mix(key.hashCode()) & (size - 1);
+		int s;
+		while ((s = slots[base + i]) != 0) {
+			if (names[s - 1].equals(key))
+				return s - 1;
+			i = (i + 1) & (size - 1);
+		}
+		return -1;
+	}
+
+	private static int mix(int h) {
+		return h ^ (h >>> 16);
+	}
+
+	/* ============================ Construcción ============================ */
+
+	/**
+	 * Arma el esquema tabla por tabla. Los nombres se internan en un diccionario
+	 * propio del esquema: {@code id} repetido en 300 tablas es un solo String.
+	 */
+	static final class Builder {
+		private final Map<String, String> names = new HashMap<>();
+		private final List<String> tables = new ArrayList<>();
+		private final List<Integer> colStart = new ArrayList<>();
+		private final List<String> colNames = new ArrayList<>();
+		private final List<SqlType> colTypes = new ArrayList<>();
+		private final Map<String, Integer> current = new HashMap<>();
+
+		/** Empieza una tabla nueva (nombre ya normalizado y no repetido). */
+		Builder table(String tableLower) {
+			tables.add(intern(tableLower));
+			colStart.add(colNames.size());
+			current.clear();
+			return this;
+		}
+
+		/**
+		 * Agrega una columna a la tabla actual; false si ya existía. Como con los
+		 * mapas de antes, un duplicado con tipo reemplaza el tipo anterior.
+		 */
+		boolean column(String columnLower, String typeLower) {
+			Integer existing = current.get(columnLower);
+			SqlType type = SqlType.of(typeLower);
+			if (existing != null) {
+				if (type != null)
+					colTypes.set(existing, type);
+				return false;
+			}
+			current.put(columnLower, colNames.size());
+			colNames.add(intern(columnLower));
+			colTypes.add(type);
+			return true;
+		}
+
+		CompactSchema build() {
+			int[] starts = new int[tables.size() + 1];
+			for (int t = 0; t < tables.size(); t++)
+				starts[t] = colStart.get(t);
+			starts[tables.size()] = colNames.size();
+			return new CompactSchema(tables.toArray(String[]::new), starts, colNames.toArray(String[]::new),
+					colTypes.toArray(SqlType[]::new));
+		}
+
+		private String intern(String name) {
+			String prev = names.putIfAbsent(name, name);
+			return (prev != null) ? prev : name;
+		}
+	}
+}
@@ -0,0 +1,292 @@
+package com.ipn.escom.conversor_sql.validation.schema;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import com.ipn.escom.conversor_sql.models.Column;
+import com.ipn.escom.conversor_sql.models.ForeignKeyInfo;
+import com.ipn.escom.conversor_sql.models.RelationalTable;
+import com.ipn.escom.conversor_sql.utils.Texts;
+import com.ipn.escom.conversor_sql.validation.ValidationResult;
+
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.statement.alter.Alter;
+import net.sf.jsqlparser.statement.alter.AlterExpression;
+import net.sf.jsqlparser.statement.alter.AlterOperation;
+import net.sf.jsqlparser.statement.create.table.ColDataType;
+import net.sf.jsqlparser.statement.create.table.ColumnDefinition;
+import net.sf.jsqlparser.statement.create.table.CreateTable;
+import net.sf.jsqlparser.statement.create.table.ForeignKeyIndex;
+import net.sf.jsqlparser.statement.create.table.Index;
+
+/**
+ * Importa un esquema desde un script DDL: {@code CREATE TABLE} (columnas, tipos,
+ * PRIMARY KEY y FOREIGN KEY en línea o como restricción de tabla) y
+ * {@code ALTER TABLE ... ADD [CONSTRAINT] PRIMARY KEY / FOREIGN KEY}, como los
+ * dejan los volcados de MySQL y PostgreSQL.
+ * <p>
+ * El script se lee sentencia por sentencia ({@link SqlScriptReader}): los datos
+ * (INSERT, COPY) se descartan sin guardarse, así que un volcado de varios MB se
+ * importa con memoria acotada por la sentencia más larga. Las reglas del
+ * esquema (una PK por tabla, FK a PK, tipos) las valida después
+ * {@link SchemaBuilder}.
+ */
+public final class DdlImporter {
+	private DdlImporter() {
+	}
+
+	/** Tablas importadas (en orden de aparición) y avisos de lo que no se pudo interpretar. */
+	public record Importacion(List<RelationalTable> tables, ValidationResult avisos) {
+	}
+
+	public static Importacion importar(Reader ddl) throws IOException {
+		List<RelationalTable> tables = new ArrayList<>();
+		Map<String, TableDef> byName = new HashMap<>();
+		ValidationResult avisos = new ValidationResult();
+
+		SqlScriptReader reader = new SqlScriptReader(ddl);
+		SqlScriptReader.Sentencia sentencia;
+		while ((sentencia = reader.next()) != null) {
+			if (sentencia.texto() == null) {
+				avisos.addAdvertencia("Sentencia " + sentencia.numero() + ": supera "
+						+ SqlScriptReader.MAX_SENTENCIA + " caracteres; se omitió.");
+				continue;
+			}
+			Statement st = parse(sentencia.texto());
+			if (st == null) {
+				avisos.addAdvertencia("Sentencia " + sentencia.numero() + ": no se pudo interpretar ("
+						+ resumen(sentencia.texto()) + ").");
+				continue;
+			}
+
+			if (st instanceof CreateTable ct) {
+				TableDef def = createTable(ct);
+				tables.add(def.table());
+				if (byName.putIfAbsent(def.key(), def) != null) {
+					// La duplicada se deja para que SchemaBuilder la reporte
+					continue;
+				}
+				applyIndexes(def, ct.getIndexes(), sentencia.numero(), avisos);
+			} else if (st instanceof Alter alter) {
+				alterTable(alter, byName, sentencia.numero(), avisos);
+			}
+			// Otros CREATE/ALTER (índices, vistas, secuencias) no aportan al esquema
+		}
+		if (reader.cadenaSinCerrar() > 0)
+			avisos.addAdvertencia("Sentencia " + reader.cadenaSinCerrar()
+					+ ": una cadena o un identificador entre comillas no se cierra; el resto del script se leyó como parte de él.");
+
+		resolveImplicitReferences(byName, avisos);
+		return new Importacion(tables, avisos);
+	}
+
+	/**
+	 * JSQLParser no acepta {@code REFERENCES esquema.tabla} en una columna (sí en
+	 * una restricción de tabla); como del esquema solo se usa el nombre de la
+	 * tabla, si falla se reintenta sin el calificador.
+	 */
+	private static final Pattern REFERENCES_CALIFICADO = Pattern
+			.compile("(?i)(\\bREFERENCES\\s+)(?:(?:\"[^\"]+\"|`[^`]+`|\\w+)\\s*\\.\\s*)+");
+
+	private static Statement parse(String sql) {
+		try {
+			return CCJSqlParserUtil.parse(sql);
+		} catch (JSQLParserException e) {
+			String sinEsquema = REFERENCES_CALIFICADO.matcher(sql).replaceAll("$1");
+			if (sinEsquema.equals(sql))
+				return null;
+			try {
+				return CCJSqlParserUtil.parse(sinEsquema);
+			} catch (JSQLParserException e2) {
+				return null;
+			}
+		}
+	}
+
+	/** Tabla en construcción con sus columnas por nombre (minúsculas). */
+	private record TableDef(String key, RelationalTable table, Map<String, Column> columns) {
+	}
+
+	private static TableDef createTable(CreateTable ct) {
+		RelationalTable table = new RelationalTable(unquote(ct.getTable().getName()), new ArrayList<>());
+		Map<String, Column> columns = new LinkedHashMap<>();
+		if (ct.getColumnDefinitions() != null) {
+			for (ColumnDefinition cd : ct.getColumnDefinitions()) {
+				Column column = new Column(unquote(cd.getColumnName()), typeOf(cd.getColDataType()), null, null);
+				applyColumnSpecs(column, cd.getColumnSpecs());
+				table.getColumns().add(column);
+				columns.putIfAbsent(key(column.getName()), column);
+			}
+		}
+		return new TableDef(key(table.getName()), table, columns);
+	}
+
+	/** {@code varchar} + argumentos → {@code varchar(50)}, {@code decimal(10,2)}. */
+	private static String typeOf(ColDataType type) {
+		if (type == null)
+			return null;
+		List<String> args = type.getArgumentsStringList();
+		if (args == null || args.isEmpty())
+			return type.getDataType();
+		return type.getDataType() + "(" + String.join(",", args) + ")";
+	}
+
+	/** Restricciones en línea: {@code PRIMARY KEY} y {@code REFERENCES t (c)}. */
+	private static void applyColumnSpecs(Column column, List<String> specs) {
+		if (specs == null)
+			return;
+		for (int i = 0; i < specs.size(); i++) {
+			String spec = specs.get(i);
+			if (spec.equalsIgnoreCase("PRIMARY") && i + 1 < specs.size() && specs.get(i + 1).equalsIgnoreCase("KEY")) {
+				column.setPrimaryKey(true);
+			} else if (spec.equalsIgnoreCase("REFERENCES") && i + 1 < specs.size()) {
+				String table = specs.get(i + 1);
+				String referenced = null;
+				// La columna puede venir como "(id)" o como "(", "id", ")"
+				for (int j = i + 2; j < specs.size() && referenced == null; j++) {
+					String t = specs.get(j).replace("(", "").replace(")", "").trim();
+					if (!t.isEmpty())
+						referenced = unquote(t);
+					if (specs.get(j).contains(")"))
+						break;
+				}
+				column.setForeignKey(new ForeignKeyInfo(lastPart(table), referenced));
+			}
+		}
+	}
+
+	private static void applyIndexes(TableDef def, List<Index> indexes, int numero, ValidationResult avisos) {
+		if (indexes == null)
+			return;
+		for (Index index : indexes)
+			applyIndex(def, index, numero, avisos);
+	}
+
+	private static void applyIndex(TableDef def, Index index, int numero, ValidationResult avisos) {
+		if (index instanceof ForeignKeyIndex fk) {
+			foreignKey(def, fk.getColumnsNames(), fk.getTable().getName(), fk.getReferencedColumnNames(), numero,
+					avisos);
+		} else if (index.getType() != null && index.getType().equalsIgnoreCase("PRIMARY KEY")) {
+			for (String name : index.getColumnsNames()) {
+				Column column = def.columns().get(key(name));
+				if (column == null) {
+					avisos.addAdvertencia("Sentencia " + numero + ": la PK de '" + def.table().getName()
+							+ "' usa la columna inexistente '" + unquote(name) + "'.");
+					continue;
+				}
+				column.setPrimaryKey(true);
+			}
+		}
+	}
+
+	private static void alterTable(Alter alter, Map<String, TableDef> byName, int numero, ValidationResult avisos) {
+		if (alter.getAlterExpressions() == null)
+			return;
+		TableDef def = byName.get(key(alter.getTable().getName()));
+		for (AlterExpression e : alter.getAlterExpressions()) {
+			if (e.getOperation() != AlterOperation.ADD)
+				continue;
+			boolean aporta = e.getIndex() != null || e.getPkColumns() != null || e.getFkColumns() != null;
+			if (!aporta)
+				continue;
+			if (def == null) {
+				avisos.addAdvertencia("Sentencia " + numero + ": ALTER TABLE sobre la tabla '"
+						+ unquote(alter.getTable().getName()) + "', que no se ha creado.");
+				return;
+			}
+			if (e.getIndex() != null) {
+				applyIndex(def, e.getIndex(), numero, avisos);
+			} else if (e.getPkColumns() != null) {
+				applyIndex(def, new Index().withType("PRIMARY KEY").withColumnsNames(e.getPkColumns()), numero, avisos);
+			} else {
+				foreignKey(def, e.getFkColumns(), e.getFkSourceTable(), e.getFkSourceColumns(), numero, avisos);
+			}
+		}
+	}
+
+	/** FK (simple o compuesta) columna a columna; sin columnas referenciadas se resuelve al final contra la PK. */
+	private static void foreignKey(TableDef def, List<String> columns, String referencedTable,
+			List<String> referencedColumns, int numero, ValidationResult avisos) {
+		if (columns == null || referencedTable == null)
+			return;
+		boolean implicita = referencedColumns == null || referencedColumns.isEmpty();
+		if (!implicita && referencedColumns.size() != columns.size()) {
+			avisos.addAdvertencia("Sentencia " + numero + ": la clave foránea de '" + def.table().getName()
+					+ "' tiene " + columns.size() + " columnas pero referencia " + referencedColumns.size() + ".");
+			return;
+		}
+		for (int i = 0; i < columns.size(); i++) {
+			Column column = def.columns().get(key(columns.get(i)));
+			if (column == null) {
+				avisos.addAdvertencia("Sentencia " + numero + ": la clave foránea de '" + def.table().getName()
+						+ "' usa la columna inexistente '" + unquote(columns.get(i)) + "'.");
+				continue;
+			}
+			String referenced = implicita ? null : unquote(referencedColumns.get(i));
+			column.setForeignKey(new ForeignKeyInfo(lastPart(referencedTable), referenced));
+		}
+	}
+
+	/** {@code REFERENCES t} sin columna: la PK de {@code t}, si es única. */
+	private static void resolveImplicitReferences(Map<String, TableDef> byName, ValidationResult avisos) {
+		for (TableDef def : byName.values()) {
+			for (Column column : def.columns().values()) {
+				ForeignKeyInfo fk = column.getForeignKey();
+				if (fk == null || fk.getReferencedColumn() != null)
+					continue;
+				TableDef target = byName.get(key(fk.getReferencedTable()));
+				List<Column> pk = new ArrayList<>();
+				if (target != null)
+					for (Column c : target.columns().values())
+						if (Boolean.TRUE.equals(c.getPrimaryKey()))
+							pk.add(c);
+				if (pk.size() == 1) {
+					fk.setReferencedColumn(pk.get(0).getName());
+				} else {
+					avisos.addAdvertencia("La clave foránea '" + def.table().getName() + "." + column.getName()
+							+ "' no indica la columna referenciada y '" + fk.getReferencedTable()
+							+ "' no tiene una PK simple.");
+				}
+			}
+		}
+	}
+
+	/** Quita comillas de identificador: {@code "x"}, {@code `x`}, {@code [x]}. */
+	private static String unquote(String name) {
+		if (name == null)
+			return null;
+		String s = name.trim();
+		if (s.length() >= 2) {
+			char a = s.charAt(0);
+			char b = s.charAt(s.length() - 1);
+			if ((a == '"' && b == '"') || (a == '`' && b == '`') || (a == '[' && b == ']'))
+				return s.substring(1, s.length() - 1);
+		}
+		return s;
+	}
+
+	/** {@code esquema.tabla} → {@code tabla}, sin comillas. */
+	private static String lastPart(String name) {
+		if (name == null)
+			return null;
+		int dot = name.lastIndexOf('.');
+		return unquote((dot < 0) ? name : name.substring(dot + 1));
+	}
+
+	private static String key(String name) {
+		return Texts.toLowerTrimmed(unquote(name));
+	}
+
+	private static String resumen(String sql) {
+		String s = sql.replaceAll("\\s+", " ");
+		return (s.length() <= 80) ? s : s.substring(0, 80) + "…";
+	}
+}
@@ -0,0 +1,9 @@
+package com.ipn.escom.conversor_sql.validation.schema;
+
+/**
+ * Clave foránea ya validada del esquema: {@code table.column} referencia
+ * {@code referencedTable.referencedColumn}. Todos los nombres van normalizados
+ * (minúsculas, trim), igual que las llaves de {@link SchemaIndex}.
+ */
+public record ForeignKeyEdge(String table, String column, String referencedTable, String referencedColumn) {
+}
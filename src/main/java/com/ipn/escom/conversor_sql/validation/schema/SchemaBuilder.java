@@ -1,18 +1,21 @@
 package com.ipn.escom.conversor_sql.validation.schema;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
 
+import com.ipn.escom.conversor_sql.cache.CacheStats;
+import com.ipn.escom.conversor_sql.cache.LruCache;
 import com.ipn.escom.conversor_sql.models.Column;
 import com.ipn.escom.conversor_sql.models.ForeignKeyInfo;
 import com.ipn.escom.conversor_sql.models.RelationalTable;
 import com.ipn.escom.conversor_sql.models.TipoDetallado;
+import com.ipn.escom.conversor_sql.models.ValidationMessage;
 import com.ipn.escom.conversor_sql.utils.Texts;
 import com.ipn.escom.conversor_sql.validation.ValidationResult;
 
@@ -20,11 +23,47 @@ public class SchemaBuilder {
 	private SchemaBuilder() {
 	}
 
+	/** Esquema ya construido y los mensajes que produjo su validación. */
+	private record Compiled(SchemaIndex index, List<ValidationMessage> mensajes) {
+	}
+
+	/**
+	 * Esquemas compilados por huella de contenido ({@link SchemaFingerprint}). Un
+	 * grupo que comparte el mismo esquema lo construye y valida una sola vez.
+	 */
+	private static final LruCache<String, Compiled> COMPILED = new LruCache<>(256, Duration.ofHours(1));
+
+	/**
+	 * Construye (o toma de la caché) el índice del esquema y agrega a
+	 * {@code validationResult} los mensajes de validación correspondientes.
+	 */
 	public static SchemaIndex buildSchemaIndex(List<RelationalTable> relationalTables,
 			ValidationResult validationResult) {
+		String fingerprint = SchemaFingerprint.of(relationalTables);
+		if (fingerprint == null) {
+			return compile(relationalTables, validationResult);
+		}
+		Compiled compiled = COMPILED.computeIfAbsent(fingerprint, k -> {
+			ValidationResult local = ValidationResult.builder().build();
+			SchemaIndex idx = compile(relationalTables, local);
+			return new Compiled(idx, List.copyOf(local.getMensajes()));
+		});
+		for (ValidationMessage m : compiled.mensajes()) {
+			validationResult.agregarMensaje(m.getTipo(), m.getTipoDetallado(), m.getContenido());
+		}
+		return compiled.index();
+	}
+
+	/** Aciertos/fallos y entradas de la caché de esquemas. */
+	public static CacheStats cacheStats() {
+		return COMPILED.stats();
+	}
+
+	private static SchemaIndex compile(List<RelationalTable> relationalTables, ValidationResult validationResult) {
 		Set<String> definedTablesLower = new HashSet<>();
-		Map<String, Map<String, String>> columnTypesByTable = new HashMap<>();
-		Map<String, Set<String>> columnsByTable = new HashMap<>();
+		CompactSchema.Builder schema = new CompactSchema.Builder();
+		List<ForeignKeyEdge> foreignKeys = new ArrayList<>();
+		Map<String, Map<String, Column>> columnLookup = columnLookup(relationalTables);
 
 		for (RelationalTable relationalTable : relationalTables) {
 			validateTable(relationalTable, validationResult);
@@ -40,8 +79,7 @@ public class SchemaBuilder {
 			}
 
 			int primaryKeyCount = 0;
-			Map<String, String> typeByColumn = new LinkedHashMap<>();
-			Set<String> columnNamesLower = new LinkedHashSet<>();
+			schema.table(tableNameLower);
 
 			if (relationalTable.getColumns() != null) {
 				for (Column tableColumn : relationalTable.getColumns()) {
@@ -50,31 +88,26 @@ public class SchemaBuilder {
 					String columnNameLower = Texts.toLowerTrimmed(tableColumn.getName());
 					if (columnNameLower != null) {
 						// Duplicado de columna dentro de la misma tabla
-						if (!columnNamesLower.add(columnNameLower)) {
+						String typeLower = Texts.toLowerTrimmed(tableColumn.getType());
+						if (!schema.column(columnNameLower, typeLower)) {
 							validationResult.agregarMensaje("error", TipoDetallado.ERROR_LOGICO, "Columna duplicada '"
 									+ tableColumn.getName() + "' en la tabla '" + relationalTable.getName() + "'.");
 						}
-						String typeLower = Texts.toLowerTrimmed(tableColumn.getType());
-						if (typeLower != null) {
-							typeByColumn.put(columnNameLower, typeLower);
-						}
 					}
 
 					if (Boolean.TRUE.equals(tableColumn.getPrimaryKey()))
 						primaryKeyCount++;
 
 					if (tableColumn.getForeignKey() != null) {
-						validateForeignKey(relationalTables, relationalTable, tableColumn, validationResult);
+						validateForeignKey(columnLookup, relationalTable, tableColumn, validationResult, foreignKeys);
 					}
 				}
 			}
 
 			validatePrimaryKeyCount(relationalTable, primaryKeyCount, validationResult);
-			columnTypesByTable.put(tableNameLower, typeByColumn);
-			columnsByTable.put(tableNameLower, columnNamesLower);
 		}
 
-		return new SchemaIndex(definedTablesLower, columnTypesByTable, columnsByTable);
+		return new SchemaIndex(schema.build(), foreignKeys);
 	}
 
 	private static void validateTable(RelationalTable relationalTable, ValidationResult validationResult) {
@@ -100,8 +133,37 @@ public class SchemaBuilder {
 		}
 	}
 
-	private static void validateForeignKey(List<RelationalTable> allTables, RelationalTable ownerTable,
-			Column foreignKeyColumn, ValidationResult validationResult) {
+	/**
+	 * Tabla → columna → definición, con nombres en minúsculas y en una sola
+	 * pasada. Si hay duplicados gana la primera declaración.
+	 */
+	private static Map<String, Map<String, Column>> columnLookup(List<RelationalTable> relationalTables) {
+		Map<String, Map<String, Column>> lookup = new HashMap<>();
+		for (RelationalTable relationalTable : relationalTables) {
+			if (relationalTable.getName() == null)
+				continue;
+			Map<String, Column> byName = lookup.get(lookupKey(relationalTable.getName()));
+			if (byName != null)
+				continue;
+			byName = new HashMap<>();
+			lookup.put(lookupKey(relationalTable.getName()), byName);
+			if (relationalTable.getColumns() == null)
+				continue;
+			for (Column tableColumn : relationalTable.getColumns()) {
+				if (tableColumn.getName() != null)
+					byName.putIfAbsent(lookupKey(tableColumn.getName()), tableColumn);
+			}
+		}
+		return lookup;
+	}
+
+	/** Llave del lookup de FKs: minúsculas sin recortar, como el equalsIgnoreCase de antes. */
+	private static String lookupKey(String name) {
+		return name.toLowerCase(Locale.ROOT);
+	}
+
+	private static void validateForeignKey(Map<String, Map<String, Column>> columnLookup, RelationalTable ownerTable,
+			Column foreignKeyColumn, ValidationResult validationResult, List<ForeignKeyEdge> foreignKeys) {
 		ForeignKeyInfo fkInfo = foreignKeyColumn.getForeignKey();
 		if (Texts.isBlank(fkInfo.getReferencedTable()) || Texts.isBlank(fkInfo.getReferencedColumn())) {
 			validationResult.agregarMensaje("error", TipoDetallado.ERROR_LOGICO,
@@ -110,20 +172,18 @@ public class SchemaBuilder {
 			return;
 		}
 
-		Optional<RelationalTable> referencedTableOpt = allTables.stream()
-				.filter(t -> t.getName().equalsIgnoreCase(fkInfo.getReferencedTable())).findFirst();
+		Map<String, Column> referencedTable = columnLookup.get(lookupKey(fkInfo.getReferencedTable()));
 
-		if (referencedTableOpt.isEmpty()) {
+		if (referencedTable == null) {
 			validationResult.agregarMensaje("error", TipoDetallado.ERROR_LOGICO,
 					"La clave foránea en '" + ownerTable.getName() + "." + foreignKeyColumn.getName()
 							+ "' referencia una tabla inexistente: '" + fkInfo.getReferencedTable() + "'.");
 			return;
 		}
 
-		Optional<Column> referencedColumnOpt = referencedTableOpt.get().getColumns().stream()
-				.filter(c -> c.getName().equalsIgnoreCase(fkInfo.getReferencedColumn())).findFirst();
+		Column referencedCol = referencedTable.get(lookupKey(fkInfo.getReferencedColumn()));
 
-		if (referencedColumnOpt.isEmpty()) {
+		if (referencedCol == null) {
 			validationResult.agregarMensaje("error", TipoDetallado.ERROR_LOGICO,
 					"La clave foránea en '" + ownerTable.getName() + "." + foreignKeyColumn.getName()
 							+ "' referencia una columna inexistente: '" + fkInfo.getReferencedTable() + "."
@@ -131,7 +191,12 @@ public class SchemaBuilder {
 			return;
 		}
 
-		Column referencedCol = referencedColumnOpt.get();
+		String ownerLower = Texts.toLowerTrimmed(ownerTable.getName());
+		String columnLower = Texts.toLowerTrimmed(foreignKeyColumn.getName());
+		if (ownerLower != null && columnLower != null) {
+			foreignKeys.add(new ForeignKeyEdge(ownerLower, columnLower,
+					Texts.toLowerTrimmed(fkInfo.getReferencedTable()), Texts.toLowerTrimmed(fkInfo.getReferencedColumn())));
+		}
 
 		// ✅ FK debe referenciar PK
 		if (!Boolean.TRUE.equals(referencedCol.getPrimaryKey())) {
@@ -0,0 +1,85 @@
+package com.ipn.escom.conversor_sql.validation.schema;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+import com.ipn.escom.conversor_sql.models.Column;
+import com.ipn.escom.conversor_sql.models.ForeignKeyInfo;
+import com.ipn.escom.conversor_sql.models.RelationalTable;
+
+/**
+ * Huella (SHA-256, hex) del contenido de {@code tables}. Dos payloads con la
+ * misma huella producen el mismo {@link SchemaIndex} y los mismos mensajes de
+ * validación, así que sirve como llave de caché.
+ * <p>
+ * Se respeta el orden de tablas y columnas y el texto tal cual (sin pasar a
+ * minúsculas) porque ambos se reflejan en los mensajes al usuario. Cada campo
+ * va prefijado con su longitud para que no haya colisiones por concatenación.
+ */
+public final class SchemaFingerprint {
+
+	private SchemaFingerprint() {
+	}
+
+	/** Huella del esquema; null si la lista es null. */
+	public static String of(List<RelationalTable> tables) {
+		if (tables == null)
+			return null;
+		MessageDigest md = sha256();
+		for (RelationalTable t : tables) {
+			if (t == null) {
+				field(md, null);
+				continue;
+			}
+			field(md, "T");
+			field(md, t.getName());
+			List<Column> cols = t.getColumns();
+			field(md, (cols == null) ? null : String.valueOf(cols.size()));
+			if (cols == null)
+				continue;
+			for (Column c : cols) {
+				if (c == null) {
+					field(md, null);
+					continue;
+				}
+				field(md, c.getName());
+				field(md, c.getType());
+				field(md, (c.getPrimaryKey() == null) ? null : c.getPrimaryKey().toString());
+				ForeignKeyInfo fk = c.getForeignKey();
+				if (fk == null) {
+					field(md, null);
+				} else {
+					field(md, "FK");
+					field(md, fk.getReferencedTable());
+					field(md, fk.getReferencedColumn());
+				}
+			}
+		}
+		return HexFormat.of().formatHex(md.digest());
+	}
+
+	private static void field(MessageDigest md, String value) {
+		if (value == null) {
+			md.update((byte) 0);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		md.update((byte) 1);
+		md.update((byte) (bytes.length >>> 24));
+		md.update((byte) (bytes.length >>> 16));
+		md.update((byte) (bytes.length >>> 8));
+		md.update((byte) bytes.length);
+		md.update(bytes);
+	}
+
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 no disponible", e);
+		}
+	}
+}
@@ -8,43 +8,111 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
-public record SchemaIndex(
-        Set<String> definedTablesLower,
-        Map<String, Map<String, String>> columnTypesByTable,
-        Map<String, Set<String>> columnsByTable
-) { 
+/**
+ * Índice del esquema (nombres en minúsculas). Por dentro es un
+ * {@link CompactSchema} (ids densos, nombres internados, tipos en arreglos);
+ * los mapas y conjuntos que expone son vistas de solo lectura sobre él, sin
+ * copias. Se comparte entre peticiones desde la caché de {@link SchemaBuilder}.
+ */
+public final class SchemaIndex {
+
+	  private final CompactSchema schema;
+	  private final List<ForeignKeyEdge> foreignKeys;
+
+	  private final Set<String> definedTablesLower;
+	  private final Map<String, Map<String, String>> columnTypesByTable;
+	  private final Map<String, Set<String>> columnsByTable;
+	  private final Map<String, Map<String, SqlType>> sqlTypesByTable;
+
+	  SchemaIndex(CompactSchema schema, List<ForeignKeyEdge> foreignKeys) {
+	    this.schema = schema;
+	    this.foreignKeys = (foreignKeys == null) ? List.of() : List.copyOf(foreignKeys);
+
+	    int n = schema.tableCount();
+	    List<Set<String>> cols = new ArrayList<>(n);
+	    List<Map<String, String>> types = new ArrayList<>(n);
+	    List<Map<String, SqlType>> sqlTypes = new ArrayList<>(n);
+	    for (int t = 0; t < n; t++) {
+	      cols.add(schema.columnSet(t));
+	      types.add(schema.typeTextMap(t));
+	      sqlTypes.add(schema.sqlTypeMap(t));
+	    }
+	    this.definedTablesLower = schema.tableSet();
+	    this.columnsByTable = schema.byTable(cols);
+	    this.columnTypesByTable = schema.byTable(types);
+	    this.sqlTypesByTable = schema.byTable(sqlTypes);
+	  }
+
+	  // --- Vistas (llaves ya normalizadas) ---
+
+	  public Set<String> definedTablesLower() {
+	    return definedTablesLower;
+	  }
+
+	  /** Tabla → tipo (minúsculas) por columna; las columnas sin tipo no aparecen. */
+	  public Map<String, Map<String, String>> columnTypesByTable() {
+	    return columnTypesByTable;
+	  }
+
+	  /** Tabla → columnas en orden de declaración. */
+	  public Map<String, Set<String>> columnsByTable() {
+	    return columnsByTable;
+	  }
+
+	  public Map<String, Map<String, SqlType>> sqlTypesByTable() {
+	    return sqlTypesByTable;
+	  }
+
+	  public List<ForeignKeyEdge> foreignKeys() {
+	    return foreignKeys;
+	  }
+
+	  /** Cantidad de tablas del esquema. */
+	  public int tableCount() {
+	    return schema.tableCount();
+	  }
+
 	  // --- Helpers ignore-case para consumo del normalizador / mappers ---
 
 	  public boolean hasTableIgnoreCase(String tableName) {
-	    String key = normalize(tableName);
-	    return key != null && definedTablesLower != null && definedTablesLower.contains(key);
+	    return schema.tableId(normalize(tableName)) >= 0;
 	  }
 
 	  /** Devuelve la lista de columnas (en minúsculas) de la tabla, o lista vacía si no existe. */
 	  public List<String> getColumnsIgnoreCase(String tableName) {
-	    String key = normalize(tableName);
-	    if (key == null || columnsByTable == null) return Collections.emptyList();
-	    Set<String> cols = columnsByTable.get(key);
-	    return (cols == null) ? Collections.emptyList() : new ArrayList<>(cols);
+	    int t = schema.tableId(normalize(tableName));
+	    return (t < 0) ? Collections.emptyList() : new ArrayList<>(schema.columnSet(t));
 	  }
 
 	  public boolean hasColumnIgnoreCase(String tableName, String columnName) {
-	    String t = normalize(tableName);
-	    String c = normalize(columnName);
-	    if (t == null || c == null || columnsByTable == null) return false;
-	    Set<String> cols = columnsByTable.get(t);
-	    return cols != null && cols.contains(c);
+	    return schema.columnId(schema.tableId(normalize(tableName)), normalize(columnName)) >= 0;
 	  }
 
 	  /** Tipo de columna (minúsculas) si existe; empty si no. */
 	  public Optional<String> getColumnTypeLower(String tableName, String columnName) {
+	    return getColumnSqlType(tableName, columnName).map(SqlType::text);
+	  }
+
+	  /** Tipo interpretado de la columna, con tabla y columna ya normalizadas; null si no existe. */
+	  public SqlType sqlType(String tableLower, String columnLower) {
+	    int c = schema.columnId(schema.tableId(tableLower), columnLower);
+	    return (c < 0) ? null : schema.type(c);
+	  }
+
+	  /** Tipo interpretado de la columna (ignore-case); empty si no existe. */
+	  public Optional<SqlType> getColumnSqlType(String tableName, String columnName) {
+	    return Optional.ofNullable(sqlType(normalize(tableName), normalize(columnName)));
+	  }
+
+	  /** Claves foráneas declaradas en la tabla (ignore-case), en orden de declaración. */
+	  public List<ForeignKeyEdge> foreignKeysFrom(String tableName) {
 	    String t = normalize(tableName);
-	    String c = normalize(columnName);
-	    if (t == null || c == null || columnTypesByTable == null) return Optional.empty();
-	    Map<String,String> types = columnTypesByTable.get(t);
-	    if (types == null) return Optional.empty();
-	    String type = types.get(c);
-	    return Optional.ofNullable(type);
+	    if (t == null) return Collections.emptyList();
+	    List<ForeignKeyEdge> out = new ArrayList<>();
+	    for (ForeignKeyEdge fk : foreignKeys) {
+	      if (fk.table().equals(t)) out.add(fk);
+	    }
+	    return out;
 	  }
 
 	  /** Nombre de tabla normalizado (minúsculas, trim); null si input vacío. */
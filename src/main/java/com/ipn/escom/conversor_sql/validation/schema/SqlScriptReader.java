@@ -0,0 +1,270 @@
+package com.ipn.escom.conversor_sql.validation.schema;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Lee un script SQL sentencia por sentencia (separadas por {@code ;}) sin
+ * cargarlo completo. Respeta cadenas ({@code '...'} con {@code ''}),
+ * identificadores entre comillas ({@code "..."}, {@code `...`}), bloques
+ * {@code $tag$...$tag$}, comentarios {@code --} y {@code /* *}{@code /} y los
+ * datos de {@code COPY ... FROM stdin} hasta la línea {@code \.}.
+ * <p>
+ * La barra invertida escapa dentro de {@code '...'} como en MySQL, salvo
+ * después de {@code SET standard_conforming_strings = on} (lo primero que
+ * escribe pg_dump), donde solo escapa en {@code E'...'}; así {@code 'C:\'}
+ * se cierra donde PostgreSQL lo cierra.
+ * <p>
+ * Solo se guardan en memoria las sentencias que empiezan con {@code CREATE} o
+ * {@code ALTER}; el resto (INSERT con datos, SET, etc.) se recorre y se descarta.
+ */
+final class SqlScriptReader {
+
+	/** Tope de una sentencia guardada; una más larga se descarta con aviso. */
+	static final int MAX_SENTENCIA = 1 << 20;
+
+	/** Estado de la sentencia en curso según su primera palabra. */
+	private static final int DECIDIENDO = 0;
+	private static final int GUARDANDO = 1;
+	private static final int DESCARTANDO = 2;
+
+	private static final Pattern STANDARD_STRINGS = Pattern.compile(
+			"(?is)SET\\s+(?:SESSION\\s+|LOCAL\\s+)?standard_conforming_strings\\s*(?:=|\\bTO\\b)\\s*'?(\\w+)'?");
+
+	/** Sentencia leída: número (1-based, contando todas) y texto; texto null si se descartó por larga. */
+	record Sentencia(int numero, String texto) {
+	}
+
+	private final BufferedReader in;
+	private int pendiente = -2; // carácter devuelto (-2 = ninguno)
+	private int numero;
+	/** false tras {@code SET standard_conforming_strings = on}: {@code \} solo escapa en {@code E'...'}. */
+	private boolean barraEscapa = true;
+	/** El script terminó dentro de una cadena o bloque. */
+	private boolean abierta;
+	/** Número de la sentencia en la que el script terminó sin cerrar una cadena (0 = ninguna). */
+	private int sinCerrar;
+
+	SqlScriptReader(Reader reader) {
+		this.in = (reader instanceof BufferedReader br) ? br : new BufferedReader(reader);
+	}
+
+	/** Siguiente sentencia CREATE/ALTER, o null al terminar el script. */
+	Sentencia next() throws IOException {
+		while (true) {
+			StringBuilder buf = new StringBuilder();
+			StringBuilder palabra = new StringBuilder();
+			int modo = DECIDIENDO;
+			boolean vacia = true;
+			boolean copy = false;
+			boolean set = false;
+			boolean larga = false;
+			int anterior = ' ';
+			int antesDeAnterior = ' ';
+
+			int c;
+			while ((c = read()) != -1 && c != ';') {
+				// Comentarios: cuentan como un espacio
+				if (c == '-' && peek() == '-') {
+					skipLine();
+					c = ' ';
+				} else if (c == '/' && peek() == '*') {
+					read();
+					skipBlockComment();
+					c = ' ';
+				}
+
+				if (modo == DECIDIENDO) {
+					if (Character.isLetter(c)) {
+						palabra.append((char) c);
+					} else if (!Character.isWhitespace(c) || palabra.length() > 0) {
+						String p = palabra.toString();
+						copy = p.equalsIgnoreCase("COPY");
+						set = p.equalsIgnoreCase("SET");
+						modo = (copy || set || p.equalsIgnoreCase("CREATE") || p.equalsIgnoreCase("ALTER")) ? GUARDANDO
+								: DESCARTANDO;
+						buf.append(p);
+					}
+				}
+				if (!Character.isWhitespace(c))
+					vacia = false;
+
+				boolean guardar = (modo == GUARDANDO) && !larga;
+				if (guardar)
+					buf.append((char) c);
+				// E'...' (no precedida de otra letra del identificador) escapa siempre
+				boolean escapa = barraEscapa
+						|| ((anterior == 'E' || anterior == 'e') && !isIdentifierPart(antesDeAnterior));
+				quoted(c, escapa, guardar ? buf : null);
+				antesDeAnterior = anterior;
+				anterior = c;
+				if (guardar && buf.length() > MAX_SENTENCIA) {
+					larga = true;
+					buf.setLength(0);
+				}
+			}
+
+			if (vacia) {
+				if (c == -1)
+					return null;
+				continue;
+			}
+			numero++;
+			if (abierta && sinCerrar == 0)
+				sinCerrar = numero;
+
+			if (modo == DECIDIENDO) {
+				// La sentencia era una sola palabra
+				String p = palabra.toString();
+				modo = (p.equalsIgnoreCase("CREATE") || p.equalsIgnoreCase("ALTER")) ? GUARDANDO : DESCARTANDO;
+				buf.append(p);
+			}
+			if (copy) {
+				if (!larga && buf.toString().trim().toLowerCase(Locale.ROOT).endsWith("stdin"))
+					skipCopyData();
+				continue;
+			}
+			if (set) {
+				if (!larga)
+					setting(buf.toString());
+				continue;
+			}
+			if (modo == DESCARTANDO)
+				continue;
+			return new Sentencia(numero, larga ? null : buf.toString().trim());
+		}
+	}
+
+	/**
+	 * Número de la sentencia en la que el script terminó dentro de una cadena,
+	 * identificador entre comillas o bloque {@code $tag$} sin cerrar (todo lo
+	 * que seguía quedó dentro de ella), o 0 si no pasó.
+	 */
+	int cadenaSinCerrar() {
+		return sinCerrar;
+	}
+
+	/** {@code SET standard_conforming_strings}: on (o true) apaga el escape con barra en {@code '...'}. */
+	private void setting(String sentencia) {
+		Matcher m = STANDARD_STRINGS.matcher(sentencia);
+		if (m.lookingAt()) {
+			String v = m.group(1).toLowerCase(Locale.ROOT);
+			if (v.equals("on") || v.equals("true"))
+				barraEscapa = false;
+			else if (v.equals("off") || v.equals("false"))
+				barraEscapa = true;
+		}
+	}
+
+	/**
+	 * Si {@code c} abre una cadena o bloque, lo consume completo (copiándolo a
+	 * {@code buf} si no es null). {@code escapa}: la barra invertida escapa el
+	 * carácter siguiente dentro de {@code '...'}.
+	 */
+	private void quoted(int c, boolean escapa, StringBuilder buf) throws IOException {
+		if (c == '\'' || c == '"' || c == '`') {
+			int d;
+			while ((d = read()) != -1) {
+				append(buf, d);
+				if (d == '\\' && c == '\'' && escapa) {
+					int e = read();
+					if (e == -1)
+						break;
+					append(buf, e);
+				} else if (d == c) {
+					// '' (o "" / ``) es la comilla escrita dos veces, no el cierre
+					if (peek() != c)
+						return;
+					append(buf, read());
+				}
+			}
+			abierta = true;
+		} else if (c == '$') {
+			StringBuilder tag = new StringBuilder("$");
+			int d;
+			while ((d = read()) != -1 && (Character.isLetterOrDigit(d) || d == '_'))
+				tag.append((char) d);
+			if (d != '$') {
+				append(buf, tag.substring(1));
+				unread(d);
+				return;
+			}
+			tag.append('$');
+			append(buf, tag.substring(1));
+			// Cuerpo hasta el mismo $tag$
+			String fin = tag.toString();
+			int match = 0;
+			while ((d = read()) != -1) {
+				append(buf, d);
+				match = (d == fin.charAt(match)) ? match + 1 : (d == '$' ? 1 : 0);
+				if (match == fin.length())
+					return;
+			}
+			abierta = true;
+		}
+	}
+
+	private static boolean isIdentifierPart(int c) {
+		return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+	}
+
+	private void skipLine() throws IOException {
+		int c;
+		while ((c = read()) != -1 && c != '\n') {
+			// nada
+		}
+	}
+
+	private void skipBlockComment() throws IOException {
+		int prev = -1;
+		int c;
+		while ((c = read()) != -1) {
+			if (prev == '*' && c == '/')
+				return;
+			prev = c;
+		}
+	}
+
+	/** Datos de COPY ... FROM stdin: líneas hasta {@code \.}. */
+	private void skipCopyData() throws IOException {
+		pendiente = -2;
+		String line;
+		while ((line = in.readLine()) != null) {
+			if (line.equals("\\."))
+				return;
+		}
+	}
+
+	private static void append(StringBuilder buf, int c) {
+		if (buf != null)
+			buf.append((char) c);
+	}
+
+	private static void append(StringBuilder buf, String s) {
+		if (buf != null)
+			buf.append(s);
+	}
+
+	private int read() throws IOException {
+		if (pendiente != -2) {
+			int c = pendiente;
+			pendiente = -2;
+			return c;
+		}
+		return in.read();
+	}
+
+	private int peek() throws IOException {
+		int c = read();
+		unread(c);
+		return c;
+	}
+
+	private void unread(int c) {
+		pendiente = c;
+	}
+}
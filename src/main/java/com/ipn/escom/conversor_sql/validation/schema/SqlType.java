@@ -0,0 +1,71 @@
+package com.ipn.escom.conversor_sql.validation.schema;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.ipn.escom.conversor_sql.validation.sql.TypeSystem;
+import com.ipn.escom.conversor_sql.validation.sql.TypeSystem.TypeCategory;
+
+/**
+ * Tipo SQL declarado de una columna, interpretado una sola vez al construir el
+ * esquema: texto (minúsculas, sin espacios extremos), nombre base, categoría y
+ * los argumentos entre paréntesis si los hay ({@code varchar(50)} → longitud
+ * 50; {@code decimal(10,2)} → precisión 10, escala 2).
+ * <p>
+ * {@link #of(String)} comparte la instancia de cada texto mientras el catálogo
+ * tenga lugar ({@code MAX_CANONICAL} textos distintos); pasado ese tope los
+ * tipos nuevos se interpretan en cada llamada sin guardarse. Por eso dos tipos
+ * se comparan con {@code equals} (el del record, por valor), nunca con
+ * {@code ==}.
+ */
+public record SqlType(String text, String baseName, TypeCategory category, Integer length, Integer precision,
+		Integer scale) {
+
+	/** Catálogo de tipos ya vistos (acotado: los tipos vienen del usuario). */
+	private static final int MAX_CANONICAL = 4096;
+	private static final Map<String, SqlType> CANONICAL = new ConcurrentHashMap<>();
+
+	/** Tipo para el texto ya normalizado (minúsculas, trim); null si es null. */
+	public static SqlType of(String typeLower) {
+		if (typeLower == null)
+			return null;
+		SqlType cached = CANONICAL.get(typeLower);
+		if (cached != null)
+			return cached;
+		SqlType parsed = parse(typeLower);
+		if (CANONICAL.size() >= MAX_CANONICAL)
+			return parsed;
+		SqlType previous = CANONICAL.putIfAbsent(typeLower, parsed);
+		return (previous != null) ? previous : parsed;
+	}
+
+	private static SqlType parse(String text) {
+		// La categoría se decide sobre el texto completo, como siempre
+		TypeCategory category = TypeSystem.toCategory(text);
+
+		int open = text.indexOf('(');
+		String baseName = (open < 0) ? text : text.substring(0, open).trim();
+		Integer first = null;
+		Integer second = null;
+		int close = text.indexOf(')', open + 1);
+		if (open >= 0 && close > open) {
+			String[] args = text.substring(open + 1, close).split(",");
+			first = parseInt(args[0]);
+			second = (args.length > 1) ? parseInt(args[1]) : null;
+		}
+
+		return switch (category) {
+		case TEXT -> new SqlType(text, baseName, category, first, null, null);
+		case NUMERIC -> new SqlType(text, baseName, category, null, first, second);
+		default -> new SqlType(text, baseName, category, null, first, null);
+		};
+	}
+
+	private static Integer parseInt(String s) {
+		try {
+			return Integer.valueOf(s.trim());
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,123 @@
+package com.ipn.escom.conversor_sql.validation.sql;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.ipn.escom.conversor_sql.utils.Texts;
+import com.ipn.escom.conversor_sql.validation.schema.SchemaIndex;
+import com.ipn.escom.conversor_sql.validation.schema.SqlType;
+import com.ipn.escom.conversor_sql.validation.sql.SourceCollector.ResolvedColumn;
+
+/**
+ * Índice para resolver columnas de un SELECT: se arma una sola vez con las
+ * fuentes del FROM/JOIN y se comparte entre la proyección, el WHERE y los ON.
+ * <ul>
+ * <li>calificador (alias o tabla) → primera fuente que lo declara</li>
+ * <li>columna → fuentes que la tienen, en el orden del FROM/JOIN</li>
+ * </ul>
+ * <p>
+ * Una columna que no se resuelve vuelve con {@code error} (y los demás campos
+ * null) con uno de estos mensajes, que el validador muestra tal cual:
+ * <ul>
+ * <li>{@code "Columna sin nombre."}</li>
+ * <li>{@code "Alias o tabla 'q' no está presente en FROM/JOIN."}</li>
+ * <li>{@code "La columna 'c' no existe en la tabla 't'."}</li>
+ * <li>{@code "La columna 'c' no existe en ninguna de las tablas del FROM/JOIN."}</li>
+ * <li>{@code "La columna 'c' es ambigua: existe en múltiples fuentes. Califícala con alias/tabla."}
+ * (con {@code ambiguous} true)</li>
+ * </ul>
+ * Los nombres van en minúsculas; un calificador que declaran varias fuentes
+ * se resuelve con la primera del FROM/JOIN.
+ */
+public final class ColumnResolver {
+
+	/** Una fuente con sus columnas y tipos ya buscados en el esquema. */
+	private record Entry(Source source, Set<String> columns, Map<String, String> types,
+			Map<String, SqlType> sqlTypes) {
+	}
+
+	private final List<Source> sources;
+	private final SchemaIndex schemaIndex;
+	private final Map<String, Entry> byQualifier = new HashMap<>();
+	private final Map<String, List<Entry>> byColumn = new HashMap<>();
+
+	private ColumnResolver(List<Source> sources, SchemaIndex schemaIndex) {
+		this.sources = sources;
+		this.schemaIndex = schemaIndex;
+		for (Source source : sources) {
+			Set<String> columns = schemaIndex.columnsByTable().getOrDefault(source.tableReal(), Set.of());
+			Map<String, String> types = schemaIndex.columnTypesByTable().getOrDefault(source.tableReal(), Map.of());
+			Map<String, SqlType> sqlTypes = schemaIndex.sqlTypesByTable().getOrDefault(source.tableReal(), Map.of());
+			Entry entry = new Entry(source, columns, types, sqlTypes);
+
+			// Gana la primera fuente (igual que el recorrido lineal)
+			if (source.aliasLower() != null)
+				byQualifier.putIfAbsent(source.aliasLower(), entry);
+			if (source.tableReal() != null)
+				byQualifier.putIfAbsent(source.tableReal(), entry);
+
+			for (String column : columns)
+				byColumn.computeIfAbsent(column, k -> new ArrayList<>(1)).add(entry);
+		}
+	}
+
+	public static ColumnResolver of(List<Source> sources, SchemaIndex schemaIndex) {
+		return new ColumnResolver(sources, schemaIndex);
+	}
+
+	public List<Source> sources() {
+		return sources;
+	}
+
+	public SchemaIndex schemaIndex() {
+		return schemaIndex;
+	}
+
+	/**
+	 * Resuelve una columna (calificada o no) a (tabla real, columna, tipo),
+	 * detectando alias inválidos y ambigüedad.
+	 */
+	public ResolvedColumn resolve(net.sf.jsqlparser.schema.Column columnExpression) {
+		String qualifierLower = (columnExpression.getTable() != null)
+				? Texts.toLowerTrimmed(columnExpression.getTable().getName())
+				: null;
+		String columnNameLower = Texts.toLowerTrimmed(columnExpression.getColumnName());
+
+		if (columnNameLower == null) {
+			return new ResolvedColumn(null, null, null, null, false, "Columna sin nombre.");
+		}
+
+		// Columna calificada: alias/tabla.columna
+		if (qualifierLower != null) {
+			Entry matched = byQualifier.get(qualifierLower);
+			if (matched == null) {
+				return new ResolvedColumn(null, null, null, null, false,
+						"Alias o tabla '" + qualifierLower + "' no está presente en FROM/JOIN.");
+			}
+			String tableReal = matched.source().tableReal();
+			if (!matched.columns().contains(columnNameLower)) {
+				return new ResolvedColumn(null, null, null, null, false,
+						"La columna '" + columnNameLower + "' no existe en la tabla '" + tableReal + "'.");
+			}
+			return new ResolvedColumn(tableReal, columnNameLower, matched.types().get(columnNameLower),
+					matched.sqlTypes().get(columnNameLower), false, null);
+		}
+
+		// Columna no calificada: fuentes que la tienen
+		List<Entry> owners = byColumn.get(columnNameLower);
+		if (owners == null) {
+			return new ResolvedColumn(null, null, null, null, false,
+					"La columna '" + columnNameLower + "' no existe en ninguna de las tablas del FROM/JOIN.");
+		}
+		if (owners.size() > 1) {
+			return new ResolvedColumn(null, null, null, null, true,
+					"La columna '" + columnNameLower + "' es ambigua: existe en múltiples fuentes. Califícala con alias/tabla.");
+		}
+		Entry only = owners.get(0);
+		return new ResolvedColumn(only.source().tableReal(), columnNameLower, only.types().get(columnNameLower),
+				only.sqlTypes().get(columnNameLower), false, null);
+	}
+}
@@ -2,12 +2,12 @@ package com.ipn.escom.conversor_sql.validation.sql;
 
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 import com.ipn.escom.conversor_sql.models.TipoDetallado;
 import com.ipn.escom.conversor_sql.validation.ValidationResult;
 import com.ipn.escom.conversor_sql.validation.schema.SchemaIndex;
+import com.ipn.escom.conversor_sql.validation.schema.SqlType;
 import com.ipn.escom.conversor_sql.validation.sql.TypeSystem.TypeCategory;
 
 import net.sf.jsqlparser.expression.Expression;
@@ -15,7 +15,7 @@ import net.sf.jsqlparser.statement.select.Join;
 import net.sf.jsqlparser.statement.select.PlainSelect;
 
 public class JoinValidator {
-	public static void validateJoinOnTypes(List<Join> joinClauses, List<Source> sources, SchemaIndex schemaIndex,
+	public static void validateJoinOnTypes(List<Join> joinClauses, ColumnResolver columnResolver,
 			ValidationResult validationResult, Set<String> selectColumnAliases) {
 		if (joinClauses == null)
 			return;
@@ -24,8 +24,7 @@ public class JoinValidator {
 			// INNER JOIN ... ON (una o varias expresiones)
 			if (joinClause.isInner() && joinClause.getOnExpressions() != null) {
 				for (Expression onExpr : joinClause.getOnExpressions()) {
-					WhereValidator.validateWhereTypes(onExpr, sources, schemaIndex, validationResult,
-							selectColumnAliases);
+					WhereValidator.validateWhereTypes(onExpr, columnResolver, validationResult, selectColumnAliases);
 				}
 			}
 			// NATURAL JOIN se valida en validateNaturalJoinCompatibility(...)
@@ -75,10 +74,10 @@ public class JoinValidator {
 
 			// Tipos compatibles en las columnas comunes
 			for (String col : common) {
-				String lt = schemaIndex.columnTypesByTable().getOrDefault(left.tableReal(), Map.of()).get(col);
-				String rt = schemaIndex.columnTypesByTable().getOrDefault(right.tableReal(), Map.of()).get(col);
-				TypeCategory ltc = TypeSystem.toCategory(lt);
-				TypeCategory rtc = TypeSystem.toCategory(rt);
+				SqlType lt = schemaIndex.sqlType(left.tableReal(), col);
+				SqlType rt = schemaIndex.sqlType(right.tableReal(), col);
+				TypeCategory ltc = (lt == null) ? TypeCategory.UNKNOWN : lt.category();
+				TypeCategory rtc = (rt == null) ? TypeCategory.UNKNOWN : rt.category();
 				if (ltc != rtc) {
 					validationResult.agregarMensaje("error", TipoDetallado.ERROR_LOGICO,
 							"NATURAL JOIN columnas comunes con tipos incompatibles: '" + col + "' en '"
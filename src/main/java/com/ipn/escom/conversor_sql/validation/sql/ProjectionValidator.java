@@ -8,7 +8,6 @@ import java.util.Set;
 import com.ipn.escom.conversor_sql.models.TipoDetallado;
 import com.ipn.escom.conversor_sql.utils.Texts;
 import com.ipn.escom.conversor_sql.validation.ValidationResult;
-import com.ipn.escom.conversor_sql.validation.schema.SchemaIndex;
 import com.ipn.escom.conversor_sql.validation.sql.SourceCollector.ResolvedColumn;
 
 import net.sf.jsqlparser.expression.Expression;
@@ -26,8 +25,7 @@ public class ProjectionValidator {
      * - Cada columna simple debe resolverse sin ambigüedad y existir
      */
     public static void validateSelectList(List<SelectItem> selectItems,
-                                           List<Source> availableSources,
-                                           SchemaIndex schemaIndex,
+                                           ColumnResolver columnResolver,
                                            ValidationResult validationResult) {
         if (selectItems == null || selectItems.isEmpty()) {
             validationResult.agregarMensaje("error", TipoDetallado.ERROR_LOGICO,
@@ -66,7 +64,7 @@ public class ProjectionValidator {
 
                 // Columna simple
                 if (selectExpression instanceof net.sf.jsqlparser.schema.Column columnExpression) {
-                    ResolvedColumn resolvedColumn = SourceCollector.resolveColumn(columnExpression, availableSources, schemaIndex);
+                    ResolvedColumn resolvedColumn = columnResolver.resolve(columnExpression);
                     if (resolvedColumn.error() != null) {
                         validationResult.agregarMensaje("error", TipoDetallado.ERROR_LOGICO, resolvedColumn.error());
                     } else if (resolvedColumn.ambiguous()) {
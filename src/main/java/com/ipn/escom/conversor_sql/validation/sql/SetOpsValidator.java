@@ -70,8 +70,8 @@ public class SetOpsValidator {
 			}
 
 			// Validar SELECT list con reglas base
-			ProjectionValidator.validateSelectList(subPlain.getSelectItems(), subSources, schemaIndex,
-					validationResult);
+			ColumnResolver subResolver = ColumnResolver.of(subSources, schemaIndex);
+			ProjectionValidator.validateSelectList(subPlain.getSelectItems(), subResolver, validationResult);
 			// En set operations, exigimos proyección explícita y columnas simples (sin * ni tabla.*)
 			if (ProjectionValidator.containsAllColumns(subPlain.getSelectItems())) {
 				validationResult.agregarMensaje("error", TipoDetallado.ERROR_LOGICO,
@@ -85,12 +85,11 @@ public class SetOpsValidator {
 			Set<String> subAliases = ProjectionValidator.collectAndValidateColumnAliases(subPlain.getSelectItems(),
 					subSources, validationResult);
 			WhereValidator.validateWhereNestingDepth(subPlain.getWhere(), validationResult);
-			WhereValidator.validateWhereTypes(subPlain.getWhere(), subSources, schemaIndex, validationResult, subAliases);
-			JoinValidator.validateJoinOnTypes(subPlain.getJoins(), subSources, schemaIndex, validationResult, subAliases);
+			WhereValidator.validateWhereTypes(subPlain.getWhere(), subResolver, validationResult, subAliases);
+			JoinValidator.validateJoinOnTypes(subPlain.getJoins(), subResolver, validationResult, subAliases);
 
 			// Obtener tipos de proyección por posición
-			List<TypeCategory> projTypes = projectTypesForPlainSelect(subPlain, subSources, schemaIndex,
-					validationResult);
+			List<TypeCategory> projTypes = projectTypesForPlainSelect(subPlain, subResolver, validationResult);
 			if (projTypes == null) {
 				// Si falla, ya se registraron mensajes; seguimos para acumular
 				continue;
@@ -140,8 +139,7 @@ public class SetOpsValidator {
      *  - Cada item es una columna simple (se valida afuera).
      */
     public static List<TypeCategory> projectTypesForPlainSelect(PlainSelect ps,
-                                                                 List<Source> sources,
-                                                                 SchemaIndex schemaIndex,
+                                                                 ColumnResolver columnResolver,
                                                                  ValidationResult validationResult) {
         List<SelectItem> items = ps.getSelectItems();
         if (items == null || items.isEmpty()) return List.of();
@@ -158,12 +156,12 @@ public class SetOpsValidator {
                         "En operaciones de conjunto, cada SELECT debe proyectar columnas simples (sin expresiones).");
                 return null;
             }
-            ResolvedColumn rc = SourceCollector.resolveColumn(col, sources, schemaIndex);
+            ResolvedColumn rc = columnResolver.resolve(col);
             if (rc.error() != null) {
                 validationResult.agregarMensaje("error", TipoDetallado.ERROR_LOGICO, rc.error());
                 return null;
             }
-            types.add(TypeSystem.toCategory(rc.type()));
+            types.add(rc.category());
         }
         return types;
     }
@@ -3,13 +3,13 @@ package com.ipn.escom.conversor_sql.validation.sql;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 import com.ipn.escom.conversor_sql.models.TipoDetallado;
 import com.ipn.escom.conversor_sql.utils.Texts;
 import com.ipn.escom.conversor_sql.validation.ValidationResult;
-import com.ipn.escom.conversor_sql.validation.schema.SchemaIndex;
+import com.ipn.escom.conversor_sql.validation.schema.SqlType;
+import com.ipn.escom.conversor_sql.validation.sql.TypeSystem.TypeCategory;
 
 import net.sf.jsqlparser.schema.Table;
 import net.sf.jsqlparser.statement.select.FromItem;
@@ -69,72 +69,12 @@ public class SourceCollector {
 	}
 	
 	/** Resultado de resolver una columna contra las fuentes y el esquema. */
-    public record ResolvedColumn(String tableReal, String column, String type,
-                                  boolean ambiguous, String error) { }
+    public record ResolvedColumn(String tableReal, String column, String type, SqlType sqlType,
+                                  boolean ambiguous, String error) {
 
-    /**
-     * Resuelve una columna (calificada o no) a (tabla real, columna, tipo),
-     * detectando alias inválidos y ambigüedad.
-     */
-    public static ResolvedColumn resolveColumn(net.sf.jsqlparser.schema.Column columnExpression,
-                                                List<Source> availableSources,
-                                                SchemaIndex schemaIndex) {
-        String qualifierLower = (columnExpression.getTable() != null)
-                ? Texts.toLowerTrimmed(columnExpression.getTable().getName())
-                : null;
-        String columnNameLower = Texts.toLowerTrimmed(columnExpression.getColumnName());
-
-        if (columnNameLower == null) {
-            return new ResolvedColumn(null, null, null, false, "Columna sin nombre.");
-        }
-
-        // Columna calificada: alias/tabla.columna
-        if (qualifierLower != null) {
-            Source matchedSource = null;
-            for (Source source : availableSources) {
-                if (qualifierLower.equals(source.aliasLower()) || qualifierLower.equals(source.tableReal())) {
-                    matchedSource = source;
-                    break;
-                }
-            }
-            if (matchedSource == null) {
-                return new ResolvedColumn(null, null, null, false,
-                        "Alias o tabla '" + qualifierLower + "' no está presente en FROM/JOIN.");
-            }
-            // Validar columna en la tabla encontrada
-            if (!schemaIndex.columnsByTable()
-                    .getOrDefault(matchedSource.tableReal(), Set.of())
-                    .contains(columnNameLower)) {
-                return new ResolvedColumn(null, null, null, false,
-                        "La columna '" + columnNameLower + "' no existe en la tabla '" + matchedSource.tableReal() + "'.");
-            }
-            String resolvedType = schemaIndex.columnTypesByTable()
-                    .getOrDefault(matchedSource.tableReal(), Map.of())
-                    .get(columnNameLower);
-            return new ResolvedColumn(matchedSource.tableReal(), columnNameLower, resolvedType, false, null);
-        }
-
-        // Columna no calificada: buscar en todas las fuentes
-        List<Source> ownerSources = new ArrayList<>();
-        for (Source source : availableSources) {
-            if (schemaIndex.columnsByTable()
-                    .getOrDefault(source.tableReal(), Set.of())
-                    .contains(columnNameLower)) {
-                ownerSources.add(source);
-            }
-        }
-        if (ownerSources.isEmpty()) {
-            return new ResolvedColumn(null, null, null, false,
-                    "La columna '" + columnNameLower + "' no existe en ninguna de las tablas del FROM/JOIN.");
-        }
-        if (ownerSources.size() > 1) {
-            return new ResolvedColumn(null, null, null, true,
-                    "La columna '" + columnNameLower + "' es ambigua: existe en múltiples fuentes. Califícala con alias/tabla.");
+        /** Categoría del tipo ya interpretado; UNKNOWN si no se resolvió. */
+        public TypeCategory category() {
+            return (sqlType == null) ? TypeCategory.UNKNOWN : sqlType.category();
         }
-        Source onlyOwner = ownerSources.get(0);
-        String resolvedType = schemaIndex.columnTypesByTable()
-                .getOrDefault(onlyOwner.tableReal(), Map.of())
-                .get(columnNameLower);
-        return new ResolvedColumn(onlyOwner.tableReal(), columnNameLower, resolvedType, false, null);
     }
 }
@@ -7,6 +7,12 @@ import net.sf.jsqlparser.parser.CCJSqlParserUtil;
 import net.sf.jsqlparser.statement.Statement;
 
 public class SqlParser {
+	/*
+	 * No se guardan sentencias ya parseadas: el AST de JSQLParser es mutable y no
+	 * se puede compartir entre peticiones. Lo que se reutiliza es el Core que sale
+	 * de él (ConversionPipeline), que es inmutable.
+	 */
+
 	/* ============================
     		   Parseo SQL
 	============================ */
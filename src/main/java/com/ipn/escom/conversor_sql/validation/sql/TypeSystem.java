@@ -1,16 +1,22 @@
 package com.ipn.escom.conversor_sql.validation.sql;
 
-import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.ipn.escom.conversor_sql.models.TipoDetallado;
 import com.ipn.escom.conversor_sql.utils.Texts;
 import com.ipn.escom.conversor_sql.validation.ValidationResult;
-import com.ipn.escom.conversor_sql.validation.schema.SchemaIndex;
 import com.ipn.escom.conversor_sql.validation.sql.SourceCollector.ResolvedColumn;
 
+import net.sf.jsqlparser.expression.DateTimeLiteralExpression;
+import net.sf.jsqlparser.expression.DoubleValue;
 import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.LongValue;
+import net.sf.jsqlparser.expression.NullValue;
+import net.sf.jsqlparser.expression.SignedExpression;
+import net.sf.jsqlparser.expression.StringValue;
 
 public class TypeSystem {
 	/*
@@ -22,9 +28,23 @@ public class TypeSystem {
 		NUMERIC, TEXT, DATE, BOOLEAN, UNKNOWN
 	}
 
+	/** Categorías ya calculadas por texto de tipo (acotado: los tipos vienen del usuario). */
+	private static final int MAX_CACHED_TYPES = 1024;
+	private static final Map<String, TypeCategory> CATEGORY_BY_TYPE = new ConcurrentHashMap<>();
+
 	public static TypeCategory toCategory(String dbTypeLower) {
 		if (dbTypeLower == null)
 			return TypeCategory.UNKNOWN;
+		TypeCategory cached = CATEGORY_BY_TYPE.get(dbTypeLower);
+		if (cached != null)
+			return cached;
+		TypeCategory category = classify(dbTypeLower);
+		if (CATEGORY_BY_TYPE.size() < MAX_CACHED_TYPES)
+			CATEGORY_BY_TYPE.put(dbTypeLower, category);
+		return category;
+	}
+
+	private static TypeCategory classify(String dbTypeLower) {
 		// numéricos
 		if (dbTypeLower.contains("int") || dbTypeLower.contains("number") || dbTypeLower.contains("decimal")
 				|| dbTypeLower.contains("float") || dbTypeLower.contains("double"))
@@ -43,15 +63,29 @@ public class TypeSystem {
 	}
 
 	public static TypeCategory literalCategory(Expression expr) {
+		// Casos comunes por tipo de nodo, sin volver a serializar la expresión
+		if (expr instanceof StringValue sv && (sv.getPrefix() == null || sv.getPrefix().isEmpty()))
+			return TypeCategory.TEXT; // se imprime como '...'
+		if (expr instanceof LongValue || expr instanceof DoubleValue)
+			return isPlainNumber(expr.toString().trim()) ? TypeCategory.NUMERIC : TypeCategory.UNKNOWN;
+		if (expr instanceof SignedExpression se && se.getSign() == '-'
+				&& (se.getExpression() instanceof LongValue || se.getExpression() instanceof DoubleValue))
+			return isPlainNumber(se.toString().trim()) ? TypeCategory.NUMERIC : TypeCategory.UNKNOWN;
+		if (expr instanceof DateTimeLiteralExpression dt && dt.getType() == DateTimeLiteralExpression.DateTime.DATE)
+			return TypeCategory.DATE; // DATE '...'
+		if (expr instanceof NullValue)
+			return TypeCategory.UNKNOWN;
+
+		// Resto: por el texto
 		String s = expr.toString().trim();
 		// texto entre comillas
 		if ((s.startsWith("'") && s.endsWith("'")) || (s.startsWith("\"") && s.endsWith("\"")))
 			return TypeCategory.TEXT;
 		// DATE 'YYYY-MM-DD' (estilo Oracle)
-		if (s.toUpperCase(Locale.ROOT).startsWith("DATE "))
+		if (s.regionMatches(true, 0, "DATE ", 0, 5))
 			return TypeCategory.DATE;
 		// número
-		if (s.matches("^-?\\d+(\\.\\d+)?$"))
+		if (isPlainNumber(s))
 			return TypeCategory.NUMERIC;
 		// true/false
 		if (s.equalsIgnoreCase("true") || s.equalsIgnoreCase("false"))
@@ -60,7 +94,32 @@ public class TypeSystem {
 		return TypeCategory.UNKNOWN;
 	}
 
-	public static TypeCategory expressionCategory(Expression expr, List<Source> sources, SchemaIndex schemaIndex,
+	/** Equivale a {@code s.matches("^-?\\d+(\\.\\d+)?$")}, sin regex. */
+	static boolean isPlainNumber(String s) {
+		int i = 0, n = s.length();
+		if (i < n && s.charAt(i) == '-')
+			i++;
+		int digits = digitsFrom(s, i);
+		if (digits == 0)
+			return false;
+		i += digits;
+		if (i == n)
+			return true;
+		if (s.charAt(i) != '.')
+			return false;
+		i++;
+		int decimals = digitsFrom(s, i);
+		return decimals > 0 && i + decimals == n;
+	}
+
+	private static int digitsFrom(String s, int from) {
+		int i = from;
+		while (i < s.length() && s.charAt(i) >= '0' && s.charAt(i) <= '9')
+			i++;
+		return i - from;
+	}
+
+	public static TypeCategory expressionCategory(Expression expr, ColumnResolver columnResolver,
 			ValidationResult validationResult, Set<String> selectColumnAliases) {
 		if (expr instanceof net.sf.jsqlparser.schema.Column colExpr) {
 			// Prohibir uso de alias de columna en WHERE/ON (si no está calificada y coincide con un alias del SELECT)
@@ -73,12 +132,12 @@ public class TypeSystem {
 				}
 			}
 
-			ResolvedColumn rc = SourceCollector.resolveColumn(colExpr, sources, schemaIndex);
+			ResolvedColumn rc = columnResolver.resolve(colExpr);
 			if (rc.error() != null) {
 				validationResult.agregarMensaje("error", TipoDetallado.ERROR_LOGICO, rc.error());
 				return TypeCategory.UNKNOWN;
 			}
-			return toCategory(rc.type());
+			return rc.category();
 		}
 		return literalCategory(expr);
 	}
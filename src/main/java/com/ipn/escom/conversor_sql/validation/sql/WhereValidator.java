@@ -34,39 +34,39 @@ import net.sf.jsqlparser.statement.select.SelectItem;
 import net.sf.jsqlparser.statement.select.SubSelect;
 
 public class WhereValidator {
-	public static void validateWhereTypes(Expression whereExpr, List<Source> sources, SchemaIndex schemaIndex,
+	public static void validateWhereTypes(Expression whereExpr, ColumnResolver columnResolver,
 			ValidationResult validationResult, Set<String> selectColumnAliases) {
 		if (whereExpr == null)
 			return;
 
 		// Comparaciones binarias ( =, <>, <, <=, >, >= )
 		if (whereExpr instanceof EqualsTo e) {
-			checkBinaryComparison(e.getLeftExpression(), "=", e.getRightExpression(), sources, schemaIndex,
+			checkBinaryComparison(e.getLeftExpression(), "=", e.getRightExpression(), columnResolver,
 					validationResult, selectColumnAliases);
 			return;
 		}
 		if (whereExpr instanceof NotEqualsTo e) {
-			checkBinaryComparison(e.getLeftExpression(), "<>", e.getRightExpression(), sources, schemaIndex,
+			checkBinaryComparison(e.getLeftExpression(), "<>", e.getRightExpression(), columnResolver,
 					validationResult, selectColumnAliases);
 			return;
 		}
 		if (whereExpr instanceof GreaterThan e) {
-			checkBinaryComparison(e.getLeftExpression(), ">", e.getRightExpression(), sources, schemaIndex,
+			checkBinaryComparison(e.getLeftExpression(), ">", e.getRightExpression(), columnResolver,
 					validationResult, selectColumnAliases);
 			return;
 		}
 		if (whereExpr instanceof GreaterThanEquals e) {
-			checkBinaryComparison(e.getLeftExpression(), ">=", e.getRightExpression(), sources, schemaIndex,
+			checkBinaryComparison(e.getLeftExpression(), ">=", e.getRightExpression(), columnResolver,
 					validationResult, selectColumnAliases);
 			return;
 		}
 		if (whereExpr instanceof MinorThan e) {
-			checkBinaryComparison(e.getLeftExpression(), "<", e.getRightExpression(), sources, schemaIndex,
+			checkBinaryComparison(e.getLeftExpression(), "<", e.getRightExpression(), columnResolver,
 					validationResult, selectColumnAliases);
 			return;
 		}
 		if (whereExpr instanceof MinorThanEquals e) {
-			checkBinaryComparison(e.getLeftExpression(), "<=", e.getRightExpression(), sources, schemaIndex,
+			checkBinaryComparison(e.getLeftExpression(), "<=", e.getRightExpression(), columnResolver,
 					validationResult, selectColumnAliases);
 			return;
 		}
@@ -86,11 +86,11 @@ public class WhereValidator {
 				return;
 			}
 
-			TypeCategory exprCat = TypeSystem.expressionCategory(between.getLeftExpression(), sources, schemaIndex,
+			TypeCategory exprCat = TypeSystem.expressionCategory(between.getLeftExpression(), columnResolver,
 					validationResult, selectColumnAliases);
-			TypeCategory startCat = TypeSystem.expressionCategory(between.getBetweenExpressionStart(), sources, schemaIndex,
+			TypeCategory startCat = TypeSystem.expressionCategory(between.getBetweenExpressionStart(), columnResolver,
 					validationResult, selectColumnAliases);
-			TypeCategory endCat = TypeSystem.expressionCategory(between.getBetweenExpressionEnd(), sources, schemaIndex,
+			TypeCategory endCat = TypeSystem.expressionCategory(between.getBetweenExpressionEnd(), columnResolver,
 					validationResult, selectColumnAliases);
 
 			if (!(exprCat == TypeCategory.NUMERIC || exprCat == TypeCategory.DATE) || exprCat != startCat
@@ -110,7 +110,7 @@ public class WhereValidator {
 				return;
 			}
 
-			TypeCategory left = TypeSystem.expressionCategory(in.getLeftExpression(), sources, schemaIndex, validationResult,
+			TypeCategory left = TypeSystem.expressionCategory(in.getLeftExpression(), columnResolver, validationResult,
 					selectColumnAliases);
 
 			if (in.getRightItemsList() instanceof ExpressionList list && list.getExpressions() != null) {
@@ -125,7 +125,7 @@ public class WhereValidator {
 
 			if (in.getRightItemsList() instanceof ExpressionList list) {
 				for (Expression item : list.getExpressions()) {
-					TypeCategory itemCat = TypeSystem.expressionCategory(item, sources, schemaIndex, validationResult,
+					TypeCategory itemCat = TypeSystem.expressionCategory(item, columnResolver, validationResult,
 							selectColumnAliases);
 					if (!TypeSystem.areComparable(left, itemCat, "=")) {
 						validationResult.agregarMensaje("error", TipoDetallado.ERROR_LOGICO,
@@ -136,7 +136,7 @@ public class WhereValidator {
 				return;
 			} else if (in.getRightItemsList() instanceof SubSelect sub) {
 				// NUEVO: IN (SELECT …) con restricciones
-				validateInSubselect(left, sub, sources, schemaIndex, validationResult);
+				validateInSubselect(left, sub, columnResolver, validationResult);
 				return;
 			}
 		}
@@ -150,32 +150,31 @@ public class WhereValidator {
 
 		// (expr) → validar recursivamente
 		if (whereExpr instanceof net.sf.jsqlparser.expression.Parenthesis p) {
-			validateWhereTypes(p.getExpression(), sources, schemaIndex, validationResult, selectColumnAliases);
+			validateWhereTypes(p.getExpression(), columnResolver, validationResult, selectColumnAliases);
 			return;
 		}
 
 		// AND / OR / NOT → validar recursivamente
 		if (whereExpr instanceof AndExpression andExpr) {
-			validateWhereTypes(andExpr.getLeftExpression(), sources, schemaIndex, validationResult,
+			validateWhereTypes(andExpr.getLeftExpression(), columnResolver, validationResult,
 					selectColumnAliases);
-			validateWhereTypes(andExpr.getRightExpression(), sources, schemaIndex, validationResult,
+			validateWhereTypes(andExpr.getRightExpression(), columnResolver, validationResult,
 					selectColumnAliases);
 			return;
 		}
 		if (whereExpr instanceof OrExpression orExpr) {
-			validateWhereTypes(orExpr.getLeftExpression(), sources, schemaIndex, validationResult, selectColumnAliases);
-			validateWhereTypes(orExpr.getRightExpression(), sources, schemaIndex, validationResult,
+			validateWhereTypes(orExpr.getLeftExpression(), columnResolver, validationResult, selectColumnAliases);
+			validateWhereTypes(orExpr.getRightExpression(), columnResolver, validationResult,
 					selectColumnAliases);
 			return;
 		}
 		if (whereExpr instanceof NotExpression notExpr) {
-			validateWhereTypes(notExpr.getExpression(), sources, schemaIndex, validationResult, selectColumnAliases);
+			validateWhereTypes(notExpr.getExpression(), columnResolver, validationResult, selectColumnAliases);
 		}
 	}
 
 	public static void checkBinaryComparison(Expression leftExpr, String operator, Expression rightExpr,
-			List<Source> sources, SchemaIndex schemaIndex, ValidationResult validationResult,
-			Set<String> selectColumnAliases) {
+			ColumnResolver columnResolver, ValidationResult validationResult, Set<String> selectColumnAliases) {
 		// Comparaciones con NULL no permitidas
 		if (ExpressionUtils.containsNullSyntax(leftExpr) || ExpressionUtils.containsNullSyntax(rightExpr)) {
 			validationResult.agregarMensaje("error", TipoDetallado.ERROR_LOGICO,
@@ -183,8 +182,8 @@ public class WhereValidator {
 			return;
 		}
 
-		TypeCategory left = TypeSystem.expressionCategory(leftExpr, sources, schemaIndex, validationResult, selectColumnAliases);
-		TypeCategory right = TypeSystem.expressionCategory(rightExpr, sources, schemaIndex, validationResult, selectColumnAliases);
+		TypeCategory left = TypeSystem.expressionCategory(leftExpr, columnResolver, validationResult, selectColumnAliases);
+		TypeCategory right = TypeSystem.expressionCategory(rightExpr, columnResolver, validationResult, selectColumnAliases);
 
 		if (!TypeSystem.areComparable(left, right, operator)) {
 			validationResult.agregarMensaje("error", TipoDetallado.ERROR_LOGICO,
@@ -193,8 +192,9 @@ public class WhereValidator {
 	}
 
 	/** IN (SELECT …) con reglas estrictas y verificación de tipos. */
-	public static void validateInSubselect(TypeCategory leftSideType, SubSelect sub, List<Source> outerSources,
-			SchemaIndex schemaIndex, ValidationResult validationResult) {
+	public static void validateInSubselect(TypeCategory leftSideType, SubSelect sub, ColumnResolver outerResolver,
+			ValidationResult validationResult) {
+		SchemaIndex schemaIndex = outerResolver.schemaIndex();
 		SelectBody body = sub.getSelectBody();
 		if (!(body instanceof PlainSelect ps)) {
 			validationResult.agregarMensaje("error", TipoDetallado.ERROR_LOGICO,
@@ -246,22 +246,23 @@ public class WhereValidator {
 
 		// Validaciones usuales en subconsulta: SELECT list simple, cláusulas no
 		// permitidas, tipos en WHERE/ON, joins válidos
-		ProjectionValidator.validateSelectList(items, subSources, schemaIndex, validationResult);
+		ColumnResolver subResolver = ColumnResolver.of(subSources, schemaIndex);
+		ProjectionValidator.validateSelectList(items, subResolver, validationResult);
 		Set<String> subAliases = ProjectionValidator.collectAndValidateColumnAliases(items, subSources,
 				validationResult);
 		SqlValidator.disallowUnsupportedClauses(ps, validationResult);
 		JoinValidator.validateAllowedJoinTypes(ps.getJoins(), validationResult);
 		JoinValidator.validateNaturalJoinCompatibility(ps, subSources, schemaIndex, validationResult);
-		validateWhereTypes(ps.getWhere(), subSources, schemaIndex, validationResult, subAliases);
-		JoinValidator.validateJoinOnTypes(ps.getJoins(), subSources, schemaIndex, validationResult, subAliases);
+		validateWhereTypes(ps.getWhere(), subResolver, validationResult, subAliases);
+		JoinValidator.validateJoinOnTypes(ps.getJoins(), subResolver, validationResult, subAliases);
 
 		// Tipo de la única columna proyectada en la subconsulta
-		ResolvedColumn rc = SourceCollector.resolveColumn(subCol, subSources, schemaIndex);
+		ResolvedColumn rc = subResolver.resolve(subCol);
 		if (rc.error() != null) {
 			validationResult.agregarMensaje("error", TipoDetallado.ERROR_LOGICO, rc.error());
 			return;
 		}
-		TypeCategory rightType = TypeSystem.toCategory(rc.type());
+		TypeCategory rightType = rc.category();
 
 		// Compatibilidad con el lado izquierdo del IN
 		if (!TypeSystem.areComparable(leftSideType, rightType, "=")) {
@@ -0,0 +1,201 @@
+package com.ipn.escom.conversor_sql.ar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.ipn.escom.conversor_sql.ar.expresiones.ArArith;
+import com.ipn.escom.conversor_sql.ar.expresiones.ArArithOp;
+import com.ipn.escom.conversor_sql.ar.expresiones.ArCol;
+import com.ipn.escom.conversor_sql.ar.expresiones.ArConst;
+import com.ipn.escom.conversor_sql.ar.predicados.ArAnd;
+import com.ipn.escom.conversor_sql.ar.predicados.ArCmp;
+import com.ipn.escom.conversor_sql.ar.predicados.ArCmpOp;
+import com.ipn.escom.conversor_sql.ar.predicados.ArNot;
+import com.ipn.escom.conversor_sql.ar.predicados.ArOr;
+import com.ipn.escom.conversor_sql.ar.predicados.ArPredInterface;
+import com.ipn.escom.conversor_sql.ar.proyeccion.ArProjExpr;
+import com.ipn.escom.conversor_sql.ar.relacionales.ArBase;
+import com.ipn.escom.conversor_sql.ar.relacionales.ArExcept;
+import com.ipn.escom.conversor_sql.ar.relacionales.ArIntersect;
+import com.ipn.escom.conversor_sql.ar.relacionales.ArJoin;
+import com.ipn.escom.conversor_sql.ar.relacionales.ArNaturalJoin;
+import com.ipn.escom.conversor_sql.ar.relacionales.ArProduct;
+import com.ipn.escom.conversor_sql.ar.relacionales.ArProject;
+import com.ipn.escom.conversor_sql.ar.relacionales.ArRel;
+import com.ipn.escom.conversor_sql.ar.relacionales.ArRename;
+import com.ipn.escom.conversor_sql.ar.relacionales.ArSelect;
+import com.ipn.escom.conversor_sql.ar.relacionales.ArUnion;
+import com.ipn.escom.conversor_sql.conversion.ConversionPipeline;
+import com.ipn.escom.conversor_sql.conversion.CoreToAr;
+import com.ipn.escom.conversor_sql.core.relacionales.CoreRel;
+import com.ipn.escom.conversor_sql.models.Column;
+import com.ipn.escom.conversor_sql.models.ForeignKeyInfo;
+import com.ipn.escom.conversor_sql.models.RelationalTable;
+import com.ipn.escom.conversor_sql.validation.schema.SchemaBuilder;
+import com.ipn.escom.conversor_sql.validation.schema.SchemaIndex;
+
+/**
+ * Salida exacta de {@link ArPrinter#print}, tal como la generaba el printer
+ * por concatenación (paréntesis dobles incluidos), y equivalencia del printer
+ * memoizado con el normal.
+ */
+class ArPrinterTest {
+
+	private static final ArRel A = new ArBase("a");
+	private static final ArRel B = new ArBase("b");
+	private static final ArRel C = new ArBase("c");
+	private static final ArRel D = new ArBase("d");
+
+	private static final SchemaIndex SCHEMA = SchemaBuilder.build(List.of(
+			new RelationalTable("depto", List.of(
+					new Column("id_depto", "int", true, null),
+					new Column("depto", "varchar(20)", null, null))),
+			new RelationalTable("emp", List.of(
+					new Column("id_emp", "int", true, null),
+					new Column("nombre", "varchar(20)", null, null),
+					new Column("id_depto", "int", null, new ForeignKeyInfo("depto", "id_depto")),
+					new Column("sueldo", "decimal(10,2)", null, null)))));
+
+	/** Consultas que cubren todos los operadores que genera CoreToAr. */
+	private static final List<String> QUERIES = List.of(
+			"SELECT e.nombre AS n, d.depto FROM emp e JOIN depto d ON e.id_depto = d.id_depto "
+					+ "WHERE e.sueldo > 10 AND NOT (e.nombre = 'x' AND d.depto = 'y')",
+			"SELECT nombre FROM emp, depto WHERE emp.id_depto = depto.id_depto OR sueldo IS NULL",
+			"SELECT * FROM emp NATURAL JOIN depto",
+			"SELECT sueldo * 2 + 1 AS s, nombre AS nombre FROM emp WHERE id_depto IS NOT NULL",
+			"SELECT nombre FROM emp UNION SELECT depto FROM depto INTERSECT SELECT depto FROM depto",
+			"SELECT nombre FROM emp EXCEPT SELECT depto FROM depto UNION SELECT nombre FROM emp",
+			"SELECT nombre FROM emp WHERE id_depto IN (SELECT id_depto FROM depto WHERE depto = 'O''Hara')",
+			"SELECT nombre FROM emp e WHERE EXISTS (SELECT d.id_depto FROM depto d WHERE d.id_depto = e.id_depto)");
+
+	private static String print(ArRel n) {
+		return new ArPrinter().print(n);
+	}
+
+	private static ArPredInterface eq(String l, String r) {
+		return new ArCmp(new ArCol(null, l), ArCmpOp.EQ, new ArCol(null, r));
+	}
+
+	@Test
+	void joinOverSetOpDoublesParentheses() {
+		assertEquals("((a ∪ b)) ⋈[x = y] c", print(new ArJoin(new ArUnion(A, B), C, eq("x", "y"))));
+		assertEquals("((a − b)) × c", print(new ArProduct(new ArExcept(A, B), C)));
+		assertEquals("a × ((b ∩ c))", print(new ArProduct(A, new ArIntersect(B, C))));
+		// ⋈ natural usa solo la precedencia: un par de paréntesis
+		assertEquals("(a ∪ b) ⋈ c", print(new ArNaturalJoin(new ArUnion(A, B), C)));
+		assertEquals("a ⋈[TRUE] b", print(new ArJoin(A, B, null)));
+	}
+
+	@Test
+	void unaryOperatorsNeverAddParentheses() {
+		assertEquals("σ[x = y](a ⋈[x = y] b)", print(new ArSelect(new ArJoin(A, B, eq("x", "y")), eq("x", "y"))));
+		assertEquals("ρ[r](a ∪ b)", print(new ArRename(new ArUnion(A, B), "r")));
+		assertEquals("π[x](σ[x = y](a))",
+				print(new ArProject(new ArSelect(A, eq("x", "y")), List.of(new ArProjExpr(new ArCol("a", "x"), null)))));
+	}
+
+	@Test
+	void mixedSetOpNesting() {
+		assertEquals("a ∪ b ∪ c", print(new ArUnion(new ArUnion(A, B), C)));
+		assertEquals("a ∪ b ∪ c", print(new ArUnion(A, new ArUnion(B, C))));
+		assertEquals("(a ∪ b) ∩ (c − d)", print(new ArIntersect(new ArUnion(A, B), new ArExcept(C, D))));
+		assertEquals("(a ∩ b) ∪ c", print(new ArUnion(new ArIntersect(A, B), C)));
+		// − : el izquierdo va sin paréntesis, el derecho solo si es otra operación
+		assertEquals("a ∪ b − (c ∪ d)", print(new ArExcept(new ArUnion(A, B), new ArUnion(C, D))));
+		assertEquals("a − b − c", print(new ArExcept(A, new ArExcept(B, C))));
+		assertEquals("a − b ⋈[x = y] c", print(new ArExcept(A, new ArJoin(B, C, eq("x", "y")))));
+		assertEquals("(a − b) ∪ (c ∩ d)", print(new ArUnion(new ArExcept(A, B), new ArIntersect(C, D))));
+	}
+
+	@Test
+	void projectionAliasesUseArrow() {
+		ArRel p = new ArProject(A, List.of(
+				new ArProjExpr(new ArCol("a", "x"), "x"),
+				new ArProjExpr(new ArCol("a", "x"), "y"),
+				new ArProjExpr(new ArArith(ArArithOp.MUL, new ArArith(ArArithOp.ADD, new ArCol(null, "x"),
+						new ArConst(1)), new ArConst(2)), "z"),
+				new ArProjExpr(new ArConst("it's"), " ")));
+		assertEquals("π[x, y ← x, z ← (x + 1) * 2, 'it''s'](a)", print(p));
+	}
+
+	@Test
+	void predicatePrecedence() {
+		ArPredInterface and = new ArAnd(eq("x", "y"), eq("u", "v"));
+		ArPredInterface or = new ArOr(eq("x", "y"), eq("u", "v"));
+		assertEquals("σ[NOT ((x = y AND u = v))](a)", print(new ArSelect(A, new ArNot(and))));
+		assertEquals("σ[NOT (x = y)](a)", print(new ArSelect(A, new ArNot(eq("x", "y")))));
+		assertEquals("σ[(x = y OR u = v) AND x = y](a)", print(new ArSelect(A, new ArAnd(or, eq("x", "y")))));
+		assertEquals("σ[x = y AND u = v OR x = y](a)", print(new ArSelect(A, new ArOr(and, eq("x", "y")))));
+		assertEquals("σ[x IS NULL AND x IS NOT NULL AND NULL = NULL](a)", print(new ArSelect(A, new ArAnd(
+				new ArAnd(new ArCmp(new ArConst(null), ArCmpOp.EQ, new ArCol(null, "x")),
+						new ArCmp(new ArCol(null, "x"), ArCmpOp.NEQ, new ArConst(null))),
+				new ArCmp(new ArConst(null), ArCmpOp.EQ, new ArConst(null))))));
+	}
+
+	@Test
+	void memoizingMatchesPlainOnSharedNodes() {
+		// El mismo nodo en contextos con distintos paréntesis
+		ArRel u = new ArUnion(A, B);
+		ArRel plan = new ArExcept(new ArNaturalJoin(u, C),
+				new ArUnion(new ArJoin(u, new ArProduct(u, C), eq("x", "y")), new ArIntersect(u, new ArRename(u, "r"))));
+		assertSameAsPlain(plan);
+	}
+
+	@Test
+	void memoizingMatchesPlainOnBuiltPlans() {
+		ConversionPipeline pipeline = new ConversionPipeline();
+		for (String sql : QUERIES) {
+			CoreRel core = pipeline.normalizeToCore(pipeline.buildCore(sql), SCHEMA);
+			assertSameAsPlain(pipeline.toAlgebra(core));
+
+			// Trace ya llenó su memo durante la conversión
+			CoreToAr.Trace trace = new CoreToAr.Trace();
+			ArRel ar = new CoreToAr().convert(core, trace);
+			for (ArRel sub : subtrees(ar))
+				assertEquals(print(sub), trace.render(sub), sql);
+		}
+	}
+
+	/** Cada subárbol, de la raíz a las hojas y de vuelta, con una sola instancia memoizada. */
+	private static void assertSameAsPlain(ArRel plan) {
+		List<ArRel> all = subtrees(plan);
+		ArPrinter memo = ArPrinter.memoizing();
+		for (ArRel sub : all)
+			assertEquals(print(sub), memo.print(sub));
+		ArPrinter fresh = ArPrinter.memoizing();
+		for (ArRel sub : all.reversed())
+			assertEquals(print(sub), fresh.print(sub));
+	}
+
+	private static List<ArRel> subtrees(ArRel root) {
+		List<ArRel> out = new ArrayList<>();
+		collect(root, out);
+		return out;
+	}
+
+	private static void collect(ArRel n, List<ArRel> out) {
+		out.add(n);
+		switch (n) {
+		case ArRename r -> collect(r.input(), out);
+		case ArSelect s -> collect(s.input(), out);
+		case ArProject p -> collect(p.input(), out);
+		case ArProduct x -> children(x.left(), x.right(), out);
+		case ArJoin j -> children(j.left(), j.right(), out);
+		case ArNaturalJoin j -> children(j.left(), j.right(), out);
+		case ArUnion s -> children(s.left(), s.right(), out);
+		case ArIntersect s -> children(s.left(), s.right(), out);
+		case ArExcept s -> children(s.left(), s.right(), out);
+		default -> {
+		}
+		}
+	}
+
+	private static void children(ArRel l, ArRel r, List<ArRel> out) {
+		collect(l, out);
+		collect(r, out);
+	}
+}
@@ -0,0 +1,52 @@
+package com.ipn.escom.conversor_sql.controller;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasItems;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.ipn.escom.conversor_sql.service.impl.SchemaRegistryServiceImpl;
+
+/** {@code POST /api/schemas} valida cada tabla como {@code /convert} valida {@code tables}. */
+@WebMvcTest(SchemaController.class)
+@Import(SchemaRegistryServiceImpl.class)
+class SchemaControllerTest {
+
+	@Autowired
+	private MockMvc mvc;
+
+	private void expectBadRequest(String body, String... mensajes) throws Exception {
+		mvc.perform(post("/api/schemas").contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.mensajes[*].contenido").value(hasItems(mensajes)));
+	}
+
+	@Test
+	void nullTableIsABadRequest() throws Exception {
+		expectBadRequest("[null]", "Campo inválido 'tables[0]': La tabla no puede ser null.");
+	}
+
+	@Test
+	void blankNameAndNoColumnsGetTheModelMessages() throws Exception {
+		expectBadRequest("[{\"name\":\"usuario\",\"columns\":[{\"name\":\"id\",\"type\":\"int\"}]},"
+				+ "{\"name\":\" \",\"columns\":[]}]",
+				"Campo inválido 'tables[1].name': Cada tabla debe tener un nombre.",
+				"Campo inválido 'tables[1].columns': La tabla debe tener al menos una columna.");
+	}
+
+	@Test
+	void validTablesAreRegistered() throws Exception {
+		mvc.perform(post("/api/schemas").contentType(MediaType.APPLICATION_JSON)
+				.content("[{\"name\":\"usuario\",\"columns\":[{\"name\":\"id\",\"type\":\"int\",\"primaryKey\":true}]}]"))
+				.andExpect(status().isCreated())
+				.andExpect(jsonPath("$.mensajes[*].contenido").value(hasItem("Esquema registrado.")));
+	}
+}
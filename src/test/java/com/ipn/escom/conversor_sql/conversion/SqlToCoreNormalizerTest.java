@@ -0,0 +1,153 @@
+package com.ipn.escom.conversor_sql.conversion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.ipn.escom.conversor_sql.core.expresiones.CoreColumnRef;
+import com.ipn.escom.conversor_sql.core.expresiones.CoreNumber;
+import com.ipn.escom.conversor_sql.core.expresiones.CoreString;
+import com.ipn.escom.conversor_sql.core.predicados.CmpOp;
+import com.ipn.escom.conversor_sql.core.predicados.CoreAnd;
+import com.ipn.escom.conversor_sql.core.predicados.CoreCmp;
+import com.ipn.escom.conversor_sql.core.proyeccion.CoreProjExpr;
+import com.ipn.escom.conversor_sql.core.proyeccion.CoreProjItem;
+import com.ipn.escom.conversor_sql.core.relacionales.CoreAlias;
+import com.ipn.escom.conversor_sql.core.relacionales.CoreJoin;
+import com.ipn.escom.conversor_sql.core.relacionales.CoreProject;
+import com.ipn.escom.conversor_sql.core.relacionales.CoreRel;
+import com.ipn.escom.conversor_sql.core.relacionales.CoreSelect;
+import com.ipn.escom.conversor_sql.core.relacionales.CoreTable;
+import com.ipn.escom.conversor_sql.models.Column;
+import com.ipn.escom.conversor_sql.models.ForeignKeyInfo;
+import com.ipn.escom.conversor_sql.models.RelationalTable;
+import com.ipn.escom.conversor_sql.validation.schema.SchemaBuilder;
+import com.ipn.escom.conversor_sql.validation.schema.SchemaIndex;
+
+/**
+ * Expansión de * / t.* con el catálogo de columnas, calificación de columnas
+ * al levantar IN/EXISTS y sus errores.
+ */
+class SqlToCoreNormalizerTest {
+
+	private static final SchemaIndex SCHEMA = SchemaBuilder.build(List.of(
+			new RelationalTable("depto", List.of(
+					new Column("id_depto", "int", true, null),
+					new Column("depto", "varchar(20)", null, null))),
+			new RelationalTable("emp", List.of(
+					new Column("id_emp", "int", true, null),
+					new Column("nombre", "varchar(20)", null, null),
+					new Column("id_depto", "int", null, new ForeignKeyInfo("depto", "id_depto")),
+					new Column("sueldo", "decimal(10,2)", null, null)))));
+
+	private static final List<String> EMP = List.of("id_emp", "nombre", "id_depto", "sueldo");
+	private static final List<String> DEPTO = List.of("id_depto", "depto");
+
+	private static CoreRel normalize(String sql) {
+		return new SqlToCoreNormalizer(SCHEMA).normalize(new ConversionPipeline().buildCore(sql));
+	}
+
+	private static List<CoreProjItem> items(String sql) {
+		return assertInstanceOf(CoreProject.class, normalize(sql)).items();
+	}
+
+	private static CoreColumnRef col(String rel, String name) {
+		return new CoreColumnRef(rel, name);
+	}
+
+	/** Las columnas de {@code names}, calificadas con {@code rel}, sin alias. */
+	private static List<CoreProjItem> cols(String rel, List<String> names) {
+		return names.stream().<CoreProjItem>map(n -> new CoreProjExpr(col(rel, n), null)).toList();
+	}
+
+	@Test
+	void starExpandsInSchemaOrderQualifiedByAliasOrTable() {
+		assertEquals(cols("emp", EMP), items("SELECT * FROM emp"));
+
+		List<CoreProjItem> expected = new ArrayList<>(cols("e", EMP));
+		expected.addAll(cols("depto", DEPTO));
+		assertEquals(expected, items("SELECT * FROM emp e, depto"));
+	}
+
+	@Test
+	void aliasStarTakesOnlyThatRelation() {
+		String join = " FROM emp e JOIN depto d ON e.id_depto = d.id_depto";
+		assertEquals(cols("e", EMP), items("SELECT e.*" + join));
+
+		List<CoreProjItem> expected = new ArrayList<>(cols("d", DEPTO));
+		expected.add(new CoreProjExpr(col("e", "nombre"), null));
+		assertEquals(expected, items("SELECT d.*, e.nombre" + join));
+
+		// El alias se busca sin distinguir mayúsculas, y se conserva como se escribió
+		assertEquals(cols("e", EMP), items("SELECT E.* FROM emp e"));
+	}
+
+	@Test
+	void tableStarUnderAlias() {
+		// El alias califica las columnas de *, pero el nombre de la tabla sigue
+		// alcanzable para t.* (calificado con la tabla, no con el alias)
+		assertEquals(cols("e", EMP), items("SELECT * FROM emp e"));
+		assertEquals(cols("emp", EMP), items("SELECT emp.* FROM emp e"));
+		// Relación que no está en el FROM: no expande nada (lo reporta la validación)
+		assertEquals(List.of(), items("SELECT x.* FROM emp e"));
+	}
+
+	@Test
+	void inSubselectBecomesJoinWithQualifiedColumns() {
+		CoreRel r = normalize("SELECT nombre FROM emp WHERE id_depto IN "
+				+ "(SELECT id_depto FROM depto WHERE depto = 'x') AND sueldo > 1");
+
+		CoreProject p = assertInstanceOf(CoreProject.class, r);
+		CoreSelect s = assertInstanceOf(CoreSelect.class, p.input());
+		// Solo queda el predicado sin subconsulta
+		assertEquals(new CoreCmp(col(null, "sueldo"), CmpOp.GT, new CoreNumber("1")), s.predicate());
+		assertEquals(new CoreJoin(new CoreTable("emp"), new CoreTable("depto"), new CoreAnd(
+				new CoreCmp(col("emp", "id_depto"), CmpOp.EQ, col("depto", "id_depto")),
+				new CoreCmp(col(null, "depto"), CmpOp.EQ, new CoreString("x")))), s.input());
+	}
+
+	@Test
+	void existsBecomesJoinOnItsWhere() {
+		CoreRel r = normalize("SELECT nombre FROM emp e WHERE EXISTS "
+				+ "(SELECT d.id_depto FROM depto d WHERE d.id_depto = e.id_depto)");
+
+		CoreProject p = assertInstanceOf(CoreProject.class, r);
+		assertEquals(new CoreJoin(new CoreAlias(new CoreTable("emp"), "e"), new CoreAlias(new CoreTable("depto"), "d"),
+				new CoreCmp(col("d", "id_depto"), CmpOp.EQ, col("e", "id_depto"))), p.input());
+	}
+
+	@Test
+	void ambiguousColumnWhenLifting() {
+		// Lado izquierdo del IN, ambiguo en el FROM exterior
+		IllegalArgumentException outer = assertThrows(IllegalArgumentException.class,
+				() -> normalize("SELECT nombre FROM emp e JOIN depto d ON e.id_depto = d.id_depto "
+						+ "WHERE id_depto IN (SELECT id_depto FROM depto)"));
+		assertEquals("Columna ambigua: id_depto en [d, e]", outer.getMessage());
+
+		// Columna proyectada por el subselect, ambigua en su propio FROM
+		IllegalArgumentException inner = assertThrows(IllegalArgumentException.class,
+				() -> normalize("SELECT nombre FROM emp WHERE id_depto IN (SELECT id_depto FROM depto d, emp e)"));
+		assertEquals("Columna ambigua: id_depto en [d, e]", inner.getMessage());
+	}
+
+	@Test
+	void negatedSubqueriesAreRejected() {
+		UnsupportedOperationException ex = assertThrows(UnsupportedOperationException.class,
+				() -> normalize("SELECT nombre FROM emp WHERE NOT EXISTS (SELECT id_depto FROM depto)"));
+		assertEquals("NOT IN / NOT EXISTS no soportados aún (requieren diferencia/antijoin).", ex.getMessage());
+	}
+
+	@Test
+	void betweenBecomesTwoComparisons() {
+		CoreSelect s = assertInstanceOf(CoreSelect.class,
+				assertInstanceOf(CoreProject.class, normalize("SELECT nombre FROM emp WHERE sueldo BETWEEN 1 AND 2"))
+						.input());
+		assertEquals(new CoreAnd(new CoreCmp(col(null, "sueldo"), CmpOp.GTE, new CoreNumber("1")),
+				new CoreCmp(col(null, "sueldo"), CmpOp.LTE, new CoreNumber("2"))), s.predicate());
+	}
+}
@@ -0,0 +1,198 @@
+package com.ipn.escom.conversor_sql.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.ipn.escom.conversor_sql.core.expresiones.CoreColumnRef;
+import com.ipn.escom.conversor_sql.core.expresiones.CoreExpr;
+import com.ipn.escom.conversor_sql.core.expresiones.CoreNull;
+import com.ipn.escom.conversor_sql.core.expresiones.CoreNumber;
+import com.ipn.escom.conversor_sql.core.expresiones.CoreString;
+import com.ipn.escom.conversor_sql.core.predicados.CmpOp;
+import com.ipn.escom.conversor_sql.core.predicados.CoreAnd;
+import com.ipn.escom.conversor_sql.core.predicados.CoreBetween;
+import com.ipn.escom.conversor_sql.core.predicados.CoreCmp;
+import com.ipn.escom.conversor_sql.core.predicados.CoreExists;
+import com.ipn.escom.conversor_sql.core.predicados.CoreInList;
+import com.ipn.escom.conversor_sql.core.predicados.CoreInSubselect;
+import com.ipn.escom.conversor_sql.core.predicados.CoreNotExists;
+import com.ipn.escom.conversor_sql.core.predicados.CorePred;
+import com.ipn.escom.conversor_sql.core.proyeccion.CoreProjAll;
+import com.ipn.escom.conversor_sql.core.proyeccion.CoreProjExpr;
+import com.ipn.escom.conversor_sql.core.proyeccion.CoreProjItem;
+import com.ipn.escom.conversor_sql.core.relacionales.CoreAlias;
+import com.ipn.escom.conversor_sql.core.relacionales.CoreJoin;
+import com.ipn.escom.conversor_sql.core.relacionales.CoreProject;
+import com.ipn.escom.conversor_sql.core.relacionales.CoreRel;
+import com.ipn.escom.conversor_sql.core.relacionales.CoreSelect;
+import com.ipn.escom.conversor_sql.core.relacionales.CoreTable;
+import com.ipn.escom.conversor_sql.core.relacionales.CoreUnion;
+import com.ipn.escom.conversor_sql.core.subselect.CoreSubselect;
+import com.ipn.escom.conversor_sql.models.Column;
+import com.ipn.escom.conversor_sql.models.ForeignKeyInfo;
+import com.ipn.escom.conversor_sql.models.RelationalTable;
+import com.ipn.escom.conversor_sql.validation.schema.SchemaBuilder;
+import com.ipn.escom.conversor_sql.validation.schema.SchemaIndex;
+
+/**
+ * Texto y orden exactos de los mensajes de {@link CoreInvariants}: los mismos
+ * que daban los recorridos separados (NodeInvariants, SchemaGuards y
+ * PredicateInvariants) antes de fusionarse en {@link FusedInvariants}.
+ * <p>
+ * Las ramas "no soportado" de nodos, predicados, expresiones e items no se
+ * alcanzan: las cuatro interfaces son sealed y todos sus tipos se atienden.
+ */
+class CoreInvariantsTest {
+
+	private static final SchemaIndex SCHEMA = SchemaBuilder.build(List.of(
+			new RelationalTable("depto", List.of(
+					new Column("id_depto", "int", true, null),
+					new Column("depto", "varchar(20)", null, null))),
+			new RelationalTable("emp", List.of(
+					new Column("id_emp", "int", true, null),
+					new Column("nombre", "varchar(20)", null, null),
+					new Column("id_depto", "int", null, new ForeignKeyInfo("depto", "id_depto"))))));
+
+	private static final CoreRel EMP = new CoreTable("emp");
+	private static final CoreRel DEPTO = new CoreTable("depto");
+
+	/** "DETALLE: contenido" de cada mensaje, en orden. */
+	private static List<String> validate(CoreRel root) {
+		return new CoreInvariants(new SchemaGuards(SCHEMA)).validate(root).getMensajes().stream()
+				.map(m -> m.getTipoDetallado() + ": " + m.getContenido())
+				.toList();
+	}
+
+	private static CoreExpr col(String rel, String name) {
+		return new CoreColumnRef(rel, name);
+	}
+
+	private static CorePred eq(CoreExpr l, CoreExpr r) {
+		return new CoreCmp(l, CmpOp.EQ, r);
+	}
+
+	private static CoreExpr num(String n) {
+		return new CoreNumber(n);
+	}
+
+	private static CoreExpr str(String s) {
+		return new CoreString(s);
+	}
+
+	private static List<CoreProjItem> items(CoreExpr... exprs) {
+		return Arrays.stream(exprs).<CoreProjItem>map(e -> new CoreProjExpr(e, null)).toList();
+	}
+
+	@Test
+	void validTreeHasNoMessages() {
+		CoreRel join = new CoreJoin(new CoreAlias(EMP, "e"), DEPTO, eq(col("e", "id_depto"), col("depto", "id_depto")));
+		assertEquals(List.of(), validate(new CoreProject(new CoreSelect(join, eq(col(null, "nombre"), str("x"))),
+				items(col("e", "nombre"), col(null, "depto")))));
+	}
+
+	@Test
+	void bucketsInOrderAndColumnsAndTypesInPreorder() {
+		// π[p1, depto.p2](σ[emp.s1 = 1 AND 'a' < 2 AND 1 IN ('a', 'b') AND id_emp IN ()](emp ⋈[j1 = 's' AND 1 = 'x'] nada))
+		CoreRel join = new CoreJoin(EMP, new CoreTable("nada"),
+				new CoreAnd(eq(col(null, "j1"), str("s")), eq(num("1"), str("x"))));
+		CorePred where = new CoreAnd(
+				new CoreAnd(eq(col("emp", "s1"), num("1")), new CoreCmp(str("a"), CmpOp.LT, num("2"))),
+				new CoreAnd(new CoreInList(num("1"), List.of(str("a"), str("b"))),
+						new CoreInList(col(null, "id_emp"), List.of())));
+		CoreRel root = new CoreProject(new CoreSelect(join, where), items(col(null, "p1"), col("depto", "p2")));
+
+		assertEquals(List.of(
+				"ERROR_LOGICO: IN (...) no puede estar vacío.",
+				"ERROR_LOGICO: Tabla no encontrada en esquema: nada",
+				// π antes que σ y σ antes que ⋈, aunque el recorrido vuelva de abajo hacia arriba
+				"ERROR_LOGICO: Columna no encontrada: p1",
+				"ERROR_LOGICO: Columna no encontrada: depto.p2",
+				"ERROR_LOGICO: Columna no encontrada: emp.s1",
+				"ERROR_LOGICO: Columna no encontrada: j1",
+				"ERROR_LOGICO: Comparación incompatible: STRING LT NUMBER",
+				// una sola vez por lista
+				"ERROR_LOGICO: IN lista con tipos incompatibles: NUMBER vs STRING",
+				"ERROR_LOGICO: Comparación incompatible: NUMBER EQ STRING"), validate(root));
+	}
+
+	@Test
+	void nestedSelectsKeepPreorder() {
+		// σ[a1 = 'x' AND 1 = 'a'](σ[b1 = 'y' AND 'b' = 2](σ[c1 = NULL](emp)))
+		CoreRel inner = new CoreSelect(EMP, eq(col(null, "c1"), new CoreNull()));
+		CoreRel mid = new CoreSelect(inner, new CoreAnd(eq(col(null, "b1"), str("y")), eq(str("b"), num("2"))));
+		CoreRel top = new CoreSelect(mid, new CoreAnd(eq(col(null, "a1"), str("x")), eq(num("1"), str("a"))));
+
+		assertEquals(List.of(
+				"ERROR_LOGICO: Columna no encontrada: a1",
+				"ERROR_LOGICO: Columna no encontrada: b1",
+				"ERROR_LOGICO: Columna no encontrada: c1",
+				"ERROR_LOGICO: Comparación incompatible: NUMBER EQ STRING",
+				"ERROR_LOGICO: Comparación incompatible: STRING EQ NUMBER"), validate(top));
+	}
+
+	@Test
+	void aliasHidesTableNameAndSkipsTypeChecks() {
+		// Bajo el alias se validan columnas pero no tipos
+		CoreRel aliased = new CoreAlias(new CoreSelect(EMP, new CoreAnd(eq(str("a"), num("1")), eq(col(null, "x"), num("1")))), "e");
+		CoreRel root = new CoreSelect(new CoreProject(aliased, items(col("e", "nombre"), col("emp", "nombre"))),
+				new CoreBetween(num("5"), str("a"), num("9")));
+
+		assertEquals(List.of(
+				"ERROR_LOGICO: Columna no encontrada: emp.nombre",
+				"ERROR_LOGICO: Columna no encontrada: x",
+				"ERROR_LOGICO: BETWEEN con tipos incompatibles: NUMBER entre STRING y NUMBER"), validate(root));
+	}
+
+	@Test
+	void ambiguityAndSetOperations() {
+		CoreRel join = new CoreJoin(EMP, DEPTO, eq(col(null, "id_depto"), col("depto", "id_depto")));
+		// Cada rama del ∪ con su propia visibilidad
+		CoreRel root = new CoreUnion(new CoreProject(join, items(col(null, "nombre"))),
+				new CoreProject(DEPTO, items(col(null, "nombre"))));
+
+		assertEquals(List.of(
+				"ERROR_LOGICO: Columna ambigua: id_depto en [emp, depto]",
+				"ERROR_LOGICO: Columna no encontrada: nombre"), validate(root));
+	}
+
+	@Test
+	void subselectsOnlyGetStructuralChecks() {
+		// Subselect sin esquema: ni tablas, ni columnas, ni tipos; solo estructura
+		CoreRel from = new CoreJoin(new CoreAlias(new CoreTable("fantasma"), " "), new CoreTable(""),
+				eq(str("a"), num("1")));
+		CoreSubselect bad = new CoreSubselect(from, new CoreProjAll(),
+				new CoreExists(new CoreSubselect(DEPTO, new CoreProjExpr(col(null, "depto"), null), null)));
+		CoreSubselect ok = new CoreSubselect(new CoreTable("otra"), new CoreProjExpr(col(null, "q"), null),
+				eq(col(null, "q"), str("1")));
+		CoreRel root = new CoreSelect(EMP, new CoreAnd(new CoreInSubselect(col(null, "zz"), bad), new CoreNotExists(ok)));
+
+		assertEquals(List.of(
+				"ERROR_LOGICO: El subselect debe proyectar exactamente una columna/expresión.",
+				"ERROR_SINTAXIS: Alias vacío en CoreAlias.",
+				"ERROR_SINTAXIS: Nombre de tabla vacío.",
+				"ERROR_LOGICO: El WHERE interno del subselect no puede contener subconsultas.",
+				"ADVERTENCIA: NOT EXISTS será rechazado en normalización (anti-join no implementado).",
+				// El lado izquierdo del IN sí es del ámbito exterior
+				"ERROR_LOGICO: Columna no encontrada: zz"), validate(root));
+	}
+
+	@Test
+	void structuralMessagesFollowTheWalk() {
+		CoreSubselect sub = new CoreSubselect(DEPTO, new CoreProjExpr(col(null, "id_depto"), null), null);
+		CoreRel join = new CoreJoin(new CoreAlias(EMP, ""), new CoreSelect(DEPTO, null),
+				new CoreAnd(new CoreExists(sub), eq(col(null, " "), new CoreNumber(""))));
+
+		assertEquals(List.of(
+				"ERROR_LOGICO: La proyección no puede estar vacía",
+				"ERROR_SINTAXIS: Alias vacío en CoreAlias.",
+				"ADVERTENCIA: Predicado nulo (se interpretará como TRUE).",
+				"ERROR_LOGICO: Subconsultas solo se permiten en WHERE externo, no en ON.",
+				"ERROR_SINTAXIS: Referencia a columna sin nombre.",
+				"ERROR_SINTAXIS: Número vacío.",
+				"ERROR_LOGICO: Columna no encontrada:  "), validate(new CoreProject(join, List.of())));
+	}
+}
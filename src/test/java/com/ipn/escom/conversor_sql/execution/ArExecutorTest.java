@@ -0,0 +1,269 @@
+package com.ipn.escom.conversor_sql.execution;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.ipn.escom.conversor_sql.ar.expresiones.ArArith;
+import com.ipn.escom.conversor_sql.ar.expresiones.ArArithOp;
+import com.ipn.escom.conversor_sql.ar.expresiones.ArCol;
+import com.ipn.escom.conversor_sql.ar.expresiones.ArConst;
+import com.ipn.escom.conversor_sql.ar.predicados.ArCmp;
+import com.ipn.escom.conversor_sql.ar.predicados.ArCmpOp;
+import com.ipn.escom.conversor_sql.ar.predicados.ArNot;
+import com.ipn.escom.conversor_sql.ar.predicados.ArPredInterface;
+import com.ipn.escom.conversor_sql.ar.proyeccion.ArProjExpr;
+import com.ipn.escom.conversor_sql.ar.proyeccion.ArProjItem;
+import com.ipn.escom.conversor_sql.ar.relacionales.ArBase;
+import com.ipn.escom.conversor_sql.ar.relacionales.ArExcept;
+import com.ipn.escom.conversor_sql.ar.relacionales.ArJoin;
+import com.ipn.escom.conversor_sql.ar.relacionales.ArNaturalJoin;
+import com.ipn.escom.conversor_sql.ar.relacionales.ArProduct;
+import com.ipn.escom.conversor_sql.ar.relacionales.ArProject;
+import com.ipn.escom.conversor_sql.ar.relacionales.ArRel;
+import com.ipn.escom.conversor_sql.ar.relacionales.ArRename;
+import com.ipn.escom.conversor_sql.ar.relacionales.ArSelect;
+import com.ipn.escom.conversor_sql.ar.relacionales.ArUnion;
+import com.ipn.escom.conversor_sql.models.Column;
+import com.ipn.escom.conversor_sql.models.ForeignKeyInfo;
+import com.ipn.escom.conversor_sql.models.RelationalTable;
+import com.ipn.escom.conversor_sql.validation.schema.SchemaBuilder;
+import com.ipn.escom.conversor_sql.validation.schema.SchemaIndex;
+
+/**
+ * Planes de AR completos sobre {@link TableData}, pasando por
+ * {@link ArExecutor#execute}: encabezados, tuplas, truncado y topes.
+ */
+class ArExecutorTest {
+
+	private static final SchemaIndex SCHEMA = SchemaBuilder.build(List.of(
+			new RelationalTable("depto", List.of(
+					new Column("id_depto", "int", true, null),
+					new Column("depto", "varchar(20)", null, null))),
+			new RelationalTable("emp", List.of(
+					new Column("id_emp", "int", true, null),
+					new Column("nombre", "varchar(20)", null, null),
+					new Column("id_depto", "int", null, new ForeignKeyInfo("depto", "id_depto")),
+					new Column("sueldo", "decimal(10,2)", null, null)))));
+
+	private static final ArRel EMP = new ArBase("emp");
+	private static final ArRel DEPTO = new ArBase("depto");
+
+	/** 3 departamentos; 6 empleados, uno sin departamento y dos sin sueldo; dos se llaman "ana". */
+	private static TableData data() {
+		return TableData.of(SCHEMA, Map.of(
+				"depto", List.of(
+						List.of(1, "ventas"),
+						List.of(2, "sistemas"),
+						List.of(3, "vacío")),
+				"emp", List.of(
+						row(1, "ana", 1, "100.50"),
+						row(2, "luis", 1, 90),
+						row(3, "ana", 2, null),
+						row(4, "eva", 2, 300),
+						row(5, "sol", null, 120),
+						row(6, "raúl", 1, null))),
+				1_000);
+	}
+
+	private static List<Object> row(Object... values) {
+		return Arrays.asList(values);
+	}
+
+	private static ExecutionLimits limits(int maxResultRows, long maxExamined, Duration timeout) {
+		return new ExecutionLimits(maxResultRows, maxExamined, timeout, Long.MAX_VALUE);
+	}
+
+	private static ExecutionResult run(ArRel plan) {
+		return new ArExecutor(data(), limits(1_000, 1_000_000, Duration.ofMinutes(1)), Tables.TMP).execute(plan);
+	}
+
+	private static List<String> rows(ExecutionResult r) {
+		return Tables.sorted(r.rows());
+	}
+
+	private static ArCol col(String rel, String name) {
+		return new ArCol(rel, name);
+	}
+
+	private static ArCmp cmp(ArCol c, ArCmpOp op, Object value) {
+		return new ArCmp(c, op, new ArConst(value));
+	}
+
+	private static ArProject project(ArRel in, ArProjItem... items) {
+		return new ArProject(in, List.of(items));
+	}
+
+	private static ArProjExpr item(ArCol c) {
+		return new ArProjExpr(c, null);
+	}
+
+	// --- π ---
+
+	@Test
+	void projectionRemovesDuplicatesAndKeepsColumnNames() {
+		ExecutionResult r = run(project(EMP, item(col(null, "nombre"))));
+		assertEquals(List.of("nombre"), r.columns());
+		assertEquals(List.of("[ana]", "[eva]", "[luis]", "[raúl]", "[sol]"), rows(r));
+		assertFalse(r.truncated());
+	}
+
+	@Test
+	void projectionNamesAliasesAndExpressions() {
+		ArRel plan = project(EMP, item(col("emp", "id_emp")),
+				new ArProjExpr(col(null, "nombre"), "quien"),
+				new ArProjExpr(new ArArith(ArArithOp.MUL, col(null, "sueldo"), new ArConst(new BigDecimal(2))), null));
+		ExecutionResult r = run(new ArSelect(plan, cmp(col(null, "id_emp"), ArCmpOp.LTE, new BigDecimal(2))));
+		assertEquals(List.of("id_emp", "quien", "sueldo * 2"), r.columns());
+		assertEquals(List.of("[1, ana, 201]", "[2, luis, 180]"), rows(r));
+	}
+
+	// --- ρ ---
+
+	@Test
+	void renameOverAScanRequalifiesTheColumns() {
+		ArRel e = new ArRename(EMP, "e");
+		ExecutionResult r = run(project(new ArSelect(e, cmp(col("e", "sueldo"), ArCmpOp.GT, new BigDecimal(100))),
+				item(col("e", "nombre"))));
+		assertEquals(List.of("[ana]", "[eva]", "[sol]"), rows(r));
+
+		// Tras ρ el nombre original ya no califica
+		assertThrows(IllegalArgumentException.class,
+				() -> run(new ArSelect(e, cmp(col("emp", "sueldo"), ArCmpOp.GT, new BigDecimal(100)))));
+	}
+
+	// --- σ ---
+
+	@Test
+	void selectionUsesThreeValuedLogic() {
+		ArPredInterface gt = cmp(col(null, "sueldo"), ArCmpOp.GT, new BigDecimal(100));
+		List<String> ids = rows(run(project(new ArSelect(EMP, gt), item(col(null, "id_emp")))));
+		List<String> notIds = rows(run(project(new ArSelect(EMP, new ArNot(gt)), item(col(null, "id_emp")))));
+		assertEquals(List.of("[1]", "[4]", "[5]"), ids);
+		// NOT de UNKNOWN es UNKNOWN: las filas con sueldo NULL no están en ninguno
+		assertEquals(List.of("[2]"), notIds);
+		// Comparar contra NULL con otro operador es UNKNOWN
+		assertEquals(List.of(), run(new ArSelect(EMP, cmp(col(null, "sueldo"), ArCmpOp.GT, null))).rows());
+	}
+
+	@Test
+	void equalsNullIsIsNull() {
+		ArRel isNull = project(new ArSelect(EMP, cmp(col(null, "sueldo"), ArCmpOp.EQ, null)), item(col(null, "id_emp")));
+		ArRel isNotNull = project(new ArSelect(EMP, cmp(col(null, "sueldo"), ArCmpOp.NEQ, null)),
+				item(col(null, "id_emp")));
+		assertEquals(List.of("[3]", "[6]"), rows(run(isNull)));
+		assertEquals(List.of("[1]", "[2]", "[4]", "[5]"), rows(run(isNotNull)));
+		// También fuera del filtro por lotes (σ sobre un π)
+		ArRel overProject = new ArSelect(project(EMP, item(col(null, "id_emp")), item(col(null, "id_depto"))),
+				cmp(col(null, "id_depto"), ArCmpOp.EQ, null));
+		assertEquals(List.of("[5, null]"), rows(run(overProject)));
+	}
+
+	// --- Joins ---
+
+	@Test
+	void selectionOverProductBecomesAHashJoin() {
+		ArRel product = new ArProduct(new ArRename(EMP, "e"), new ArRename(DEPTO, "d"));
+		ArPredInterface eq = new ArCmp(col("e", "id_depto"), ArCmpOp.EQ, col("d", "id_depto"));
+		ExecutionResult viaSelect = run(new ArSelect(product, eq));
+		ExecutionResult viaJoin = run(new ArJoin(new ArRename(EMP, "e"), new ArRename(DEPTO, "d"), eq));
+
+		assertEquals(List.of("id_emp", "nombre", "id_depto", "sueldo", "id_depto", "depto"), viaSelect.columns());
+		assertEquals(rows(viaJoin), rows(viaSelect));
+		assertEquals(5, viaSelect.rows().size());
+		// Por hash no se compara cada par: 9 lecturas y 5 coincidencias, no 6 × 3 pares
+		assertTrue(viaSelect.rowsExamined() < 6 * 3, "examinadas: " + viaSelect.rowsExamined());
+
+		// Sin igualdades es un producto filtrado, y cada par cuenta
+		ExecutionResult theta = run(project(
+				new ArSelect(product, new ArCmp(col("e", "id_depto"), ArCmpOp.GT, col("d", "id_depto"))),
+				item(col("e", "id_emp")), item(col("d", "id_depto"))));
+		assertEquals(List.of("[3, 1]", "[4, 1]"), rows(theta));
+		assertTrue(theta.rowsExamined() >= 6 * 3, "examinadas: " + theta.rowsExamined());
+	}
+
+	@Test
+	void naturalJoinKeepsOneCopyOfTheCommonColumn() {
+		ExecutionResult r = run(new ArNaturalJoin(EMP, DEPTO));
+		assertEquals(List.of("id_emp", "nombre", "id_depto", "sueldo", "depto"), r.columns());
+		assertEquals(List.of("[1, ana, 1, 100.5, ventas]", "[2, luis, 1, 90, ventas]", "[3, ana, 2, null, sistemas]",
+				"[4, eva, 2, 300, sistemas]", "[6, raúl, 1, null, ventas]"), rows(r));
+
+		// La columna común se puede pedir calificada con cualquiera de los dos lados
+		ExecutionResult viaRight = run(project(new ArNaturalJoin(EMP, DEPTO), item(col("depto", "id_depto"))));
+		ExecutionResult viaLeft = run(project(new ArNaturalJoin(EMP, DEPTO), item(col("emp", "id_depto"))));
+		assertEquals(List.of("[1]", "[2]"), rows(viaRight));
+		assertEquals(rows(viaLeft), rows(viaRight));
+	}
+
+	@Test
+	void naturalJoinWithoutCommonColumnsIsAProduct() {
+		ArRel names = project(EMP, item(col(null, "nombre")));
+		ExecutionResult r = run(new ArNaturalJoin(names, project(DEPTO, item(col(null, "depto")))));
+		assertEquals(List.of("nombre", "depto"), r.columns());
+		assertEquals(5 * 3, r.rows().size());
+	}
+
+	// --- Conjuntos ---
+
+	@Test
+	void setOperationsAreSets() {
+		ArRel deptoEmp = project(EMP, item(col(null, "id_depto")));
+		ArRel deptos = project(DEPTO, item(col(null, "id_depto")));
+		assertEquals(List.of("[1]", "[2]", "[3]", "[null]"), rows(run(new ArUnion(deptoEmp, deptos))));
+		assertEquals(List.of("[3]"), rows(run(new ArExcept(deptos, deptoEmp))));
+	}
+
+	// --- Topes ---
+
+	@Test
+	void resultIsTruncatedAtMaxResultRows() {
+		ArRel ids = project(EMP, item(col(null, "id_emp")));
+		ExecutionResult cut = new ArExecutor(data(), limits(4, 1_000_000, Duration.ofMinutes(1)), Tables.TMP)
+				.execute(ids);
+		assertEquals(4, cut.rows().size());
+		assertTrue(cut.truncated());
+
+		ExecutionResult exact = new ArExecutor(data(), limits(6, 1_000_000, Duration.ofMinutes(1)), Tables.TMP)
+				.execute(ids);
+		assertEquals(6, exact.rows().size());
+		assertFalse(exact.truncated());
+	}
+
+	@Test
+	void tooManyRowsExaminedAborts() {
+		ArRel product = new ArProduct(new ArRename(EMP, "a"), new ArRename(EMP, "b"));
+		ArExecutor executor = new ArExecutor(data(), limits(1_000, 20, Duration.ofMinutes(1)), Tables.TMP);
+		ExecutionLimitException e = assertThrows(ExecutionLimitException.class, () -> executor.execute(product));
+		assertTrue(e.getMessage().contains("20 filas examinadas"), e.getMessage());
+	}
+
+	@Test
+	void timeoutAborts() {
+		List<List<Object>> many = new ArrayList<>();
+		for (int i = 0; i < 3_000; i++)
+			many.add(row(i, "x", null, i));
+		TableData big = TableData.of(SCHEMA, Map.of("emp", many), 10_000);
+		ArExecutor executor = new ArExecutor(big, limits(10_000, Long.MAX_VALUE, Duration.ZERO), Tables.TMP);
+		ExecutionLimitException e = assertThrows(ExecutionLimitException.class, () -> executor.execute(EMP));
+		assertTrue(e.getMessage().contains("tiempo máximo"), e.getMessage());
+	}
+
+	@Test
+	void tableWithoutDataIsEmpty() {
+		TableData none = TableData.of(SCHEMA, null, 10);
+		ExecutionResult r = new ArExecutor(none, limits(10, 10, Duration.ofMinutes(1)), Tables.TMP).execute(DEPTO);
+		assertEquals(List.of("id_depto", "depto"), r.columns());
+		assertEquals(List.of(), r.rows());
+	}
+}
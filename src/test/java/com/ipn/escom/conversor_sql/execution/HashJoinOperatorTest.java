@@ -0,0 +1,93 @@
+package com.ipn.escom.conversor_sql.execution;
+
+import static com.ipn.escom.conversor_sql.execution.Tables.num;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.ipn.escom.conversor_sql.ar.expresiones.ArCol;
+import com.ipn.escom.conversor_sql.ar.predicados.ArCmp;
+import com.ipn.escom.conversor_sql.ar.predicados.ArCmpOp;
+import com.ipn.escom.conversor_sql.ar.predicados.ArPredInterface;
+import com.ipn.escom.conversor_sql.validation.sql.TypeSystem.TypeCategory;
+
+/**
+ * El join por hash, el de mezcla y el de ciclos anidados aplican la misma
+ * regla de igualdad: texto contra número es error, no una llave que no
+ * coincide con nada.
+ */
+class HashJoinOperatorTest {
+
+	private static final String[] A = { "id", "s" };
+	private static final TypeCategory[] A_TYPES = { TypeCategory.NUMERIC, TypeCategory.TEXT };
+	private static final String[] B = { "id", "n" };
+	private static final TypeCategory[] B_TYPES = { TypeCategory.NUMERIC, TypeCategory.NUMERIC };
+
+	private static final ArPredInterface TEXT_EQ_NUMBER = new ArCmp(new ArCol("a", "s"), ArCmpOp.EQ,
+			new ArCol("b", "n"));
+	private static final ArPredInterface NUMBER_EQ_NUMBER = new ArCmp(new ArCol("a", "id"), ArCmpOp.EQ,
+			new ArCol("b", "n"));
+
+	private static List<Object[]> a() {
+		List<Object[]> rows = new ArrayList<>();
+		for (int i = 0; i < 50; i++)
+			rows.add(new Object[] { num(i), (i % 7 == 0) ? null : String.valueOf(i % 10) });
+		return rows;
+	}
+
+	private static List<Object[]> b() {
+		List<Object[]> rows = new ArrayList<>();
+		for (int i = 0; i < 40; i++)
+			rows.add(new Object[] { num(i), (i % 5 == 0) ? null : num(i % 10) });
+		return rows;
+	}
+
+	private static Operator hash(ArPredInterface on, ExecutionContext ctx) {
+		return Tables.hashJoin(Tables.scan("a", A, A_TYPES, a(), ctx), Tables.scan("b", B, B_TYPES, b(), ctx), on, ctx);
+	}
+
+	private static Operator sortMerge(ArPredInterface on, ExecutionContext ctx) {
+		return Tables.sortMergeJoin(Tables.scan("a", A, A_TYPES, a(), ctx), Tables.scan("b", B, B_TYPES, b(), ctx), on,
+				ctx);
+	}
+
+	private static Operator nestedLoop(ArPredInterface on, ExecutionContext ctx) {
+		return Tables.nestedLoopJoin(Tables.scan("a", A, A_TYPES, a(), ctx), Tables.scan("b", B, B_TYPES, b(), ctx), on,
+				ctx);
+	}
+
+	@Test
+	void textAgainstNumberIsAnErrorOnEveryPath() {
+		assertThrows(IllegalArgumentException.class, () -> Tables.drain(nestedLoop(TEXT_EQ_NUMBER, Tables.unlimited())));
+		assertThrows(IllegalArgumentException.class, () -> Tables.drain(hash(TEXT_EQ_NUMBER, Tables.unlimited())));
+		assertThrows(IllegalArgumentException.class, () -> Tables.drain(sortMerge(TEXT_EQ_NUMBER, Tables.unlimited())));
+		// Con presupuesto mínimo el hash pasa a mezcla a media lectura
+		assertThrows(IllegalArgumentException.class, () -> Tables.drain(hash(TEXT_EQ_NUMBER, Tables.context(256))));
+	}
+
+	@Test
+	void textAgainstNumberIsAnErrorWithTheNumberOnTheLeft() {
+		ArPredInterface on = new ArCmp(new ArCol("b", "n"), ArCmpOp.EQ, new ArCol("a", "s"));
+		assertThrows(IllegalArgumentException.class, () -> Tables.drain(hash(on, Tables.unlimited())));
+	}
+
+	@Test
+	void sameTypeKeysMatchTheNestedLoop() {
+		List<String> expected = Tables.sorted(Tables.drain(nestedLoop(NUMBER_EQ_NUMBER, Tables.unlimited())));
+		assertEquals(expected, Tables.sorted(Tables.drain(hash(NUMBER_EQ_NUMBER, Tables.unlimited()))));
+		assertEquals(expected, Tables.sorted(Tables.drain(sortMerge(NUMBER_EQ_NUMBER, Tables.unlimited()))));
+		assertEquals(expected, Tables.sorted(Tables.drain(hash(NUMBER_EQ_NUMBER, Tables.context(256)))));
+	}
+
+	@Test
+	void numericTextIsNotANumber() {
+		Object text = "3";
+		Object number = num(3);
+		assertThrows(IllegalArgumentException.class, () -> Values.compare(text, number));
+		assertThrows(IllegalArgumentException.class, () -> Values.compare(number, text));
+	}
+}
@@ -0,0 +1,137 @@
+package com.ipn.escom.conversor_sql.execution;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.ipn.escom.conversor_sql.ar.expresiones.ArArith;
+import com.ipn.escom.conversor_sql.ar.expresiones.ArArithOp;
+import com.ipn.escom.conversor_sql.ar.expresiones.ArCol;
+import com.ipn.escom.conversor_sql.ar.expresiones.ArConst;
+import com.ipn.escom.conversor_sql.ar.expresiones.ArExprInterface;
+import com.ipn.escom.conversor_sql.ar.predicados.ArAnd;
+import com.ipn.escom.conversor_sql.ar.predicados.ArCmp;
+import com.ipn.escom.conversor_sql.ar.predicados.ArCmpOp;
+import com.ipn.escom.conversor_sql.ar.predicados.ArNot;
+import com.ipn.escom.conversor_sql.ar.predicados.ArOr;
+import com.ipn.escom.conversor_sql.ar.predicados.ArPredInterface;
+import com.ipn.escom.conversor_sql.validation.sql.TypeSystem.TypeCategory;
+
+/**
+ * El join por hash (y su paso a mezcla cuando no cabe) contra ciclos anidados
+ * sobre tablas y predicados al azar: con NULL en las llaves, residuos con OR y
+ * NOT, llaves aritméticas, escalas mezcladas y llaves de tipos distintos.
+ */
+class JoinDifferentialTest {
+
+	private static final String[] A = { "id", "x", "s", "d" };
+	private static final String[] B = { "id", "y", "t", "e" };
+	private static final TypeCategory[] TYPES = { TypeCategory.NUMERIC, TypeCategory.NUMERIC, TypeCategory.TEXT,
+			TypeCategory.NUMERIC };
+	private static final String[] WORDS = { "k", "m", "z", "" };
+
+	private static final ArPredInterface[] KEYS = {
+			eq(col("a", "x"), col("b", "y")),
+			eq(col("b", "y"), col("a", "x")),
+			eq(col("a", "s"), col("b", "t")),
+			eq(new ArArith(ArArithOp.ADD, col("a", "x"), new ArConst(BigDecimal.ONE)), col("b", "y")),
+			eq(col("a", "d"), col("b", "e")),
+	};
+
+	private static final ArPredInterface[] RESIDUALS = {
+			new ArCmp(col("a", "id"), ArCmpOp.LT, col("b", "id")),
+			new ArOr(new ArCmp(col("a", "x"), ArCmpOp.GT, new ArConst(new BigDecimal(3))),
+					new ArCmp(col("b", "t"), ArCmpOp.EQ, new ArConst("k"))),
+			new ArNot(eq(col("a", "id"), col("b", "id"))),
+			eq(col("b", "y"), new ArConst(null)),
+			new ArCmp(col("a", "d"), ArCmpOp.GTE, new ArConst(new BigDecimal("0.5"))),
+	};
+
+	private static ArCol col(String rel, String name) {
+		return new ArCol(rel, name);
+	}
+
+	private static ArCmp eq(ArExprInterface l, ArExprInterface r) {
+		return new ArCmp(l, ArCmpOp.EQ, r);
+	}
+
+	private static List<Object[]> table(Random rnd, int rows) {
+		List<Object[]> out = new ArrayList<>(rows);
+		for (int i = 0; i < rows; i++) {
+			Object x = (rnd.nextInt(6) == 0) ? null : BigDecimal.valueOf(rnd.nextInt(8));
+			Object s = (rnd.nextInt(6) == 0) ? null : WORDS[rnd.nextInt(WORDS.length)];
+			// 0.5, 1, 1.25...: la misma llave con distinta escala debe coincidir
+			Object d = (rnd.nextInt(6) == 0) ? null : Values.canonical(BigDecimal.valueOf(rnd.nextInt(12) * 25L, 2));
+			out.add(new Object[] { BigDecimal.valueOf(i), x, s, d });
+		}
+		return out;
+	}
+
+	private static ArPredInterface predicate(Random rnd) {
+		ArPredInterface p = KEYS[rnd.nextInt(KEYS.length)];
+		if (rnd.nextBoolean())
+			p = new ArAnd(p, KEYS[rnd.nextInt(KEYS.length)]);
+		if (rnd.nextBoolean())
+			p = new ArAnd(p, RESIDUALS[rnd.nextInt(RESIDUALS.length)]);
+		if (rnd.nextInt(4) == 0)
+			p = new ArAnd(RESIDUALS[rnd.nextInt(RESIDUALS.length)], p);
+		return p;
+	}
+
+	private static Operator nestedLoop(List<Object[]> a, List<Object[]> b, ArPredInterface on,
+			ExecutionContext ctx) {
+		return Tables.nestedLoopJoin(Tables.scan("a", A, TYPES, a, ctx), Tables.scan("b", B, TYPES, b, ctx), on, ctx);
+	}
+
+	private static Operator hash(List<Object[]> a, List<Object[]> b, ArPredInterface on, ExecutionContext ctx) {
+		return Tables.hashJoin(Tables.scan("a", A, TYPES, a, ctx), Tables.scan("b", B, TYPES, b, ctx), on, ctx);
+	}
+
+	@Test
+	void hashJoinMatchesNestedLoop() {
+		for (int seed = 0; seed < 400; seed++) {
+			Random rnd = new Random(seed);
+			List<Object[]> a = table(rnd, rnd.nextInt(60));
+			List<Object[]> b = table(rnd, rnd.nextInt(60));
+			ArPredInterface on = predicate(rnd);
+			List<String> expected = Tables.sorted(Tables.drain(nestedLoop(a, b, on, Tables.unlimited())));
+			assertEquals(expected, Tables.sorted(Tables.drain(hash(a, b, on, Tables.unlimited()))),
+					"hash, semilla " + seed);
+			// Con 2 KB las entradas no caben y el hash se entrega a mezcla
+			assertEquals(expected, Tables.sorted(Tables.drain(hash(a, b, on, Tables.context(2_048)))),
+					"mezcla, semilla " + seed);
+		}
+	}
+
+	@Test
+	void mixedTypeKeysFailOnBothPaths() {
+		ArPredInterface on = eq(col("a", "s"), col("b", "y"));
+		for (int seed = 0; seed < 50; seed++) {
+			Random rnd = new Random(seed);
+			List<Object[]> a = nonNull(table(rnd, 1 + rnd.nextInt(40)));
+			List<Object[]> b = nonNull(table(rnd, 1 + rnd.nextInt(40)));
+			assertThrows(IllegalArgumentException.class, () -> Tables.drain(nestedLoop(a, b, on, Tables.unlimited())));
+			assertThrows(IllegalArgumentException.class, () -> Tables.drain(hash(a, b, on, Tables.unlimited())));
+			assertThrows(IllegalArgumentException.class, () -> Tables.drain(hash(a, b, on, Tables.context(2_048))));
+		}
+	}
+
+	/** Las tuplas sin NULL, para que toda pareja llegue a compararse. */
+	private static List<Object[]> nonNull(List<Object[]> rows) {
+		List<Object[]> out = new ArrayList<>();
+		for (Object[] r : rows) {
+			Object[] copy = r.clone();
+			for (int i = 0; i < copy.length; i++)
+				if (copy[i] == null)
+					copy[i] = (i == 2) ? "k" : BigDecimal.ONE;
+			out.add(copy);
+		}
+		return out;
+	}
+}
@@ -0,0 +1,119 @@
+package com.ipn.escom.conversor_sql.execution;
+
+import static com.ipn.escom.conversor_sql.execution.Tables.num;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.ipn.escom.conversor_sql.validation.sql.TypeSystem.TypeCategory;
+
+/**
+ * ∪, ∩, − y π con DISTINCT con 20 KB de presupuesto (los conjuntos se parten
+ * en disco) contra el mismo plan sin límite y contra un HashSet.
+ */
+class SetOperatorTest {
+
+	private static final String[] COLUMNS = { "k", "s" };
+	private static final TypeCategory[] TYPES = { TypeCategory.NUMERIC, TypeCategory.TEXT };
+	private static final long TINY = 20 * 1024;
+
+	@TempDir
+	Path dir;
+
+	private final List<ExecutionContext> contexts = new ArrayList<>();
+
+	@AfterEach
+	void noFilesLeft() throws IOException {
+		contexts.forEach(ExecutionContext::closeSpills);
+		try (Stream<Path> files = Files.list(dir)) {
+			assertEquals(0, files.count());
+		}
+	}
+
+	/** Muchas tuplas repetidas, con NULL en las dos columnas. */
+	private static List<Object[]> table(Random rnd, int rows, int distinct) {
+		List<Object[]> out = new ArrayList<>(rows);
+		for (int i = 0; i < rows; i++) {
+			int v = rnd.nextInt(distinct);
+			out.add(new Object[] { (v % 97 == 0) ? null : num(v), (v % 89 == 0) ? null : "valor " + (v % 500) });
+		}
+		return out;
+	}
+
+	private Operator scan(String rel, List<Object[]> rows, ExecutionContext ctx) {
+		return Tables.scan(rel, COLUMNS, TYPES, rows, ctx);
+	}
+
+	private ExecutionContext context(long budget) {
+		ExecutionContext ctx = Tables.context(budget, dir);
+		contexts.add(ctx);
+		return ctx;
+	}
+
+	/** El plan con 20 KB y sin límite; con 20 KB debe escribir a disco. */
+	private List<String> run(Function<ExecutionContext, Operator> plan) {
+		List<String> unlimited = Tables.sorted(Tables.drain(plan.apply(context(Long.MAX_VALUE))));
+		ExecutionContext tiny = context(TINY);
+		List<String> spilled = Tables.sorted(Tables.drain(plan.apply(tiny)));
+		assertEquals(unlimited, spilled);
+		assertTrue(tiny.spilledBytes() > 0, "el conjunto debió partirse en disco");
+		return spilled;
+	}
+
+	private static List<String> reference(List<Object[]> a, List<Object[]> b, String op) {
+		Set<List<Object>> left = new LinkedHashSet<>();
+		a.forEach(r -> left.add(Arrays.asList(r)));
+		Set<List<Object>> right = new LinkedHashSet<>();
+		b.forEach(r -> right.add(Arrays.asList(r)));
+		switch (op) {
+		case "union" -> left.addAll(right);
+		case "intersect" -> left.retainAll(right);
+		case "except" -> left.removeAll(right);
+		default -> {
+		}
+		}
+		List<Object[]> rows = new ArrayList<>();
+		left.forEach(r -> rows.add(r.toArray()));
+		return Tables.sorted(rows);
+	}
+
+	@Test
+	void setOperationsUnderTinyBudget() {
+		Random rnd = new Random(24);
+		List<Object[]> a = table(rnd, 8_000, 3_000);
+		List<Object[]> b = table(rnd, 6_000, 4_000);
+		assertEquals(reference(a, b, "union"), run(ctx -> new SetOperator(SetOperator.Kind.UNION,
+				scan("a", a, ctx), scan("b", b, ctx), ctx)));
+		assertEquals(reference(a, b, "intersect"), run(ctx -> new SetOperator(SetOperator.Kind.INTERSECT,
+				scan("a", a, ctx), scan("b", b, ctx), ctx)));
+		assertEquals(reference(a, b, "except"), run(ctx -> new SetOperator(SetOperator.Kind.EXCEPT,
+				scan("a", a, ctx), scan("b", b, ctx), ctx)));
+	}
+
+	@Test
+	void distinctProjectionUnderTinyBudget() {
+		Random rnd = new Random(7);
+		List<Object[]> a = table(rnd, 10_000, 5_000);
+		RowExpr[] exprs = { row -> row[1], row -> row[0] };
+		Header out = new Header(new String[] { "a", "a" }, new String[] { "s", "k" });
+		List<Object[]> swapped = new ArrayList<>();
+		a.forEach(r -> swapped.add(new Object[] { r[1], r[0] }));
+		assertEquals(reference(swapped, List.of(), "distinct"),
+				run(ctx -> new ProjectOperator(scan("a", a, ctx), exprs, out, true, ctx)));
+	}
+}
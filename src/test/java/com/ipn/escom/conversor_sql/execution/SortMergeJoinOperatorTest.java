@@ -0,0 +1,88 @@
+package com.ipn.escom.conversor_sql.execution;
+
+import static com.ipn.escom.conversor_sql.execution.Tables.num;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.ipn.escom.conversor_sql.ar.expresiones.ArCol;
+import com.ipn.escom.conversor_sql.ar.predicados.ArAnd;
+import com.ipn.escom.conversor_sql.ar.predicados.ArCmp;
+import com.ipn.escom.conversor_sql.ar.predicados.ArCmpOp;
+import com.ipn.escom.conversor_sql.ar.predicados.ArPredInterface;
+import com.ipn.escom.conversor_sql.validation.sql.TypeSystem.TypeCategory;
+
+/**
+ * Con 20 KB de presupuesto el join por hash no cabe, pasa a mezcla y la mezcla
+ * ordena en disco: el resultado debe ser el mismo que sin límite.
+ */
+class SortMergeJoinOperatorTest {
+
+	private static final String[] COLUMNS = { "id", "k", "s" };
+	private static final TypeCategory[] TYPES = { TypeCategory.NUMERIC, TypeCategory.NUMERIC, TypeCategory.TEXT };
+	private static final long TINY = 20 * 1024;
+
+	private static final ArPredInterface ON = new ArAnd(
+			new ArCmp(new ArCol("a", "k"), ArCmpOp.EQ, new ArCol("b", "k")),
+			new ArCmp(new ArCol("a", "id"), ArCmpOp.NEQ, new ArCol("b", "id")));
+
+	@TempDir
+	Path dir;
+
+	private static List<Object[]> table(Random rnd, int rows) {
+		List<Object[]> out = new ArrayList<>(rows);
+		for (int i = 0; i < rows; i++)
+			out.add(new Object[] { num(i), (rnd.nextInt(20) == 0) ? null : num(rnd.nextInt(1_500)),
+					"s" + rnd.nextInt(100) });
+		return out;
+	}
+
+	private static Operator hash(List<Object[]> a, List<Object[]> b, ExecutionContext ctx) {
+		return Tables.hashJoin(Tables.scan("a", COLUMNS, TYPES, a, ctx), Tables.scan("b", COLUMNS, TYPES, b, ctx), ON, ctx);
+	}
+
+	@Test
+	void fallbackUnderTinyBudgetMatchesInMemoryJoin() throws IOException {
+		Random rnd = new Random(23);
+		List<Object[]> a = table(rnd, 6_000);
+		List<Object[]> b = table(rnd, 5_000);
+		List<String> expected = Tables.sorted(Tables.drain(hash(a, b, Tables.unlimited())));
+
+		ExecutionContext tiny = Tables.context(TINY, dir);
+		try {
+			assertEquals(expected, Tables.sorted(Tables.drain(hash(a, b, tiny))));
+			assertTrue(tiny.spilledBytes() > 0, "la mezcla debió escribir corridas a disco");
+		} finally {
+			tiny.closeSpills();
+		}
+		try (Stream<Path> files = Files.list(dir)) {
+			assertEquals(0, files.count());
+		}
+	}
+
+	@Test
+	void sortMergeMatchesHashJoin() {
+		Random rnd = new Random(5);
+		List<Object[]> a = table(rnd, 3_000);
+		List<Object[]> b = table(rnd, 3_000);
+		List<String> expected = Tables.sorted(Tables.drain(hash(a, b, Tables.unlimited())));
+
+		ExecutionContext ctx = Tables.context(TINY, dir);
+		try {
+			assertEquals(expected, Tables.sorted(Tables.drain(Tables.sortMergeJoin(
+					Tables.scan("a", COLUMNS, TYPES, a, ctx), Tables.scan("b", COLUMNS, TYPES, b, ctx), ON, ctx))));
+		} finally {
+			ctx.closeSpills();
+		}
+	}
+}
@@ -0,0 +1,78 @@
+package com.ipn.escom.conversor_sql.execution;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SpillFileTest {
+
+	@TempDir
+	Path dir;
+
+	private static List<Object[]> rows() {
+		List<Object[]> rows = new ArrayList<>();
+		BigInteger huge = BigInteger.TEN.pow(40).add(BigInteger.valueOf(7));
+		rows.add(new Object[] { null, Boolean.TRUE, Boolean.FALSE, "" });
+		rows.add(new Object[] { BigDecimal.valueOf(Long.MAX_VALUE), BigDecimal.valueOf(Long.MIN_VALUE),
+				new BigDecimal("-0.000001"), BigDecimal.ZERO });
+		// No caben en un long: BIG_DECIMAL
+		rows.add(new Object[] { new BigDecimal(huge), new BigDecimal(huge.negate(), 12),
+				new BigDecimal(BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE)),
+				new BigDecimal(BigInteger.valueOf(Long.MIN_VALUE).subtract(BigInteger.ONE), 3) });
+		// Textos más grandes que el buffer de 64 KB, con caracteres de varios bytes
+		rows.add(new Object[] { "ñ".repeat(50_000), "x".repeat(200_000), "€😀", null });
+		for (int i = 0; i < 5_000; i++)
+			rows.add(new Object[] { BigDecimal.valueOf(i, i % 4), "fila " + i, (i % 2 == 0), null });
+		return rows;
+	}
+
+	@Test
+	void rowsComeBackAsWritten() {
+		ExecutionContext ctx = Tables.context(Long.MAX_VALUE, dir);
+		List<Object[]> rows = rows();
+		try (SpillFile f = ctx.newSpillFile()) {
+			for (Object[] r : rows)
+				f.write(r);
+			assertEquals(rows.size(), f.rows());
+			// Dos lectores independientes ven lo mismo
+			SpillFile.Reader a = f.reader();
+			SpillFile.Reader b = f.reader();
+			for (Object[] expected : rows) {
+				assertArrayEquals(expected, a.next());
+				assertArrayEquals(expected, b.next());
+			}
+			assertNull(a.next());
+			assertNull(b.next());
+		}
+		assertTrue(ctx.spilledBytes() > 250_000);
+	}
+
+	@Test
+	void leavesNoFileBehind() throws IOException {
+		ExecutionContext ctx = Tables.context(Long.MAX_VALUE, dir);
+		SpillFile f = ctx.newSpillFile();
+		f.write(new Object[] { BigDecimal.ONE });
+		f.flush();
+		ctx.closeSpills();
+		assertEquals(0, count());
+	}
+
+	private long count() throws IOException {
+		try (Stream<Path> files = Files.list(dir)) {
+			return files.count();
+		}
+	}
+}
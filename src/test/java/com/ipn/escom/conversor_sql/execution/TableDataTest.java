@@ -0,0 +1,108 @@
+package com.ipn.escom.conversor_sql.execution;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.ipn.escom.conversor_sql.models.Column;
+import com.ipn.escom.conversor_sql.models.RelationalTable;
+import com.ipn.escom.conversor_sql.validation.schema.SchemaBuilder;
+import com.ipn.escom.conversor_sql.validation.schema.SchemaIndex;
+
+/** Conversión de los datos de ejemplo a los valores de {@link Values}, y sus errores. */
+class TableDataTest {
+
+	private static final SchemaIndex SCHEMA = SchemaBuilder.build(List.of(
+			new RelationalTable("t", List.of(
+					new Column("n", "decimal(10,2)", true, null),
+					new Column("s", "varchar(10)", null, null),
+					new Column("b", "boolean", null, null),
+					new Column("f", "date", null, null),
+					new Column("x", "blob", null, null)))));
+
+	private static List<Object> row(Object... values) {
+		return Arrays.asList(values);
+	}
+
+	private static TableData of(List<List<Object>> rows) {
+		return TableData.of(SCHEMA, Map.of("t", rows), 100);
+	}
+
+	private static String error(Map<String, List<List<Object>>> datos, long maxRows) {
+		return assertThrows(IllegalArgumentException.class, () -> TableData.of(SCHEMA, datos, maxRows)).getMessage();
+	}
+
+	private static String error(List<Object> row) {
+		return error(Map.of("t", List.of(row)), 100);
+	}
+
+	@Test
+	void valuesAreConvertedByColumnCategory() {
+		TableData d = of(List.of(
+				row(12, 7, "TRUE", "2024-01-31", 3.0),
+				row("0012.50", "hola", false, null, "z"),
+				row(null, null, null, null, null)));
+		ColumnarTable t = d.table("t");
+		assertEquals(3, t.rows());
+		Object[] first = t.row(0);
+		assertEquals(new BigDecimal(12), first[0]);
+		assertEquals("7", first[1]);
+		assertEquals(Boolean.TRUE, first[2]);
+		assertEquals("2024-01-31", first[3]);
+		assertEquals(BigDecimal.valueOf(3), first[4]);
+		// Mismo número con otra escala: la forma canónica
+		assertEquals(new BigDecimal("12.5"), t.row(1)[0]);
+		assertEquals("[null, null, null, null, null]", Arrays.toString(t.row(2)));
+	}
+
+	@Test
+	void headerFollowsDeclarationOrder() {
+		Header h = of(List.of()).header("t", "r");
+		assertEquals(List.of("n", "s", "b", "f", "x"), h.names());
+		assertEquals("r", h.relation(0));
+	}
+
+	@Test
+	void tableWithoutDataIsEmpty() {
+		ColumnarTable t = TableData.of(SCHEMA, null, 10).table("t");
+		assertEquals(0, t.rows());
+		assertEquals(5, t.width());
+	}
+
+	@Test
+	void coercionErrorsNameTheRowAndColumn() {
+		assertEquals("Fila 1 de 't', columna 'n': 'abc' no es numérico.", error(row("abc", null, null, null, null)));
+		assertEquals("Fila 1 de 't', columna 'n': true no es numérico.", error(row(true, null, null, null, null)));
+		assertEquals("Fila 1 de 't', columna 'b': 'sí' no es booleano.", error(row(null, null, "sí", null, null)));
+		assertEquals("Fila 1 de 't', columna 's': [1] no es un valor escalar.",
+				error(row(null, List.of(1), null, null, null)));
+	}
+
+	@Test
+	void shapeErrors() {
+		assertEquals("Fila 2 de 't': se esperaban 5 valores y hay 2.",
+				error(Map.of("t", List.of(row(1, "a", true, null, null), row(1, "a"))), 100));
+		assertEquals("La tabla 'otra' de 'datos' no existe en el esquema.",
+				error(Map.of("otra", List.of()), 100));
+
+		Map<String, List<List<Object>>> twice = new LinkedHashMap<>();
+		twice.put("t", List.of());
+		twice.put("T", List.of());
+		assertEquals("La tabla 'T' aparece más de una vez en 'datos'.", error(twice, 100));
+	}
+
+	@Test
+	void maxInputRowsCountsAllTables() {
+		List<List<Object>> three = List.of(row(1, null, null, null, null), row(2, null, null, null, null),
+				row(3, null, null, null, null));
+		assertEquals(3, TableData.of(SCHEMA, Map.of("t", three), 3).table("t").rows());
+		assertEquals("Los datos tienen más de 2 filas en total.", error(Map.of("t", three), 2));
+	}
+}
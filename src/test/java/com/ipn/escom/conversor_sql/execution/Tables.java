@@ -0,0 +1,86 @@
+package com.ipn.escom.conversor_sql.execution;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.ipn.escom.conversor_sql.ar.predicados.ArPredInterface;
+import com.ipn.escom.conversor_sql.validation.sql.TypeSystem.TypeCategory;
+
+/** Auxiliares de las pruebas del ejecutor: tablas de muestra y lectura de operadores. */
+final class Tables {
+	private Tables() {
+	}
+
+	static final Path TMP = Path.of(System.getProperty("java.io.tmpdir"));
+
+	static ExecutionContext context(long memoryBudgetBytes) {
+		return context(memoryBudgetBytes, TMP);
+	}
+
+	/** Contexto que escribe sus archivos temporales en {@code spillDir}. */
+	static ExecutionContext context(long memoryBudgetBytes, Path spillDir) {
+		return new ExecutionContext(
+				new ExecutionLimits(Integer.MAX_VALUE, Long.MAX_VALUE, Duration.ofMinutes(5), memoryBudgetBytes),
+				spillDir);
+	}
+
+	static ExecutionContext unlimited() {
+		return context(Long.MAX_VALUE);
+	}
+
+	static BigDecimal num(long n) {
+		return BigDecimal.valueOf(n);
+	}
+
+	/** Lectura de una tabla {@code rel} con esas columnas y categorías. */
+	static ColumnarScanOperator scan(String rel, String[] names, TypeCategory[] categories, List<Object[]> rows,
+			ExecutionContext ctx) {
+		String[] rels = new String[names.length];
+		Arrays.fill(rels, rel);
+		return new ColumnarScanOperator(new Header(rels, names), ColumnarTable.of(rows, categories), ctx);
+	}
+
+	/** ⋈ por hash de {@code l} y {@code r} con las llaves de igualdad de {@code on}. */
+	static Operator hashJoin(Operator l, Operator r, ArPredInterface on, ExecutionContext ctx) {
+		JoinKeys keys = JoinKeys.of(on, l.header(), r.header());
+		return new HashJoinOperator(l, r, keys.left(), keys.right(), keys.residualOrNull(), ctx);
+	}
+
+	/** ⋈ por mezcla de {@code l} y {@code r} con las llaves de igualdad de {@code on}. */
+	static Operator sortMergeJoin(Operator l, Operator r, ArPredInterface on, ExecutionContext ctx) {
+		JoinKeys keys = JoinKeys.of(on, l.header(), r.header());
+		return new SortMergeJoinOperator(l, r, keys.left(), keys.right(), keys.residualOrNull(), ctx);
+	}
+
+	/** ⋈ por ciclos anidados: la referencia de los otros dos. */
+	static Operator nestedLoopJoin(Operator l, Operator r, ArPredInterface on, ExecutionContext ctx) {
+		return new NestedLoopJoinOperator(l, r, ExprCompiler.compile(on, l.header().concat(r.header())), ctx);
+	}
+
+	/** Todas las tuplas del operador (lo abre y lo cierra). */
+	static List<Object[]> drain(Operator op) {
+		List<Object[]> out = new ArrayList<>();
+		op.open();
+		try {
+			Object[] row;
+			while ((row = op.next()) != null)
+				out.add(row);
+		} finally {
+			op.close();
+		}
+		return out;
+	}
+
+	/** Las tuplas como texto y ordenadas, para comparar multiconjuntos. */
+	static List<String> sorted(List<Object[]> rows) {
+		List<String> out = new ArrayList<>(rows.size());
+		for (Object[] r : rows)
+			out.add(Arrays.toString(r));
+		out.sort(null);
+		return out;
+	}
+}
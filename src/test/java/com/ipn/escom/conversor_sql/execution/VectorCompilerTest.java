@@ -0,0 +1,138 @@
+package com.ipn.escom.conversor_sql.execution;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.ipn.escom.conversor_sql.ar.expresiones.ArArith;
+import com.ipn.escom.conversor_sql.ar.expresiones.ArArithOp;
+import com.ipn.escom.conversor_sql.ar.expresiones.ArCol;
+import com.ipn.escom.conversor_sql.ar.expresiones.ArConst;
+import com.ipn.escom.conversor_sql.ar.expresiones.ArExprInterface;
+import com.ipn.escom.conversor_sql.ar.predicados.ArAnd;
+import com.ipn.escom.conversor_sql.ar.predicados.ArCmp;
+import com.ipn.escom.conversor_sql.ar.predicados.ArCmpOp;
+import com.ipn.escom.conversor_sql.ar.predicados.ArNot;
+import com.ipn.escom.conversor_sql.ar.predicados.ArOr;
+import com.ipn.escom.conversor_sql.ar.predicados.ArPredInterface;
+import com.ipn.escom.conversor_sql.validation.sql.TypeSystem.TypeCategory;
+
+/**
+ * σ por lotes ({@link VectorCompiler}) contra σ tupla por tupla
+ * ({@link ExprCompiler}) sobre tablas y predicados al azar: NULL, NOT,
+ * escalas mezcladas, constantes fuera del rango de long o no enteras a la
+ * escala de la columna, columnas con diccionario y booleanos.
+ */
+class VectorCompilerTest {
+
+	private static final String[] NAMES = { "a", "b", "c", "s", "t", "f" };
+	private static final TypeCategory[] TYPES = { TypeCategory.NUMERIC, TypeCategory.NUMERIC, TypeCategory.NUMERIC,
+			TypeCategory.TEXT, TypeCategory.TEXT, TypeCategory.BOOLEAN };
+	private static final Header HEADER = new Header(new String[] { "x", "x", "x", "x", "x", "x" }, NAMES);
+
+	/** a: enteros; b: hasta 2 decimales; c: valores grandes con escala 0 a 3 (a veces fuera de long). */
+	private static Object number(Random rnd, int column) {
+		if (rnd.nextInt(6) == 0)
+			return null;
+		return switch (column) {
+		case 0 -> BigDecimal.valueOf(rnd.nextInt(21) - 10);
+		case 1 -> Values.canonical(BigDecimal.valueOf(rnd.nextInt(2001) - 1000, rnd.nextInt(3)));
+		default -> (rnd.nextInt(4000) == 0)
+				? BigDecimal.valueOf(Long.MAX_VALUE).add(BigDecimal.valueOf(1 + rnd.nextInt(3)))
+				: Values.canonical(BigDecimal.valueOf(rnd.nextLong() >> (12 + rnd.nextInt(52)), rnd.nextInt(4)));
+		};
+	}
+
+	private static List<Object[]> table(Random rnd, int rows) {
+		List<Object[]> out = new ArrayList<>(rows);
+		for (int i = 0; i < rows; i++)
+			out.add(new Object[] { number(rnd, 0), number(rnd, 1), number(rnd, 2),
+					(rnd.nextInt(6) == 0) ? null : "s" + rnd.nextInt(5),
+					(rnd.nextInt(6) == 0) ? null : String.valueOf(rnd.nextInt(11) - 5),
+					(rnd.nextInt(4) == 0) ? null : rnd.nextBoolean() });
+		return out;
+	}
+
+	private static Object constant(Random rnd) {
+		return switch (rnd.nextInt(9)) {
+		case 0 -> null;
+		case 1 -> "s" + rnd.nextInt(6);
+		case 2 -> String.valueOf(rnd.nextInt(11) - 5);
+		case 3 -> new BigDecimal("9223372036854775808.5");
+		case 4 -> new BigDecimal("-99999999999999999999");
+		case 5 -> (rnd.nextInt(5) == 0) ? Boolean.TRUE : BigDecimal.valueOf(rnd.nextInt(11) - 5);
+		default -> BigDecimal.valueOf(rnd.nextInt(2001) - 1000, rnd.nextInt(4));
+		};
+	}
+
+	private static ArExprInterface expr(Random rnd) {
+		int k = rnd.nextInt(10);
+		if (k < 6)
+			return new ArCol("x", NAMES[rnd.nextInt(NAMES.length)]);
+		if (k < 9)
+			return new ArConst(constant(rnd));
+		return new ArArith(ArArithOp.ADD, new ArCol("x", "a"), new ArConst(BigDecimal.ONE));
+	}
+
+	private static ArPredInterface predicate(Random rnd, int depth) {
+		return switch (rnd.nextInt(depth > 0 ? 6 : 1)) {
+		case 0, 4 -> new ArCmp(expr(rnd), ArCmpOp.values()[rnd.nextInt(ArCmpOp.values().length)], expr(rnd));
+		case 1 -> new ArAnd(predicate(rnd, depth - 1), predicate(rnd, depth - 1));
+		case 2 -> new ArOr(predicate(rnd, depth - 1), predicate(rnd, depth - 1));
+		case 5 -> new ArAnd(predicate(rnd, depth - 1), new ArAnd(predicate(rnd, depth - 1), predicate(rnd, depth - 1)));
+		default -> new ArNot(predicate(rnd, depth - 1));
+		};
+	}
+
+	@Test
+	void batchedFilterSelectsTheSameRowsAsRowFilter() {
+		Random rnd = new Random(25);
+		int compared = 0;
+		int vectorized = 0;
+		for (int i = 0; i < 1_500; i++) {
+			// Hasta dos lotes y medio, para cubrir el último lote incompleto
+			List<Object[]> rows = table(rnd, rnd.nextInt(2_600));
+			ColumnarTable t = ColumnarTable.of(rows, TYPES);
+			ArPredInterface p = predicate(rnd, 3);
+			boolean full = VectorCompiler.compile(p, HEADER, t) != null;
+
+			List<String> byRow;
+			try {
+				byRow = Tables.sorted(Tables.drain(new SelectOperator(
+						new ColumnarScanOperator(HEADER, t, Tables.unlimited()), ExprCompiler.compile(p, HEADER))));
+			} catch (IllegalArgumentException e) {
+				// Solo se vectoriza lo que no puede fallar
+				if (full)
+					fail("el predicado vectorizado falla tupla por tupla: " + p + ": " + e.getMessage());
+				continue;
+			}
+			// Si tupla por tupla no falla, por lotes tampoco (los términos de un AND conservan su orden)
+			List<String> batched = Tables.sorted(
+					Tables.drain(new ColumnarScanOperator(HEADER, t, Tables.unlimited()).filtered(p)));
+			assertEquals(byRow, batched, () -> "predicado " + p);
+			compared++;
+			if (full)
+				vectorized++;
+		}
+		assertTrue(compared > 250, "pocos casos comparados: " + compared);
+		assertTrue(vectorized > 120, "pocos predicados vectorizados: " + vectorized);
+	}
+
+	@Test
+	void columnsUseTheExpectedLayout() {
+		List<Object[]> rows = table(new Random(1), 100);
+		ColumnarTable t = ColumnarTable.of(rows, TYPES);
+		assertInstanceOf(Column.Decimal.class, t.column(0));
+		assertInstanceOf(Column.Decimal.class, t.column(1));
+		assertInstanceOf(Column.Dictionary.class, t.column(3));
+		assertInstanceOf(Column.Objects.class, t.column(5));
+	}
+}
@@ -0,0 +1,107 @@
+package com.ipn.escom.conversor_sql.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.ipn.escom.conversor_sql.models.Column;
+import com.ipn.escom.conversor_sql.models.ExecuteRequest;
+import com.ipn.escom.conversor_sql.models.ExecuteResponse;
+import com.ipn.escom.conversor_sql.models.RelationalTable;
+
+/** De la petición a la respuesta de {@code /api/execute}, y qué error da cada falla. */
+class ExecutionServiceImplTest {
+
+	private static final List<RelationalTable> TABLES = List.of(new RelationalTable("t", List.of(
+			new Column("id", "int", true, null),
+			new Column("s", "varchar(10)", null, null))));
+
+	private static ExecutionServiceImpl service(long maxRowsExamined, Duration timeout, long maxInputRows) {
+		return new ExecutionServiceImpl(1_000, maxRowsExamined, timeout, maxInputRows, DataSize.ofMegabytes(1), "");
+	}
+
+	private static ExecutionServiceImpl service() {
+		return service(1_000_000, Duration.ofMinutes(1), 10_000);
+	}
+
+	private static ExecuteRequest request(String sql, int rows) {
+		List<List<Object>> filas = new ArrayList<>();
+		for (int i = 0; i < rows; i++)
+			filas.add(Arrays.asList(i, (i % 2 == 0) ? "par" : "impar"));
+		ExecuteRequest req = new ExecuteRequest();
+		req.setTables(TABLES);
+		req.setSqlQuery(sql);
+		req.setDatos(Map.of("t", filas));
+		return req;
+	}
+
+	private static ResponseStatusException fails(ExecutionServiceImpl service, ExecuteRequest req) {
+		return assertThrows(ResponseStatusException.class, () -> service.ejecutar(req, null));
+	}
+
+	@Test
+	void executesAndTruncatesAtMaxFilas() {
+		ExecuteRequest req = request("SELECT DISTINCT s FROM t", 5);
+		ExecuteResponse out = service().ejecutar(req, null);
+		assertEquals("π[s](t)", out.getAlgebraRelacional());
+		assertEquals(List.of("s"), out.getColumnas());
+		assertEquals(2, out.getFilas().size());
+		assertFalse(out.isTruncado());
+
+		req.setMaxFilas(1);
+		out = service().ejecutar(req, null);
+		assertEquals(1, out.getFilas().size());
+		assertTrue(out.isTruncado());
+	}
+
+	@Test
+	void tooManyRowsExaminedIs422() {
+		ResponseStatusException e = fails(service(100, Duration.ofMinutes(1), 10_000),
+				request("SELECT a.id FROM t a, t b", 20));
+		assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, e.getStatusCode());
+		assertTrue(e.getReason().contains("100 filas examinadas"), e.getReason());
+	}
+
+	@Test
+	void timeoutIs422() {
+		ResponseStatusException e = fails(service(Long.MAX_VALUE, Duration.ZERO, 10_000),
+				request("SELECT a.id FROM t a, t b", 100));
+		assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, e.getStatusCode());
+		assertTrue(e.getReason().contains("tiempo máximo"), e.getReason());
+	}
+
+	@Test
+	void invalidQueryIs422() {
+		ResponseStatusException e = fails(service(), request("SELECT nada FROM t", 1));
+		assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, e.getStatusCode());
+		assertTrue(e.getReason().startsWith("Validación falló"), e.getReason());
+	}
+
+	@Test
+	void badDataIs400() {
+		ExecuteRequest req = request("SELECT id FROM t", 0);
+		req.setDatos(Map.of("t", List.of(Arrays.asList("uno", "x"))));
+		ResponseStatusException e = fails(service(), req);
+		assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+		assertEquals("Fila 1 de 't', columna 'id': 'uno' no es numérico.", e.getReason());
+	}
+
+	@Test
+	void tooManyInputRowsIs400() {
+		ResponseStatusException e = fails(service(1_000_000, Duration.ofMinutes(1), 3), request("SELECT id FROM t", 4));
+		assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+		assertEquals("Los datos tienen más de 3 filas en total.", e.getReason());
+	}
+}
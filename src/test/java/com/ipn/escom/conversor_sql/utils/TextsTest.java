@@ -0,0 +1,29 @@
+package com.ipn.escom.conversor_sql.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.junit.jupiter.api.Test;
+
+class TextsTest {
+
+	@Test
+	void collapsesWhitespaceOutsideLiterals() {
+		assertEquals("SELECT a FROM t WHERE s = 'x  y'", Texts.normalizeSql("  SELECT  a\n\tFROM t WHERE s = 'x  y' "));
+	}
+
+	@Test
+	void quotesInsideBlockCommentsDoNotOpenLiterals() {
+		assertNotEquals(Texts.normalizeSql("SELECT a FROM t /*'*/ WHERE s = 'x  y' /*'*/"),
+				Texts.normalizeSql("SELECT a FROM t /*'*/ WHERE s = 'x y' /*'*/"));
+		assertNotEquals(Texts.normalizeSql("SELECT a FROM t /*/ ' */ WHERE s = 'x  y'"),
+				Texts.normalizeSql("SELECT a FROM t /*/ ' */ WHERE s = 'x y'"));
+	}
+
+	@Test
+	void backslashesKeepTheRawText() {
+		String sql = "SELECT a FROM t WHERE s = 'C:\\'  AND b = 'x  y'";
+		assertEquals(sql, Texts.normalizeSql(sql));
+		assertNotEquals(Texts.normalizeSql(sql), Texts.normalizeSql("SELECT a FROM t WHERE s = 'C:\\' AND b = 'x y'"));
+	}
+}
@@ -0,0 +1,171 @@
+package com.ipn.escom.conversor_sql.validation.schema;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.ipn.escom.conversor_sql.models.Column;
+import com.ipn.escom.conversor_sql.models.RelationalTable;
+import com.ipn.escom.conversor_sql.models.ValidationMessage;
+
+/**
+ * De script DDL a tablas: PK y FK en línea, como restricción de tabla y por
+ * {@code ALTER TABLE ... ADD}, con volcados al estilo de mysqldump y pg_dump.
+ * Las tablas se comparan en una línea cada una:
+ * {@code tabla(col tipo [PK] [-> ref.col], ...)}.
+ */
+class DdlImporterTest {
+
+	private static DdlImporter.Importacion importar(String script) throws IOException {
+		return DdlImporter.importar(new StringReader(script));
+	}
+
+	private static List<String> tables(DdlImporter.Importacion imp) {
+		List<String> out = new ArrayList<>();
+		for (RelationalTable t : imp.tables()) {
+			List<String> cols = new ArrayList<>();
+			for (Column c : t.getColumns()) {
+				String s = c.getName() + " " + c.getType();
+				if (Boolean.TRUE.equals(c.getPrimaryKey()))
+					s += " PK";
+				if (c.getForeignKey() != null)
+					s += " -> " + c.getForeignKey().getReferencedTable() + "." + c.getForeignKey().getReferencedColumn();
+				cols.add(s);
+			}
+			out.add(t.getName() + "(" + String.join(", ", cols) + ")");
+		}
+		return out;
+	}
+
+	private static List<String> avisos(DdlImporter.Importacion imp) {
+		return imp.avisos().getMensajes().stream().map(ValidationMessage::getContenido).toList();
+	}
+
+	@Test
+	void mysqlDump() throws IOException {
+		DdlImporter.Importacion imp = importar("""
+				-- MySQL dump 10.13
+				/*!40101 SET NAMES utf8mb4 */;
+				DROP TABLE IF EXISTS `usuario`;
+				CREATE TABLE `usuario` (
+				  `id_usuario` int NOT NULL AUTO_INCREMENT,
+				  `nombre` varchar(50) DEFAULT NULL,
+				  PRIMARY KEY (`id_usuario`)
+				) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+				LOCK TABLES `usuario` WRITE;
+				INSERT INTO `usuario` VALUES (1,'O\\'Hara; sí'),(2,'b');
+				UNLOCK TABLES;
+				CREATE TABLE `pedido` (
+				  `id_pedido` int NOT NULL,
+				  `id_usuario` int,
+				  `total` decimal(10,2),
+				  PRIMARY KEY (`id_pedido`),
+				  CONSTRAINT `fk_u` FOREIGN KEY (`id_usuario`) REFERENCES `usuario` (`id_usuario`)
+				);
+				""");
+		assertEquals(List.of("usuario(id_usuario int PK, nombre varchar(50))",
+				"pedido(id_pedido int PK, id_usuario int -> usuario.id_usuario, total decimal(10,2))"), tables(imp));
+		assertEquals(List.of(), avisos(imp));
+	}
+
+	@Test
+	void pgDumpWithAlterTableKeys() throws IOException {
+		DdlImporter.Importacion imp = importar("""
+				SET standard_conforming_strings = on;
+				SET search_path = public;
+				CREATE TABLE public.cliente (
+				    id integer NOT NULL,
+				    ruta character varying(20) DEFAULT 'C:\\'::character varying
+				);
+				CREATE TABLE public.linea (
+				    pedido integer NOT NULL,
+				    renglon integer NOT NULL,
+				    cliente integer
+				);
+				COPY public.cliente (id, ruta) FROM stdin;
+				1\tC:\\\\;
+				\\.
+				ALTER TABLE ONLY public.cliente
+				    ADD CONSTRAINT cliente_pkey PRIMARY KEY (id);
+				ALTER TABLE ONLY public.linea
+				    ADD CONSTRAINT linea_pkey PRIMARY KEY (pedido, renglon);
+				ALTER TABLE ONLY public.linea
+				    ADD CONSTRAINT linea_cliente_fkey FOREIGN KEY (cliente) REFERENCES public.cliente(id);
+				""");
+		assertEquals(List.of("cliente(id integer PK, ruta character varying(20))",
+				"linea(pedido integer PK, renglon integer PK, cliente integer -> cliente.id)"), tables(imp));
+		assertEquals(List.of(), avisos(imp));
+	}
+
+	@Test
+	void inlineKeysAndImplicitReference() throws IOException {
+		DdlImporter.Importacion imp = importar("""
+				CREATE TABLE depto (clave int PRIMARY KEY, nombre varchar(30));
+				CREATE TABLE empleado (
+				  id int PRIMARY KEY,
+				  depto int REFERENCES depto,
+				  jefe int REFERENCES empleado (id),
+				  sueldo decimal(10,2)
+				);
+				""");
+		assertEquals(List.of("depto(clave int PK, nombre varchar(30))",
+				"empleado(id int PK, depto int -> depto.clave, jefe int -> empleado.id, sueldo decimal(10,2))"),
+				tables(imp));
+		assertEquals(List.of(), avisos(imp));
+	}
+
+	@Test
+	void compositeForeignKey() throws IOException {
+		DdlImporter.Importacion imp = importar("""
+				CREATE TABLE a (x int, y int, PRIMARY KEY (x, y));
+				CREATE TABLE b (id int PRIMARY KEY, ax int, ay int, FOREIGN KEY (ax, ay) REFERENCES a (x, y));
+				""");
+		assertEquals(List.of("a(x int PK, y int PK)", "b(id int PK, ax int -> a.x, ay int -> a.y)"), tables(imp));
+	}
+
+	@Test
+	void schemaQualifiedInlineReferenceIsRetriedWithoutTheSchema() throws IOException {
+		DdlImporter.Importacion imp = importar("""
+				CREATE TABLE ventas.cliente (id int PRIMARY KEY);
+				CREATE TABLE ventas.factura (id int PRIMARY KEY, cliente int REFERENCES ventas.cliente (id));
+				""");
+		assertEquals(List.of("cliente(id int PK)", "factura(id int PK, cliente int -> cliente.id)"), tables(imp));
+		assertEquals(List.of(), avisos(imp));
+	}
+
+	@Test
+	void duplicateTableIsKeptForSchemaBuilder() throws IOException {
+		DdlImporter.Importacion imp = importar("""
+				CREATE TABLE t (id int PRIMARY KEY);
+				CREATE TABLE T (otra int);
+				""");
+		assertEquals(List.of("t(id int PK)", "T(otra int)"), tables(imp));
+	}
+
+	@Test
+	void warnings() throws IOException {
+		DdlImporter.Importacion imp = importar("""
+				CREATE TABLE a (id int, PRIMARY KEY (nada));
+				CREATE TABLE b (id int PRIMARY KEY, x int, y int, FOREIGN KEY (x, y) REFERENCES a (id));
+				CREATE TABLE c (id int, FOREIGN KEY (falta) REFERENCES a (id));
+				ALTER TABLE fantasma ADD PRIMARY KEY (id);
+				CREATE TABLE d (id int REFERENCES a);
+				CREATE TABLE esto no es sql;
+				""");
+		assertEquals(List.of(
+				"Sentencia 1: la PK de 'a' usa la columna inexistente 'nada'.",
+				"Sentencia 2: la clave foránea de 'b' tiene 2 columnas pero referencia 1.",
+				"Sentencia 3: la clave foránea de 'c' usa la columna inexistente 'falta'.",
+				"Sentencia 4: ALTER TABLE sobre la tabla 'fantasma', que no se ha creado.",
+				"Sentencia 6: no se pudo interpretar (CREATE TABLE esto no es sql).",
+				"La clave foránea 'd.id' no indica la columna referenciada y 'a' no tiene una PK simple."),
+				avisos(imp));
+		assertEquals(List.of("ADVERTENCIA"),
+				imp.avisos().getMensajes().stream().map(m -> m.getTipo().toUpperCase()).distinct().toList());
+	}
+}
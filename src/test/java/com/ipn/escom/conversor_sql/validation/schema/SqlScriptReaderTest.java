@@ -0,0 +1,69 @@
+package com.ipn.escom.conversor_sql.validation.schema;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class SqlScriptReaderTest {
+
+	@Test
+	void standardConformingStringsCloseAtTheFirstQuote() throws IOException {
+		String dump = """
+				SET standard_conforming_strings = on;
+				CREATE TABLE ruta (dir varchar(10) DEFAULT 'C:\\');
+				INSERT INTO ruta VALUES ('D:\\');
+				CREATE TABLE otra (id int);
+				""";
+		assertEquals(List.of("CREATE TABLE ruta (dir varchar(10) DEFAULT 'C:\\')", "CREATE TABLE otra (id int)"),
+				texts(dump));
+	}
+
+	@Test
+	void escapeStringsKeepBackslashEscapes() throws IOException {
+		String dump = """
+				SET standard_conforming_strings TO 'on';
+				INSERT INTO t VALUES (E'a\\'; b', e'c\\\\', 'it''s; \\');
+				CREATE TABLE otra (id int);
+				""";
+		assertEquals(List.of("CREATE TABLE otra (id int)"), texts(dump));
+	}
+
+	@Test
+	void backslashEscapesByDefaultAndAfterOff() throws IOException {
+		String mysql = """
+				INSERT INTO t VALUES ('it\\'s; ok');
+				CREATE TABLE otra (id int);
+				""";
+		assertEquals(List.of("CREATE TABLE otra (id int)"), texts(mysql));
+		assertEquals(List.of("CREATE TABLE otra (id int)"),
+				texts("SET standard_conforming_strings = on; SET standard_conforming_strings = off;\n" + mysql));
+	}
+
+	@Test
+	void unterminatedStringIsReported() throws IOException {
+		SqlScriptReader reader = new SqlScriptReader(new StringReader("CREATE TABLE a (id int);\nINSERT INTO a VALUES ('x);\n"));
+		while (reader.next() != null) {
+			// se recorre completo
+		}
+		assertEquals(2, reader.cadenaSinCerrar());
+
+		DdlImporter.Importacion imp = DdlImporter.importar(new StringReader("CREATE TABLE a (id int, s varchar(5) DEFAULT 'x);"));
+		assertTrue(imp.avisos().getMensajes().stream().anyMatch(m -> m.getContenido().contains("no se cierra")));
+	}
+
+	private static List<String> texts(String script) throws IOException {
+		SqlScriptReader reader = new SqlScriptReader(new StringReader(script));
+		List<String> out = new ArrayList<>();
+		SqlScriptReader.Sentencia s;
+		while ((s = reader.next()) != null)
+			out.add(s.texto());
+		assertEquals(0, reader.cadenaSinCerrar());
+		return out;
+	}
+}